@@ -0,0 +1,122 @@
+package org.cloudfoundry.promregator.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.cloudfoundry.promregator.fetcher.FetchResult;
+
+import io.prometheus.client.exporter.common.TextFormat;
+
+/**
+ * Generates payloads of scraping targets for the benchmarks. The payloads start with the metrics of the
+ * simulator (see also <code>simulation.text004</code>) and are filled up with metric families as a typical
+ * (Spring Boot / Micrometer) application would expose them, until the requested size is reached.
+ */
+public final class ScrapePayloads {
+	private static final String SIMULATION_TEXT004 = "/org/cloudfoundry/promregator/fetcher/simulation.text004";
+
+	private static final String[] URIS = { "/api/v1/orders", "/api/v1/customers", "/api/v1/products", "/actuator/health", "/login" };
+	private static final String[] METHODS = { "GET", "POST", "PUT", "DELETE" };
+	private static final String[] STATUS = { "200", "201", "400", "404", "500" };
+	private static final double[] BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0 };
+
+	/**
+	 * the formats in which payloads are generated
+	 */
+	public enum Format {
+		TEXT_004(TextFormat.CONTENT_TYPE_004),
+		OPENMETRICS_100(TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+
+		private final String contentType;
+
+		Format(String contentType) {
+			this.contentType = contentType;
+		}
+
+		/**
+		 * @return the content type of the format
+		 */
+		public String getContentType() {
+			return this.contentType;
+		}
+	}
+
+	private ScrapePayloads() {
+		// no instances
+	}
+
+	/**
+	 * @param size the (approximate) size of the payload in bytes
+	 * @param format the format of the payload
+	 * @return the result of a fetch, as if a target had responded with a payload of the requested size
+	 */
+	public static FetchResult createFetchResult(int size, Format format) {
+		return new FetchResult(createPayload(size, format), format.getContentType());
+	}
+
+	/**
+	 * @param size the (approximate) size of the payload in bytes
+	 * @param format the format of the payload
+	 * @return a payload of a target in the requested format
+	 */
+	public static String createPayload(int size, Format format) {
+		final boolean openMetrics = format == Format.OPENMETRICS_100;
+
+		StringBuilder sb = new StringBuilder(size + 1024);
+		sb.append(readSimulationPayload());
+
+		int family = 0;
+		while (sb.length() < size) {
+			appendRequestFamily(sb, family, openMetrics);
+			family++;
+		}
+
+		if (openMetrics) {
+			sb.append("# EOF\n");
+		}
+
+		return sb.toString();
+	}
+
+	private static void appendRequestFamily(StringBuilder sb, int family, boolean openMetrics) {
+		final String name = "http_server_requests_%d_seconds".formatted(family);
+
+		sb.append("# HELP ").append(name).append(" Duration of HTTP server request handling\n");
+		sb.append("# TYPE ").append(name).append(" histogram\n");
+
+		for (String uri : URIS) {
+			for (String method : METHODS) {
+				final String status = STATUS[(uri.length() + method.length() + family) % STATUS.length];
+				final String labels = "method=\"%s\",status=\"%s\",uri=\"%s\"".formatted(method, status, uri);
+
+				long cumulativeCount = 0;
+				for (int i = 0; i < BUCKETS.length; i++) {
+					cumulativeCount += (family + i) % 7;
+					sb.append(name).append("_bucket{").append(labels).append(",le=\"").append(BUCKETS[i]).append("\"} ").append((double) cumulativeCount).append('\n');
+				}
+				sb.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append((double) cumulativeCount).append('\n');
+				sb.append(name).append("_count{").append(labels).append("} ").append((double) cumulativeCount).append('\n');
+				sb.append(name).append("_sum{").append(labels).append("} ").append(cumulativeCount * 0.042).append('\n');
+			}
+		}
+
+		final String counterName = openMetrics ? "logback_events_%d".formatted(family) : "logback_events_%d_total".formatted(family);
+		sb.append("# HELP ").append(counterName).append(" Number of log events that were enabled by the effective log level\n");
+		sb.append("# TYPE ").append(counterName).append(" counter\n");
+		sb.append(counterName).append(openMetrics ? "_total" : "").append("{level=\"info\"} ").append((double) family).append('\n');
+	}
+
+	private static String readSimulationPayload() {
+		try (InputStream is = ScrapePayloads.class.getResourceAsStream(SIMULATION_TEXT004)) {
+			if (is == null) {
+				throw new IllegalStateException("Unable to find resource " + SIMULATION_TEXT004);
+			}
+
+			return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
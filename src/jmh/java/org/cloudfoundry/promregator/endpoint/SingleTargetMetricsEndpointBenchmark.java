@@ -0,0 +1,50 @@
+package org.cloudfoundry.promregator.endpoint;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.promregator.benchmark.ScrapePayloads;
+import org.cloudfoundry.promregator.fetcher.FetchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SingleTargetMetricsEndpointBenchmark {
+
+	@Param({ "10240", "1048576", "20971520" })
+	private int payloadSize;
+
+	@Param
+	private ScrapePayloads.Format format;
+
+	private FetchResult fetchResult;
+
+	private SingleTargetMetricsEndpoint subject;
+
+	@Setup
+	public void setup() {
+		this.fetchResult = ScrapePayloads.createFetchResult(this.payloadSize, this.format);
+
+		// the endpoint is request-scoped; the benchmark only requires its own metrics to be set up
+		this.subject = new SingleTargetMetricsEndpoint();
+		this.subject.setupOwnRequestScopedMetrics();
+	}
+
+	@Benchmark
+	public String mergeInternalMetricsWithFetchResult() {
+		return this.subject.mergeInternalMetricsWithFetchResult(this.fetchResult, "c6f7f2a6-2e0a-4b2c-9b63-3f6d4a0e2c11", "c6f7f2a6-2e0a-4b2c-9b63-3f6d4a0e2c11:0");
+	}
+}
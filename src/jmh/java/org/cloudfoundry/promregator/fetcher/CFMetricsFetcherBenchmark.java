@@ -0,0 +1,40 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CFMetricsFetcherBenchmark {
+
+	@Param({ "text/plain; version=0.0.4; charset=utf-8", "application/openmetrics-text; version=1.0.0; charset=utf-8" })
+	private String contentTypeValue;
+
+	private CFMetricsFetcher subject;
+
+	@Setup
+	public void setup() {
+		CFMetricsFetcherConfig config = new CFMetricsFetcherConfig();
+		this.subject = new CFMetricsFetcher("http://localhost:8080/metrics", "c6f7f2a6-2e0a-4b2c-9b63-3f6d4a0e2c11:0", config, false);
+	}
+
+	@Benchmark
+	public String determineTextFormat() {
+		return this.subject.determineTextFormat(this.contentTypeValue);
+	}
+}
@@ -0,0 +1,56 @@
+package org.cloudfoundry.promregator.rewrite;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+
+/**
+ * Note that the rewriter only processes Promregator's own (request-scoped) metrics; its cost
+ * therefore does not depend on the size of the payload of the target.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenericMetricFamilySamplesPrefixRewriterBenchmark {
+
+	private final GenericMetricFamilySamplesPrefixRewriter subject = new GenericMetricFamilySamplesPrefixRewriter("promregator");
+
+	private CollectorRegistry requestRegistry;
+
+	@Setup
+	public void setup() {
+		// same metrics as registered by SingleTargetMetricsEndpoint
+		this.requestRegistry = new CollectorRegistry();
+
+		Gauge up = Gauge.build("promregator_up", "Indicator, whether the target of promregator is available")
+				.register(this.requestRegistry);
+		up.set(1.0);
+
+		Gauge scrapeDuration = Gauge.build("promregator_scrape_duration_seconds", "Duration in seconds indicating how long scraping of all metrics took")
+				.unit("seconds")
+				.register(this.requestRegistry);
+		scrapeDuration.set(0.042);
+	}
+
+	@Benchmark
+	public HashMap<String, MetricFamilySamples> determineEnumerationOfMetricFamilySamples() {
+		return this.subject.determineEnumerationOfMetricFamilySamples(this.requestRegistry);
+	}
+}
@@ -0,0 +1,53 @@
+package org.cloudfoundry.promregator.rewrite;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.promregator.benchmark.ScrapePayloads;
+import org.cloudfoundry.promregator.fetcher.FetchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricSetMergerBenchmark {
+
+	private static final String OWN_METRICS = """
+			# HELP promregator_up Indicator, whether the target of promregator is available
+			# TYPE promregator_up gauge
+			promregator_up 1.0
+			# HELP promregator_scrape_duration_seconds Duration in seconds indicating how long scraping of all metrics took
+			# TYPE promregator_scrape_duration_seconds gauge
+			promregator_scrape_duration_seconds 0.042
+			""";
+
+	@Param({ "10240", "1048576", "20971520" })
+	private int payloadSize;
+
+	@Param
+	private ScrapePayloads.Format format;
+
+	private FetchResult fetchResult;
+
+	@Setup
+	public void setup() {
+		this.fetchResult = ScrapePayloads.createFetchResult(this.payloadSize, this.format);
+	}
+
+	@Benchmark
+	public String merge() {
+		return new MetricSetMerger(this.fetchResult, OWN_METRICS).merge();
+	}
+}
@@ -0,0 +1,73 @@
+package org.cloudfoundry.promregator.scanner;
+
+import static org.cloudfoundry.promregator.cfaccessor.CFAccessorMassMock.UNITTEST_APP_UUID_PREFIX;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorMassMock;
+import org.cloudfoundry.promregator.config.Target;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Scan time of the {@link ReactiveAppInstanceScanner} against the number of targets.
+ * Each request to the (mocked) CF API takes up to 250ms; thus, the scan time is dominated by the latency
+ * of the lookups and by how many targets are resolved concurrently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ReactiveAppInstanceScannerBenchmark {
+
+	@Param({ "10", "50", "100" })
+	private int numberOfTargets;
+
+	@Param({ "8", "32" })
+	private int maxConcurrency;
+
+	private ReactiveAppInstanceScanner scanner;
+
+	private List<ResolvedTarget> targets;
+
+	@Setup
+	public void setup() {
+		this.scanner = new ReactiveAppInstanceScanner();
+		ReflectionTestUtils.setField(this.scanner, "cfAccessor", new CFAccessorMassMock(10));
+		ReflectionTestUtils.setField(this.scanner, "maxConcurrency", this.maxConcurrency);
+		ReflectionTestUtils.setField(this.scanner, "defaultInternalRoutePort", 8080);
+
+		final Target emptyTarget = new Target();
+		this.targets = new ArrayList<>(this.numberOfTargets);
+		for (int i = 0; i < this.numberOfTargets; i++) {
+			ResolvedTarget t = new ResolvedTarget();
+			t.setOrgName("unittestorg");
+			t.setSpaceName("unittestspace");
+			t.setApplicationName("testapp" + i);
+			t.setApplicationId(UNITTEST_APP_UUID_PREFIX + i);
+			t.setPath("/testpath");
+			t.setProtocol("http");
+			t.setOriginalTarget(emptyTarget);
+			this.targets.add(t);
+		}
+	}
+
+	@Benchmark
+	public List<Instance> determineInstancesFromTargets() {
+		return this.scanner.determineInstancesFromTargets(this.targets, null, null);
+	}
+}
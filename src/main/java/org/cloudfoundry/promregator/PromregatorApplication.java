@@ -13,13 +13,19 @@ import org.cloudfoundry.promregator.cfaccessor.CFAccessorCache;
 import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheCaffeine;
 import org.cloudfoundry.promregator.cfaccessor.CFAccessorSimulator;
 import org.cloudfoundry.promregator.cfaccessor.CFWatchdog;
+import org.cloudfoundry.promregator.cfaccessor.CacheDeltaRefresher;
 import org.cloudfoundry.promregator.cfaccessor.ReactiveCFAccessorImpl;
 import org.cloudfoundry.promregator.config.ConfigurationValidations;
 import org.cloudfoundry.promregator.discovery.CFMultiDiscoverer;
+import org.cloudfoundry.promregator.endpoint.DiscoveryDocumentCache;
+import org.cloudfoundry.promregator.fetcher.CFMetricsFetcherConnectionPool;
+import org.cloudfoundry.promregator.fetcher.FetchResultCoalescer;
 import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
 import org.cloudfoundry.promregator.lifecycle.InstanceLifecycleHandler;
 import org.cloudfoundry.promregator.messagebus.MessageBus;
 import org.cloudfoundry.promregator.scanner.AppInstanceScanner;
+import org.cloudfoundry.promregator.scanner.AuditEventWatcher;
+import org.cloudfoundry.promregator.scanner.CacheSnapshotManager;
 import org.cloudfoundry.promregator.scanner.CachingTargetResolver;
 import org.cloudfoundry.promregator.scanner.ReactiveAppInstanceScanner;
 import org.cloudfoundry.promregator.scanner.ReactiveTargetResolver;
@@ -27,6 +33,8 @@ import org.cloudfoundry.promregator.scanner.TargetResolver;
 import org.cloudfoundry.promregator.springconfig.AuthenticatorSpringConfiguration;
 import org.cloudfoundry.promregator.springconfig.BasicAuthenticationSpringConfiguration;
 import org.cloudfoundry.promregator.springconfig.ErrorSpringConfiguration;
+import org.cloudfoundry.promregator.virtualthreads.VirtualThreadPinningMonitor;
+import org.cloudfoundry.promregator.virtualthreads.VirtualThreadSupport;
 import org.cloudfoundry.promregator.websecurity.SecurityConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,9 +49,13 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.prometheus.client.hotspot.DefaultExports;
 import reactor.core.publisher.Hooks;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @SpringBootApplication
 // Warning! This implies @ComponentScan - and we really must have that in place, e.g. due to JMS :(
@@ -104,6 +116,11 @@ public class PromregatorApplication {
 		return new CFWatchdog();
 	}
 	
+	@Bean
+	public CacheDeltaRefresher cacheDeltaRefresher() {
+		return new CacheDeltaRefresher();
+	}
+	
 	@Bean
 	public CFAccessorCache cfAccessorCache(@Qualifier("mainCFAccessor") CFAccessor cfMainAccessor) {
 		if (this.cacheType == AccessorCacheType.CAFFEINE) {
@@ -136,6 +153,16 @@ public class PromregatorApplication {
 		return new CachingTargetResolver(reactiveTargetResolver);
 	}
 	
+	@Bean
+	public AuditEventWatcher auditEventWatcher() {
+		return new AuditEventWatcher();
+	}
+	
+	@Bean
+	public CacheSnapshotManager cacheSnapshotManager() {
+		return new CacheSnapshotManager();
+	}
+	
 	@Bean
 	public TargetResolver targetResolver(CachingTargetResolver cachingTargetResolver) {
 		return cachingTargetResolver;
@@ -151,6 +178,11 @@ public class PromregatorApplication {
 		return new CFMultiDiscoverer();
 	}
 	
+	@Bean
+	public DiscoveryDocumentCache discoveryDocumentCache(ObjectMapper objectMapper) {
+		return new DiscoveryDocumentCache(objectMapper);
+	}
+	
 	@Bean
 	public InstanceLifecycleHandler instanceLifecycleHandler() {
 		return new InstanceLifecycleHandler();
@@ -178,16 +210,75 @@ public class PromregatorApplication {
 	@Value("${promregator.scraping.threads:5}")
 	private int threadPoolSize;
 	
+	@Value("${promregator.scraping.virtualThreads.enabled:false}")
+	private boolean virtualThreadsEnabled;
 	
 	@Bean
 	public ExecutorService metricsFetcherPool() {
+		if (this.virtualThreadsEnabled) {
+			ExecutorService virtualThreadExecutor = VirtualThreadSupport.newVirtualThreadPerTaskExecutor();
+			if (virtualThreadExecutor != null) {
+				log.info("Using virtual threads for scraping; the configured thread pool size is ignored");
+				return virtualThreadExecutor;
+			}
+			
+			log.warn("Virtual threads for scraping are enabled, but they are not supported by the Java runtime (Java 21 or later required); "
+					+ "falling back to a thread pool");
+		}
+		
 		log.info("Thread Pool size is set to {}", this.getThreadPoolSize());
 		return Executors.newFixedThreadPool(this.threadPoolSize);
 	}
 	
+	@Bean
+	public VirtualThreadPinningMonitor virtualThreadPinningMonitor() {
+		return new VirtualThreadPinningMonitor();
+	}
+	
 	private int getThreadPoolSize() {
 		return this.threadPoolSize;
 	}
+	
+	/**
+	 * the connection pool which is shared by all (blocking) scraping requests
+	 * @param internalMetrics the internal metrics to which the statistics of the pool are exported
+	 * @return the connection pool used for scraping
+	 */
+	@Bean
+	public CFMetricsFetcherConnectionPool cfMetricsFetcherConnectionPool(InternalMetrics internalMetrics) {
+		CFMetricsFetcherConnectionPool connectionPool = new CFMetricsFetcherConnectionPool();
+		internalMetrics.registerScrapingConnectionPoolStatsFunction(connectionPool::getTotalStats);
+		return connectionPool;
+	}
+	
+	@Bean
+	public FetchResultCoalescer fetchResultCoalescer() {
+		return new FetchResultCoalescer();
+	}
+	
+	/**
+	 * The maximal number of connections used for non-blocking scraping
+	 */
+	@Value("${promregator.scraping.async.maxConnections:500}")
+	private int asyncScrapingMaxConnections;
+	
+	/**
+	 * the HttpClient which is shared by all non-blocking scraping requests (see also option promregator.scraping.async.enabled)
+	 * @return the HttpClient used for non-blocking scraping
+	 */
+	@Bean
+	public HttpClient scrapingHttpClient() {
+		ConnectionProvider connectionProvider = ConnectionProvider.builder("promregator-scraping")
+				.maxConnections(this.asyncScrapingMaxConnections)
+				/*
+				 * requests waiting for a connection are bounded by promregator.scraping.maxProcessingTime anyway,
+				 * so there is no need to restrict the length of the queue additionally.
+				 */
+				.pendingAcquireMaxCount(-1)
+				.build();
+		
+		return HttpClient.create(connectionProvider);
+	}
 
 	/* see also https://github.com/promregator/promregator/issues/54 */
 	@Scheduled(fixedRateString = "${promregator.gc.rate:1200}000")
@@ -0,0 +1,253 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.cloudfoundry.AbstractCloudFoundryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Limits the number of requests to the Cloud Controller, which are in flight at the same time. The limit
+ * is adapted automatically following the AIMD approach (additive increase, multiplicative decrease):
+ * <ul>
+ * <li>As long as the latency of the responses is healthy and the limit is utilized, the limit is increased by
+ * one per round trip.</li>
+ * <li>If the latency of a response rises significantly above its long-term average, the limit is decreased slightly.</li>
+ * <li>If the Cloud Controller rejects a request due to overload (HTTP status codes 429 and 503) or a request times out,
+ * the limit is halved. On rejections, no further requests are sent for a cool-down period.</li>
+ * </ul>
+ * Requests waiting for a free slot do not block any thread.
+ */
+public class AdaptiveConcurrencyLimiter {
+	private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+	private static final double LATENCY_BACKOFF_RATIO = 0.9;
+	private static final double OVERLOAD_BACKOFF_RATIO = 0.5;
+
+	/* a response is considered slow, if its latency exceeds the long-term average by this factor */
+	private static final double LATENCY_TOLERANCE = 2.0;
+
+	/* the weight of a new sample for the long-term average of the latency */
+	private static final double LATENCY_SMOOTHING = 0.05;
+
+	private final boolean enabled;
+	private final double minLimit;
+	private final double maxLimit;
+	private final long cooldownInNanos;
+	private final Scheduler timer;
+
+	/* all fields below are guarded by "this" */
+	private double limit;
+	private int inFlight;
+	private double smoothedLatencyInNanos;
+	private long lastDecrease;
+	private long cooldownUntil;
+	private boolean wakeUpScheduled;
+	private final LinkedList<MonoSink<Permit>> waiters = new LinkedList<>();
+
+	/**
+	 * A slot for one request. It must be released exactly once.
+	 */
+	public final class Permit {
+		private final long grantedAt = System.nanoTime();
+		private final AtomicBoolean released = new AtomicBoolean(false);
+
+		private void release(Throwable throwable, boolean cancelled) {
+			if (!this.released.compareAndSet(false, true)) {
+				return;
+			}
+
+			AdaptiveConcurrencyLimiter.this.onRelease(System.nanoTime() - this.grantedAt, throwable, cancelled);
+		}
+	}
+
+	/**
+	 * @param enabled <code>false</code>, if the number of requests in flight shall not be limited
+	 * @param initialLimit the number of requests, which may be in flight at the beginning
+	 * @param minLimit the lower boundary of the limit
+	 * @param maxLimit the upper boundary of the limit
+	 * @param cooldownInMillis the period of time (in milliseconds) in which no further requests are sent after the Cloud Controller has rejected a request due to overload
+	 */
+	public AdaptiveConcurrencyLimiter(boolean enabled, int initialLimit, int minLimit, int maxLimit, int cooldownInMillis) {
+		this(enabled, initialLimit, minLimit, maxLimit, cooldownInMillis, Schedulers.parallel());
+	}
+
+	AdaptiveConcurrencyLimiter(boolean enabled, int initialLimit, int minLimit, int maxLimit, int cooldownInMillis, Scheduler timer) {
+		this.enabled = enabled;
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+		this.cooldownInNanos = TimeUnit.MILLISECONDS.toNanos(cooldownInMillis);
+		this.timer = timer;
+	}
+
+	/**
+	 * @return a limiter, which does not limit the number of requests in flight at all
+	 */
+	public static AdaptiveConcurrencyLimiter disabled() {
+		return new AdaptiveConcurrencyLimiter(false, 1, 1, 1, 0);
+	}
+
+	/**
+	 * applies the limit to a request: the request is only subscribed to, once a slot is available.
+	 * Its outcome is used for adapting the limit.
+	 * @param <P> the type of the response
+	 * @param request the request to be limited
+	 * @return the limited request
+	 */
+	public <P> Mono<P> limit(Mono<P> request) {
+		if (!this.enabled) {
+			return request;
+		}
+
+		return Mono.usingWhen(this.acquire(),
+				permit -> request,
+				permit -> Mono.fromRunnable(() -> permit.release(null, false)),
+				(permit, throwable) -> Mono.fromRunnable(() -> permit.release(throwable, false)),
+				permit -> Mono.fromRunnable(() -> permit.release(null, true)));
+	}
+
+	private Mono<Permit> acquire() {
+		return Mono.<Permit>create(sink -> {
+			synchronized (this) {
+				this.waiters.add(sink);
+			}
+
+			sink.onCancel(() -> {
+				synchronized (this) {
+					this.waiters.remove(sink);
+				}
+			});
+
+			this.dispatch();
+		})
+		// a permit granted to a subscriber, which has cancelled in the meantime, must not get lost
+		.doOnDiscard(Permit.class, permit -> permit.release(null, true));
+	}
+
+	private void dispatch() {
+		final List<MonoSink<Permit>> granted = new ArrayList<>();
+
+		synchronized (this) {
+			final long now = System.nanoTime();
+			if (this.cooldownUntil - now > 0) {
+				this.scheduleWakeUp(this.cooldownUntil - now);
+				return;
+			}
+
+			while (!this.waiters.isEmpty() && this.inFlight < (int) this.limit) {
+				granted.add(this.waiters.poll());
+				this.inFlight++;
+			}
+		}
+
+		granted.forEach(sink -> sink.success(new Permit()));
+	}
+
+	private void scheduleWakeUp(long delayInNanos) {
+		if (this.wakeUpScheduled) {
+			return;
+		}
+
+		this.wakeUpScheduled = true;
+		this.timer.schedule(() -> {
+			synchronized (this) {
+				this.wakeUpScheduled = false;
+			}
+			this.dispatch();
+		}, delayInNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private void onRelease(long latencyInNanos, Throwable throwable, boolean cancelled) {
+		synchronized (this) {
+			final long now = System.nanoTime();
+			this.inFlight--;
+
+			if (throwable != null) {
+				final Throwable unwrapped = Exceptions.unwrap(throwable);
+				if (isOverloadRejection(unwrapped)) {
+					if (this.cooldownUntil - now <= 0) {
+						// further rejections during the cool-down period are still caused by the same congestion
+						this.decrease(now, OVERLOAD_BACKOFF_RATIO, true);
+						this.cooldownUntil = now + this.cooldownInNanos;
+						log.warn("Cloud Controller rejected request due to overload; reducing number of concurrent requests to {}", (int) this.limit);
+					}
+				} else if (unwrapped instanceof TimeoutException) {
+					this.decrease(now, OVERLOAD_BACKOFF_RATIO, false);
+				}
+			} else if (!cancelled) {
+				this.onSuccess(now, latencyInNanos);
+			}
+		}
+
+		this.dispatch();
+	}
+
+	private void onSuccess(long now, long latencyInNanos) {
+		if (this.smoothedLatencyInNanos == 0) {
+			this.smoothedLatencyInNanos = latencyInNanos;
+		}
+
+		if (latencyInNanos > LATENCY_TOLERANCE * this.smoothedLatencyInNanos) {
+			this.decrease(now, LATENCY_BACKOFF_RATIO, false);
+		} else if (this.inFlight + 1 >= this.limit / 2) {
+			// only increase the limit, if it is utilized; otherwise, there is no evidence that a higher limit was healthy
+			this.limit = Math.min(this.maxLimit, this.limit + 1.0 / this.limit);
+		}
+
+		this.smoothedLatencyInNanos = (1 - LATENCY_SMOOTHING) * this.smoothedLatencyInNanos + LATENCY_SMOOTHING * latencyInNanos;
+	}
+
+	private void decrease(long now, double ratio, boolean force) {
+		/*
+		 * Many requests in flight usually observe the same congestion; reacting to each of them
+		 * would collapse the limit. Hence, the limit is decreased at most once per round trip.
+		 */
+		if (!force && this.lastDecrease != 0 && now - this.lastDecrease < this.smoothedLatencyInNanos) {
+			return;
+		}
+
+		this.limit = Math.max(this.minLimit, this.limit * ratio);
+		this.lastDecrease = now;
+	}
+
+	private static boolean isOverloadRejection(Throwable throwable) {
+		if (throwable instanceof AbstractCloudFoundryException cfException) {
+			final Integer statusCode = cfException.getStatusCode();
+			return statusCode != null && (statusCode == 429 || statusCode == 503);
+		}
+		return false;
+	}
+
+	/**
+	 * @return the current limit of requests in flight
+	 */
+	public synchronized int getLimit() {
+		return (int) this.limit;
+	}
+
+	/**
+	 * @return the number of requests currently in flight
+	 */
+	public synchronized int getInFlight() {
+		return this.inFlight;
+	}
+
+	/**
+	 * @return <code>true</code>, if the number of requests in flight is limited
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+}
@@ -1,15 +1,21 @@
 package org.cloudfoundry.promregator.cfaccessor;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsResponse;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse;
 import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
 import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v3.spaces.GetSpaceResponse;
 import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
 import org.cloudfoundry.promregator.cfaccessor.client.InfoV3;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface CFAccessor {
@@ -17,14 +23,83 @@ public interface CFAccessor {
 	
 	Mono<ListOrganizationsResponse> retrieveOrgIdV3(String orgName);
 
+	/**
+	 * retrieves the organizations with the given names at once.
+	 * The default implementation falls back to one request per name.
+	 * @param orgNames the names of the organizations
+	 * @return the organizations found; organizations which do not exist are not part of the response
+	 */
+	default Mono<ListOrganizationsResponse> retrieveOrgIdsV3(Set<String> orgNames) {
+		return Flux.fromIterable(orgNames)
+				.flatMap(this::retrieveOrgIdV3)
+				.filter(response -> response.getResources() != null)
+				.flatMapIterable(ListOrganizationsResponse::getResources)
+				.collectList()
+				.map(list -> ListOrganizationsResponse.builder().addAllResources(list).build());
+	}
+
 	Mono<ListOrganizationsResponse> retrieveAllOrgIdsV3();
 
 	Mono<ListSpacesResponse> retrieveSpaceIdV3(String orgId, String spaceName);
 
+	/**
+	 * retrieves the spaces with one of the given names in one of the given organizations at once.
+	 * The default implementation falls back to one request per combination of organization and name.
+	 * @param orgIds the identifiers of the organizations
+	 * @param spaceNames the names of the spaces
+	 * @return the spaces found; spaces which do not exist are not part of the response
+	 */
+	default Mono<ListSpacesResponse> retrieveSpaceIdsV3(Set<String> orgIds, Set<String> spaceNames) {
+		return Flux.fromIterable(orgIds)
+				.flatMap(orgId -> Flux.fromIterable(spaceNames).flatMap(spaceName -> this.retrieveSpaceIdV3(orgId, spaceName)))
+				.filter(response -> response.getResources() != null)
+				.flatMapIterable(ListSpacesResponse::getResources)
+				.collectList()
+				.map(list -> ListSpacesResponse.builder().addAllResources(list).build());
+	}
+
 	Mono<ListSpacesResponse> retrieveSpaceIdsInOrgV3(String orgId);
 
 	Mono<ListApplicationsResponse> retrieveAllApplicationsInSpaceV3(String orgId, String spaceId);
 
+	/**
+	 * retrieves the applications with one of the given names in a space.
+	 * The default implementation filters the list of all applications in the space case-insensitively;
+	 * implementations may filter on the platform instead, which may compare the names case-sensitively.
+	 * @param orgId the identifier of the organization, to which the space belongs
+	 * @param spaceId the identifier of the space
+	 * @param applicationNames the names of the applications
+	 * @return the applications found; applications which do not exist are not part of the response
+	 */
+	default Mono<ListApplicationsResponse> retrieveApplicationsInSpaceV3(String orgId, String spaceId, Set<String> applicationNames) {
+		final Set<String> lowerCaseNames = applicationNames.stream()
+				.map(name -> name.toLowerCase(Locale.ENGLISH))
+				.collect(Collectors.toSet());
+		
+		return this.retrieveAllApplicationsInSpaceV3(orgId, spaceId)
+				.filter(response -> response.getResources() != null)
+				.flatMapIterable(ListApplicationsResponse::getResources)
+				.filter(app -> lowerCaseNames.contains(app.getName().toLowerCase(Locale.ENGLISH)))
+				.collectList()
+				.map(list -> ListApplicationsResponse.builder().addAllResources(list).build());
+	}
+
+	/**
+	 * retrieves all applications in the given spaces at once.
+	 * The default implementation falls back to one request per combination of organization and space.
+	 * @param orgIds the identifiers of the organizations, to which the spaces belong
+	 * @param spaceIds the identifiers of the spaces
+	 * @return the applications of all spaces
+	 */
+	default Mono<ListApplicationsResponse> retrieveAllApplicationsInSpacesV3(Set<String> orgIds, Set<String> spaceIds) {
+		return Flux.fromIterable(orgIds)
+				.flatMap(orgId -> Flux.fromIterable(spaceIds).flatMap(spaceId -> this.retrieveAllApplicationsInSpaceV3(orgId, spaceId)))
+				.filter(response -> response.getResources() != null)
+				.flatMapIterable(ListApplicationsResponse::getResources)
+				.collectList()
+				.map(list -> ListApplicationsResponse.builder().addAllResources(list).build());
+	}
+
 	Mono<ListOrganizationDomainsResponse> retrieveAllDomainsV3(String orgId);
 
 	Mono<ListRoutesResponse> retrieveRoutesForAppId(String appId);
@@ -35,5 +110,52 @@ public interface CFAccessor {
 
 	Mono<ListProcessesResponse> retrieveWebProcessesForAppIds(Set<String> applicationIds);
 	
+	/**
+	 * retrieves all applications on the platform, which match a label selector.
+	 * @param labelSelector the label selector, e.g. <code>prometheus-scrape=true</code>
+	 * @return the applications matching the label selector
+	 */
+	Mono<ListApplicationsResponse> retrieveApplicationsByLabelSelectorV3(String labelSelector);
+	
+	/**
+	 * retrieves a space by its identifier.
+	 * @param spaceId the identifier of the space
+	 * @return the space
+	 */
+	Mono<GetSpaceResponse> retrieveSpaceV3(String spaceId);
+	
+	/**
+	 * retrieves the applications, which have been updated most recently, ordered by the time of their last update (most recent first).
+	 * Only a single page is retrieved.
+	 * @param count the maximal number of applications to be retrieved
+	 * @return the applications updated most recently
+	 */
+	Mono<ListApplicationsResponse> retrieveRecentlyUpdatedApplicationsV3(int count);
+	
+	/**
+	 * retrieves the routes, which have been updated most recently, ordered by the time of their last update (most recent first).
+	 * Only a single page is retrieved.
+	 * @param count the maximal number of routes to be retrieved
+	 * @return the routes updated most recently
+	 */
+	Mono<ListRoutesResponse> retrieveRecentlyUpdatedRoutesV3(int count);
+	
+	/**
+	 * retrieves the web processes, which have been updated most recently, ordered by the time of their last update (most recent first).
+	 * Only a single page is retrieved.
+	 * @param count the maximal number of processes to be retrieved
+	 * @return the web processes updated most recently
+	 */
+	Mono<ListProcessesResponse> retrieveRecentlyUpdatedWebProcessesV3(int count);
+	
+	/**
+	 * retrieves the audit events of the given types, which have been created most recently, ordered by the time of their creation (most recent first).
+	 * Only a single page is retrieved.
+	 * @param types the types of audit events to be retrieved, e.g. <code>audit.app.start</code>
+	 * @param count the maximal number of audit events to be retrieved
+	 * @return the audit events created most recently
+	 */
+	Mono<ListAuditEventsResponse> retrieveRecentAuditEventsV3(List<String> types, int count);
+	
 	void reset();
 }
@@ -1,5 +1,9 @@
 package org.cloudfoundry.promregator.cfaccessor;
 
+import java.util.Set;
+
+import reactor.core.publisher.Mono;
+
 public interface CFAccessorCache extends CFAccessor {
 	void invalidateCacheRoute();
 	
@@ -12,4 +16,77 @@ public interface CFAccessorCache extends CFAccessor {
 	void invalidateCacheOrg();
 
 	void invalidateCacheDomain();
+	
+	/**
+	 * reloads the applications of a space in the background, if they are cached; the values cached so far are served until the reload has finished
+	 * @param spaceId the identifier of the space
+	 * @return a Mono, which completes once the reload has finished (or immediately, if nothing is cached)
+	 */
+	Mono<Void> refreshApplicationsInSpace(String spaceId);
+	
+	/**
+	 * reloads the routes of an application in the background, if they are cached; the values cached so far are served until the reload has finished
+	 * @param appId the identifier of the application
+	 * @return a Mono, which completes once the reload has finished (or immediately, if nothing is cached)
+	 */
+	Mono<Void> refreshRoutesForApp(String appId);
+	
+	/**
+	 * reloads the web processes of an application in the background, if they are cached; the values cached so far are served until the reload has finished
+	 * @param appId the identifier of the application
+	 * @return a Mono, which completes once the reload has finished (or immediately, if nothing is cached)
+	 */
+	Mono<Void> refreshWebProcessesForApp(String appId);
+	
+	/**
+	 * reloads the cached data of an application in the background: the applications of its space, its routes and its web processes;
+	 * the values cached so far are served until the reload has finished
+	 * @param appId the identifier of the application
+	 * @return a Mono providing the identifiers of the applications affected, once the reload has finished
+	 */
+	Mono<Set<String>> refreshApplication(String appId);
+	
+	/**
+	 * reloads the cached data of a space in the background: the space itself, its applications and their routes and web processes;
+	 * the values cached so far are served until the reload has finished
+	 * @param spaceId the identifier of the space
+	 * @return a Mono providing the identifiers of the applications affected, once the reload has finished
+	 */
+	Mono<Set<String>> refreshSpace(String spaceId);
+	
+	/**
+	 * reloads the cached data of an org in the background: the org itself, its spaces and domains, the applications in its spaces 
+	 * and their routes and web processes; the values cached so far are served until the reload has finished
+	 * @param orgName the name of the org
+	 * @return a Mono providing the identifiers of the applications affected, once the reload has finished
+	 */
+	Mono<Set<String>> refreshOrg(String orgName);
+	
+	/**
+	 * reloads all applications cached in the background; the values cached so far are served until the reload has finished
+	 */
+	void refreshCacheApplication();
+	
+	/**
+	 * reloads all routes cached in the background; the values cached so far are served until the reload has finished
+	 */
+	void refreshCacheRoute();
+	
+	/**
+	 * reloads all processes cached in the background; the values cached so far are served until the reload has finished
+	 */
+	void refreshCacheProcess();
+	
+	/**
+	 * @return the values of all caches, which have been loaded successfully; values still being loaded are skipped
+	 */
+	CFAccessorCacheSnapshot createSnapshot();
+	
+	/**
+	 * stores the values of a snapshot in the caches, unless a value is cached already. The values restored are served
+	 * immediately, but they are reloaded in the background, as they may be outdated.
+	 * @param snapshot the snapshot to be restored
+	 * @return the number of entries restored
+	 */
+	int restoreSnapshot(CFAccessorCacheSnapshot snapshot);
 }
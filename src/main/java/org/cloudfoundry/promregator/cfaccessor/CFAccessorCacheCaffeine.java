@@ -2,23 +2,39 @@ package org.cloudfoundry.promregator.cfaccessor;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
 import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsResponse;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse;
+import org.cloudfoundry.client.v3.organizations.OrganizationResource;
 import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
 import org.cloudfoundry.client.v3.processes.ProcessResource;
 import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
 import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.GetSpaceResponse;
 import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
+import org.cloudfoundry.client.v3.spaces.SpaceResource;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheSnapshot.AppsInSpaceEntry;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheSnapshot.SpaceEntry;
 import org.cloudfoundry.promregator.cfaccessor.client.InfoV3;
 import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
 import org.slf4j.Logger;
@@ -33,21 +49,29 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Scheduler;
 
 import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 public class CFAccessorCacheCaffeine implements CFAccessorCache {
 	private static final Logger log = LoggerFactory.getLogger(CFAccessorCacheCaffeine.class);
+	
+	private static final String ALL_ORGS_KEY = "all";
 
 	private AsyncLoadingCache<String, ListOrganizationsResponse> orgCache;
 	private AsyncLoadingCache<String, ListOrganizationsResponse> allOrgIdCache;
 	private AsyncLoadingCache<CacheKeySpace, ListSpacesResponse> spaceCache;
 	private AsyncLoadingCache<String, ListSpacesResponse> spaceIdInOrgCache;
+	private AsyncLoadingCache<String, GetSpaceResponse> spaceByIdCache;
 	private AsyncLoadingCache<String, ListOrganizationDomainsResponse> domainsInOrgCache;
 	private AsyncLoadingCache<CacheKeyAppsInSpace, ListApplicationsResponse> appsInSpaceCache;
+	private AsyncLoadingCache<CacheKeyAppsByName, ListApplicationsResponse> appsByNameCache;
 	private AsyncLoadingCache<String, ListRoutesResponse> routesCache;
 	private AsyncLoadingCache<String, ListProcessesResponse> processCache;
 	
+	private OrgRequestAggregator orgRequestAggregator;
+	private SpaceRequestAggregator spaceRequestAggregator;
+	private AppsInSpaceRequestAggregator appsInSpaceRequestAggregator;
 	private RoutesRequestAggregator routesRequestAggregator;
 	private ProcessRequestAggregator processRequestAggregator;
 	
@@ -87,18 +111,51 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 	@Value("${cf.cache.expiry.process:120}")
 	private int expiryCacheProcessLevelInSeconds;
 
+	@Value("${cf.cache.aggregator.blocksize.org:100}")
+	private int aggregatorBlocksizeOrg;
+	
+	@Value("${cf.cache.aggregator.checkinterval.org:125}")
+	private int aggregatorCheckintervalOrg;
+
+	@Value("${cf.cache.aggregator.maxinflight.org:4}")
+	private int aggregatorMaxInFlightOrg;
+
+	@Value("${cf.cache.aggregator.blocksize.space:100}")
+	private int aggregatorBlocksizeSpace;
+	
+	@Value("${cf.cache.aggregator.checkinterval.space:125}")
+	private int aggregatorCheckintervalSpace;
+
+	@Value("${cf.cache.aggregator.maxinflight.space:4}")
+	private int aggregatorMaxInFlightSpace;
+
+	@Value("${cf.cache.aggregator.blocksize.application:100}")
+	private int aggregatorBlocksizeApplication;
+	
+	@Value("${cf.cache.aggregator.checkinterval.application:125}")
+	private int aggregatorCheckintervalApplication;
+
+	@Value("${cf.cache.aggregator.maxinflight.application:4}")
+	private int aggregatorMaxInFlightApplication;
+
 	@Value("${cf.cache.aggregator.blocksize.route:100}")
 	private int aggregatorBlocksizeRoute;
 	
 	@Value("${cf.cache.aggregator.checkinterval.route:125}")
 	private int aggregatorCheckintervalRoute;
 
+	@Value("${cf.cache.aggregator.maxinflight.route:4}")
+	private int aggregatorMaxInFlightRoute;
+
 	@Value("${cf.cache.aggregator.blocksize.process:100}")
 	private int aggregatorBlocksizeProcess;
 	
 	@Value("${cf.cache.aggregator.checkinterval.process:125}")
 	private int aggregatorCheckintervalProcess;
 	
+	@Value("${cf.cache.aggregator.maxinflight.process:4}")
+	private int aggregatorMaxInFlightProcess;
+	
 	@Autowired
 	private InternalMetrics internalMetrics;
 
@@ -106,84 +163,222 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 	
 	private CFAccessor parent;
 
-	
+	private final CacheEntryCompactor compactor = new CacheEntryCompactor();
 	
 	public CFAccessorCacheCaffeine(CFAccessor parent) {
 		this.parent = parent;
 	}
 	
-	private class OrgCacheLoader implements AsyncCacheLoader<String, ListOrganizationsResponse> {
+	/**
+	 * loads values by requesting them from the parent; refreshes of values already cached are sent with background priority.
+	 * The retrieval is expected to compact the values itself (see {@link CacheEntryCompactor}).
+	 */
+	private static final class ParentCacheLoader<K, V> implements AsyncCacheLoader<K, V> {
+		private final Function<K, Mono<V>> retrieval;
+
+		private ParentCacheLoader(Function<K, Mono<V>> retrieval) {
+			this.retrieval = retrieval;
+		}
+
 		@Override
-		public @NonNull CompletableFuture<ListOrganizationsResponse> asyncLoad(@NonNull String key,
-				@NonNull Executor executor) {
-			
-			Mono<ListOrganizationsResponse> mono = parent.retrieveOrgIdV3(key)
+		public @NonNull CompletableFuture<V> asyncLoad(@NonNull K key, @NonNull Executor executor) {
+			return this.load(key, executor, RequestPriority.INTERACTIVE);
+		}
+
+		@Override
+		public @NonNull CompletableFuture<V> asyncReload(@NonNull K key, @NonNull V oldValue, @NonNull Executor executor) {
+			return this.load(key, executor, RequestPriority.BACKGROUND);
+		}
+
+		private CompletableFuture<V> load(K key, Executor executor, RequestPriority priority) {
+			Mono<V> mono = this.retrieval.apply(key)
 					.subscribeOn(Schedulers.fromExecutor(executor))
+					.contextWrite(priority.asContext())
 					.cache();
 			return mono.toFuture();
 		}
 	}
 	
-	private class AllOrgIdCacheLoader implements AsyncCacheLoader<String, ListOrganizationsResponse> {
+	/**
+	 * loads values by passing the requests to a {@link RequestAggregator}; refreshes of values already cached are sent with background priority.
+	 * The values are compacted before they are stored in the cache.
+	 */
+	private static final class AggregatingCacheLoader<K, V> implements AsyncCacheLoader<K, V> {
+		private final RequestAggregator<K, V> requestAggregator;
+		private final Function<V, V> compaction;
+
+		private AggregatingCacheLoader(RequestAggregator<K, V> requestAggregator, Function<V, V> compaction) {
+			this.requestAggregator = requestAggregator;
+			this.compaction = compaction;
+		}
+
 		@Override
-		public @NonNull CompletableFuture<ListOrganizationsResponse> asyncLoad(@NonNull String key,
-				@NonNull Executor executor) {
-			
-			Mono<ListOrganizationsResponse> mono = parent.retrieveAllOrgIdsV3()
-					.subscribeOn(Schedulers.fromExecutor(executor))
-					.cache();
-			return mono.toFuture();
+		public @NonNull CompletableFuture<V> asyncLoad(@NonNull K key, @NonNull Executor executor) {
+			return this.load(key, RequestPriority.INTERACTIVE);
+		}
+
+		@Override
+		public @NonNull CompletableFuture<V> asyncReload(@NonNull K key, @NonNull V oldValue, @NonNull Executor executor) {
+			return this.load(key, RequestPriority.BACKGROUND);
+		}
+
+		private CompletableFuture<V> load(K key, RequestPriority priority) {
+			CompletableFuture<V> future = new CompletableFuture<>();
+			this.requestAggregator.addToQueue(key, future, priority);
+			return future.thenApply(this.compaction);
 		}
 	}
 	
-	private class SpaceCacheLoader implements AsyncCacheLoader<CacheKeySpace, ListSpacesResponse> {
+	private class OrgRequestAggregator extends RequestAggregator<String, ListOrganizationsResponse> {
+
+		public OrgRequestAggregator() {
+			super(RequestAggregator.Type.ORG, internalMetrics, String.class, ListOrganizationsResponse.class, aggregatorCheckintervalOrg, aggregatorBlocksizeOrg, aggregatorMaxInFlightOrg);
+		}
+
 		@Override
-		public @NonNull CompletableFuture<ListSpacesResponse> asyncLoad(@NonNull CacheKeySpace key,
-				@NonNull Executor executor) {
-			Mono<ListSpacesResponse> mono = parent.retrieveSpaceIdV3(key.getOrgId(), key.getSpaceName())
-					.subscribeOn(Schedulers.fromExecutor(executor))
-					.cache();
-			return mono.toFuture();
+		protected Mono<ListOrganizationsResponse> sendRequest(Set<String> block) {
+			return parent.retrieveOrgIdsV3(block);
+		}
+
+		@Override
+		protected Map<String, ListOrganizationsResponse> determineMapOfResponses(ListOrganizationsResponse response) {
+			if (response == null || response.getResources() == null) {
+				return Collections.emptyMap();
+			}
+			
+			Map<String, List<OrganizationResource>> map = response.getResources().stream()
+					.collect(Collectors.groupingBy(org -> org.getName().toLowerCase(Locale.ENGLISH)));
+			
+			Map<String, ListOrganizationsResponse> resultMap = new HashMap<>();
+			map.forEach((k, lor) -> resultMap.put(k, ListOrganizationsResponse.builder().resources(lor).build()));
+			
+			return resultMap;
+		}
+
+		@Override
+		protected String determineResponseKey(String orgName) {
+			// names of orgs are case-insensitive
+			return orgName.toLowerCase(Locale.ENGLISH);
+		}
+
+		@Override
+		protected ListOrganizationsResponse determineEmptyResponse() {
+			return ListOrganizationsResponse.builder().build();
 		}
 	}
 	
-	private class SpaceIdInOrgCacheLoader implements AsyncCacheLoader<String, ListSpacesResponse> {
-		@Override
-		public @NonNull CompletableFuture<ListSpacesResponse> asyncLoad(@NonNull String key,
-				@NonNull Executor executor) {
-			Mono<ListSpacesResponse> mono = parent.retrieveSpaceIdsInOrgV3(key)
-					.subscribeOn(Schedulers.fromExecutor(executor))
-					.cache();
-			return mono.toFuture();
+	private static String determineRelatedId(ToOneRelationship relationship) {
+		if (relationship == null || relationship.getData() == null) {
+			return null;
 		}
+		
+		return relationship.getData().getId();
 	}
+	
+	private class SpaceRequestAggregator extends RequestAggregator<CacheKeySpace, ListSpacesResponse> {
+
+		public SpaceRequestAggregator() {
+			super(RequestAggregator.Type.SPACE, internalMetrics, CacheKeySpace.class, ListSpacesResponse.class, aggregatorCheckintervalSpace, aggregatorBlocksizeSpace, aggregatorMaxInFlightSpace);
+		}
 
-	private class DomainCacheLoader implements AsyncCacheLoader<String, ListOrganizationDomainsResponse> {
 		@Override
-		public @NonNull CompletableFuture<ListOrganizationDomainsResponse> asyncLoad(@NonNull String key,
-				@NonNull Executor executor) {
-			Mono<ListOrganizationDomainsResponse> mono = parent.retrieveAllDomainsV3(key)
-					.subscribeOn(Schedulers.fromExecutor(executor))
-					.cache();
-			return mono.toFuture();
+		protected Mono<ListSpacesResponse> sendRequest(Set<CacheKeySpace> block) {
+			/*
+			 * The Cloud Controller only supports filtering on the cross product of organizations and names.
+			 * Spaces, which were not requested, are dropped again when demultiplexing the response.
+			 */
+			Set<String> orgIds = block.stream().map(CacheKeySpace::getOrgId).collect(Collectors.toSet());
+			Set<String> spaceNames = block.stream().map(CacheKeySpace::getSpaceName).collect(Collectors.toSet());
+			return parent.retrieveSpaceIdsV3(orgIds, spaceNames);
+		}
+
+		@Override
+		protected Map<CacheKeySpace, ListSpacesResponse> determineMapOfResponses(ListSpacesResponse response) {
+			if (response == null || response.getResources() == null) {
+				return Collections.emptyMap();
+			}
+			
+			Map<CacheKeySpace, List<SpaceResource>> map = new HashMap<>();
+			response.getResources().forEach(sr -> {
+				String orgId = sr.getRelationships() == null ? null : determineRelatedId(sr.getRelationships().getOrganization());
+				if (orgId == null) {
+					log.warn("Space {} does not provide its organization; ignoring it", sr.getId());
+					return;
+				}
+				
+				map.computeIfAbsent(new CacheKeySpace(orgId, sr.getName().toLowerCase(Locale.ENGLISH)), key -> new LinkedList<>()).add(sr);
+			});
+			
+			Map<CacheKeySpace, ListSpacesResponse> resultMap = new HashMap<>();
+			map.forEach((k, lsr) -> resultMap.put(k, ListSpacesResponse.builder().resources(lsr).build()));
+			
+			return resultMap;
+		}
+
+		@Override
+		protected CacheKeySpace determineResponseKey(CacheKeySpace key) {
+			// names of spaces are case-insensitive
+			return new CacheKeySpace(key.getOrgId(), key.getSpaceName().toLowerCase(Locale.ENGLISH));
+		}
+
+		@Override
+		protected ListSpacesResponse determineEmptyResponse() {
+			return ListSpacesResponse.builder().build();
 		}
 	}
+	
+	private class AppsInSpaceRequestAggregator extends RequestAggregator<CacheKeyAppsInSpace, ListApplicationsResponse> {
+		
+		/* applications only refer to their space; the organization is taken from the requests sent */
+		private final Map<String, String> orgIdOfSpaceId = new ConcurrentHashMap<>();
+
+		public AppsInSpaceRequestAggregator() {
+			super(RequestAggregator.Type.APPLICATION, internalMetrics, CacheKeyAppsInSpace.class, ListApplicationsResponse.class, aggregatorCheckintervalApplication, aggregatorBlocksizeApplication, aggregatorMaxInFlightApplication);
+		}
 
-	private class AppsInSpaceV3CacheLoader implements AsyncCacheLoader<CacheKeyAppsInSpace, ListApplicationsResponse> {
 		@Override
-		public @NonNull CompletableFuture<ListApplicationsResponse> asyncLoad(
-			@NonNull CacheKeyAppsInSpace key, @NonNull Executor executor) {
-			Mono<ListApplicationsResponse> mono = parent.retrieveAllApplicationsInSpaceV3(key.getOrgId(), key.getSpaceId())
-					.subscribeOn(Schedulers.fromExecutor(executor))
-					.cache();
-			return mono.toFuture();
+		protected Mono<ListApplicationsResponse> sendRequest(Set<CacheKeyAppsInSpace> block) {
+			block.forEach(key -> this.orgIdOfSpaceId.put(key.getSpaceId(), key.getOrgId()));
+			
+			Set<String> orgIds = block.stream().map(CacheKeyAppsInSpace::getOrgId).collect(Collectors.toSet());
+			Set<String> spaceIds = block.stream().map(CacheKeyAppsInSpace::getSpaceId).collect(Collectors.toSet());
+			return parent.retrieveAllApplicationsInSpacesV3(orgIds, spaceIds);
+		}
+
+		@Override
+		protected Map<CacheKeyAppsInSpace, ListApplicationsResponse> determineMapOfResponses(ListApplicationsResponse response) {
+			if (response == null || response.getResources() == null) {
+				return Collections.emptyMap();
+			}
+			
+			Map<CacheKeyAppsInSpace, List<ApplicationResource>> map = new HashMap<>();
+			response.getResources().forEach(ar -> {
+				String spaceId = ar.getRelationships() == null ? null : determineRelatedId(ar.getRelationships().getSpace());
+				String orgId = spaceId == null ? null : this.orgIdOfSpaceId.get(spaceId);
+				if (orgId == null) {
+					log.warn("Application {} cannot be assigned to any of the spaces requested; ignoring it", ar.getId());
+					return;
+				}
+				
+				map.computeIfAbsent(new CacheKeyAppsInSpace(orgId, spaceId), key -> new LinkedList<>()).add(ar);
+			});
+			
+			Map<CacheKeyAppsInSpace, ListApplicationsResponse> resultMap = new HashMap<>();
+			map.forEach((k, lar) -> resultMap.put(k, ListApplicationsResponse.builder().resources(lar).build()));
+			
+			return resultMap;
+		}
+
+		@Override
+		protected ListApplicationsResponse determineEmptyResponse() {
+			return ListApplicationsResponse.builder().build();
 		}
 	}
 	
 	private class RoutesRequestAggregator extends RequestAggregator<String, ListRoutesResponse> {
 
 		public RoutesRequestAggregator() {
-			super(RequestAggregator.Type.ROUTE, internalMetrics, String.class, ListRoutesResponse.class, aggregatorCheckintervalRoute, aggregatorBlocksizeRoute);
+			super(RequestAggregator.Type.ROUTE, internalMetrics, String.class, ListRoutesResponse.class, aggregatorCheckintervalRoute, aggregatorBlocksizeRoute, aggregatorMaxInFlightRoute);
 		}
 
 		@Override
@@ -223,21 +418,10 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 		
 	}
 	
-	private class RoutesCacheLoader implements AsyncCacheLoader<String, ListRoutesResponse> {
-		@Override
-		public @NonNull CompletableFuture<ListRoutesResponse> asyncLoad(@NonNull String key,
-				@NonNull Executor executor) {
-			
-			CompletableFuture<ListRoutesResponse> future = new CompletableFuture<>();
-			routesRequestAggregator.addToQueue(key, future);
-			return future;
-		}
-	}
-	
 	private class ProcessRequestAggregator extends RequestAggregator<String, ListProcessesResponse> {
 
 		public ProcessRequestAggregator() {
-			super(RequestAggregator.Type.PROCESS, internalMetrics, String.class, ListProcessesResponse.class, aggregatorCheckintervalProcess, aggregatorBlocksizeProcess);
+			super(RequestAggregator.Type.PROCESS, internalMetrics, String.class, ListProcessesResponse.class, aggregatorCheckintervalProcess, aggregatorBlocksizeProcess, aggregatorMaxInFlightProcess);
 		}
 
 		@Override
@@ -274,17 +458,6 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 
 	}
 	
-	private class ProcessCacheLoader implements AsyncCacheLoader<String, ListProcessesResponse> {
-		@Override
-		public @NonNull CompletableFuture<ListProcessesResponse> asyncLoad(@NonNull String key,
-				@NonNull Executor executor) {
-			
-			CompletableFuture<ListProcessesResponse> future = new CompletableFuture<>();
-			processRequestAggregator.addToQueue(key, future);
-			return future;
-		}
-	}
-	
 	@PostConstruct
 	public void setupCaches() {
 		log.info("Cache refresh timings: org cache: {}s, space cache: {}s, app cache: {}s, app cache: {}s, domain cache: {}s, route cache: {}s, process cache: {}s", 
@@ -294,6 +467,9 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 		
 		Scheduler caffeineScheduler = Scheduler.forScheduledExecutorService(new ScheduledThreadPoolExecutor(1));
 		
+		this.orgRequestAggregator = new OrgRequestAggregator();
+		this.spaceRequestAggregator = new SpaceRequestAggregator();
+		this.appsInSpaceRequestAggregator = new AppsInSpaceRequestAggregator();
 		this.routesRequestAggregator = new RoutesRequestAggregator();
 		this.processRequestAggregator = new ProcessRequestAggregator();
 		
@@ -302,67 +478,108 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 				.refreshAfterWrite(this.refreshCacheOrgLevelInSeconds, TimeUnit.SECONDS)
 				.scheduler(caffeineScheduler)
 				.recordStats()
-				.buildAsync(new OrgCacheLoader());
+				.buildAsync(new AggregatingCacheLoader<>(this.orgRequestAggregator, this.compactor::compactOrganizations));
 		this.internalMetrics.addCaffeineCache("orgCache", this.orgCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("orgCache", () -> this.estimateCacheSize(this.orgCache));
 		
 		this.allOrgIdCache = Caffeine.newBuilder()
 				.expireAfterAccess(this.expiryCacheOrgLevelInSeconds, TimeUnit.SECONDS)
 				.refreshAfterWrite(this.refreshCacheOrgLevelInSeconds, TimeUnit.SECONDS)
 				.recordStats()
 				.scheduler(caffeineScheduler)
-				.buildAsync(new AllOrgIdCacheLoader());
+				.buildAsync(new ParentCacheLoader<String, ListOrganizationsResponse>(key -> this.parent.retrieveAllOrgIdsV3().map(this.compactor::compactOrganizations)));
 		this.internalMetrics.addCaffeineCache("allOrgCache", this.allOrgIdCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("allOrgCache", () -> this.estimateCacheSize(this.allOrgIdCache));
 		
 		this.spaceCache = Caffeine.newBuilder()
 				.expireAfterAccess(this.expiryCacheSpaceLevelInSeconds, TimeUnit.SECONDS)
 				.refreshAfterWrite(this.refreshCacheSpaceLevelInSeconds, TimeUnit.SECONDS)
 				.recordStats()
 				.scheduler(caffeineScheduler)
-				.buildAsync(new SpaceCacheLoader());
+				.buildAsync(new AggregatingCacheLoader<>(this.spaceRequestAggregator, this.compactor::compactSpaces));
 		this.internalMetrics.addCaffeineCache("spaceCache", this.spaceCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("spaceCache", () -> this.estimateCacheSize(this.spaceCache));
 		
 		this.spaceIdInOrgCache = Caffeine.newBuilder()
 				.expireAfterAccess(this.expiryCacheSpaceLevelInSeconds, TimeUnit.SECONDS)
 				.refreshAfterWrite(this.refreshCacheSpaceLevelInSeconds, TimeUnit.SECONDS)
 				.recordStats()
 				.scheduler(caffeineScheduler)
-				.buildAsync(new SpaceIdInOrgCacheLoader());
+				.buildAsync(new ParentCacheLoader<String, ListSpacesResponse>(key -> this.parent.retrieveSpaceIdsInOrgV3(key).map(this.compactor::compactSpaces)));
 		this.internalMetrics.addCaffeineCache("spaceInOrgCache", this.spaceIdInOrgCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("spaceInOrgCache", () -> this.estimateCacheSize(this.spaceIdInOrgCache));
+		
+		this.spaceByIdCache = Caffeine.newBuilder()
+				.expireAfterAccess(this.expiryCacheSpaceLevelInSeconds, TimeUnit.SECONDS)
+				.refreshAfterWrite(this.refreshCacheSpaceLevelInSeconds, TimeUnit.SECONDS)
+				.recordStats()
+				.scheduler(caffeineScheduler)
+				.buildAsync(new ParentCacheLoader<String, GetSpaceResponse>(key -> this.parent.retrieveSpaceV3(key)));
+		this.internalMetrics.addCaffeineCache("spaceByIdCache", this.spaceByIdCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("spaceByIdCache", () -> this.estimateCacheSize(this.spaceByIdCache));
 
 		this.domainsInOrgCache = Caffeine.newBuilder()
 				.expireAfterAccess(this.expiryCacheDomainLevelInSeconds, TimeUnit.SECONDS)
 				.refreshAfterWrite(this.refreshCacheDomainLevelInSeconds, TimeUnit.SECONDS)
 				.recordStats()
 				.scheduler(caffeineScheduler)
-				.buildAsync(new DomainCacheLoader());
+				.buildAsync(new ParentCacheLoader<String, ListOrganizationDomainsResponse>(key -> this.parent.retrieveAllDomainsV3(key).map(this.compactor::compactDomains)));
 		this.internalMetrics.addCaffeineCache("domain", this.domainsInOrgCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("domain", () -> this.estimateCacheSize(this.domainsInOrgCache));
 
 		this.appsInSpaceCache = Caffeine.newBuilder()
 				.expireAfterAccess(this.expiryCacheApplicationLevelInSeconds, TimeUnit.SECONDS)
 				.refreshAfterWrite(this.refreshCacheApplicationLevelInSeconds, TimeUnit.SECONDS)
 				.recordStats()
 				.scheduler(caffeineScheduler)
-				.buildAsync(new AppsInSpaceV3CacheLoader());
+				.buildAsync(new AggregatingCacheLoader<>(this.appsInSpaceRequestAggregator, this.compactor::compactApplications));
 		this.internalMetrics.addCaffeineCache("appsInSpace", this.appsInSpaceCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("appsInSpace", () -> this.estimateCacheSize(this.appsInSpaceCache));
+		
+		this.appsByNameCache = Caffeine.newBuilder()
+				.expireAfterAccess(this.expiryCacheApplicationLevelInSeconds, TimeUnit.SECONDS)
+				.refreshAfterWrite(this.refreshCacheApplicationLevelInSeconds, TimeUnit.SECONDS)
+				.recordStats()
+				.scheduler(caffeineScheduler)
+				.buildAsync(new ParentCacheLoader<CacheKeyAppsByName, ListApplicationsResponse>(key -> this.parent.retrieveApplicationsInSpaceV3(key.getOrgId(), key.getSpaceId(), key.getApplicationNames()).map(this.compactor::compactApplications)));
+		this.internalMetrics.addCaffeineCache("appsByName", this.appsByNameCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("appsByName", () -> this.estimateCacheSize(this.appsByNameCache));
 		
 		this.routesCache = Caffeine.newBuilder()
 				.expireAfterAccess(this.expiryCacheRouteLevelInSeconds, TimeUnit.SECONDS)
 				.refreshAfterWrite(this.refreshCacheRouteLevelInSeconds, TimeUnit.SECONDS)
 				.recordStats()
 				.scheduler(caffeineScheduler)
-				.buildAsync(new RoutesCacheLoader());
+				.buildAsync(new AggregatingCacheLoader<>(this.routesRequestAggregator, this.compactor::compactRoutes));
 		this.internalMetrics.addCaffeineCache("routes", this.routesCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("routes", () -> this.estimateCacheSize(this.routesCache));
 
 		this.processCache = Caffeine.newBuilder()
 				.expireAfterAccess(this.expiryCacheProcessLevelInSeconds, TimeUnit.SECONDS)
 				.refreshAfterWrite(this.refreshCacheProcessLevelInSeconds, TimeUnit.SECONDS)
 				.recordStats()
 				.scheduler(caffeineScheduler)
-				.buildAsync(new ProcessCacheLoader());
+				.buildAsync(new AggregatingCacheLoader<>(this.processRequestAggregator, this.compactor::compactProcesses));
 		this.internalMetrics.addCaffeineCache("process", this.processCache);
+		this.internalMetrics.registerCacheSizeEstimateFunction("process", () -> this.estimateCacheSize(this.processCache));
 		
 	}
 
+	/**
+	 * estimates the size on the heap, which the values of a cache occupy; values still being loaded are not considered
+	 * @param cache the cache to be estimated
+	 * @return the estimated size in bytes
+	 */
+	private double estimateCacheSize(AsyncLoadingCache<?, ?> cache) {
+		long size = 0;
+		for (CompletableFuture<?> future : cache.asMap().values()) {
+			if (future.isDone() && !future.isCompletedExceptionally()) {
+				size += this.compactor.estimateSize(future.getNow(null));
+			}
+		}
+		return size;
+	}
+
 	@Override
 	public Mono<InfoV3> getInfo() {
 		return this.parent.getInfo();
@@ -375,7 +592,7 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 
 	@Override
 	public Mono<ListOrganizationsResponse> retrieveAllOrgIdsV3() {
-		return Mono.fromFuture(this.allOrgIdCache.get("all"));
+		return Mono.fromFuture(this.allOrgIdCache.get(ALL_ORGS_KEY));
 	}
 
 	@Override
@@ -397,6 +614,29 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 		return Mono.fromFuture(this.appsInSpaceCache.get(key));
 	}
 
+	@Override
+	public Mono<ListApplicationsResponse> retrieveApplicationsInSpaceV3(String orgId, String spaceId, Set<String> applicationNames) {
+		final CompletableFuture<ListApplicationsResponse> cached = this.appsInSpaceCache.getIfPresent(new CacheKeyAppsInSpace(orgId, spaceId));
+		if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+			// all applications of the space are cached already; no need to ask the platform
+			return CFAccessorCache.super.retrieveApplicationsInSpaceV3(orgId, spaceId, applicationNames);
+		}
+		
+		// the names of the applications are filtered on the platform
+		return Mono.fromFuture(this.appsByNameCache.get(new CacheKeyAppsByName(orgId, spaceId, applicationNames)));
+	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveApplicationsByLabelSelectorV3(String labelSelector) {
+		// the applications found are cached by the CachingTargetResolver
+		return this.parent.retrieveApplicationsByLabelSelectorV3(labelSelector);
+	}
+
+	@Override
+	public Mono<GetSpaceResponse> retrieveSpaceV3(String spaceId) {
+		return Mono.fromFuture(this.spaceByIdCache.get(spaceId));
+	}
+
 	@Override
 	public Mono<ListOrganizationDomainsResponse> retrieveAllDomainsV3(String orgId) {
 		return Mono.fromFuture(this.domainsInOrgCache.get(orgId));
@@ -423,6 +663,48 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 	}
 
 	
+	@Override
+	public Mono<ListOrganizationsResponse> retrieveOrgIdsV3(Set<String> orgNames) {
+		// see retrieveRoutesForAppIds
+		return this.parent.retrieveOrgIdsV3(orgNames);
+	}
+
+	@Override
+	public Mono<ListSpacesResponse> retrieveSpaceIdsV3(Set<String> orgIds, Set<String> spaceNames) {
+		// see retrieveRoutesForAppIds
+		return this.parent.retrieveSpaceIdsV3(orgIds, spaceNames);
+	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveAllApplicationsInSpacesV3(Set<String> orgIds, Set<String> spaceIds) {
+		// see retrieveRoutesForAppIds
+		return this.parent.retrieveAllApplicationsInSpacesV3(orgIds, spaceIds);
+	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveRecentlyUpdatedApplicationsV3(int count) {
+		// never cached: the most recent data is requested on purpose
+		return this.parent.retrieveRecentlyUpdatedApplicationsV3(count);
+	}
+
+	@Override
+	public Mono<ListRoutesResponse> retrieveRecentlyUpdatedRoutesV3(int count) {
+		// see retrieveRecentlyUpdatedApplicationsV3
+		return this.parent.retrieveRecentlyUpdatedRoutesV3(count);
+	}
+
+	@Override
+	public Mono<ListProcessesResponse> retrieveRecentlyUpdatedWebProcessesV3(int count) {
+		// see retrieveRecentlyUpdatedApplicationsV3
+		return this.parent.retrieveRecentlyUpdatedWebProcessesV3(count);
+	}
+
+	@Override
+	public Mono<ListAuditEventsResponse> retrieveRecentAuditEventsV3(List<String> types, int count) {
+		// see retrieveRecentlyUpdatedApplicationsV3
+		return this.parent.retrieveRecentAuditEventsV3(types, count);
+	}
+
 	@Override
 	public Mono<ListProcessesResponse> retrieveWebProcessesForAppIds(Set<String> applicationIds) {
 		/* Caching multiple IDs would cause a major problem in blocking properly
@@ -438,6 +720,7 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 	public void invalidateCacheApplication() {
 		log.info("Invalidating application cache");
 		this.appsInSpaceCache.synchronous().invalidateAll();
+		this.appsByNameCache.synchronous().invalidateAll();
 	}
 
 	@Override
@@ -445,6 +728,7 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 		log.info("Invalidating space cache");
 		this.spaceCache.synchronous().invalidateAll();
 		this.spaceIdInOrgCache.synchronous().invalidateAll();
+		this.spaceByIdCache.synchronous().invalidateAll();
 	}
 
 	@Override
@@ -472,6 +756,265 @@ public class CFAccessorCacheCaffeine implements CFAccessorCache {
 		this.processCache.synchronous().invalidateAll();
 	}
 
+	@Override
+	public Mono<Void> refreshApplicationsInSpace(String spaceId) {
+		final Mono<Void> appsByName = this.refreshAppsByName(key -> spaceId.equals(key.getSpaceId()));
+		
+		final String orgId = this.appsInSpaceRequestAggregator.orgIdOfSpaceId.get(spaceId);
+		if (orgId == null) {
+			// all applications of the space never were requested
+			return appsByName;
+		}
+		
+		return Mono.when(refreshIfPresent(this.appsInSpaceCache, new CacheKeyAppsInSpace(orgId, spaceId)), appsByName);
+	}
+	
+	/**
+	 * refreshes the applications requested by their names, which match the predicate
+	 */
+	private Mono<Void> refreshAppsByName(Predicate<CacheKeyAppsByName> predicate) {
+		return Mono.defer(() -> Flux.fromIterable(this.appsByNameCache.asMap().keySet())
+				.filter(predicate)
+				.flatMap(key -> refreshIfPresent(this.appsByNameCache, key))
+				.then());
+	}
+
+	@Override
+	public Mono<Void> refreshRoutesForApp(String appId) {
+		return refreshIfPresent(this.routesCache, appId);
+	}
+
+	@Override
+	public Mono<Void> refreshWebProcessesForApp(String appId) {
+		return refreshIfPresent(this.processCache, appId);
+	}
+	
+	private static <K> Mono<Void> refreshIfPresent(AsyncLoadingCache<K, ?> cache, K key) {
+		return refreshValueIfPresent(cache, key).then();
+	}
+	
+	private static <K, V> Mono<V> refreshValueIfPresent(AsyncLoadingCache<K, V> cache, K key) {
+		return Mono.defer(() -> {
+			if (!cache.asMap().containsKey(key)) {
+				// not cached (anymore); it will be loaded anyway once it is requested
+				return Mono.empty();
+			}
+			
+			return Mono.fromFuture(cache.synchronous().refresh(key));
+		});
+	}
+	
+	/**
+	 * @return the values of the cache, which have been loaded successfully; values still being loaded are skipped
+	 */
+	private static <K, V> Map<K, V> loadedEntries(AsyncLoadingCache<K, V> cache) {
+		final Map<K, V> result = new HashMap<>();
+		cache.asMap().forEach((key, future) -> {
+			if (future.isDone() && !future.isCompletedExceptionally()) {
+				final V value = future.getNow(null);
+				if (value != null) {
+					result.put(key, value);
+				}
+			}
+		});
+		return result;
+	}
+	
+	private static Set<String> applicationIdsOf(ListApplicationsResponse response) {
+		if (response.getResources() == null) {
+			return Collections.emptySet();
+		}
+		
+		return response.getResources().stream().map(ApplicationResource::getId).collect(Collectors.toSet());
+	}
+
+	@Override
+	public Mono<Set<String>> refreshApplication(String appId) {
+		log.info("Refreshing cached data of application {}", appId);
+		
+		final Set<CacheKeyAppsInSpace> appsInSpaceKeys = loadedEntries(this.appsInSpaceCache).entrySet().stream()
+				.filter(entry -> applicationIdsOf(entry.getValue()).contains(appId))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+		
+		final Set<CacheKeyAppsByName> appsByNameKeys = loadedEntries(this.appsByNameCache).entrySet().stream()
+				.filter(entry -> applicationIdsOf(entry.getValue()).contains(appId))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+		
+		return Mono.when(
+				Flux.fromIterable(appsInSpaceKeys).flatMap(key -> refreshIfPresent(this.appsInSpaceCache, key)),
+				this.refreshAppsByName(appsByNameKeys::contains),
+				refreshIfPresent(this.routesCache, appId),
+				refreshIfPresent(this.processCache, appId))
+			.thenReturn(Set.of(appId));
+	}
+
+	@Override
+	public Mono<Set<String>> refreshSpace(String spaceId) {
+		log.info("Refreshing cached data of space {}", spaceId);
+		
+		final Set<CacheKeySpace> spaceKeys = loadedEntries(this.spaceCache).entrySet().stream()
+				.filter(entry -> entry.getValue().getResources() != null && 
+						entry.getValue().getResources().stream().anyMatch(space -> spaceId.equals(space.getId())))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+		
+		final Set<CacheKeyAppsInSpace> appsInSpaceKeys = this.appsInSpaceCache.asMap().keySet().stream()
+				.filter(key -> spaceId.equals(key.getSpaceId()))
+				.collect(Collectors.toSet());
+		
+		return Flux.fromIterable(spaceKeys)
+				.flatMap(key -> refreshIfPresent(this.spaceCache, key))
+				.mergeWith(refreshIfPresent(this.spaceByIdCache, spaceId))
+				.then(this.refreshAppsInSpaces(appsInSpaceKeys, key -> spaceId.equals(key.getSpaceId())));
+	}
+
+	@Override
+	public Mono<Set<String>> refreshOrg(String orgName) {
+		log.info("Refreshing cached data of org {}", orgName);
+		
+		final Set<String> orgKeys = this.orgCache.asMap().keySet().stream()
+				.filter(orgName::equalsIgnoreCase)
+				.collect(Collectors.toSet());
+		
+		final Set<String> orgIds = Stream.concat(loadedEntries(this.orgCache).values().stream(), loadedEntries(this.allOrgIdCache).values().stream())
+				.filter(response -> response.getResources() != null)
+				.flatMap(response -> response.getResources().stream())
+				.filter(org -> orgName.equalsIgnoreCase(org.getName()))
+				.map(OrganizationResource::getId)
+				.collect(Collectors.toSet());
+		
+		final Set<CacheKeySpace> spaceKeys = this.spaceCache.asMap().keySet().stream()
+				.filter(key -> orgIds.contains(key.getOrgId()))
+				.collect(Collectors.toSet());
+		
+		final Set<CacheKeyAppsInSpace> appsInSpaceKeys = this.appsInSpaceCache.asMap().keySet().stream()
+				.filter(key -> orgIds.contains(key.getOrgId()))
+				.collect(Collectors.toSet());
+		
+		return Mono.when(
+				Flux.fromIterable(orgKeys).flatMap(key -> refreshIfPresent(this.orgCache, key)),
+				Flux.fromIterable(orgIds).flatMap(orgId -> Mono.when(refreshIfPresent(this.spaceIdInOrgCache, orgId), refreshIfPresent(this.domainsInOrgCache, orgId))),
+				Flux.fromIterable(spaceKeys).flatMap(key -> refreshIfPresent(this.spaceCache, key)))
+			.then(this.refreshAppsInSpaces(appsInSpaceKeys, key -> orgIds.contains(key.getOrgId())));
+	}
+	
+	/**
+	 * refreshes the applications of the spaces (including those requested by their names, which match the predicate)
+	 * and, once they are up to date, the routes and processes of all applications, which were or are part of these spaces.
+	 * @return a Mono providing the identifiers of the applications affected
+	 */
+	private Mono<Set<String>> refreshAppsInSpaces(Set<CacheKeyAppsInSpace> keys, Predicate<CacheKeyAppsByName> appsByNamePredicate) {
+		return Mono.defer(() -> {
+			final Map<CacheKeyAppsInSpace, ListApplicationsResponse> cached = loadedEntries(this.appsInSpaceCache);
+			final Map<CacheKeyAppsByName, ListApplicationsResponse> cachedByName = loadedEntries(this.appsByNameCache);
+			final Set<CacheKeyAppsByName> appsByNameKeys = this.appsByNameCache.asMap().keySet().stream()
+					.filter(appsByNamePredicate)
+					.collect(Collectors.toSet());
+			
+			final Set<String> appIds = ConcurrentHashMap.newKeySet();
+			keys.stream().map(cached::get).filter(Objects::nonNull).forEach(response -> appIds.addAll(applicationIdsOf(response)));
+			appsByNameKeys.stream().map(cachedByName::get).filter(Objects::nonNull).forEach(response -> appIds.addAll(applicationIdsOf(response)));
+			
+			return Flux.merge(
+						Flux.fromIterable(keys).flatMap(key -> refreshValueIfPresent(this.appsInSpaceCache, key)),
+						Flux.fromIterable(appsByNameKeys).flatMap(key -> refreshValueIfPresent(this.appsByNameCache, key)))
+					.doOnNext(response -> appIds.addAll(applicationIdsOf(response)))
+					.thenMany(Flux.defer(() -> Flux.fromIterable(appIds)))
+					.flatMap(appId -> Mono.when(refreshIfPresent(this.routesCache, appId), refreshIfPresent(this.processCache, appId)))
+					.then(Mono.fromSupplier(() -> Set.copyOf(appIds)));
+		});
+	}
+
+	@Override
+	public void refreshCacheApplication() {
+		log.info("Refreshing application cache");
+		this.appsInSpaceCache.synchronous().refreshAll(this.appsInSpaceCache.asMap().keySet());
+		this.appsByNameCache.synchronous().refreshAll(this.appsByNameCache.asMap().keySet());
+	}
+
+	@Override
+	public void refreshCacheRoute() {
+		log.info("Refreshing route cache");
+		this.routesCache.synchronous().refreshAll(this.routesCache.asMap().keySet());
+	}
+
+	@Override
+	public void refreshCacheProcess() {
+		log.info("Refreshing process cache");
+		this.processCache.synchronous().refreshAll(this.processCache.asMap().keySet());
+	}
+
+	@Override
+	public CFAccessorCacheSnapshot createSnapshot() {
+		return new CFAccessorCacheSnapshot(
+				loadedEntries(this.orgCache),
+				loadedEntries(this.allOrgIdCache).get(ALL_ORGS_KEY),
+				loadedEntries(this.spaceCache).entrySet().stream()
+					.map(entry -> new SpaceEntry(entry.getKey().getOrgId(), entry.getKey().getSpaceName(), entry.getValue()))
+					.toList(),
+				loadedEntries(this.spaceIdInOrgCache),
+				loadedEntries(this.domainsInOrgCache),
+				loadedEntries(this.appsInSpaceCache).entrySet().stream()
+					.map(entry -> new AppsInSpaceEntry(entry.getKey().getOrgId(), entry.getKey().getSpaceId(), entry.getValue()))
+					.toList(),
+				loadedEntries(this.routesCache),
+				loadedEntries(this.processCache));
+	}
+
+	@Override
+	public int restoreSnapshot(CFAccessorCacheSnapshot snapshot) {
+		final Map<CacheKeySpace, ListSpacesResponse> spaces = new HashMap<>();
+		if (snapshot.spaces() != null) {
+			snapshot.spaces().forEach(entry -> spaces.put(new CacheKeySpace(entry.orgId(), entry.spaceName()), entry.response()));
+		}
+		
+		final Map<CacheKeyAppsInSpace, ListApplicationsResponse> appsInSpace = new HashMap<>();
+		if (snapshot.appsInSpace() != null) {
+			snapshot.appsInSpace().forEach(entry -> {
+				appsInSpace.put(new CacheKeyAppsInSpace(entry.orgId(), entry.spaceId()), entry.response());
+				// required for refreshing the applications of a space (see refreshApplicationsInSpace)
+				this.appsInSpaceRequestAggregator.orgIdOfSpaceId.putIfAbsent(entry.spaceId(), entry.orgId());
+			});
+		}
+		
+		int restored = restore(this.orgCache, snapshot.orgs());
+		if (snapshot.allOrgs() != null) {
+			restored += restore(this.allOrgIdCache, Map.of(ALL_ORGS_KEY, snapshot.allOrgs()));
+		}
+		restored += restore(this.spaceCache, spaces);
+		restored += restore(this.spaceIdInOrgCache, snapshot.spacesInOrg());
+		restored += restore(this.domainsInOrgCache, snapshot.domainsInOrg());
+		restored += restore(this.appsInSpaceCache, appsInSpace);
+		restored += restore(this.routesCache, snapshot.routes());
+		restored += restore(this.processCache, snapshot.processes());
+		return restored;
+	}
+	
+	/**
+	 * stores the values in the cache, unless a value is cached for the key already, and reloads them in the background
+	 * @return the number of values stored
+	 */
+	private static <K, V> int restore(AsyncLoadingCache<K, V> cache, Map<K, V> values) {
+		if (values == null) {
+			return 0;
+		}
+		
+		final Set<K> restoredKeys = new HashSet<>();
+		values.forEach((key, value) -> {
+			if (key != null && value != null && cache.asMap().putIfAbsent(key, CompletableFuture.completedFuture(value)) == null) {
+				restoredKeys.add(key);
+			}
+		});
+		
+		if (!restoredKeys.isEmpty()) {
+			// the values restored are served until they have been reloaded
+			cache.synchronous().refreshAll(restoredKeys);
+		}
+		return restoredKeys.size();
+	}
+
 	@Override
 	public void reset() {
 		this.parent.reset();
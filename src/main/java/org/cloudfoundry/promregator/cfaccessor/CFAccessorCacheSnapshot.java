@@ -0,0 +1,33 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.List;
+import java.util.Map;
+
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse;
+import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
+import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
+
+/**
+ * the values of the caches of a {@link CFAccessorCache}, which had been loaded at a point in time.
+ * It allows to restore the caches after a restart (see also {@link CFAccessorCache#restoreSnapshot(CFAccessorCacheSnapshot)}).
+ * Collections may be <code>null</code>, if the snapshot was read from an incomplete file.
+ */
+public record CFAccessorCacheSnapshot(
+		Map<String, ListOrganizationsResponse> orgs,
+		ListOrganizationsResponse allOrgs,
+		List<SpaceEntry> spaces,
+		Map<String, ListSpacesResponse> spacesInOrg,
+		Map<String, ListOrganizationDomainsResponse> domainsInOrg,
+		List<AppsInSpaceEntry> appsInSpace,
+		Map<String, ListRoutesResponse> routes,
+		Map<String, ListProcessesResponse> processes) {
+
+	public record SpaceEntry(String orgId, String spaceName, ListSpacesResponse response) {
+	}
+
+	public record AppsInSpaceEntry(String orgId, String spaceId, ListApplicationsResponse response) {
+	}
+}
@@ -14,9 +14,11 @@ import org.cloudfoundry.client.v3.LifecycleType;
 import org.cloudfoundry.client.v3.Metadata;
 import org.cloudfoundry.client.v3.Relationship;
 import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationRelationships;
 import org.cloudfoundry.client.v3.applications.ApplicationResource;
 import org.cloudfoundry.client.v3.applications.ApplicationState;
 import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsResponse;
 import org.cloudfoundry.client.v3.domains.DomainRelationships;
 import org.cloudfoundry.client.v3.domains.DomainResource;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
@@ -32,7 +34,9 @@ import org.cloudfoundry.client.v3.routes.Destination;
 import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
 import org.cloudfoundry.client.v3.routes.RouteRelationships;
 import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.GetSpaceResponse;
 import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
+import org.cloudfoundry.client.v3.spaces.SpaceRelationships;
 import org.cloudfoundry.client.v3.spaces.SpaceResource;
 import org.cloudfoundry.promregator.cfaccessor.client.InfoV3;
 import org.slf4j.Logger;
@@ -104,6 +108,15 @@ public class CFAccessorSimulator implements CFAccessor {
 		return null;
 	}
 
+	@Override
+	public Mono<ListOrganizationsResponse> retrieveOrgIdsV3(Set<String> orgNames) {
+		if (orgNames.contains("simorg")) {
+			return this.retrieveOrgIdV3("simorg");
+		}
+		
+		return Mono.just(ListOrganizationsResponse.builder().build()).delayElement(this.getSleepRandomDuration());
+	}
+
 	@Override
 	public Mono<ListOrganizationsResponse> retrieveAllOrgIdsV3() {
 		return this.retrieveOrgIdV3("simorg");
@@ -118,6 +131,9 @@ public class CFAccessorSimulator implements CFAccessor {
 					.createdAt(CREATED_AT_TIMESTAMP)
 					.id(SPACE_UUID)
 					.metadata(Metadata.builder().build())
+					.relationships(SpaceRelationships.builder()
+							.organization(ToOneRelationship.builder().data(Relationship.builder().id(ORG_UUID).build()).build())
+							.build())
 					.build();
 			List<SpaceResource> list = new LinkedList<>();
 			list.add(sr);
@@ -130,6 +146,35 @@ public class CFAccessorSimulator implements CFAccessor {
 		return null;
 	}
 
+	@Override
+	public Mono<ListSpacesResponse> retrieveSpaceIdsV3(Set<String> orgIds, Set<String> spaceNames) {
+		if (orgIds.contains(ORG_UUID) && spaceNames.contains("simspace")) {
+			return this.retrieveSpaceIdV3(ORG_UUID, "simspace");
+		}
+		
+		return Mono.just(ListSpacesResponse.builder().build()).delayElement(this.getSleepRandomDuration());
+	}
+
+	@Override
+	public Mono<GetSpaceResponse> retrieveSpaceV3(String spaceId) {
+		if (SPACE_UUID.equals(spaceId)) {
+			GetSpaceResponse resp = GetSpaceResponse.builder()
+					.name("simspace")
+					.createdAt(CREATED_AT_TIMESTAMP)
+					.id(SPACE_UUID)
+					.metadata(Metadata.builder().build())
+					.relationships(SpaceRelationships.builder()
+							.organization(ToOneRelationship.builder().data(Relationship.builder().id(ORG_UUID).build()).build())
+							.build())
+					.build();
+			
+			return Mono.just(resp).delayElement(this.getSleepRandomDuration());
+		}
+		
+		log.error("Invalid Space request");
+		return null;
+	}
+
 	@Override
 	public Mono<ListSpacesResponse> retrieveSpaceIdsInOrgV3(String orgId) {
 		return this.retrieveSpaceIdV3(ORG_UUID, "simspace");
@@ -149,6 +194,9 @@ public class CFAccessorSimulator implements CFAccessor {
 							.id(APP_UUID_PREFIX+i)
 							.metadata(Metadata.builder().build())
 							.lifecycle(Lifecycle.builder().data(BuildpackData.builder().build()).type(LifecycleType.BUILDPACK).build())
+							.relationships(ApplicationRelationships.builder()
+									.space(ToOneRelationship.builder().data(Relationship.builder().id(SPACE_UUID).build()).build())
+									.build())
 							.build();
 			
 				list.add(ar);
@@ -161,6 +209,21 @@ public class CFAccessorSimulator implements CFAccessor {
 		return null;
 	}
 
+	@Override
+	public Mono<ListApplicationsResponse> retrieveApplicationsByLabelSelectorV3(String labelSelector) {
+		// all simulated applications are considered to be labelled
+		return this.retrieveAllApplicationsInSpaceV3(ORG_UUID, SPACE_UUID);
+	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveAllApplicationsInSpacesV3(Set<String> orgIds, Set<String> spaceIds) {
+		if (orgIds.contains(ORG_UUID) && spaceIds.contains(SPACE_UUID)) {
+			return this.retrieveAllApplicationsInSpaceV3(ORG_UUID, SPACE_UUID);
+		}
+		
+		return Mono.just(ListApplicationsResponse.builder().build()).delayElement(this.getSleepRandomDuration());
+	}
+
 	@Override
 	public Mono<ListOrganizationDomainsResponse> retrieveAllDomainsV3(String orgId) {
 		List<DomainResource> domains = new ArrayList<>();
@@ -294,4 +357,27 @@ public class CFAccessorSimulator implements CFAccessor {
 		ListProcessesResponse resp = ListProcessesResponse.builder().resources(list).build();
 		return Mono.just(resp).delayElement(this.getSleepRandomDuration());
 	}
+	
+	/* the simulated landscape never changes */
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveRecentlyUpdatedApplicationsV3(int count) {
+		return Mono.just(ListApplicationsResponse.builder().build());
+	}
+
+	@Override
+	public Mono<ListRoutesResponse> retrieveRecentlyUpdatedRoutesV3(int count) {
+		return Mono.just(ListRoutesResponse.builder().build());
+	}
+
+	@Override
+	public Mono<ListProcessesResponse> retrieveRecentlyUpdatedWebProcessesV3(int count) {
+		return Mono.just(ListProcessesResponse.builder().build());
+	}
+
+	@Override
+	public Mono<ListAuditEventsResponse> retrieveRecentAuditEventsV3(List<String> types, int count) {
+		return Mono.just(ListAuditEventsResponse.builder().build());
+	}
+
 }
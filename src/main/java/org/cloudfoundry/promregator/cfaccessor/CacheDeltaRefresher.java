@@ -0,0 +1,157 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.cloudfoundry.client.v3.Resource;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.processes.ProcessResource;
+import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Periodically asks the Cloud Controller for the applications, routes and web processes, which have been
+ * updated since the last check, and refreshes only the corresponding entries of the caches in the background.
+ *
+ * The Cloud Controller is asked for the most recently updated resources (ordered by <code>updated_at</code>, descending).
+ * Resources updated after the newest timestamp seen so far are considered to be changed. If all resources of
+ * the page are changed, more changes might have happened than fit on a page; then all entries of the cache are refreshed.
+ */
+public class CacheDeltaRefresher {
+	private static final Logger log = LoggerFactory.getLogger(CacheDeltaRefresher.class);
+
+	@Autowired
+	private CFAccessor mainCFAccessor;
+
+	@Autowired
+	private CFAccessorCache cfAccessorCache;
+
+	@Value("${cf.cache.deltaRefresh.enabled:false}")
+	private boolean enabled;
+
+	@Value("${cf.cache.deltaRefresh.pageSize:500}")
+	private int pageSize;
+
+	private final AtomicBoolean running = new AtomicBoolean(false);
+
+	private final UpdateWatermark applicationsWatermark = new UpdateWatermark();
+	private final UpdateWatermark routesWatermark = new UpdateWatermark();
+	private final UpdateWatermark processesWatermark = new UpdateWatermark();
+
+	@Scheduled(fixedRateString = "${cf.cache.deltaRefresh.rate:30}000", initialDelayString = "${cf.cache.deltaRefresh.rate:30}000")
+	@SuppressWarnings("unused")
+	private void deltaRefresh() {
+		if (!this.enabled) {
+			return;
+		}
+
+		if (!this.running.compareAndSet(false, true)) {
+			log.debug("Previous delta refresh of the caches is still running; skipping this one");
+			return;
+		}
+
+		this.refreshChanges()
+			.doFinally(signalType -> this.running.set(false))
+			.subscribe();
+	}
+
+	/**
+	 * determines the changes since the last call and refreshes the corresponding entries of the caches.
+	 * On the first call, only the current state is recorded.
+	 * @return a Mono, which completes once the changes have been determined
+	 */
+	Mono<Void> refreshChanges() {
+		Mono<Void> applications = this.mainCFAccessor.retrieveRecentlyUpdatedApplicationsV3(this.pageSize)
+				.flatMap(response -> this.applyChanges("applications", response.getResources(), this.applicationsWatermark,
+						CacheDeltaRefresher::determineSpaceId, this.cfAccessorCache::refreshApplicationsInSpace, this.cfAccessorCache::refreshCacheApplication))
+				.then()
+				.onErrorResume(e -> this.logError("applications", e));
+
+		Mono<Void> routes = this.mainCFAccessor.retrieveRecentlyUpdatedRoutesV3(this.pageSize)
+				.flatMap(response -> this.applyChanges("routes", response.getResources(), this.routesWatermark,
+						CacheDeltaRefresher::determineApplicationIds, this.cfAccessorCache::refreshRoutesForApp, this.cfAccessorCache::refreshCacheRoute))
+				.then()
+				.onErrorResume(e -> this.logError("routes", e));
+
+		Mono<Void> processes = this.mainCFAccessor.retrieveRecentlyUpdatedWebProcessesV3(this.pageSize)
+				.flatMap(response -> this.applyChanges("processes", response.getResources(), this.processesWatermark,
+						CacheDeltaRefresher::determineApplicationId, this.cfAccessorCache::refreshWebProcessesForApp, this.cfAccessorCache::refreshCacheProcess))
+				.then()
+				.onErrorResume(e -> this.logError("processes", e));
+
+		return Mono.when(applications, routes, processes)
+				.contextWrite(RequestPriority.BACKGROUND.asContext());
+	}
+
+	private Mono<Void> logError(String kind, Throwable e) {
+		log.warn("Unable to determine the recently updated {}; relying on the refresh of the caches only", kind, e);
+		return Mono.empty();
+	}
+
+	private synchronized <R extends Resource> Mono<Void> applyChanges(String kind, List<R> resources, UpdateWatermark watermark,
+			Function<R, Collection<String>> keysOfResource, Function<String, Mono<Void>> refreshKey, Runnable refreshAll) {
+		final List<R> list = resources == null ? List.of() : resources;
+
+		if (!watermark.isInitialized()) {
+			// nothing to compare with yet; the caches have just been filled anyway
+			watermark.advance(list);
+			return Mono.empty();
+		}
+
+		final List<R> changed = list.stream().filter(watermark::isNewer).toList();
+		watermark.advance(list);
+
+		if (changed.isEmpty()) {
+			return Mono.empty();
+		}
+
+		if (changed.size() == list.size() && list.size() >= this.pageSize) {
+			log.info("At least {} {} have been updated since the last check; refreshing all of them", list.size(), kind);
+			refreshAll.run();
+			return Mono.empty();
+		}
+
+		final Set<String> keys = new HashSet<>();
+		changed.forEach(resource -> keys.addAll(keysOfResource.apply(resource)));
+		log.debug("{} {} have been updated since the last check; refreshing the entries of the cache for {} keys", changed.size(), kind, keys.size());
+
+		return Flux.fromIterable(keys)
+				.flatMap(refreshKey)
+				.then();
+	}
+
+	private static Collection<String> determineSpaceId(ApplicationResource app) {
+		if (app.getRelationships() == null || app.getRelationships().getSpace() == null || app.getRelationships().getSpace().getData() == null) {
+			return List.of();
+		}
+		return List.of(app.getRelationships().getSpace().getData().getId());
+	}
+
+	private static Collection<String> determineApplicationIds(RouteResource route) {
+		if (route.getDestinations() == null) {
+			return List.of();
+		}
+		return route.getDestinations().stream()
+				.filter(destination -> destination.getApplication() != null && destination.getApplication().getApplicationId() != null)
+				.map(destination -> destination.getApplication().getApplicationId())
+				.toList();
+	}
+
+	private static Collection<String> determineApplicationId(ProcessResource process) {
+		if (process.getRelationships() == null || process.getRelationships().getApp() == null || process.getRelationships().getApp().getData() == null) {
+			return List.of();
+		}
+		return List.of(process.getRelationships().getApp().getData().getId());
+	}
+}
@@ -0,0 +1,271 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.cloudfoundry.client.v3.BuildpackData;
+import org.cloudfoundry.client.v3.Lifecycle;
+import org.cloudfoundry.client.v3.LifecycleType;
+import org.cloudfoundry.client.v3.Metadata;
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationRelationships;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.domains.DomainRelationships;
+import org.cloudfoundry.client.v3.domains.DomainResource;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse;
+import org.cloudfoundry.client.v3.organizations.OrganizationResource;
+import org.cloudfoundry.client.v3.processes.HealthCheck;
+import org.cloudfoundry.client.v3.processes.HealthCheckType;
+import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
+import org.cloudfoundry.client.v3.processes.ProcessRelationships;
+import org.cloudfoundry.client.v3.processes.ProcessResource;
+import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v3.routes.RouteRelationships;
+import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
+import org.cloudfoundry.client.v3.spaces.SpaceRelationships;
+import org.cloudfoundry.client.v3.spaces.SpaceResource;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Projects the responses of the Cloud Controller to the data, which Promregator actually reads,
+ * before they are stored in the caches: ids, names, the state and the annotations of applications,
+ * the number of instances of processes, the URL and the domain of routes, and the relationships required
+ * for assigning the resources. Links, timestamps, lifecycle data, labels and alike are dropped.
+ *
+ * The projection keeps the types of the Cloud Foundry client, so that consumers do not notice the difference.
+ * Attributes, which are mandatory for these types, but not read by Promregator, are set to shared placeholders.
+ * Strings and other immutable values, which are repeated across many resources (such as the ids of spaces
+ * and domains, states or annotations), are deduplicated.
+ */
+public class CacheEntryCompactor {
+	/* placeholder for mandatory attributes, which are not read */
+	private static final String UNUSED = "";
+
+	private static final Metadata EMPTY_METADATA = Metadata.builder().build();
+
+	private static final Lifecycle UNUSED_LIFECYCLE = Lifecycle.builder()
+			.type(LifecycleType.BUILDPACK)
+			.data(BuildpackData.builder().build())
+			.build();
+
+	private static final HealthCheck UNUSED_HEALTHCHECK = HealthCheck.builder().type(HealthCheckType.PORT).build();
+
+	private static final ToOneRelationship EMPTY_RELATIONSHIP = ToOneRelationship.builder().build();
+
+	/* rough sizes (in bytes) of the objects on the heap; see estimateSize(...) */
+	private static final int REFERENCE_SIZE = 8;
+	private static final int OBJECT_OVERHEAD = 16;
+	private static final int RESPONSE_SIZE = OBJECT_OVERHEAD + 4 * REFERENCE_SIZE;
+	private static final int LIST_OVERHEAD = OBJECT_OVERHEAD + 16;
+	private static final int RESOURCE_SIZE = OBJECT_OVERHEAD + 12 * REFERENCE_SIZE;
+	private static final int STRING_OVERHEAD = 24 + 16;
+	private static final int MAP_ENTRY_SIZE = OBJECT_OVERHEAD + 3 * REFERENCE_SIZE;
+
+	private final Interner<Object> interner = Interners.newWeakInterner();
+
+	@SuppressWarnings("unchecked")
+	private <T> T dedup(T value) {
+		if (value == null) {
+			return null;
+		}
+		return (T) this.interner.intern(value);
+	}
+
+	private ToOneRelationship compactRelationship(ToOneRelationship relationship) {
+		if (relationship == null || relationship.getData() == null) {
+			return EMPTY_RELATIONSHIP;
+		}
+
+		return this.dedup(ToOneRelationship.builder()
+				.data(Relationship.builder().id(this.dedup(relationship.getData().getId())).build())
+				.build());
+	}
+
+	private static <S> List<S> compactResources(List<S> resources, Function<S, S> compaction) {
+		if (resources == null) {
+			return null;
+		}
+
+		final List<S> result = new ArrayList<>(resources.size());
+		for (S resource : resources) {
+			result.add(compaction.apply(resource));
+		}
+		return result;
+	}
+
+	public ListOrganizationsResponse compactOrganizations(ListOrganizationsResponse response) {
+		final List<OrganizationResource> resources = compactResources(response.getResources(), res -> OrganizationResource.builder()
+				.id(this.dedup(res.getId()))
+				.name(this.dedup(res.getName()))
+				.createdAt(UNUSED)
+				.metadata(EMPTY_METADATA)
+				.build());
+
+		return ListOrganizationsResponse.builder().resources(resources).build();
+	}
+
+	public ListSpacesResponse compactSpaces(ListSpacesResponse response) {
+		final List<SpaceResource> resources = compactResources(response.getResources(), res -> {
+			SpaceResource.Builder builder = SpaceResource.builder()
+					.id(this.dedup(res.getId()))
+					.name(this.dedup(res.getName()))
+					.createdAt(UNUSED);
+
+			if (res.getRelationships() != null) {
+				builder.relationships(SpaceRelationships.builder()
+						.organization(this.compactRelationship(res.getRelationships().getOrganization()))
+						.build());
+			}
+
+			return builder.build();
+		});
+
+		return ListSpacesResponse.builder().resources(resources).build();
+	}
+
+	public ListApplicationsResponse compactApplications(ListApplicationsResponse response) {
+		final List<ApplicationResource> resources = compactResources(response.getResources(), res -> {
+			ApplicationResource.Builder builder = ApplicationResource.builder()
+					.id(this.dedup(res.getId()))
+					.name(this.dedup(res.getName()))
+					.state(res.getState())
+					.createdAt(UNUSED)
+					.lifecycle(UNUSED_LIFECYCLE);
+
+			if (res.getMetadata() != null && res.getMetadata().getAnnotations() != null && !res.getMetadata().getAnnotations().isEmpty()) {
+				Metadata.Builder metadataBuilder = Metadata.builder();
+				res.getMetadata().getAnnotations().forEach((key, value) -> metadataBuilder.annotation(this.dedup(key), this.dedup(value)));
+				builder.metadata(this.dedup(metadataBuilder.build()));
+			}
+
+			if (res.getRelationships() != null) {
+				builder.relationships(ApplicationRelationships.builder()
+						.space(this.compactRelationship(res.getRelationships().getSpace()))
+						.build());
+			}
+
+			return builder.build();
+		});
+
+		return ListApplicationsResponse.builder().resources(resources).build();
+	}
+
+	public ListRoutesResponse compactRoutes(ListRoutesResponse response) {
+		final List<RouteResource> resources = compactResources(response.getResources(), res -> RouteResource.builder()
+				.id(this.dedup(res.getId()))
+				.url(this.dedup(res.getUrl()))
+				.host(this.dedup(res.getHost()))
+				.path(this.dedup(res.getPath()))
+				.createdAt(UNUSED)
+				.relationships(RouteRelationships.builder()
+						.domain(this.compactRelationship(res.getRelationships().getDomain()))
+						.space(this.compactRelationship(res.getRelationships().getSpace()))
+						.build())
+				.build());
+
+		return ListRoutesResponse.builder().resources(resources).build();
+	}
+
+	public ListProcessesResponse compactProcesses(ListProcessesResponse response) {
+		final List<ProcessResource> resources = compactResources(response.getResources(), res -> {
+			ProcessResource.Builder builder = ProcessResource.builder()
+					.id(this.dedup(res.getId()))
+					.type(this.dedup(res.getType()))
+					.instances(res.getInstances())
+					.createdAt(UNUSED)
+					.command(UNUSED)
+					.diskInMb(0)
+					.memoryInMb(0)
+					.healthCheck(UNUSED_HEALTHCHECK)
+					.metadata(EMPTY_METADATA);
+
+			if (res.getRelationships() != null) {
+				builder.relationships(ProcessRelationships.builder()
+						.app(this.compactRelationship(res.getRelationships().getApp()))
+						.build());
+			} else {
+				builder.relationships(ProcessRelationships.builder().build());
+			}
+
+			return builder.build();
+		});
+
+		return ListProcessesResponse.builder().resources(resources).build();
+	}
+
+	public ListOrganizationDomainsResponse compactDomains(ListOrganizationDomainsResponse response) {
+		final List<DomainResource> resources = compactResources(response.getResources(), res -> DomainResource.builder()
+				.id(this.dedup(res.getId()))
+				.name(this.dedup(res.getName()))
+				.isInternal(res.isInternal())
+				.createdAt(UNUSED)
+				.relationships(DomainRelationships.builder()
+						.organization(this.compactRelationship(res.getRelationships() == null ? null : res.getRelationships().getOrganization()))
+						.build())
+				.build());
+
+		return ListOrganizationDomainsResponse.builder().resources(resources).build();
+	}
+
+	private static long sizeOf(String value) {
+		return value == null ? 0 : STRING_OVERHEAD + value.length();
+	}
+
+	private static long sizeOf(Map<String, String> map) {
+		if (map == null) {
+			return 0;
+		}
+
+		long size = OBJECT_OVERHEAD;
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			size += MAP_ENTRY_SIZE + sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+		}
+		return size;
+	}
+
+	/**
+	 * estimates the size on the heap (in bytes), which a compacted response occupies.
+	 * Values shared with other responses are counted as if they were not shared; the
+	 * estimate therefore rather is an upper bound.
+	 * @param response a response, as returned by one of the <code>compact...</code> methods
+	 * @return the estimated size in bytes
+	 */
+	public long estimateSize(Object response) {
+		if (!(response instanceof org.cloudfoundry.client.v3.PaginatedResponse<?> paginatedResponse) || paginatedResponse.getResources() == null) {
+			return RESPONSE_SIZE;
+		}
+
+		final List<?> resources = paginatedResponse.getResources();
+		long size = RESPONSE_SIZE + LIST_OVERHEAD + (long) REFERENCE_SIZE * resources.size();
+		for (Object resource : resources) {
+			size += RESOURCE_SIZE;
+
+			if (resource instanceof OrganizationResource res) {
+				size += sizeOf(res.getId()) + sizeOf(res.getName());
+			} else if (resource instanceof SpaceResource res) {
+				size += sizeOf(res.getId()) + sizeOf(res.getName());
+			} else if (resource instanceof ApplicationResource res) {
+				size += sizeOf(res.getId()) + sizeOf(res.getName());
+				if (res.getMetadata() != null) {
+					size += sizeOf(res.getMetadata().getAnnotations());
+				}
+			} else if (resource instanceof RouteResource res) {
+				size += sizeOf(res.getId()) + sizeOf(res.getUrl()) + sizeOf(res.getHost()) + sizeOf(res.getPath());
+			} else if (resource instanceof ProcessResource res) {
+				size += sizeOf(res.getId()) + sizeOf(res.getType());
+			} else if (resource instanceof DomainResource res) {
+				size += sizeOf(res.getId()) + sizeOf(res.getName());
+			}
+		}
+
+		return size;
+	}
+}
@@ -0,0 +1,31 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.Set;
+
+public record CacheKeyAppsByName(String orgId, String spaceId, Set<String> applicationNames) {
+
+	public CacheKeyAppsByName {
+		applicationNames = Set.copyOf(applicationNames);
+	}
+
+	/**
+	 * @return the orgId
+	 */
+	public String getOrgId() {
+		return orgId;
+	}
+
+	/**
+	 * @return the spaceId
+	 */
+	public String getSpaceId() {
+		return spaceId;
+	}
+
+	/**
+	 * @return the names of the applications
+	 */
+	public Set<String> getApplicationNames() {
+		return applicationNames;
+	}
+}
@@ -3,6 +3,11 @@ package org.cloudfoundry.promregator.cfaccessor;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
@@ -13,11 +18,15 @@ import org.apache.logging.log4j.util.Strings;
 import org.cloudfoundry.client.v3.Pagination;
 import org.cloudfoundry.client.v3.applications.ApplicationResource;
 import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsRequest;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsResponse;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
 import org.cloudfoundry.client.v3.processes.ListProcessesRequest;
 import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
 import org.cloudfoundry.client.v3.routes.ListRoutesRequest;
 import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v3.spaces.GetSpaceRequest;
+import org.cloudfoundry.client.v3.spaces.GetSpaceResponse;
 import org.cloudfoundry.promregator.cfaccessor.client.InfoV3;
 import org.cloudfoundry.promregator.cfaccessor.client.ReactorInfoV3;
 import org.cloudfoundry.promregator.config.ConfigurationException;
@@ -33,6 +42,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 
 import jakarta.annotation.PostConstruct;
 import reactor.core.publisher.Mono;
@@ -46,6 +58,10 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 	public static final ListApplicationsResponse INVALID_APPLICATIONS_RESPONSE = ListApplicationsResponse.builder().build();
 	
 	private static final String CF_API_V3_PROCESS_TYPE_WEB = "web";
+	
+	private static final String ORDER_BY_UPDATED_AT_DESCENDING = "-updated_at";
+	
+	private static final String ORDER_BY_CREATED_AT_DESCENDING = "-created_at";
 
 	@Value("${cf.api_host}")
 	private String apiHost;
@@ -88,6 +104,9 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 	
 	@Value("${cf.request.timeout.process:2500}")
 	private int requestTimeoutProcess;
+
+	@Value("${cf.request.timeout.auditEvents:2500}")
+	private int requestTimeoutAuditEvents;
 	
 	@Value("${cf.connectionPool.size:#{null}}")
 	private Integer connectionPoolSize;
@@ -104,8 +123,29 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 	@Value("${cf.request.backoff:500}") 
 	private long backoffDelay;
 	
+	@Value("${cf.request.resultsPerPage:100}")
+	private int resultsPerPage;
+	
+	@Value("${cf.request.adaptiveConcurrency.enabled:false}")
+	private boolean adaptiveConcurrencyEnabled;
+	
+	@Value("${cf.request.adaptiveConcurrency.initialLimit:16}")
+	private int adaptiveConcurrencyInitialLimit;
+	
+	@Value("${cf.request.adaptiveConcurrency.minLimit:2}")
+	private int adaptiveConcurrencyMinLimit;
+	
+	@Value("${cf.request.adaptiveConcurrency.maxLimit:256}")
+	private int adaptiveConcurrencyMaxLimit;
+	
+	@Value("${cf.request.adaptiveConcurrency.cooldown:1000}")
+	private int adaptiveConcurrencyCooldown;
+	
 	@Autowired
 	private InternalMetrics internalMetrics;
+	
+	@Autowired
+	private Environment environment;
 
 	
 	private static final Pattern PATTERN_HTTP_BASED_PROTOCOL_PREFIX = Pattern.compile("^https?://", Pattern.CASE_INSENSITIVE);
@@ -311,8 +351,45 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 	@PostConstruct
 	@SuppressWarnings("unused")
 	private void setupPaginatedRequestFetcher() {
-		this.paginatedRequestFetcher = new ReactiveCFPaginatedRequestFetcher(this.internalMetrics, this.requestRateLimit, 
-				Duration.ofMillis(this.backoffDelay));
+		ReactiveRateLimiter rateLimiter = new ReactiveRateLimiter(this.internalMetrics, this.requestRateLimit, this.determineRequestRateLimitPerType());
+		
+		AdaptiveConcurrencyLimiter concurrencyLimiter = AdaptiveConcurrencyLimiter.disabled();
+		if (this.adaptiveConcurrencyEnabled) {
+			concurrencyLimiter = new AdaptiveConcurrencyLimiter(true, this.adaptiveConcurrencyInitialLimit, 
+					this.adaptiveConcurrencyMinLimit, this.adaptiveConcurrencyMaxLimit, this.adaptiveConcurrencyCooldown);
+			
+			if (this.internalMetrics != null) {
+				final AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+				this.internalMetrics.registerCFFetchConcurrencyFunctions(() -> (double) limiter.getLimit(), () -> (double) limiter.getInFlight());
+			}
+		}
+		
+		this.paginatedRequestFetcher = new ReactiveCFPaginatedRequestFetcher(this.internalMetrics, rateLimiter, concurrencyLimiter,
+				this.resultsPerPage, Duration.ofMillis(this.backoffDelay));
+	}
+	
+	/**
+	 * determines the rate limits per type of request, as configured in <code>cf.request.rateLimitPerType</code>.
+	 * The types of request are identified by their metric names (e.g. <code>routes</code>).
+	 */
+	private Map<RequestType, Double> determineRequestRateLimitPerType() {
+		final Map<String, Double> configured = Binder.get(this.environment)
+				.bind("cf.request.rate-limit-per-type" /* relaxed binding also accepts cf.request.rateLimitPerType */, Bindable.mapOf(String.class, Double.class))
+				.orElse(Collections.emptyMap());
+		
+		final Map<RequestType, Double> result = new EnumMap<>(RequestType.class);
+		for (RequestType requestType : RequestType.values()) {
+			final Double limit = configured.get(requestType.getMetricName());
+			if (limit != null) {
+				result.put(requestType, limit);
+			}
+		}
+		
+		configured.keySet().stream()
+			.filter(name -> Arrays.stream(RequestType.values()).noneMatch(rt -> rt.getMetricName().equals(name)))
+			.forEach(name -> log.warn("Unknown type of request '{}' in cf.request.rateLimitPerType; ignoring it", name));
+		
+		return result;
 	}
 
 	@Override
@@ -333,6 +410,25 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 				or -> this.cloudFoundryClient.organizationsV3().list(or), this.requestTimeoutOrg);
 	}
 
+	@Override
+	public Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> retrieveOrgIdsV3(Set<String> orgNames) {
+		PaginatedRequestGeneratorFunctionV3<org.cloudfoundry.client.v3.organizations.ListOrganizationsRequest> requestGenerator = (resultsPerPage, pageNumber) ->
+			org.cloudfoundry.client.v3.organizations.ListOrganizationsRequest.builder()
+					.addAllNames(orgNames)
+					.perPage(resultsPerPage)
+					.page(pageNumber)
+					.build();
+
+		PaginatedResponseGeneratorFunctionV3<org.cloudfoundry.client.v3.organizations.OrganizationResource, org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> responseGenerator = (list, numberOfPages) ->
+			org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse.builder()
+					.addAllResources(list)
+					.pagination(Pagination.builder().totalPages(numberOfPages).totalResults(list.size()).build())
+					.build();
+
+		return this.paginatedRequestFetcher.performGenericPagedRetrievalV3(RequestType.ORG, orgNames, requestGenerator,
+					r -> this.cloudFoundryClient.organizationsV3().list(r),  this.requestTimeoutOrg, responseGenerator);
+	}
+
 	@Override
 	public Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> retrieveAllOrgIdsV3() {
 		PaginatedRequestGeneratorFunctionV3<org.cloudfoundry.client.v3.organizations.ListOrganizationsRequest> requestGenerator = (resultsPerPage, pageNumber) ->
@@ -364,6 +460,35 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 					this.requestTimeoutSpace);
 	}
 
+	@Override
+	public Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> retrieveSpaceIdsV3(Set<String> orgIds, Set<String> spaceNames) {
+		PaginatedRequestGeneratorFunctionV3<org.cloudfoundry.client.v3.spaces.ListSpacesRequest> requestGenerator = (resultsPerPage, pageNumber) ->
+			org.cloudfoundry.client.v3.spaces.ListSpacesRequest.builder()
+					.addAllOrganizationIds(orgIds)
+					.addAllNames(spaceNames)
+					.perPage(resultsPerPage)
+					.page(pageNumber)
+					.build();
+
+		PaginatedResponseGeneratorFunctionV3<org.cloudfoundry.client.v3.spaces.SpaceResource, org.cloudfoundry.client.v3.spaces.ListSpacesResponse> responseGenerator = (list, numberOfPages) ->
+			org.cloudfoundry.client.v3.spaces.ListSpacesResponse.builder()
+					.addAllResources(list)
+					.pagination(Pagination.builder().totalPages(numberOfPages).totalResults(list.size()).build())
+					.build();
+
+		final String key = "%s|%s".formatted(orgIds, spaceNames);
+		return this.paginatedRequestFetcher.performGenericPagedRetrievalV3(RequestType.SPACE, key, requestGenerator,
+					r -> this.cloudFoundryClient.spacesV3().list(r),  this.requestTimeoutSpace, responseGenerator);
+	}
+
+	@Override
+	public Mono<GetSpaceResponse> retrieveSpaceV3(String spaceId) {
+		GetSpaceRequest request = GetSpaceRequest.builder().spaceId(spaceId).build();
+
+		return this.paginatedRequestFetcher.performGenericRetrieval(RequestType.SPACE, spaceId, request,
+				r -> this.cloudFoundryClient.spacesV3().get(r), this.requestTimeoutSpace);
+	}
+
 	@Override
 	public Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> retrieveSpaceIdsInOrgV3(String orgId) {
 		PaginatedRequestGeneratorFunctionV3<org.cloudfoundry.client.v3.spaces.ListSpacesRequest> requestGenerator = (resultsPerPage, pageNumber) ->
@@ -406,6 +531,70 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 				r -> this.cloudFoundryClient.applicationsV3().list(r), this.requestTimeoutAppInSpace, responseGenerator);
 	}
 
+	@Override
+	public Mono<ListApplicationsResponse> retrieveApplicationsInSpaceV3(String orgId, String spaceId, Set<String> applicationNames) {
+		String key = "%s|%s|%s".formatted(orgId, spaceId, applicationNames);
+
+		PaginatedRequestGeneratorFunctionV3<org.cloudfoundry.client.v3.applications.ListApplicationsRequest> requestGenerator = (resultsPerPage, pageNumber) ->
+			org.cloudfoundry.client.v3.applications.ListApplicationsRequest.builder()
+					.organizationId(orgId)
+					.spaceId(spaceId)
+					.addAllNames(applicationNames)
+					.perPage(resultsPerPage)
+					.page(pageNumber)
+					.build();
+
+		PaginatedResponseGeneratorFunctionV3<ApplicationResource, ListApplicationsResponse> responseGenerator = (list, numberOfPages) ->
+			ListApplicationsResponse.builder()
+				.addAllResources(list)
+				.pagination(Pagination.builder().totalPages(numberOfPages).totalResults(list.size()).build())
+				.build();
+
+		return this.paginatedRequestFetcher.performGenericPagedRetrievalV3(RequestType.ALL_APPS_IN_SPACE, key, requestGenerator,
+				r -> this.cloudFoundryClient.applicationsV3().list(r), this.requestTimeoutAppInSpace, responseGenerator);
+	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveApplicationsByLabelSelectorV3(String labelSelector) {
+		PaginatedRequestGeneratorFunctionV3<org.cloudfoundry.client.v3.applications.ListApplicationsRequest> requestGenerator = (resultsPerPage, pageNumber) ->
+			org.cloudfoundry.client.v3.applications.ListApplicationsRequest.builder()
+					.labelSelector(labelSelector)
+					.perPage(resultsPerPage)
+					.page(pageNumber)
+					.build();
+
+		PaginatedResponseGeneratorFunctionV3<ApplicationResource, ListApplicationsResponse> responseGenerator = (list, numberOfPages) ->
+			ListApplicationsResponse.builder()
+				.addAllResources(list)
+				.pagination(Pagination.builder().totalPages(numberOfPages).totalResults(list.size()).build())
+				.build();
+
+		return this.paginatedRequestFetcher.performGenericPagedRetrievalV3(RequestType.APPS_BY_LABEL, labelSelector, requestGenerator,
+				r -> this.cloudFoundryClient.applicationsV3().list(r), this.requestTimeoutAppInSpace, responseGenerator);
+	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveAllApplicationsInSpacesV3(Set<String> orgIds, Set<String> spaceIds) {
+		String key = "%s|%s".formatted(orgIds, spaceIds);
+
+		PaginatedRequestGeneratorFunctionV3<org.cloudfoundry.client.v3.applications.ListApplicationsRequest> requestGenerator = (resultsPerPage, pageNumber) ->
+			org.cloudfoundry.client.v3.applications.ListApplicationsRequest.builder()
+					.addAllOrganizationIds(orgIds)
+					.addAllSpaceIds(spaceIds)
+					.perPage(resultsPerPage)
+					.page(pageNumber)
+					.build();
+
+		PaginatedResponseGeneratorFunctionV3<ApplicationResource, ListApplicationsResponse> responseGenerator = (list, numberOfPages) ->
+			ListApplicationsResponse.builder()
+				.addAllResources(list)
+				.pagination(Pagination.builder().totalPages(numberOfPages).totalResults(list.size()).build())
+				.build();
+
+		return this.paginatedRequestFetcher.performGenericPagedRetrievalV3(RequestType.ALL_APPS_IN_SPACE, key, requestGenerator,
+				r -> this.cloudFoundryClient.applicationsV3().list(r), this.requestTimeoutAppInSpace, responseGenerator);
+	}
+
 	@Override
 	public Mono<ListOrganizationDomainsResponse> retrieveAllDomainsV3(String orgId) {
 		org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsRequest request = org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsRequest.builder().organizationId(orgId).build();
@@ -485,4 +674,54 @@ public class ReactiveCFAccessorImpl implements CFAccessor {
 	}
 
 
+	@Override
+	public Mono<ListApplicationsResponse> retrieveRecentlyUpdatedApplicationsV3(int count) {
+		org.cloudfoundry.client.v3.applications.ListApplicationsRequest request = org.cloudfoundry.client.v3.applications.ListApplicationsRequest.builder()
+				.orderBy(ORDER_BY_UPDATED_AT_DESCENDING)
+				.perPage(count)
+				.page(1)
+				.build();
+
+		return this.paginatedRequestFetcher.performGenericRetrieval(RequestType.RECENTLY_UPDATED, "applications", request, 
+				r -> this.cloudFoundryClient.applicationsV3().list(r), this.requestTimeoutAppInSpace);
+	}
+
+	@Override
+	public Mono<ListRoutesResponse> retrieveRecentlyUpdatedRoutesV3(int count) {
+		ListRoutesRequest request = ListRoutesRequest.builder()
+				.orderBy(ORDER_BY_UPDATED_AT_DESCENDING)
+				.perPage(count)
+				.page(1)
+				.build();
+
+		return this.paginatedRequestFetcher.performGenericRetrieval(RequestType.RECENTLY_UPDATED, "routes", request, 
+				r -> this.cloudFoundryClient.routesV3().list(r), this.requestTimeoutRoute);
+	}
+
+	@Override
+	public Mono<ListProcessesResponse> retrieveRecentlyUpdatedWebProcessesV3(int count) {
+		ListProcessesRequest request = ListProcessesRequest.builder()
+				.type(CF_API_V3_PROCESS_TYPE_WEB)
+				.orderBy(ORDER_BY_UPDATED_AT_DESCENDING)
+				.perPage(count)
+				.page(1)
+				.build();
+
+		return this.paginatedRequestFetcher.performGenericRetrieval(RequestType.RECENTLY_UPDATED, "processes", request, 
+				r -> this.cloudFoundryClient.processes().list(r), this.requestTimeoutProcess);
+	}
+
+	@Override
+	public Mono<ListAuditEventsResponse> retrieveRecentAuditEventsV3(List<String> types, int count) {
+		ListAuditEventsRequest request = ListAuditEventsRequest.builder()
+				.types(types)
+				.orderBy(ORDER_BY_CREATED_AT_DESCENDING)
+				.perPage(count)
+				.page(1)
+				.build();
+
+		return this.paginatedRequestFetcher.performGenericRetrieval(RequestType.AUDIT_EVENTS, String.join(",", types), request, 
+				r -> this.cloudFoundryClient.auditEventsV3().list(r), this.requestTimeoutAuditEvents);
+	}
+
 }
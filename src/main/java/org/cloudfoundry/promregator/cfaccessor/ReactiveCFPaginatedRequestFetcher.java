@@ -1,8 +1,12 @@
 package org.cloudfoundry.promregator.cfaccessor;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.logging.Level;
@@ -15,13 +19,10 @@ import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.util.concurrent.RateLimiter;
-
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 public class ReactiveCFPaginatedRequestFetcher {
@@ -30,50 +31,56 @@ public class ReactiveCFPaginatedRequestFetcher {
 	private static final int MAX_SUPPORTED_RESULTS_PER_PAGE = 100;
 	private static final int RESULTS_PER_PAGE = MAX_SUPPORTED_RESULTS_PER_PAGE;
 
+	/* the Cloud Controller's v3 API permits up to 5000 results per page */
+	public static final int MAX_SUPPORTED_RESULTS_PER_PAGE_V3 = 5000;
+	public static final int DEFAULT_RESULTS_PER_PAGE_V3 = 100;
+
 	private InternalMetrics internalMetrics;
 
-	private final RateLimiter cfccRateLimiter;
+	private final ReactiveRateLimiter cfccRateLimiter;
+
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+	private record InFlightKey(RequestType requestType, Object key, Object requestData) {}
+
+	private final ConcurrentHashMap<InFlightKey, Mono<?>> inFlight = new ConcurrentHashMap<>();
 
 	private final Duration initialBackoffDelay;
 
+	private final int resultsPerPageV3;
+
 	public ReactiveCFPaginatedRequestFetcher(InternalMetrics internalMetrics, double requestRateLimit, Duration backoffDelay) {
+		this(internalMetrics, new ReactiveRateLimiter(internalMetrics, requestRateLimit, Map.of()), backoffDelay);
+	}
+
+	public ReactiveCFPaginatedRequestFetcher(InternalMetrics internalMetrics, ReactiveRateLimiter rateLimiter, Duration backoffDelay) {
+		this(internalMetrics, rateLimiter, AdaptiveConcurrencyLimiter.disabled(), DEFAULT_RESULTS_PER_PAGE_V3, backoffDelay);
+	}
+
+	public ReactiveCFPaginatedRequestFetcher(InternalMetrics internalMetrics, ReactiveRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter, 
+			int resultsPerPageV3, Duration backoffDelay) {
 		super();
 		this.internalMetrics = internalMetrics;
 		this.initialBackoffDelay = backoffDelay;
+		this.cfccRateLimiter = rateLimiter;
+		this.concurrencyLimiter = concurrencyLimiter;
 
-		if (requestRateLimit <= 0.0f) {
-			this.cfccRateLimiter = RateLimiter.create(Double.POSITIVE_INFINITY);
+		if (resultsPerPageV3 < 1 || resultsPerPageV3 > MAX_SUPPORTED_RESULTS_PER_PAGE_V3) {
+			log.warn("Unsupported number of results per page {}; using {} instead", resultsPerPageV3, DEFAULT_RESULTS_PER_PAGE_V3);
+			this.resultsPerPageV3 = DEFAULT_RESULTS_PER_PAGE_V3;
 		} else {
-			this.cfccRateLimiter = RateLimiter.create(requestRateLimit);
+			this.resultsPerPageV3 = resultsPerPageV3;
 		}
 	}
 
 	/**
 	 * Returns an empty Mono, which is only resolved after the configured rate limit
-	 * could be acquired.
-	 * @param requestType the RequestType for which the rate limiting shall be acquired (mainly for statistical purpose only)
+	 * could be acquired. Waiting does not block any thread.
+	 * @param requestType the RequestType for which the rate limiting shall be acquired
 	 * @return an empty Mono
 	 */
-	private Mono<Object> rateLimitingMono(RequestType requestType) {
-		return Mono.fromCallable(() -> {
-
-			if (this.internalMetrics != null) {
-				this.internalMetrics.increaseRateLimitQueueSize();
-			}
-
-			double waitTime = cfccRateLimiter.acquire(1);
-
-			if (waitTime > 0.001) {
-				log.debug("Rate Limiting has throttled request of {} for {} seconds", requestType.getLoggerSuffix(), "%.3f".formatted(waitTime));
-			}
-
-			if (this.internalMetrics != null) {
-				this.internalMetrics.decreaseRateLimitQueueSize();
-				this.internalMetrics.observeRateLimiterDuration(requestType.getMetricName(), waitTime);
-			}
-
-			return new Object();
-		}).subscribeOn(Schedulers.boundedElastic()).flatMap(x -> Mono.empty());
+	private Mono<Void> rateLimitingMono(RequestType requestType) {
+		return this.cfccRateLimiter.acquire(requestType);
 	}
 
 
@@ -97,98 +104,126 @@ public class ReactiveCFPaginatedRequestFetcher {
 	 *            CF Cloud Controller
 	 * @return a Mono on the response provided by the CF Cloud Controller
 	 */
-	@SuppressWarnings("lgtm[java/sync-on-boxed-types]")
-	/*
-	 * Reasoning: The string used as foundation for the lock is made very unique.
-	 * The risk of another thread using exactly the very same value of the string for a different purpose
-	 * is considered acceptable.
-	 * Moreover, the performance impact of the lock being engaged improperly is considered small,
-	 * as the duration of this method is assumed to be within milliseconds.
-	 * The effort of implementing a key to lock-object mapping (as alternative) is expected to be rather high
-	 * and would imply the risk of memory leaks.
-	 */
 	public <P, R, K> Mono<P> performGenericRetrieval(RequestType requestType, K key, R requestData,
 												  Function<R, Mono<P>> requestFunction, int timeoutInMS) {
+		final InFlightKey inFlightKey = new InFlightKey(requestType, key, requestData);
+
+		/*
+		 * Identical requests, which are in flight at the same time, are collapsed into one ("single flight").
+		 * The shared Mono is only registered on subscription; it is removed again as soon as the request has terminated.
+		 */
+		return Mono.defer(() -> {
+			final Mono<P> candidate = this.createRetrieval(requestType, key, requestData, requestFunction, timeoutInMS)
+					// NB: the candidate is only subscribed to, if it became the registered one; so it cannot remove any other one
+					.doFinally(signalType -> this.inFlight.remove(inFlightKey))
+					.cache();
+
+			@SuppressWarnings("unchecked")
+			final Mono<P> existing = (Mono<P>) this.inFlight.putIfAbsent(inFlightKey, candidate);
+			if (existing != null) {
+				log.debug("Collapsing retrieval of {} with key {} with identical request in flight", requestType.getLoggerSuffix(), key);
+				if (this.internalMetrics != null) {
+					this.internalMetrics.countCollapsedCFFetch(requestType.getMetricName());
+				}
+				return existing;
+			}
+
+			return candidate;
+		}).cache();
+	}
+
+	/**
+	 * @return the number of distinct requests currently in flight
+	 */
+	public int getInFlightCount() {
+		return this.inFlight.size();
+	}
+
+	private <P, R, K> Mono<P> createRetrieval(RequestType requestType, K key, R requestData,
+												  Function<R, Mono<P>> requestFunction, int timeoutInMS) {
 		final String retrievalTypeName = requestType.getMetricName();
 		final String logName = requestType.getLoggerSuffix();
 
-		final String lock = (this.getClass().getCanonicalName()+"|"+retrievalTypeName+"|"+key).intern();
-
-		synchronized (lock) {
-			Mono<P> result = null;
-
-			ReactiveTimer reactiveTimer = new ReactiveTimer(this.internalMetrics, retrievalTypeName);
-
-			final Mono<P> enrichedRequestFunction = requestFunction.apply(requestData).timeout(Duration.ofMillis(timeoutInMS));
-			/*
-			 * Note 1: Applying (i.e. calling) the function "requestFunction" here
-			 * does not trigger the request to be sent to the CFCC.
-			 * Instead, it just will create the corresponding Flux/Mono, which does
-			 * not have any subscriber yet.
-			 *
-			 * Note 2: There is a major difference between the coding modeled
-			 *
-			 * requestFunction.apply(requestData).timeout(...)
-			 *
-			 * and
-			 *
-			 * someMono.flatMap(value -> requestFunction).timeout(...)
-			 *
-			 * The major point here is that the first variant applies the timeout
-			 * only to the stream returned by requestFunction.apply(...), whilst
-			 * the second variant applies it to
-			 * 1. someMono,
-			 * 2. the flatMap function
-			 * 3. the return value of the requestFunction
-			 *
-			 * The difference there is that in the second variant counting
-			 * for the timeout starts already when someMono is subscribed to.
-			 * In the second variant, someMono is not considered.
-			 *
-			 * In this case here, the difference may be huge: The first variant
-			 * puts a timeout on each request (which is what we want). The
-			 * second variant means that timeout would be counting from the
-			 * first subscription happening - which is wrong especially in case
-			 * of retry attempts.
-			 */
-
-			result = this.rateLimitingMono(requestType).then(Mono.just(reactiveTimer))
-						// start the timer
-						.flatMap(timer -> {
-							timer.start();
-							return Mono.just(0 /* any value will just do; will be ignored */); // Cannot use Mono.empty() here!
-						}).flatMap(nothing -> enrichedRequestFunction)
-						.retryWhen(Retry.backoff(2, this.initialBackoffDelay))
-						/*
-						 * Note: Don't push the retry attempts above into enrichedRequestFunction!
-						 * It would change the semantics of the metric behind the timer.
-						 * see also https://github.com/promregator/promregator/pull/174/files#r392031592
-						 */
-						.doOnError(throwable -> {
-							Throwable unwrappedThrowable = Exceptions.unwrap(throwable);
-							if (unwrappedThrowable instanceof TimeoutException) {
-								log.error("Async retrieval of {} with key {} caused a timeout after {}ms even though we tried three times", logName, key, timeoutInMS);
-							} else if (unwrappedThrowable instanceof OutOfMemoryError){
-								// This may be an direct memory or a heap error!
-								// Using String.format and/or log.error here is a bad idea - it takes memory!
-
-								if (System.getenv("VCAP_APPLICATION") != null) {
-									// we assume that we are running on a Cloud Foundry container
-									this.triggerOutOfMemoryRestart();
-								}
-
-							} else {
-								log.error("Async retrieval of {} with key {} raised a reactor error", logName, key, unwrappedThrowable);
+		Mono<P> result = null;
+
+		ReactiveTimer reactiveTimer = new ReactiveTimer(this.internalMetrics, retrievalTypeName);
+
+		final Mono<P> enrichedRequestFunction = requestFunction.apply(requestData).timeout(Duration.ofMillis(timeoutInMS));
+		/*
+		 * Note 1: Applying (i.e. calling) the function "requestFunction" here
+		 * does not trigger the request to be sent to the CFCC.
+		 * Instead, it just will create the corresponding Flux/Mono, which does
+		 * not have any subscriber yet.
+		 *
+		 * Note 2: There is a major difference between the coding modeled
+		 *
+		 * requestFunction.apply(requestData).timeout(...)
+		 *
+		 * and
+		 *
+		 * someMono.flatMap(value -> requestFunction).timeout(...)
+		 *
+		 * The major point here is that the first variant applies the timeout
+		 * only to the stream returned by requestFunction.apply(...), whilst
+		 * the second variant applies it to
+		 * 1. someMono,
+		 * 2. the flatMap function
+		 * 3. the return value of the requestFunction
+		 *
+		 * The difference there is that in the second variant counting
+		 * for the timeout starts already when someMono is subscribed to.
+		 * In the second variant, someMono is not considered.
+		 *
+		 * In this case here, the difference may be huge: The first variant
+		 * puts a timeout on each request (which is what we want). The
+		 * second variant means that timeout would be counting from the
+		 * first subscription happening - which is wrong especially in case
+		 * of retry attempts.
+		 */
+
+		final Mono<P> timedRequest = Mono.just(reactiveTimer)
+					// start the timer
+					.flatMap(timer -> {
+						timer.start();
+						return Mono.just(0 /* any value will just do; will be ignored */); // Cannot use Mono.empty() here!
+					}).flatMap(nothing -> enrichedRequestFunction);
+
+		/*
+		 * The timer is only started once the request has obtained a slot of the concurrency limiter.
+		 * Each attempt (including retries) needs to obtain its own slot; otherwise the outcome of the
+		 * individual attempt could not be used for adapting the concurrency limit.
+		 */
+		result = this.rateLimitingMono(requestType).then(this.concurrencyLimiter.limit(timedRequest))
+					.retryWhen(Retry.backoff(2, this.initialBackoffDelay))
+					/*
+					 * Note: Don't push the retry attempts above into enrichedRequestFunction!
+					 * It would change the semantics of the metric behind the timer.
+					 * see also https://github.com/promregator/promregator/pull/174/files#r392031592
+					 */
+					.doOnError(throwable -> {
+						Throwable unwrappedThrowable = Exceptions.unwrap(throwable);
+						if (unwrappedThrowable instanceof TimeoutException) {
+							log.error("Async retrieval of {} with key {} caused a timeout after {}ms even though we tried three times", logName, key, timeoutInMS);
+						} else if (unwrappedThrowable instanceof OutOfMemoryError){
+							// This may be an direct memory or a heap error!
+							// Using String.format and/or log.error here is a bad idea - it takes memory!
+
+							if (System.getenv("VCAP_APPLICATION") != null) {
+								// we assume that we are running on a Cloud Foundry container
+								this.triggerOutOfMemoryRestart();
 							}
-						})
-						// stop the timer
-						.zipWith(Mono.just(reactiveTimer)).map(tuple -> {
-					tuple.getT2().stop();
-					return tuple.getT1();
-				}).log(log.getName() + "." + logName, Level.FINE).cache();
-
-			return result;
-		}
+
+						} else {
+							log.error("Async retrieval of {} with key {} raised a reactor error", logName, key, unwrappedThrowable);
+						}
+					})
+					// stop the timer
+					.zipWith(Mono.just(reactiveTimer)).map(tuple -> {
+				tuple.getT2().stop();
+				return tuple.getT1();
+			}).log(log.getName() + "." + logName, Level.FINE);
+
+		return result;
 	}
 
 	@SuppressFBWarnings(value = "DM_EXIT", justification="Restart of JVM is done intentionally here!")
@@ -269,6 +304,54 @@ public class ReactiveCFPaginatedRequestFetcher {
 		});
 	}
 
+	/**
+	 * retrieves all pages available. Subsequent pages are requested concurrently, but they are emitted in their order.
+	 */
+	private <P extends org.cloudfoundry.client.v3.PaginatedResponse<?>, R extends org.cloudfoundry.client.v3.PaginatedRequest, K> Flux<P> retrievePagesV3(
+		RequestType requestType, K key, PaginatedRequestGeneratorFunctionV3<R> requestGenerator,
+		Function<R, Mono<P>> requestFunction, int timeoutInMS) {
+
+		return Mono.defer(() -> this.performGenericRetrieval(requestType, key, requestGenerator.apply(this.resultsPerPageV3, 1), requestFunction, timeoutInMS))
+				.flatMapMany(firstPage -> {
+					final int pagesCount = firstPage.getPagination().getTotalPages() - 1;
+
+					/*
+					 * flatMapSequential subscribes to all subsequent pages eagerly, but keeps their order.
+					 * Pages arriving early are buffered only until all preceding pages have been emitted.
+					 */
+					final Flux<P> subsequentPages = Flux.range(2, Math.max(0, pagesCount))
+							.map(pageNumber -> requestGenerator.apply(this.resultsPerPageV3, pageNumber))
+							.flatMapSequential(req -> this.performGenericRetrieval(requestType, key, req, requestFunction, timeoutInMS));
+
+					return Flux.concat(Mono.just(firstPage), subsequentPages);
+				});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <S> List<S> resourcesOf(org.cloudfoundry.client.v3.PaginatedResponse<?> page) {
+		final List<S> resources = (List<S>) page.getResources();
+		return resources == null ? Collections.emptyList() : resources;
+	}
+
+	/**
+	 * collects the resources of all pages into one list, which is sized according to
+	 * the total number of results reported by the first page.
+	 */
+	private static final class CollectedPages<S> {
+		private List<S> resources;
+		private int numberOfPages;
+
+		private void add(org.cloudfoundry.client.v3.PaginatedResponse<?> page) {
+			if (this.resources == null) {
+				final Integer totalResults = page.getPagination() == null ? null : page.getPagination().getTotalResults();
+				this.resources = new ArrayList<>(totalResults == null ? 0 : Math.max(0, totalResults));
+			}
+
+			this.resources.addAll(resourcesOf(page));
+			this.numberOfPages++;
+		}
+	}
+
 	/**
 	 * performs a retrieval from the CF Cloud Controller fetching all pages available.
 	 *
@@ -298,18 +381,6 @@ public class ReactiveCFPaginatedRequestFetcher {
 
 		ReactiveTimer reactiveTimer = new ReactiveTimer(this.internalMetrics, pageRetrievalType);
 
-		Mono<P> firstPage = Mono.just(reactiveTimer).doOnNext(ReactiveTimer::start).flatMap(dummy ->
-				this.performGenericRetrieval(requestType, key, requestGenerator.apply(RESULTS_PER_PAGE, 1), requestFunction, timeoutInMS))
-				.cache(); // required: used twice below (once for fetching additional pages, plus second time in Mono.zip() below)
-
-		Flux<R> requestFlux = firstPage.map(page -> page.getPagination().getTotalPages() - 1)
-				.flatMapMany(pagesCount -> Flux.range(2, pagesCount))
-				.map(pageNumber -> requestGenerator.apply(RESULTS_PER_PAGE, pageNumber));
-
-		Mono<List<P>> subsequentPagesList = requestFlux.flatMap(req ->
-				this.performGenericRetrieval(requestType, key, req, requestFunction, timeoutInMS))
-				.collectList();
-
 		/*
 		 * Word on error handling: We can't judge here what will be the consequence, if
 		 * the first page could be retrieved properly, but retrieving some some later
@@ -320,22 +391,17 @@ public class ReactiveCFPaginatedRequestFetcher {
 		 * not emit any item.
 		 */
 
-		return Mono.zip(firstPage, subsequentPagesList, Mono.just(reactiveTimer)).map(tuple -> {
-			P first = tuple.getT1();
-			List<P> subsequent = tuple.getT2();
-
-			List<S> ret = new LinkedList<>();
-
-			ret.addAll((List<? extends S>) first.getResources());
-			for (P listResponse : subsequent) {
-				ret.addAll((List<? extends S>) listResponse.getResources());
-			}
+		return Mono.just(reactiveTimer).doOnNext(ReactiveTimer::start)
+				.thenMany(this.retrievePagesV3(requestType, key, requestGenerator, requestFunction, timeoutInMS))
+				// the resources are copied page by page; a page may be garbage-collected as soon as it has been copied
+				.collect(CollectedPages<S>::new, CollectedPages::add)
+				.map(collected -> {
+					final List<S> resources = collected.resources == null ? new ArrayList<>() : collected.resources;
+					P retObject = responseGenerator.apply(resources, collected.numberOfPages);
 
-			P retObject = responseGenerator.apply(ret, subsequent.size() + 1);
+					reactiveTimer.stop();
 
-			tuple.getT3().stop();
-
-			return retObject;
-		});
+					return retObject;
+				});
 	}
 }
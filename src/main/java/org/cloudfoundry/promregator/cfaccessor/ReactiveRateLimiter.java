@@ -0,0 +1,258 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A rate limiter for requests to the Cloud Controller based on token buckets, which does not block any thread
+ * while a request is waiting: requests are queued and are released by a timer as soon as tokens are available again.
+ *
+ * Besides the global rate limit, each {@link RequestType} may have its own budget (sub-budget). A request
+ * then requires a token of both the global bucket and the bucket of its type.
+ *
+ * Requests with priority {@link RequestPriority#INTERACTIVE} are always served before requests with
+ * priority {@link RequestPriority#BACKGROUND}. The priority is taken from the Reactor Context of the subscriber.
+ *
+ * Each bucket permits bursts of up to one second's worth of requests (but at least one request).
+ */
+public class ReactiveRateLimiter {
+	private static final Logger log = LoggerFactory.getLogger(ReactiveRateLimiter.class);
+
+	private static final class TokenBucket {
+		private final double tokensPerNano;
+		private final double capacity;
+		private double tokens;
+		private long lastRefill;
+
+		private TokenBucket(double requestsPerSecond, long now) {
+			this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+			this.capacity = Math.max(1.0, requestsPerSecond);
+			this.tokens = this.capacity;
+			this.lastRefill = now;
+		}
+
+		private void refill(long now) {
+			this.tokens = Math.min(this.capacity, this.tokens + (now - this.lastRefill) * this.tokensPerNano);
+			this.lastRefill = now;
+		}
+
+		private boolean hasToken() {
+			return this.tokens >= 1.0;
+		}
+
+		private void take() {
+			this.tokens -= 1.0;
+		}
+
+		private long nanosUntilNextToken() {
+			if (this.hasToken()) {
+				return 0;
+			}
+			return (long) Math.ceil((1.0 - this.tokens) / this.tokensPerNano);
+		}
+	}
+
+	private record Waiter(RequestType requestType, MonoSink<Void> sink, long enqueuedAt) {}
+
+	private final InternalMetrics internalMetrics;
+
+	private final Scheduler timer;
+
+	/* null, if there is no global rate limit */
+	private final TokenBucket globalBucket;
+
+	private final Map<RequestType, TokenBucket> typeBuckets = new EnumMap<>(RequestType.class);
+
+	/* all fields below are guarded by "this" */
+	private final LinkedList<Waiter> interactiveWaiters = new LinkedList<>();
+	private final LinkedList<Waiter> backgroundWaiters = new LinkedList<>();
+
+	/* the point in time (System.nanoTime()) at which the next wake-up is scheduled; only valid, if wakeUpScheduled is set */
+	private long nextWakeUp;
+	private boolean wakeUpScheduled;
+
+	/**
+	 * @param internalMetrics the internal metrics to which statistics are reported; may be <code>null</code>
+	 * @param requestRateLimit the global number of requests per second; 0 or less disables the global rate limit
+	 * @param requestRateLimitPerType the number of requests per second for each type of request; types not listed only are subject to the global rate limit
+	 */
+	public ReactiveRateLimiter(InternalMetrics internalMetrics, double requestRateLimit, Map<RequestType, Double> requestRateLimitPerType) {
+		this(internalMetrics, requestRateLimit, requestRateLimitPerType, Schedulers.parallel());
+	}
+
+	ReactiveRateLimiter(InternalMetrics internalMetrics, double requestRateLimit, Map<RequestType, Double> requestRateLimitPerType, Scheduler timer) {
+		this.internalMetrics = internalMetrics;
+		this.timer = timer;
+
+		final long now = System.nanoTime();
+		this.globalBucket = requestRateLimit > 0.0 ? new TokenBucket(requestRateLimit, now) : null;
+
+		requestRateLimitPerType.forEach((requestType, limit) -> {
+			if (limit != null && limit > 0.0) {
+				this.typeBuckets.put(requestType, new TokenBucket(limit, now));
+			}
+		});
+	}
+
+	/**
+	 * @return <code>true</code>, if there is neither a global rate limit nor any rate limit of a type of request
+	 */
+	public boolean isUnlimited() {
+		return this.globalBucket == null && this.typeBuckets.isEmpty();
+	}
+
+	/**
+	 * Returns an empty Mono, which completes as soon as the request may be sent according to the rate limits.
+	 * No thread is blocked while waiting.
+	 * @param requestType the type of the request, which shall be sent
+	 * @return an empty Mono
+	 */
+	public Mono<Void> acquire(RequestType requestType) {
+		if (this.globalBucket == null && !this.typeBuckets.containsKey(requestType)) {
+			return Mono.empty();
+		}
+
+		return Mono.deferContextual(contextView -> Mono.<Void>create(sink -> {
+			final Waiter waiter = new Waiter(requestType, sink, System.nanoTime());
+			final RequestPriority priority = RequestPriority.fromContext(contextView);
+
+			if (this.internalMetrics != null) {
+				this.internalMetrics.increaseRateLimitQueueSize();
+			}
+
+			synchronized (this) {
+				this.waitersOf(priority).add(waiter);
+			}
+
+			sink.onCancel(() -> {
+				boolean removed;
+				synchronized (this) {
+					removed = this.waitersOf(priority).remove(waiter);
+				}
+
+				if (removed && this.internalMetrics != null) {
+					this.internalMetrics.decreaseRateLimitQueueSize();
+				}
+			});
+
+			this.drain();
+		}));
+	}
+
+	private List<Waiter> waitersOf(RequestPriority priority) {
+		return priority == RequestPriority.BACKGROUND ? this.backgroundWaiters : this.interactiveWaiters;
+	}
+
+	private void drain() {
+		final List<Waiter> granted = new ArrayList<>();
+
+		synchronized (this) {
+			final long now = System.nanoTime();
+			if (this.globalBucket != null) {
+				this.globalBucket.refill(now);
+			}
+			this.typeBuckets.values().forEach(bucket -> bucket.refill(now));
+
+			long nanosUntilNextAttempt = this.grant(this.interactiveWaiters, granted);
+			if (this.interactiveWaiters.isEmpty() || this.globalBucket == null || this.globalBucket.hasToken()) {
+				// background requests may only use what interactive requests do not need
+				nanosUntilNextAttempt = Math.min(nanosUntilNextAttempt, this.grant(this.backgroundWaiters, granted));
+			}
+
+			if (nanosUntilNextAttempt != Long.MAX_VALUE) {
+				this.scheduleWakeUp(now, nanosUntilNextAttempt);
+			}
+		}
+
+		// complete outside of the lock: subscribers continue processing on this thread
+		final long now = System.nanoTime();
+		for (Waiter waiter : granted) {
+			final double waitTime = (now - waiter.enqueuedAt()) / 1e9;
+			if (waitTime > 0.001) {
+				log.debug("Rate Limiting has throttled request of {} for {} seconds", waiter.requestType().getLoggerSuffix(), "%.3f".formatted(waitTime));
+			}
+
+			if (this.internalMetrics != null) {
+				this.internalMetrics.decreaseRateLimitQueueSize();
+				this.internalMetrics.observeRateLimiterDuration(waiter.requestType().getMetricName(), waitTime);
+			}
+
+			waiter.sink().success();
+		}
+	}
+
+	/**
+	 * grants tokens to the waiters in the order of their arrival. Waiters whose type has run out of tokens
+	 * do not hold up waiters of other types.
+	 * @return the time in nanoseconds after which another attempt to grant tokens shall be made; <code>Long.MAX_VALUE</code>, if no waiters are left
+	 */
+	private long grant(List<Waiter> waiters, List<Waiter> granted) {
+		long nanosUntilNextAttempt = Long.MAX_VALUE;
+
+		final Iterator<Waiter> it = waiters.iterator();
+		while (it.hasNext()) {
+			if (this.globalBucket != null && !this.globalBucket.hasToken()) {
+				return Math.min(nanosUntilNextAttempt, this.globalBucket.nanosUntilNextToken());
+			}
+
+			final Waiter waiter = it.next();
+			final TokenBucket typeBucket = this.typeBuckets.get(waiter.requestType());
+			if (typeBucket != null && !typeBucket.hasToken()) {
+				nanosUntilNextAttempt = Math.min(nanosUntilNextAttempt, typeBucket.nanosUntilNextToken());
+				continue;
+			}
+
+			if (this.globalBucket != null) {
+				this.globalBucket.take();
+			}
+			if (typeBucket != null) {
+				typeBucket.take();
+			}
+
+			it.remove();
+			granted.add(waiter);
+		}
+
+		return nanosUntilNextAttempt;
+	}
+
+	private void scheduleWakeUp(long now, long delayInNanos) {
+		final long wakeUp = now + delayInNanos;
+		if (this.wakeUpScheduled && this.nextWakeUp - wakeUp <= 0) {
+			// an earlier (or equal) wake-up is already pending
+			return;
+		}
+
+		this.nextWakeUp = wakeUp;
+		this.wakeUpScheduled = true;
+		this.timer.schedule(() -> {
+			synchronized (this) {
+				if (this.nextWakeUp == wakeUp) {
+					this.wakeUpScheduled = false;
+				}
+			}
+			this.drain();
+		}, delayInNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return the number of requests currently waiting for being permitted
+	 */
+	public synchronized int getQueueSize() {
+		return this.interactiveWaiters.size() + this.backgroundWaiters.size();
+	}
+}
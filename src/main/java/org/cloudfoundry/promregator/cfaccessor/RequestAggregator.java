@@ -1,11 +1,18 @@
 package org.cloudfoundry.promregator.cfaccessor;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
 import org.slf4j.Logger;
@@ -14,14 +21,29 @@ import org.springframework.util.Assert;
 
 import reactor.core.publisher.Mono;
 
+/**
+ * Aggregates single requests into blocks of requests, which are sent together.
+ * 
+ * A block is sent as soon as it is full or as soon as the oldest request in the queue has waited
+ * for the maximal wait time (the "check interval"). Up to a configurable number of blocks may be in flight
+ * at the same time; further blocks are sent as soon as one of the blocks in flight has been responded.
+ * 
+ * All decisions on sending blocks are taken by a single dispatcher thread, which is only woken up
+ * by events (new requests, deadlines expiring and responses arriving) - there is no polling.
+ */
 public abstract class RequestAggregator<K, V> {
 	private static final Logger log = LoggerFactory.getLogger(RequestAggregator.class);
 
-	private static record QueueItem<K, V> (K requestItem, CompletableFuture<V> future) {}
+	public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+	private static record QueueItem<K, V> (K requestItem, CompletableFuture<V> future, RequestPriority priority, long enqueuedAt) {}
 	
 	public enum Type {
 		ROUTE("route"),
 		PROCESS("process"),
+		ORG("org"),
+		SPACE("space"),
+		APPLICATION("application"),
 		OTHER("other"); // used for unit testing
 		
 		private String typeName;
@@ -38,114 +60,191 @@ public abstract class RequestAggregator<K, V> {
 		}
 	}
 	
-	private ConcurrentLinkedDeque<QueueItem<K, V>> queue = new ConcurrentLinkedDeque<>();
+	private final ConcurrentLinkedDeque<QueueItem<K, V>> queue = new ConcurrentLinkedDeque<>();
+	
+	/* ConcurrentLinkedDeque.size() is not a constant-time operation */
+	private final AtomicInteger queueSize = new AtomicInteger(0);
+	
+	private final AtomicInteger blocksInFlight = new AtomicInteger(0);
+	
+	private final ScheduledExecutorService dispatcher;
+	
+	/* only accessed by the dispatcher thread */
+	private ScheduledFuture<?> pendingDeadline;
 	
-	private Processor processor;
+	private final Type type;
+	private final InternalMetrics internalMetrics;
 	
-	private int checkIntervalInMillis;
-	private int maxBlockSize;
+	private final long maxWaitTimeInNanos;
+	private final int maxBlockSize;
+	private final int maxInFlight;
 	
-	private class Processor extends Thread {
+	protected RequestAggregator(Type type, InternalMetrics internalMetrics, Class<K> typeOfK, Class<V> typeOfV, int checkIntervalInMillis, int maxBlockSize) {
+		this(type, internalMetrics, typeOfK, typeOfV, checkIntervalInMillis, maxBlockSize, DEFAULT_MAX_IN_FLIGHT);
+	}
+	
+	protected RequestAggregator(Type type, InternalMetrics internalMetrics, Class<K> typeOfK, Class<V> typeOfV, int checkIntervalInMillis, int maxBlockSize, int maxInFlight) {
+		Assert.isTrue(checkIntervalInMillis > 0, "Check Interval must not be negative or zero");
+		Assert.isTrue(maxBlockSize > 0, "BlockSize must not be negative or zero");
+		Assert.isTrue(maxInFlight > 0, "Maximal number of blocks in flight must not be negative or zero");
 		
-		private final Logger log = LoggerFactory.getLogger(Processor.class);
-
-		public Processor(Class<K> typeOfK, Class<V> typeOfV) {
-			super("Processor for ReactiveCFAccesor requests %s -> %s".formatted(typeOfK.toString(), typeOfV.toString()));
+		this.type = type;
+		this.internalMetrics = internalMetrics;
+		this.maxWaitTimeInNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalInMillis);
+		this.maxBlockSize = maxBlockSize;
+		this.maxInFlight = maxInFlight;
+		
+		if (internalMetrics != null && type != Type.OTHER) {
+			internalMetrics.registerRequestAggregatorQueueSizeFunction(type.getTypeName(), () -> (double) queueSize.get());
 		}
 		
-		private boolean shouldRun = true;
+		final String threadName = "Dispatcher for ReactiveCFAccesor requests %s -> %s".formatted(typeOfK.toString(), typeOfV.toString());
+		final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, threadName);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		this.dispatcher = executor;
+	}
+	
+	public void addToQueue(K item, CompletableFuture<V> future) {
+		this.addToQueue(item, future, RequestPriority.INTERACTIVE);
+	}
+	
+	/**
+	 * adds a request to the queue
+	 * @param item the request identifier
+	 * @param future the future, which is completed with the response
+	 * @param priority the priority of the request; a block is sent with background priority only, if all of its requests have background priority
+	 */
+	public void addToQueue(K item, CompletableFuture<V> future, RequestPriority priority) {
+		log.debug("Adding item {}", item);
+		this.queue.add(new QueueItem<>(item, future, priority, System.nanoTime()));
 		
-		@Override
-		public void run() {
+		final int size = this.queueSize.incrementAndGet();
+		if (size == 1 || size >= this.maxBlockSize) {
+			/* either a new deadline needs to be set up or (at least) a block is full;
+			 * superfluous triggers are harmless, as the dispatcher is single-threaded.
+			 */
+			this.triggerDispatch();
+		}
+	}
+	
+	public void stop() {
+		this.dispatcher.shutdownNow();
+	}
+	
+	private void triggerDispatch() {
+		try {
+			this.dispatcher.execute(this::dispatch);
+		} catch (RejectedExecutionException e) {
+			log.debug("Dispatcher has already been stopped", e);
+		}
+	}
+	
+	/**
+	 * sends all blocks which are due (i.e. full or with their deadline expired), as long as the maximal number
+	 * of blocks in flight permits. Must only be called on the dispatcher thread.
+	 */
+	private void dispatch() {
+		while (true) {
+			final QueueItem<K, V> oldest = this.queue.peek();
+			if (oldest == null) {
+				return;
+			}
+			
+			final long waitTime = System.nanoTime() - oldest.enqueuedAt();
+			if (this.queueSize.get() < this.maxBlockSize && waitTime < this.maxWaitTimeInNanos) {
+				this.scheduleDeadline(this.maxWaitTimeInNanos - waitTime);
+				return;
+			}
 			
-			while (shouldRun) {
-				
-				try {
-					Thread.sleep(checkIntervalInMillis);
-				} catch (InterruptedException e) {
-					log.info("Processor was interrupted", e);
-					Thread.currentThread().interrupt();
-				}
-				
-				if (queue.isEmpty()) {
-					continue;
-				}
-				
-				log.debug("Woke up with {} items in the queue", queue.size());
-				
-				// there is something in the queue which needs to be handled now
-				final HashSet<K> blockSet = new HashSet<>(maxBlockSize);
-				final HashMap<K, CompletableFuture<V>> map = new HashMap<>();
-				
-				while (blockSet.size() < maxBlockSize && !queue.isEmpty()) {
-					final QueueItem<K,V> queueItem = queue.poll();
-					map.put(queueItem.requestItem(), queueItem.future());
-					
-					blockSet.add(queueItem.requestItem());
-				}
-				
-				log.debug("Sending a request with a block of {} items", blockSet.size());
-				final Mono<V> responseMono = sendRequest(blockSet);
-				
-				responseMono.doOnNext(response -> {
-					log.debug("Received response {}", response);
-					Map<K, V> responseMap = determineMapOfResponses(response);
-					
-					map.entrySet().forEach(entry -> {
-						K key = entry.getKey();
-						CompletableFuture<V> future = entry.getValue();
-						
-						V list = responseMap.get(key);
-						log.debug("Resolving {} with {}", key, list);
-						future.complete(list); // which may be null
-					});
-				})
-				.doOnError(t -> {
-					log.info("Exception was raised during retrieving the response; propagating exception to all requestors", t);
-					map.values().forEach(e -> e.completeExceptionally(t));
-				}).onErrorStop()
-				.subscribe();
-				
+			if (this.blocksInFlight.get() >= this.maxInFlight) {
+				// as soon as a block in flight has been responded, dispatching is triggered again
+				log.debug("Maximal number of blocks in flight reached; {} items are waiting in the queue", this.queueSize.get());
+				return;
 			}
 			
+			this.sendBlock();
 		}
-		
 	}
 	
-	protected RequestAggregator(Type type, InternalMetrics internalMetrics, Class<K> typeOfK, Class<V> typeOfV, int checkIntervalInMillis, int maxBlockSize) {
-		this.checkIntervalInMillis = checkIntervalInMillis;
-		this.maxBlockSize = maxBlockSize;
+	private void scheduleDeadline(long delayInNanos) {
+		if (this.pendingDeadline != null) {
+			// the pending deadline belongs to an item which is at least as old as the current oldest one
+			return;
+		}
 		
-		Assert.isTrue(checkIntervalInMillis > 0, "Check Interval must not be negative or zero");
-		Assert.isTrue(maxBlockSize > 0, "BlockSize must not be negative or zero");
+		this.pendingDeadline = this.dispatcher.schedule(() -> {
+			this.pendingDeadline = null;
+			this.dispatch();
+		}, delayInNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	private void sendBlock() {
+		final long now = System.nanoTime();
 		
-		if (internalMetrics != null) {
-			switch (type) {
-			case ROUTE: 
-				internalMetrics.registerDequeRouteSizeFunction(() -> (double) queue.size());
-				break;
-			case PROCESS: 
-				internalMetrics.registerDequeProcessSizeFunction(() -> (double) queue.size());
+		final Map<K, List<CompletableFuture<V>>> map = new HashMap<>();
+		int items = 0;
+		RequestPriority priority = RequestPriority.BACKGROUND;
+		while (map.size() < this.maxBlockSize) {
+			final QueueItem<K, V> queueItem = this.queue.poll();
+			if (queueItem == null) {
 				break;
-			case OTHER:
-				break; // ignore
-			default:
-				throw new UnsupportedOperationException("Unkown RequestAggregator Type");
 			}
+			items++;
 			
+			if (queueItem.priority() == RequestPriority.INTERACTIVE) {
+				priority = RequestPriority.INTERACTIVE;
+			}
+			
+			map.computeIfAbsent(queueItem.requestItem(), key -> new ArrayList<>(1)).add(queueItem.future());
+			
+			if (this.internalMetrics != null) {
+				this.internalMetrics.observeRequestAggregatorWaitTime(this.type.getTypeName(), (now - queueItem.enqueuedAt()) / 1e9);
+			}
 		}
+		this.queueSize.addAndGet(-items);
 		
-		this.processor = new Processor(typeOfK, typeOfV);
-		this.processor.start();
-	}
-	
-	public void addToQueue(K item, CompletableFuture<V> future) {
-		log.debug("Adding item {}", item);
-		this.queue.add(new QueueItem<>(item, future));
-	}
-	
-	public void stop() {
-		this.processor.shouldRun = false;
+		if (map.isEmpty()) {
+			return;
+		}
+		
+		if (this.internalMetrics != null) {
+			this.internalMetrics.observeRequestAggregatorBatchSize(this.type.getTypeName(), map.size());
+		}
+		
+		this.blocksInFlight.incrementAndGet();
+		
+		final Set<K> blockSet = map.keySet();
+		log.debug("Sending a request with a block of {} items", blockSet.size());
+		Mono.defer(() -> this.sendRequest(blockSet))
+		.contextWrite(priority.asContext())
+		.doOnNext(response -> {
+			log.debug("Received response {}", response);
+			Map<K, V> responseMap = determineMapOfResponses(response);
+			
+			map.forEach((key, futures) -> {
+				final K responseKey = this.determineResponseKey(key);
+				final V list = responseMap.containsKey(responseKey) ? responseMap.get(responseKey) : this.determineEmptyResponse();
+				log.debug("Resolving {} with {}", key, list);
+				futures.forEach(future -> future.complete(list)); // which may be null
+			});
+		})
+		.doOnError(t -> {
+			log.info("Exception was raised during retrieving the response; propagating exception to all requestors", t);
+			map.values().forEach(futures -> futures.forEach(e -> e.completeExceptionally(t)));
+		})
+		.doFinally(signalType -> {
+			// e.g. an empty response
+			map.values().forEach(futures -> futures.forEach(future -> future.complete(null)));
+			
+			this.blocksInFlight.decrementAndGet();
+			this.triggerDispatch();
+		})
+		// errors have already been propagated to the requestors
+		.subscribe(response -> {}, t -> {});
 	}
 	
 	/**
@@ -163,4 +262,22 @@ public abstract class RequestAggregator<K, V> {
 	 */
 	protected abstract Map<K, V> determineMapOfResponses(V response);
 	
+	/**
+	 * determines the key, under which the response for a request is looked up in the map of responses
+	 * (see {@link #determineMapOfResponses(Object)}); e.g. allows to match names case-insensitively.
+	 * @param key the request identifier
+	 * @return the key in the map of responses; the request identifier itself by default
+	 */
+	protected K determineResponseKey(K key) {
+		return key;
+	}
+	
+	/**
+	 * determines the response for those requests of the block, for which the response did not contain any data.
+	 * @return the response for requests without data; <code>null</code> by default
+	 */
+	protected V determineEmptyResponse() {
+		return null;
+	}
+	
 }
@@ -0,0 +1,39 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.function.Function;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * The priority with which a request to the Cloud Controller is subject to rate limiting.
+ * The priority is passed along the subscription using the Reactor Context.
+ */
+public enum RequestPriority {
+	/**
+	 * a request, which somebody (e.g. a scraping request) is actively waiting for
+	 */
+	INTERACTIVE,
+
+	/**
+	 * a request, which is only refreshing data in the background (e.g. a refresh of a cache)
+	 */
+	BACKGROUND;
+
+	private static final String CONTEXT_KEY = RequestPriority.class.getName();
+
+	/**
+	 * @return a function which puts this priority into the Reactor Context; to be used with <code>contextWrite(...)</code>
+	 */
+	public Function<Context, Context> asContext() {
+		return context -> context.put(CONTEXT_KEY, this);
+	}
+
+	/**
+	 * @param contextView the Reactor Context to be checked
+	 * @return the priority stored in the Reactor Context; {@link #INTERACTIVE}, if none is stored there
+	 */
+	public static RequestPriority fromContext(ContextView contextView) {
+		return contextView.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+	}
+}
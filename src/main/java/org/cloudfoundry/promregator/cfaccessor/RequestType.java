@@ -6,10 +6,13 @@ public enum RequestType {
 	SPACE("space", "retrieveSpaceId"),
 	SPACE_IN_ORG("space", "retrieveAllSpaceIdsInOrg"),
 	ALL_APPS_IN_SPACE("allApps", "retrieveAllApplicationIdsInSpace"),
+	APPS_BY_LABEL("appsByLabel", "retrieveApplicationsByLabelSelector"),
 	SPACE_SUMMARY("spaceSummary", "retrieveSpaceSummary"),
 	DOMAINS("domains", "retrieveDomains"),	
 	PROCESSES("processes", "retrieveProcesses"),
 	ROUTES("routes", "retrieveRoutes"),
+	RECENTLY_UPDATED("recentlyUpdated", "retrieveRecentlyUpdated"),
+	AUDIT_EVENTS("auditEvents", "retrieveAuditEvents"),
 	OTHER("other", "other"); // used for unit testing only
 	
 	private final String metricName;
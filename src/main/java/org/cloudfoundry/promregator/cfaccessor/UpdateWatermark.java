@@ -0,0 +1,88 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.cloudfoundry.client.v3.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps track of the newest point in time of an update of a resource seen so far, including the
+ * resources, which have been updated at exactly that point in time.
+ * This permits to determine which resources of a list sorted by the time of their last update are new.
+ * Instances are not thread-safe.
+ */
+public class UpdateWatermark {
+	private static final Logger log = LoggerFactory.getLogger(UpdateWatermark.class);
+
+	private boolean initialized;
+	private Instant timestamp;
+	private Set<String> idsAtTimestamp = new HashSet<>();
+
+	/**
+	 * @return <code>true</code>, if the watermark has been advanced at least once
+	 */
+	public boolean isInitialized() {
+		return this.initialized;
+	}
+
+	/**
+	 * @param resource the resource to check
+	 * @return <code>true</code>, if the resource has been updated after the watermark
+	 */
+	public boolean isNewer(Resource resource) {
+		final Instant updatedAt = determineUpdatedAt(resource);
+		if (updatedAt == null) {
+			return false;
+		}
+
+		if (this.timestamp == null || updatedAt.isAfter(this.timestamp)) {
+			return true;
+		}
+
+		// timestamps only have a resolution of seconds; another update may have happened in the same second
+		return updatedAt.equals(this.timestamp) && !this.idsAtTimestamp.contains(resource.getId());
+	}
+
+	/**
+	 * moves the watermark to the newest update of the resources provided
+	 * @param resources the resources, which have been seen
+	 */
+	public void advance(List<? extends Resource> resources) {
+		for (Resource resource : resources) {
+			final Instant updatedAt = determineUpdatedAt(resource);
+			if (updatedAt == null) {
+				continue;
+			}
+
+			if (this.timestamp == null || updatedAt.isAfter(this.timestamp)) {
+				this.timestamp = updatedAt;
+				this.idsAtTimestamp = new HashSet<>();
+			}
+
+			if (updatedAt.equals(this.timestamp)) {
+				this.idsAtTimestamp.add(resource.getId());
+			}
+		}
+
+		this.initialized = true;
+	}
+
+	private static Instant determineUpdatedAt(Resource resource) {
+		final String timestamp = resource.getUpdatedAt() != null ? resource.getUpdatedAt() : resource.getCreatedAt();
+		if (timestamp == null) {
+			return null;
+		}
+
+		try {
+			return Instant.parse(timestamp);
+		} catch (DateTimeParseException e) {
+			log.debug("Unable to parse timestamp {} of resource {}", timestamp, resource.getId());
+			return null;
+		}
+	}
+}
@@ -25,6 +25,8 @@ public class Target {
 
 	private String applicationRegex;
 
+	private String labelSelector;
+
 	private String overrideRouteAndPath;
 
 	private String path;
@@ -64,6 +66,7 @@ public class Target {
 		this.spaceRegex = source.spaceRegex;
 		this.applicationName = source.applicationName;
 		this.applicationRegex = source.applicationRegex;
+		this.labelSelector = source.labelSelector;
 		this.overrideRouteAndPath = source.overrideRouteAndPath;
 		this.path = source.path;
 		if (source.kubernetesAnnotations != null)
@@ -129,6 +132,14 @@ public class Target {
 		this.applicationRegex = applicationRegex;
 	}
 
+	public String getLabelSelector() {
+		return labelSelector;
+	}
+
+	public void setLabelSelector(String labelSelector) {
+		this.labelSelector = labelSelector;
+	}
+
 	public String getOverrideRouteAndPath() {
 		return overrideRouteAndPath;
 	}
@@ -251,6 +262,8 @@ public class Target {
 		builder.append(applicationName);
 		builder.append(", applicationRegex=");
 		builder.append(applicationRegex);
+		builder.append(", labelSelector=");
+		builder.append(labelSelector);
 		builder.append(", overrideRouteAndPath=");
 		builder.append(overrideRouteAndPath);
 		builder.append(", path=");
@@ -4,10 +4,12 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
@@ -45,6 +47,18 @@ public class CFMultiDiscoverer implements CFDiscoverer {
 	
 	private Map<Instance, Instant> instanceExpiryMap = new ConcurrentHashMap<>();
 	
+	/**
+	 * index of all instances discovered by the last full discovery, keyed by their instance identifier.
+	 * The map is replaced as a whole on each full discovery.
+	 */
+	private volatile Map<String, Instance> instanceIndex = new ConcurrentHashMap<>();
+	
+	/**
+	 * the (immutable) list of instances determined by the last full discovery, which has changed the set of instances.
+	 * The reference is only replaced, if the set of instances has changed; <code>null</code>, if no full discovery has happened yet.
+	 */
+	private volatile List<Instance> instanceSnapshot;
+	
 	@Value("${promregator.discoverer.timeout:600}")
 	private int expiryTimeout;
 	
@@ -79,8 +93,93 @@ public class CFMultiDiscoverer implements CFDiscoverer {
 			this.registerInstance(instance);
 		}
 		
+		if (applicationIdFilter == null && instanceFilter == null) {
+			this.rebuildInstanceIndex(instanceList);
+		}
+		
 		return instanceList;
 	}
+	
+	private void rebuildInstanceIndex(List<Instance> instanceList) {
+		Map<String, Instance> newIndex = new ConcurrentHashMap<>(instanceList.size() * 4 / 3 + 1);
+		Set<String> duplicateInstanceIds = new HashSet<>();
+		
+		for (Instance instance : instanceList) {
+			if (newIndex.putIfAbsent(instance.getInstanceId(), instance) != null) {
+				duplicateInstanceIds.add(instance.getInstanceId());
+			}
+		}
+		
+		/*
+		 * Instances, which are referenced by multiple targets, cannot be looked up unambiguously;
+		 * lookups of them fall back to discovery (which then rejects them)
+		 */
+		newIndex.keySet().removeAll(duplicateInstanceIds);
+		
+		this.instanceIndex = newIndex;
+		log.debug("Instance index rebuilt with {} instances", newIndex.size());
+		
+		final List<Instance> currentSnapshot = this.instanceSnapshot;
+		if (currentSnapshot == null || currentSnapshot.size() != instanceList.size() || !new HashSet<>(currentSnapshot).containsAll(instanceList)) {
+			this.instanceSnapshot = List.copyOf(instanceList);
+			log.debug("Set of discovered instances has changed; new snapshot contains {} instances", instanceList.size());
+		}
+	}
+	
+	/**
+	 * provides the instances determined by the last full discovery. Unlike {@link #discover(Predicate, Predicate)}, this does not 
+	 * trigger a discovery, unless no full discovery has happened yet. The snapshot is refreshed in the background 
+	 * (see also {@link #refreshInstanceIndex()}).
+	 * @return the (immutable) list of instances; the same reference is returned as long as the set of instances has not changed.
+	 */
+	public List<Instance> getInstanceSnapshot() {
+		final List<Instance> currentSnapshot = this.instanceSnapshot;
+		if (currentSnapshot != null) {
+			return currentSnapshot;
+		}
+		
+		this.discover(null, null);
+		return this.instanceSnapshot;
+	}
+	
+	/**
+	 * looks up a single instance by its instance identifier. The lookup is served from the index, which is rebuilt on each
+	 * full discovery (i.e. without filters); only if the instance is not contained in the index, a filtered discovery is performed.
+	 * Like with {@link #discover(Predicate, Predicate)}, the instance found is registered at this Discoverer.
+	 * @param applicationId the application identifier of the instance
+	 * @param instanceId the instance identifier in format <i>[app guid]:[instance number]</i>
+	 * @return the instance found; <code>null</code>, if no instance (or more than one instance) could be found.
+	 */
+	@Nullable
+	public Instance lookupInstance(String applicationId, String instanceId) {
+		Instance instance = this.instanceIndex.get(instanceId);
+		if (instance != null) {
+			this.registerInstance(instance);
+			return instance;
+		}
+		
+		List<Instance> instanceList = this.discover(discoveredApplicationId -> applicationId.equals(discoveredApplicationId), 
+				requestInstance -> requestInstance.getInstanceId().equals(instanceId));
+		
+		if (instanceList == null || instanceList.size() != 1) {
+			return null;
+		}
+		
+		instance = instanceList.get(0);
+		this.instanceIndex.put(instanceId, instance);
+		
+		return instance;
+	}
+	
+	/**
+	 * refreshes the index of instances by performing a full discovery in the background.
+	 * This method is automatically called by the Spring framework in regular intervals asynchronously.
+	 */
+	@Scheduled(initialDelayString = "${promregator.discoverer.indexRefreshInterval:60}000", fixedDelayString = "${promregator.discoverer.indexRefreshInterval:60}000")
+	public void refreshInstanceIndex() {
+		log.debug("Refreshing instance index");
+		this.discover(null, null);
+	}
 
 	private void registerInstance(Instance instance) {
 		Instant timeout = nextTimeout();
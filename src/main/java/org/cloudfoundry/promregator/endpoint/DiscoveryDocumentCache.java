@@ -0,0 +1,77 @@
+package org.cloudfoundry.promregator.endpoint;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.cloudfoundry.promregator.scanner.Instance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+
+/**
+ * Keeps the serialized discovery document, which was rendered last, including its ETag.
+ * As long as neither the snapshot of instances (see also <code>CFMultiDiscoverer.getInstanceSnapshot()</code>) nor
+ * the parameters of the document have changed, the document does not need to be rendered again.
+ */
+public class DiscoveryDocumentCache {
+	private static final Logger log = LoggerFactory.getLogger(DiscoveryDocumentCache.class);
+
+	private final ObjectMapper objectMapper;
+
+	public record DiscoveryDocument(String json, String etag) {
+	}
+
+	private record CachedDiscoveryDocument(List<Instance> instanceSnapshot, String target, String scheme, boolean ownMetricsEndpoint, DiscoveryDocument document) {
+		private boolean matches(List<Instance> otherInstanceSnapshot, String otherTarget, String otherScheme, boolean otherOwnMetricsEndpoint) {
+			// NB: the snapshot is compared by reference on purpose; its reference only changes if the set of instances has changed
+			return this.instanceSnapshot == otherInstanceSnapshot && this.target.equals(otherTarget)
+					&& Objects.equals(this.scheme, otherScheme) && this.ownMetricsEndpoint == otherOwnMetricsEndpoint;
+		}
+	}
+
+	private volatile CachedDiscoveryDocument cachedDocument;
+
+	/**
+	 * @param objectMapper the mapper used for serializing the discovery document; usually the one configured by Spring (see also <code>spring.jackson.*</code>)
+	 */
+	public DiscoveryDocumentCache(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * provides the serialized discovery document for a snapshot of instances
+	 * @param instanceSnapshot the snapshot of instances, which the document is based on
+	 * @param target the scraping target (host and port) of the document
+	 * @param scheme the scheme of the document; may be <code>null</code>
+	 * @param ownMetricsEndpoint <code>true</code>, if Promregator's own metrics endpoint is part of the document
+	 * @param discoveryResponseSupplier supplier of the document to be serialized, if the document needs to be rendered (again)
+	 * @return the serialized discovery document; <code>null</code> in case the document could not be serialized
+	 */
+	public DiscoveryDocument getDocument(List<Instance> instanceSnapshot, String target, String scheme, boolean ownMetricsEndpoint, Supplier<Object> discoveryResponseSupplier) {
+		final CachedDiscoveryDocument current = this.cachedDocument;
+		if (current != null && current.matches(instanceSnapshot, target, scheme, ownMetricsEndpoint)) {
+			return current.document();
+		}
+
+		final String json;
+		try {
+			json = this.objectMapper.writeValueAsString(discoveryResponseSupplier.get());
+		} catch (JsonProcessingException e) {
+			log.error("Unable to serialize discovery document", e);
+			return null;
+		}
+
+		final String etag = "\"%s\"".formatted(Hashing.sha256().hashString(json, StandardCharsets.UTF_8));
+		final DiscoveryDocument document = new DiscoveryDocument(json, etag);
+
+		// concurrent requests may render the same document twice, which does not do any harm
+		this.cachedDocument = new CachedDiscoveryDocument(instanceSnapshot, target, scheme, ownMetricsEndpoint, document);
+
+		return document;
+	}
+}
@@ -1,17 +1,19 @@
 package org.cloudfoundry.promregator.endpoint;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.cloudfoundry.promregator.discovery.CFMultiDiscoverer;
+import org.cloudfoundry.promregator.endpoint.DiscoveryDocumentCache.DiscoveryDocument;
 import org.cloudfoundry.promregator.scanner.Instance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +33,9 @@ public class DiscoveryEndpoint {
 	
 	@Autowired
 	private CFMultiDiscoverer cfDiscoverer;
+	
+	@Autowired
+	private DiscoveryDocumentCache discoveryDocumentCache;
 
 	@Value("${promregator.discovery.hostname:#{null}}")
 	private String myHostname;
@@ -137,25 +142,79 @@ public class DiscoveryEndpoint {
 		}
 	}
 	
+	/**
+	 * provides the discovery document in the format of Prometheus' HTTP-based service discovery.
+	 * The document is based on the snapshot of instances, which is refreshed in the background, and is only rendered again
+	 * if the snapshot has changed. Clients may send the ETag of the document they have received last to avoid
+	 * transferring it again.
+	 * @param request the request of the client
+	 * @return the discovery document or status code 304, if the document has not changed
+	 */
 	@GetMapping(produces=MediaType.APPLICATION_JSON_VALUE)
-	public ResponseEntity<DiscoveryResponse[]> getDiscovery(HttpServletRequest request) {
-		
-		List<Instance> instances = this.cfDiscoverer.discover(null, null);
+	public ResponseEntity<String> getDiscoveryDocument(HttpServletRequest request) {
+		List<Instance> instances = this.cfDiscoverer.getInstanceSnapshot();
 		// @SonarQube: No, there shall not be any || instances.isEmpty() here! Why? See https://github.com/promregator/promregator/issues/180
 		if (instances == null) {
 			return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
 		}
 		
+		final String target = this.determineTarget(request);
+		final String localScheme = this.determineScheme();
+		
+		DiscoveryDocument document = this.discoveryDocumentCache.getDocument(instances, target, localScheme, this.promregatorMetricsEndpoint, 
+				() -> this.createDiscoveryResponses(instances, target, localScheme));
+		if (document == null) {
+			return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		
+		if (isETagMatching(request.getHeader(HttpHeaders.IF_NONE_MATCH), document.etag())) {
+			log.debug("Discovery document has not changed; responding with status code 304");
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(document.etag()).build();
+		}
+		
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.eTag(document.etag())
+				.body(document.json());
+	}
+	
+	private static boolean isETagMatching(String ifNoneMatchHeader, String etag) {
+		if (ifNoneMatchHeader == null) {
+			return false;
+		}
+		
+		for (String candidate : ifNoneMatchHeader.split(",")) {
+			String trimmedCandidate = candidate.trim();
+			if (trimmedCandidate.startsWith("W/")) {
+				// weak comparison is permitted for If-None-Match, see RFC 9110, section 13.1.2
+				trimmedCandidate = trimmedCandidate.substring(2);
+			}
+			
+			if ("*".equals(trimmedCandidate) || etag.equals(trimmedCandidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private String determineTarget(HttpServletRequest request) {
 		String localHostname = this.myHostname != null ? this.myHostname : request.getLocalName();
 		int localPort = this.myPort != 0 ? this.myPort : request.getLocalPort();
-
+		
+		return "%s:%d".formatted(localHostname, localPort);
+	}
+	
+	private String determineScheme() {
 		//Default __scheme__ to https if promregator.discovery.port:443
-		String localScheme = (this.myScheme == null && this.myPort == 443) ? "https" : this.myScheme;
-		final String[] targets = { "%s:%d".formatted(localHostname, localPort) };
+		return (this.myScheme == null && this.myPort == 443) ? "https" : this.myScheme;
+	}
+	
+	private DiscoveryResponse[] createDiscoveryResponses(List<Instance> instances, String target, String localScheme) {
+		final String[] targets = { target };
 		
 		log.info("Using scraping target {} in discovery response", targets[0]);
 		
-		List<DiscoveryResponse> result = new LinkedList<>();
+		List<DiscoveryResponse> result = new ArrayList<>(instances.size() + 1);
 		for (Instance instance : instances) {
 			
 			String path = String.format(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"/%s/%s", instance.getApplicationId(), instance.getInstanceNumber());
@@ -173,6 +232,6 @@ public class DiscoveryEndpoint {
 		
 		log.info("Returning discovery document with {} targets", result.size());
 		
-		return new ResponseEntity<>(result.toArray(new DiscoveryResponse[0]), HttpStatus.OK);
+		return result.toArray(new DiscoveryResponse[0]);
 	}
 }
@@ -1,7 +1,12 @@
 package org.cloudfoundry.promregator.endpoint;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.cloudfoundry.promregator.cfaccessor.CFAccessorCache;
 import org.cloudfoundry.promregator.scanner.CachingTargetResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -11,9 +16,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 @RestController
 @RequestMapping(EndpointConstants.ENDPOINT_PATH_CACHE_INVALIDATION)
 public class InvalidateCacheEndpoint {
+	private static final Logger log = LoggerFactory.getLogger(InvalidateCacheEndpoint.class);
 
 	@Autowired
 	private CFAccessorCache cfAccessorCache;
@@ -21,6 +30,10 @@ public class InvalidateCacheEndpoint {
 	@Autowired
 	private CachingTargetResolver cachingTargetResolver;
 	
+	public ResponseEntity<String> invalidateCache(boolean process, boolean route, boolean domain, boolean application, boolean space, boolean org, boolean resolver) {
+		return this.invalidateCache(process, route, domain, application, space, org, resolver, null, null, null);
+	}
+	
 	@GetMapping(produces = MediaType.TEXT_PLAIN_VALUE)
 	public ResponseEntity<String> invalidateCache(
 			@RequestParam(required = false) boolean process,
@@ -29,7 +42,10 @@ public class InvalidateCacheEndpoint {
 			@RequestParam(required = false) boolean application,
 			@RequestParam(required = false) boolean space,
 			@RequestParam(required = false) boolean org,
-			@RequestParam(required = false) boolean resolver
+			@RequestParam(required = false) boolean resolver,
+			@RequestParam(required = false) String appId,
+			@RequestParam(required = false) String spaceId,
+			@RequestParam(required = false) String orgName
 			) {
 
 		if (process) {
@@ -57,7 +73,28 @@ public class InvalidateCacheEndpoint {
 		if (resolver) {
 			this.cachingTargetResolver.invalidateCache();
 		}
+		
+		this.refreshKeys(appId, spaceId, orgName);
 
 		return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
 	}
+
+	/**
+	 * reloads the cached data of an application, a space and/or an org in the background. Once the reload has 
+	 * finished, the resolved targets, which may be affected, are invalidated.
+	 */
+	private void refreshKeys(String appId, String spaceId, String orgName) {
+		if (appId == null && spaceId == null && orgName == null) {
+			return;
+		}
+		
+		Flux.merge(
+				appId == null ? Mono.<Set<String>>empty() : this.cfAccessorCache.refreshApplication(appId),
+				spaceId == null ? Mono.<Set<String>>empty() : this.cfAccessorCache.refreshSpace(spaceId),
+				orgName == null ? Mono.<Set<String>>empty() : this.cfAccessorCache.refreshOrg(orgName))
+			.collect(HashSet<String>::new, Set::addAll)
+			.subscribe(
+				affectedAppIds -> affectedAppIds.forEach(affectedAppId -> this.cachingTargetResolver.refreshApplication(affectedAppId, null)),
+				e -> log.warn("Unable to refresh the cached data of app '{}', space '{}' and org '{}'", appId, spaceId, orgName, e));
+	}
 }
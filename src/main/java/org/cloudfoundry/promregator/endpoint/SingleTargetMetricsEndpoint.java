@@ -3,17 +3,23 @@ package org.cloudfoundry.promregator.endpoint;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import jakarta.annotation.PostConstruct;
@@ -21,15 +27,21 @@ import jakarta.annotation.PostConstruct;
 import org.cloudfoundry.promregator.auth.AuthenticationEnricher;
 import org.cloudfoundry.promregator.auth.AuthenticatorController;
 import org.cloudfoundry.promregator.discovery.CFMultiDiscoverer;
+import org.cloudfoundry.promregator.fetcher.AsyncMetricsFetcher;
 import org.cloudfoundry.promregator.fetcher.CFMetricsFetcher;
 import org.cloudfoundry.promregator.fetcher.CFMetricsFetcherConfig;
+import org.cloudfoundry.promregator.fetcher.CFMetricsFetcherConnectionPool;
 import org.cloudfoundry.promregator.fetcher.FetchResult;
+import org.cloudfoundry.promregator.fetcher.FetchResultCoalescer;
+import org.cloudfoundry.promregator.fetcher.FetchResultStreamSink;
 import org.cloudfoundry.promregator.fetcher.MetricsFetcher;
 import org.cloudfoundry.promregator.fetcher.MetricsFetcherMetrics;
 import org.cloudfoundry.promregator.fetcher.MetricsFetcherSimulator;
+import org.cloudfoundry.promregator.fetcher.ReactiveCFMetricsFetcher;
 import org.cloudfoundry.promregator.rewrite.GenericMetricFamilySamplesPrefixRewriter;
 import org.cloudfoundry.promregator.rewrite.MetricSetMerger;
 import org.cloudfoundry.promregator.rewrite.OwnMetricsEnrichmentLabelVector;
+import org.cloudfoundry.promregator.rewrite.StreamingMetricSetMerger;
 import org.cloudfoundry.promregator.scanner.Instance;
 import org.cloudfoundry.promregator.scanner.ResolvedTarget;
 import org.slf4j.Logger;
@@ -45,6 +57,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import io.prometheus.client.Collector.MetricFamilySamples;
 import io.prometheus.client.CollectorRegistry;
@@ -52,6 +67,10 @@ import io.prometheus.client.Gauge;
 import io.prometheus.client.Gauge.Builder;
 import io.prometheus.client.exporter.common.TextFormat;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
 
 @RestController
 @Scope(value=WebApplicationContext.SCOPE_REQUEST) // see also https://github.com/promregator/promregator/issues/51
@@ -61,6 +80,12 @@ public class SingleTargetMetricsEndpoint {
 	private static final Logger log = LoggerFactory.getLogger(SingleTargetMetricsEndpoint.class);
 	
 	private static final Pattern PATTERN_APPLICATION_ID_FORMAT = Pattern.compile("[-0-9a-f]++");
+	
+	/**
+	 * additional time granted to the asynchronous processing of the servlet container, before it
+	 * considers the scraping request to have timed out (in milliseconds)
+	 */
+	private static final long ASYNC_TIMEOUT_GRACE_PERIOD = 1000;
 
 	@Value("${promregator.simulation.enabled:false}")
 	private boolean simulationMode;
@@ -68,18 +93,21 @@ public class SingleTargetMetricsEndpoint {
 	@Autowired
 	private ExecutorService metricsFetcherPool;
 	
+	@Autowired
+	private HttpClient scrapingHttpClient;
+	
+	@Autowired
+	private CFMetricsFetcherConnectionPool cfMetricsFetcherConnectionPool;
+	
+	@Autowired
+	private FetchResultCoalescer fetchResultCoalescer;
+	
 	@Autowired
 	private CFMultiDiscoverer cfDiscoverer;
 
 	@Autowired
 	private AuthenticatorController authenticatorController;
 	
-	@Value("${promregator.scraping.proxy.host:@null}")
-	private String proxyHost;
-	
-	@Value("${promregator.scraping.proxy.port:0}")
-	private int proxyPort;
-
 	/**
 	 * The maximal processing time permitted for Scraping (in milliseconds).
 	 */
@@ -89,15 +117,21 @@ public class SingleTargetMetricsEndpoint {
 	@Value("${promregator.metrics.requestLatency:false}")
 	private boolean recordRequestLatency;
 	
-	@Value("${promregator.scraping.connectionTimeout:5000}")
-	private int fetcherConnectionTimeout;
-
-	@Value("${promregator.scraping.socketReadTimeout:5000}")
-	private int fetcherSocketReadTimeout;
-	
 	@Value("${promregator.metrics.labelNamePrefix:#{null}}")
 	private String ownMetricsLabelNamePrefix;
 	
+	/**
+	 * if enabled, the metrics of the target are streamed to the response instead of buffering them.
+	 */
+	@Value("${promregator.scraping.streaming:false}")
+	private boolean streamingMode;
+	
+	/**
+	 * if enabled, the metrics of the target are fetched non-blocking and the response is provided asynchronously.
+	 */
+	@Value("${promregator.scraping.async.enabled:false}")
+	private boolean asyncMode;
+	
 	@Autowired
 	private UUID promregatorInstanceIdentifier;
 	
@@ -112,6 +146,15 @@ public class SingleTargetMetricsEndpoint {
 	// see also https://prometheus.io/docs/instrumenting/writing_exporters/#metrics-about-the-scrape-itself
 	private Gauge up;
 	
+	/*
+	 * Note: The scrape_duration_seconds metric is being passed on to Prometheus with
+	 * the normal scraping request.
+	 */
+	private Gauge scrapeDuration;
+	
+	/* only set in streaming mode */
+	private FetchResultStreamSink streamSink;
+	
 	@PostConstruct
 	public void setupOwnRequestScopedMetrics() {
 		this.requestRegistry = new CollectorRegistry();
@@ -119,22 +162,18 @@ public class SingleTargetMetricsEndpoint {
 		Builder builder = Gauge.build("promregator_up", "Indicator, whether the target of promregator is available");
 		
 		this.up = builder.register(this.requestRegistry);
+		
+		this.scrapeDuration = Gauge.build("promregator_scrape_duration_seconds", "Duration in seconds indicating how long scraping of all metrics took")
+				.unit("seconds")
+				.register(this.requestRegistry);
 	}
 	
 	@PostConstruct
-	public void validateAndFixFetcherTimeouts() {
-		long localMaxProcessingTime = this.maxProcessingTime;
-		
-		if (this.fetcherConnectionTimeout > localMaxProcessingTime) {
-			log.warn("Fetcher's Connection Timeout is longer than the configured Maximal Processing Time of all fetchers; shortening timeout value to that value, as this does not make sense. "+
-					"Check your configured values for configuration options promregator.scraping.connectionTimeout and promregator.scraping.maxProcessingTime");
-			this.fetcherConnectionTimeout = (int) localMaxProcessingTime;
-		}
-		
-		if (this.fetcherSocketReadTimeout > localMaxProcessingTime) {
-			log.warn("Fetcher's Socket Read Timeout is longer than the configured Maximal Processing Time of all fetchers; shortening timeout value to that value, as this does not make sense. "+
-					"Check your configured values for configuration options promregator.scraping.socketReadTimeout and promregator.scraping.maxProcessingTime");
-			this.fetcherSocketReadTimeout = (int) localMaxProcessingTime;
+	public void validateScrapingModes() {
+		if (this.streamingMode && this.asyncMode) {
+			log.warn("Streaming mode and asynchronous mode for scraping cannot be combined; using streaming mode. "+
+					"Check your configured values for configuration options promregator.scraping.streaming and promregator.scraping.async.enabled");
+			this.asyncMode = false;
 		}
 	}
 	
@@ -145,27 +184,50 @@ public class SingleTargetMetricsEndpoint {
 		
 		this.up.clear();
 		
-		List<Instance> instanceList = this.cfDiscoverer.discover(discoveredApplicationId -> applicationId.equals(discoveredApplicationId), 
-				requestInstance -> requestInstance.getInstanceId().equals(instanceId));
-		
-		if (instanceList == null || instanceList.isEmpty()) {
-			throw new ScrapingException("Unable to determine any instance to scrape");
-		}
-		
-		if (instanceList.size() > 1) {
-			throw new ScrapingException("Unexpected duplication of Instance returned");
-		}
-		Instance instance = instanceList.get(0);
+		Instance instance = this.determineInstance(applicationId, instanceId);
 		
 		MetricsFetcher mf = this.createMetricsFetcher(instance);
 		if (mf == null) {
 			throw new ScrapingException("Unable to create MetricsFetcher");
 		}
 		
-		Future<FetchResult> future = this.metricsFetcherPool.submit(mf);
+		Future<FetchResult> future = this.fetchCoalesced(instanceId, () -> CompletableFuture.supplyAsync(() -> {
+			try {
+				return mf.call();
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, this.metricsFetcherPool));
 		
 		FetchResult fetchResult = waitForMetricsFetcher(future);
 		
+		return this.enrichFetchResult(fetchResult, start, applicationId, instanceId);
+	}
+	
+	/**
+	 * triggers the fetch using the {@link FetchResultCoalescer}, such that concurrent scraping requests
+	 * of the same instance share a single request to the target.
+	 */
+	private CompletableFuture<FetchResult> fetchCoalesced(String instanceId, Supplier<CompletableFuture<FetchResult>> fetcher) {
+		final AtomicBoolean fetchedByThisRequest = new AtomicBoolean(false);
+		
+		CompletableFuture<FetchResult> future = this.fetchResultCoalescer.fetch(instanceId, () -> {
+			fetchedByThisRequest.set(true);
+			return fetcher.get();
+		});
+		
+		if (fetchedByThisRequest.get()) {
+			return future;
+		}
+		
+		// the fetcher of this request did not run and thus has not set the "up" metric of this request
+		return future.thenApply(fetchResult -> {
+			this.up.labels().set(fetchResult != null ? 1.0 : 0.0);
+			return fetchResult;
+		});
+	}
+	
+	private FetchResult enrichFetchResult(FetchResult fetchResult, Instant start, String applicationId, String instanceId) {
 		if (fetchResult == null) {
 			fetchResult = new FetchResult("", TextFormat.CONTENT_TYPE_OPENMETRICS_100);
 		}
@@ -173,21 +235,102 @@ public class SingleTargetMetricsEndpoint {
 		Instant stop = Instant.now();
 		Duration duration = Duration.between(start, stop);
 		
-		/*
-		 * Note: The scrape_duration_seconds metric is being passed on to Prometheus with
-		 * the normal scraping request.
-		 */
-		Gauge scrapeDuration = Gauge.build("promregator_scrape_duration_seconds", "Duration in seconds indicating how long scraping of all metrics took")
-				.unit("seconds")
-				.register(requestRegistry);
-		
-		scrapeDuration.set(duration.toMillis() / 1000.0);
+		this.scrapeDuration.set(duration.toMillis() / 1000.0);
 		
 		// add also our own request-specific metrics
 		final String enrichedMetricsSet = this.mergeInternalMetricsWithFetchResult(fetchResult, applicationId, instanceId);
 		
 		return new FetchResult(enrichedMetricsSet, fetchResult.contentType());
 	}
+	
+	/**
+	 * handles the scraping request in streaming mode: the metrics of the target are written to the response
+	 * of the current HTTP request while they are being received. Promregator's own metrics are appended at the end
+	 * (but before the EOF marker, if the target responds in OpenMetrics format).
+	 * 
+	 * The response is written directly (and not via a <code>StreamingResponseBody</code>), as its content type is only
+	 * known once the target has responded. Writing to the response from the thread of the fetcher is safe, as
+	 * <ul>
+	 * <li>this method blocks the servlet thread until the fetcher has completed or the maximal processing time has passed, and</li>
+	 * <li>otherwise, the merger is aborted before this method returns; the merger only hands out the response 
+	 * to the fetcher while holding its lock and rejects any write after being aborted.</li>
+	 * </ul>
+	 * Once the first byte has been streamed, the status code and the headers of the response are committed. Any failure 
+	 * afterwards can only be logged, leaving the client with an incomplete response.
+	 */
+	private void handleStreamingRequest(String applicationId, String instanceId) throws ScrapingException, IOException {
+		log.debug("Received request to a metrics endpoint (streaming mode)");
+		Instant start = Instant.now();
+		
+		this.up.clear();
+		
+		Instance instance = this.determineInstance(applicationId, instanceId);
+		
+		// the fetcher is writing from another thread, so we need to get hold of the real response object here
+		final HttpServletResponse response = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getResponse();
+		
+		HashMap<String, MetricFamilySamples> mapMFS = this.gmfspr.determineEnumerationOfMetricFamilySamples(this.requestRegistry);
+		final StreamingMetricSetMerger merger = new StreamingMetricSetMerger(mapMFS.keySet());
+		this.streamSink = contentType -> merger.open(contentType, () -> {
+			response.setContentType(contentType);
+			return response.getOutputStream();
+		});
+		
+		MetricsFetcher mf = this.createMetricsFetcher(instance);
+		if (mf == null) {
+			throw new ScrapingException("Unable to create MetricsFetcher");
+		}
+		
+		Future<FetchResult> future = this.metricsFetcherPool.submit(mf);
+		
+		FetchResult fetchResult = waitForMetricsFetcher(future);
+		
+		if (fetchResult == null) {
+			future.cancel(true);
+			if (merger.abort()) {
+				log.warn("Scraping instance {} of application {} failed after streaming of its metrics had already started; the response is incomplete", instanceId, applicationId);
+				return;
+			}
+			
+			// the fetcher might not have completed (e.g. due to a timeout) and thus might not have set the "up" metric
+			this.up.labels().set(0.0);
+		}
+		
+		Duration duration = Duration.between(start, Instant.now());
+		this.scrapeDuration.set(duration.toMillis() / 1000.0);
+		
+		mapMFS = this.gmfspr.determineEnumerationOfMetricFamilySamples(this.requestRegistry);
+		
+		if (fetchResult == null) {
+			// nothing has been streamed so far: the response only consists of our own metrics
+			response.setContentType(TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+			response.getOutputStream().write(this.writeOwnMetrics(TextFormat.CONTENT_TYPE_OPENMETRICS_100, mapMFS.values()).getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		
+		String ownMetrics = null;
+		try {
+			ownMetrics = this.writeOwnMetrics(fetchResult.contentType(), mapMFS.values());
+		} catch (IOException e) {
+			log.error("Internal error on writing internal metrics for instance {} of application {}", instanceId, applicationId, e);
+		}
+		
+		merger.finish(ownMetrics);
+		
+		final String reservedMetricName = merger.getReservedMetricNameDetected();
+		if (reservedMetricName != null) {
+			log.warn("Instance {} of application {} emitted a metric {}, which is reserved by Promregator. Skipping adding Promregator's metrics", instanceId, applicationId, reservedMetricName);
+		}
+	}
+	
+	private Instance determineInstance(String applicationId, String instanceId) throws ScrapingException {
+		Instance instance = this.cfDiscoverer.lookupInstance(applicationId, instanceId);
+		
+		if (instance == null) {
+			throw new ScrapingException("Unable to determine a unique instance to scrape");
+		}
+		return instance;
+	}
 
 	private FetchResult waitForMetricsFetcher(Future<FetchResult> future) {
 		final long starttime = System.currentTimeMillis();
@@ -204,14 +347,82 @@ public class SingleTargetMetricsEndpoint {
 			log.warn("Exception thrown while fetching Metrics data from target", e);
 			// continue not necessary here
 		} catch (TimeoutException e) {
-			log.info("Not all targets could be scraped within the current promregator.scraping.maxProcessingTime. "
-					+ "Consider increasing promregator.scraping.maxProcessingTime or promregator.scraping.threads, "
-					+ "but mind the implications. See also https://github.com/promregator/promregator/wiki/Handling-Timeouts-on-Scraping");
+			logScrapingTimeout();
 			// continue not necessary here - other's shall and are still processed
 		}
 		return null;
 	}
+	
+	private static void logScrapingTimeout() {
+		log.info("Not all targets could be scraped within the current promregator.scraping.maxProcessingTime. "
+				+ "Consider increasing promregator.scraping.maxProcessingTime or promregator.scraping.threads, "
+				+ "but mind the implications. See also https://github.com/promregator/promregator/wiki/Handling-Timeouts-on-Scraping");
+	}
+	
+	/**
+	 * handles the scraping request in asynchronous mode: the servlet thread is released immediately and the
+	 * response is provided via a {@link DeferredResult} once the (non-blocking) fetcher has completed.
+	 */
+	private DeferredResult<ResponseEntity<String>> handleAsyncRequest(String applicationId, String instanceId) throws ScrapingException {
+		log.debug("Received request to a metrics endpoint (asynchronous mode)");
+		final Instant start = Instant.now();
+		
+		this.up.clear();
+		
+		Instance instance = this.determineInstance(applicationId, instanceId);
+		
+		MetricsFetcher mf = this.createMetricsFetcher(instance);
+		if (mf == null) {
+			throw new ScrapingException("Unable to create MetricsFetcher");
+		}
+		
+		Mono<FetchResult> fetcherMono = null;
+		if (mf instanceof AsyncMetricsFetcher amf) {
+			fetcherMono = amf.fetchAsync();
+		} else {
+			// e.g. simulation mode: fall back to the thread pool
+			fetcherMono = Mono.fromCallable(mf).subscribeOn(Schedulers.fromExecutorService(this.metricsFetcherPool));
+		}
+		
+		Mono<FetchResult> fetchResultMono = fetcherMono;
+		if (this.fetchResultCoalescer.isEnabled()) {
+			final Mono<FetchResult> unsharedFetchResultMono = fetcherMono;
+			// cancelling (e.g. due to the timeout below) must not cancel the fetch shared with other requests
+			fetchResultMono = Mono.fromFuture(() -> this.fetchCoalesced(instanceId, unsharedFetchResultMono::toFuture), true);
+		}
+		
+		final DeferredResult<ResponseEntity<String>> deferredResult = new DeferredResult<>(this.maxProcessingTime + ASYNC_TIMEOUT_GRACE_PERIOD);
+		
+		fetchResultMono
+			.timeout(Duration.ofMillis(this.maxProcessingTime))
+			.onErrorResume(TimeoutException.class, e -> {
+				logScrapingTimeout();
+				return Mono.empty();
+			})
+			.onErrorResume(e -> {
+				log.warn("Exception thrown while fetching Metrics data from target", e);
+				return Mono.empty();
+			})
+			.map(fetchResult -> this.enrichFetchResult(fetchResult, start, applicationId, instanceId))
+			.switchIfEmpty(Mono.fromSupplier(() -> this.enrichFetchResult(null, start, applicationId, instanceId)))
+			.subscribe(response -> deferredResult.setResult(ResponseEntity.ok()
+						.header(HttpHeaders.CONTENT_TYPE, response.contentType())
+						.body(response.data())), 
+					deferredResult::setErrorResult);
+		
+		return deferredResult;
+	}
 
+	// protected due to unit tests!
+	protected FetchResultStreamSink getStreamSink() {
+		return this.streamSink;
+	}
+	
+	// protected due to unit tests!
+	protected Gauge.Child getUpChild() {
+		return this.up.labels();
+	}
+	
 	protected MetricsFetcher createMetricsFetcher(final Instance instance) {
 		
 		log.debug("Creating Metrics Fetcher for instance {}", instance.getInstanceId());
@@ -246,63 +457,60 @@ public class SingleTargetMetricsEndpoint {
 		
 		MetricsFetcher mf = null;
 		if (this.simulationMode) {
-			mf = new MetricsFetcherSimulator(accessURL, ae, mfm, upChild);
+			mf = new MetricsFetcherSimulator(accessURL, ae, mfm, upChild, this.streamSink);
 		} else {
 			CFMetricsFetcherConfig cfmfConfig = new CFMetricsFetcherConfig();
 			cfmfConfig.setAuthenticationEnricher(ae);
 			cfmfConfig.setMetricsFetcherMetrics(mfm);
 			cfmfConfig.setUpChild(upChild);
 			cfmfConfig.setPromregatorInstanceIdentifier(this.promregatorInstanceIdentifier);
-			cfmfConfig.setConnectionTimeoutInMillis(this.fetcherConnectionTimeout);
-			cfmfConfig.setSocketReadTimeoutInMillis(this.fetcherSocketReadTimeout);
-			this.provideProxyConfiguration(cfmfConfig);
+			cfmfConfig.setStreamSink(this.streamSink);
+			cfmfConfig.setHttpClient(this.cfMetricsFetcherConnectionPool.getHttpClient());
+			// timeouts and proxy settings are part of the request configuration, see CFMetricsFetcherConnectionPool
+			cfmfConfig.setRequestConfig(this.cfMetricsFetcherConnectionPool.getRequestConfig());
 			
-			mf = new CFMetricsFetcher(accessURL, instance.getInstanceId(), cfmfConfig, instance.isInternal());
+			if (this.asyncMode) {
+				mf = new ReactiveCFMetricsFetcher(accessURL, instance.getInstanceId(), cfmfConfig, instance.isInternal(), this.scrapingHttpClient);
+			} else {
+				mf = new CFMetricsFetcher(accessURL, instance.getInstanceId(), cfmfConfig, instance.isInternal());
+			}
 		}
 		
 		return mf;
 	}
 	
-	private String mergeInternalMetricsWithFetchResult(FetchResult fetchResult, String applicationId, String instanceId) {
+	// protected due to benchmarks!
+	protected String mergeInternalMetricsWithFetchResult(FetchResult fetchResult, String applicationId, String instanceId) {
 		final String fetchData = fetchResult.data();
 		
 		HashMap<String, MetricFamilySamples> mapMFS = this.gmfspr.determineEnumerationOfMetricFamilySamples(this.requestRegistry);
 		
-		for (String metricName : mapMFS.keySet()) {
-			Pattern pType = Pattern.compile("^# TYPE +%s +".formatted(metricName));
-			if (pType.matcher(fetchData).find()) {
-				log.warn("Instance {} of application {} emitted a metric {}, which is reserved by Promregator. Skipping adding Promregator's metrics", instanceId, applicationId, metricName);
-				return fetchData;
-			}
-			
-			Pattern pMetric = Pattern.compile("^%s *\\{".formatted(metricName));
-			if (pMetric.matcher(fetchData).find()) {
-				log.warn("Instance {} of application {} emitted a sample with name {}, which is reserved by Promregator. Skipping adding Promregator's metrics", instanceId, applicationId, metricName);
-				return fetchData;
-			}
-		}
-		
-		Writer writer = new StringWriter();
+		String ownMetrics = null;
 		try {
-			TextFormat.writeFormat(fetchResult.contentType(), writer, Collections.enumeration(mapMFS.values()));
+			ownMetrics = this.writeOwnMetrics(fetchResult.contentType(), mapMFS.values());
 		} catch (IOException e) {
 			log.error("Internal error on writing internal metrics for instance {} of application {}", instanceId, applicationId, e);
 			return fetchData;
 		}
 		
-		return new MetricSetMerger(fetchResult, writer.toString()).merge();
-	}
-
-	
-	private void provideProxyConfiguration(CFMetricsFetcherConfig cfmfConfig) {
-		String effectiveProxyHost = this.proxyHost;
-		int effectiveProxyPort = this.proxyPort;
+		// detecting reserved metric names is done while merging, such that the metric set of the target is only walked once
+		final MetricSetMerger merger = new MetricSetMerger(fetchResult, ownMetrics, mapMFS.keySet());
+		final String mergedMetricSet = merger.merge();
 		
-		if (effectiveProxyHost != null && effectiveProxyPort != 0) {
-			cfmfConfig.setProxyHost(effectiveProxyHost);
-			cfmfConfig.setProxyPort(effectiveProxyPort);
+		final String reservedMetricName = merger.getReservedMetricNameDetected();
+		if (reservedMetricName != null) {
+			log.warn("Instance {} of application {} emitted a metric {}, which is reserved by Promregator. Skipping adding Promregator's metrics", instanceId, applicationId, reservedMetricName);
 		}
+		
+		return mergedMetricSet;
+	}
+	
+	private String writeOwnMetrics(String contentType, Collection<MetricFamilySamples> mfs) throws IOException {
+		Writer writer = new StringWriter();
+		TextFormat.writeFormat(contentType, writer, Collections.enumeration(mfs));
+		return writer.toString();
 	}
+
 	
 	/**
 	 * verifies if the current HTTP request is coming from the same Promregator instance 
@@ -351,11 +559,62 @@ public class SingleTargetMetricsEndpoint {
 		return null;
 	}
 	
+	/**
+	 * handles the scraping request of a single target.
+	 * Spring MVC picks the handling of the returned value based on its actual type: in asynchronous mode,
+	 * a {@link DeferredResult} is returned (see {@link #getMetricsAsync(String, String)}), for which Spring MVC
+	 * starts the asynchronous processing; otherwise, the response is returned directly (see {@link #getMetrics(String, String)}).
+	 * @param applicationId the application id of the target
+	 * @param instanceNumber the instance number of the target
+	 * @return the response; either a {@link ResponseEntity} or a {@link DeferredResult} of it
+	 */
 	@GetMapping
-	public ResponseEntity<String> getMetrics(
+	public Object handleScrapingRequest(
 			@PathVariable String applicationId,
 			@PathVariable String instanceNumber
 			) {
+		if (this.asyncMode) {
+			return this.getMetricsAsync(applicationId, instanceNumber);
+		}
+		
+		return this.getMetrics(applicationId, instanceNumber);
+	}
+	
+	/**
+	 * scrapes the target in asynchronous mode
+	 * @param applicationId the application id of the target
+	 * @param instanceNumber the instance number of the target
+	 * @return the response, which is provided once scraping has completed
+	 */
+	public DeferredResult<ResponseEntity<String>> getMetricsAsync(String applicationId, String instanceNumber) {
+		final ResponseEntity<String> precheckResults = this.performPrechecks(applicationId, instanceNumber);
+		if (precheckResults != null) {
+			return completedDeferredResult(precheckResults);
+		}
+		
+		final String instanceId = "%s:%s".formatted(applicationId, instanceNumber);
+		
+		try {
+			return this.handleAsyncRequest(applicationId, instanceId);
+		} catch (ScrapingException e) {
+			log.debug("ScrapingException was raised for instanceid {}", instanceId, e);
+			return completedDeferredResult(new ResponseEntity<>(e.toString(), HttpStatus.NOT_FOUND));
+		}
+	}
+	
+	private static DeferredResult<ResponseEntity<String>> completedDeferredResult(ResponseEntity<String> response) {
+		final DeferredResult<ResponseEntity<String>> deferredResult = new DeferredResult<>();
+		deferredResult.setResult(response);
+		return deferredResult;
+	}
+	
+	/**
+	 * scrapes the target in synchronous or streaming mode
+	 * @param applicationId the application id of the target
+	 * @param instanceNumber the instance number of the target
+	 * @return the response; <code>null</code> in streaming mode, as the response has been written already
+	 */
+	public ResponseEntity<String> getMetrics(String applicationId, String instanceNumber) {
 		
 		ResponseEntity<String> precheckResults = this.performPrechecks(applicationId, instanceNumber);
 		if (precheckResults != null) {
@@ -364,6 +623,21 @@ public class SingleTargetMetricsEndpoint {
 		
 		final String instanceId = "%s:%s".formatted(applicationId, instanceNumber);
 		
+		if (this.streamingMode) {
+			try {
+				this.handleStreamingRequest(applicationId, instanceId);
+			} catch (ScrapingException e) {
+				log.debug("ScrapingException was raised for instanceid {}", instanceId, e);
+				return new ResponseEntity<>(e.toString(), HttpStatus.NOT_FOUND);
+			} catch (IOException e) {
+				// the response has been committed already (or the client has gone away), so there is nothing else we could respond
+				log.warn("Unable to stream metrics of instanceid {} to the client", instanceId, e);
+			}
+			
+			// the response has already been written directly; see also handleStreamingRequest
+			return null;
+		}
+		
 		FetchResult response = null;
 		try {
 			response = this.handleRequest(applicationId, instanceId);
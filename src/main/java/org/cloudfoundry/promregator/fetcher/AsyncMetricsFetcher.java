@@ -0,0 +1,14 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A MetricsFetcher, which is also capable of retrieving the metrics without blocking the calling thread.
+ */
+public interface AsyncMetricsFetcher extends MetricsFetcher {
+	/**
+	 * @return a Mono, which performs the request to the target upon subscription and emits the Prometheus metrics data upon success.
+	 * In case retrieving the data failed, the Mono completes empty.
+	 */
+	Mono<FetchResult> fetchAsync();
+}
@@ -1,6 +1,8 @@
 package org.cloudfoundry.promregator.fetcher;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -8,6 +10,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.config.RequestConfig;
@@ -49,10 +52,10 @@ public class CFMetricsFetcher implements MetricsFetcher {
 	private static final Pattern CONTENT_TYPE_OPENMETRIC_100_WRONG_VERSION = Pattern.compile("^application/openmetrics-text; *version=(0\\.\\d++\\.\\d++)");
 	private static final Pattern CONTENT_TYPE_TEXT_004 = Pattern.compile("^text/plain; *version=0\\.0\\.4; *charset=utf-8");
 	
-	private String endpointUrl;
-	private String instanceId;
+	protected String endpointUrl;
+	protected String instanceId;
 	private boolean withInternalRouting;
-	private final RequestConfig config;
+	protected final RequestConfig config;
 	private AuthenticationEnricher ae;
 	
 	private Gauge.Child up;
@@ -61,9 +64,15 @@ public class CFMetricsFetcher implements MetricsFetcher {
 	
 	private CloseableHttpClient localHttpClient;
 	
-	private MetricsFetcherMetrics mfm;
+	private final CloseableHttpClient pooledHttpClient;
+	
+	protected MetricsFetcherMetrics mfm;
 
 	private UUID promregatorUUID;
+	
+	private FetchResultStreamSink streamSink;
+	
+	private long bytesStreamed;
 
 	/**
 	 * creates a new Metrics Fetcher by defining the target endpoint where the metrics can be read, the instance identifier
@@ -82,7 +91,13 @@ public class CFMetricsFetcher implements MetricsFetcher {
 
 		this.up = config.getUpChild();
 		this.promregatorUUID = config.getPromregatorInstanceIdentifier();
+		this.streamSink = config.getStreamSink();
+		this.pooledHttpClient = config.getHttpClient();
+
+		this.config = config.getRequestConfig() != null ? config.getRequestConfig() : buildRequestConfig(config);
+	}
 
+	private static RequestConfig buildRequestConfig(CFMetricsFetcherConfig config) {
 		Builder requestConfigBuilder = RequestConfig.custom()
 			.setRedirectsEnabled(true)
 			.setCircularRedirectsAllowed(false)
@@ -94,7 +109,7 @@ public class CFMetricsFetcher implements MetricsFetcher {
 			requestConfigBuilder = requestConfigBuilder.setProxy(new HttpHost(config.getProxyHost(), config.getProxyPort(), "http"));
 		}
 		
-		this.config = requestConfigBuilder.build();
+		return requestConfigBuilder.build();
 	}
 
 	
@@ -112,13 +127,13 @@ public class CFMetricsFetcher implements MetricsFetcher {
 		log.debug("Successfully received metrics from {} for instance {}", this.endpointUrl, this.instanceId);
 		
 		if (this.mfm.getRequestSize() != null) {
-			this.mfm.getRequestSize().observe(result.data().length());
+			this.mfm.getRequestSize().observe(result.data() != null ? result.data().length() : this.bytesStreamed);
 		}
 		
 		return result;
 	}
 
-	private HttpGet setupRequest() {
+	protected HttpGet setupRequest() {
 		HttpGet httpget = new HttpGet(this.endpointUrl);
 		
 		if (this.config != null) {
@@ -154,7 +169,7 @@ public class CFMetricsFetcher implements MetricsFetcher {
 		FetchResult result = null;
 		try {
 			@SuppressWarnings("resource") // there is no closing necessary here - we are just choosing the "right" client here.
-			final CloseableHttpClient httpClient = this.localHttpClient != null ? this.localHttpClient : globalHttpclient;
+			final CloseableHttpClient httpClient = this.determineHttpClient();
 			response = httpClient.execute(httpget);
 
 			if (response.getStatusLine().getStatusCode() != 200) {
@@ -168,7 +183,12 @@ public class CFMetricsFetcher implements MetricsFetcher {
 				return null;
 			}
 			
-			result = new FetchResult(EntityUtils.toString(response.getEntity()), contentType);
+			if (this.streamSink != null) {
+				this.streamBody(response.getEntity(), contentType);
+				result = new FetchResult(null, contentType);
+			} else {
+				result = new FetchResult(EntityUtils.toString(response.getEntity()), contentType);
+			}
 			available = true;
 		} catch (HttpHostConnectException hhce) {
 			log.warn("Unable to connect to server trying to fetch metrics from {}, instance {}", this.endpointUrl, this.instanceId, hhce);
@@ -205,12 +225,43 @@ public class CFMetricsFetcher implements MetricsFetcher {
 		return result;
 	}
 
+	private CloseableHttpClient determineHttpClient() {
+		if (this.localHttpClient != null) {
+			return this.localHttpClient;
+		}
+		
+		if (this.pooledHttpClient != null) {
+			return this.pooledHttpClient;
+		}
+		
+		return globalHttpclient;
+	}
+
+	private void streamBody(HttpEntity entity, String contentType) throws IOException {
+		OutputStream os = this.streamSink.open(contentType);
+		if (entity == null) {
+			return;
+		}
+		
+		/*
+		 * Note that the content stream is not closed explicitly here: if it has been read until its end,
+		 * the connection is released already. If not (e.g. the sink has been aborted), closing the response
+		 * will shut down the connection instead of consuming the remainder of the body.
+		 */
+		@SuppressWarnings("resource")
+		InputStream is = entity.getContent();
+		this.bytesStreamed = is.transferTo(os);
+	}
+
 	private String determineTextFormat(Header contentTypeHeader) {
 		if (contentTypeHeader == null) {
 			return TextFormat.CONTENT_TYPE_004;
 		}
 		
-		final String contentTypeValue = contentTypeHeader.getValue();
+		return this.determineTextFormat(contentTypeHeader.getValue());
+	}
+	
+	protected String determineTextFormat(String contentTypeValue) {
 		if (contentTypeValue == null) {
 			return TextFormat.CONTENT_TYPE_004;
 		}
@@ -241,7 +292,7 @@ public class CFMetricsFetcher implements MetricsFetcher {
 		return null;
 	}
 
-	private void countSuccessOrFailure(boolean available) {
+	protected void countSuccessOrFailure(boolean available) {
 		if (this.up != null) {
 			this.up.set(available ? 1.0 : 0.0);
 		}
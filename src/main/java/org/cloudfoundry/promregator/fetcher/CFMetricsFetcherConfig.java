@@ -2,6 +2,8 @@ package org.cloudfoundry.promregator.fetcher;
 
 import java.util.UUID;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.cloudfoundry.promregator.auth.AuthenticationEnricher;
 
 import io.prometheus.client.Gauge;
@@ -20,6 +22,11 @@ public class CFMetricsFetcherConfig {
 	private int connectionTimeoutInMillis;
 	private int socketReadTimeoutInMillis;
 	
+	private FetchResultStreamSink streamSink;
+	
+	private CloseableHttpClient httpClient;
+	private RequestConfig requestConfig;
+	
 	public CFMetricsFetcherConfig() {
 		super();
 	}
@@ -135,6 +142,48 @@ public class CFMetricsFetcherConfig {
 	public void setSocketReadTimeoutInMillis(int socketReadTimeoutInMillis) {
 		this.socketReadTimeoutInMillis = socketReadTimeoutInMillis;
 	}
+
+	/**
+	 * @return the streamSink
+	 */
+	public FetchResultStreamSink getStreamSink() {
+		return streamSink;
+	}
+
+	/**
+	 * @param streamSink the streamSink to set; if set, the body of the response is streamed to the sink instead of being returned as part of the FetchResult.
+	 */
+	public void setStreamSink(FetchResultStreamSink streamSink) {
+		this.streamSink = streamSink;
+	}
+
+	/**
+	 * @return the httpClient
+	 */
+	public CloseableHttpClient getHttpClient() {
+		return httpClient;
+	}
+
+	/**
+	 * @param httpClient the (pooled) httpClient to set, which shall be used for sending the request; if not set, a global default client is used.
+	 */
+	public void setHttpClient(CloseableHttpClient httpClient) {
+		this.httpClient = httpClient;
+	}
+
+	/**
+	 * @return the requestConfig
+	 */
+	public RequestConfig getRequestConfig() {
+		return requestConfig;
+	}
+
+	/**
+	 * @param requestConfig the (shared) requestConfig to set; if set, it takes precedence over the timeouts and proxy settings of this configuration.
+	 */
+	public void setRequestConfig(RequestConfig requestConfig) {
+		this.requestConfig = requestConfig;
+	}
 	
 	
 }
@@ -0,0 +1,188 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Manages the pool of HTTP connections, which is shared by all {@link CFMetricsFetcher}s for
+ * scraping the targets. Connections are kept alive between two scraping requests and are
+ * evicted only after having been idle for a configurable period of time.
+ *
+ * As the socket factory for TLS is shared and the connection state is not tracked,
+ * TLS connections (and their sessions) are reused across all scraping requests.
+ *
+ * Additionally, the (immutable) request configuration is provided, such that it does not
+ * need to be rebuilt for each scraping request. It is the single place where the timeouts and
+ * the proxy for scraping the targets are configured.
+ */
+public class CFMetricsFetcherConnectionPool {
+	private static final Logger log = LoggerFactory.getLogger(CFMetricsFetcherConnectionPool.class);
+
+	@Value("${promregator.scraping.connectionPool.maxTotal:200}")
+	private int maxTotal;
+
+	@Value("${promregator.scraping.connectionPool.maxPerRoute:50}")
+	private int maxPerRoute;
+
+	/**
+	 * The time after which idle connections are closed (in milliseconds)
+	 */
+	@Value("${promregator.scraping.connectionPool.idleTimeout:60000}")
+	private int idleTimeout;
+
+	/**
+	 * The time for which connections are kept alive, if the target does not specify it (in milliseconds)
+	 */
+	@Value("${promregator.scraping.connectionPool.keepAlive:30000}")
+	private int keepAlive;
+
+	/**
+	 * The time of inactivity after which a connection is validated before being reused (in milliseconds)
+	 */
+	@Value("${promregator.scraping.connectionPool.validateAfterInactivity:2000}")
+	private int validateAfterInactivity;
+
+	@Value("${promregator.scraping.maxProcessingTime:5000}")
+	private int maxProcessingTime;
+
+	@Value("${promregator.scraping.connectionTimeout:5000}")
+	private int connectionTimeout;
+
+	@Value("${promregator.scraping.socketReadTimeout:5000}")
+	private int socketReadTimeout;
+
+	@Value("${promregator.scraping.proxy.host:@null}")
+	private String proxyHost;
+
+	@Value("${promregator.scraping.proxy.port:0}")
+	private int proxyPort;
+
+	private PoolingHttpClientConnectionManager connectionManager;
+
+	private CloseableHttpClient httpClient;
+
+	private RequestConfig requestConfig;
+
+	@PostConstruct
+	public void setupConnectionPool() {
+		Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", SSLConnectionSocketFactory.getSystemSocketFactory())
+				.build();
+
+		this.connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+		this.connectionManager.setMaxTotal(this.maxTotal);
+		this.connectionManager.setDefaultMaxPerRoute(this.maxPerRoute);
+		this.connectionManager.setValidateAfterInactivity(this.validateAfterInactivity);
+
+		this.validateAndFixTimeouts();
+		this.requestConfig = this.buildRequestConfig();
+
+		final long defaultKeepAlive = this.keepAlive;
+		ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+			long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return duration < 0 ? defaultKeepAlive : duration;
+		};
+
+		this.httpClient = HttpClients.custom()
+				.useSystemProperties()
+				.setConnectionManager(this.connectionManager)
+				.setKeepAliveStrategy(keepAliveStrategy)
+				.evictExpiredConnections()
+				.evictIdleConnections(this.idleTimeout, TimeUnit.MILLISECONDS)
+				// allows reusing TLS connections independent of their authenticated (client) principal
+				.disableConnectionState()
+				.setDefaultRequestConfig(this.requestConfig)
+				.build();
+
+		log.info("Connection pool for scraping set up with {} connections in total and {} connections per route", this.maxTotal, this.maxPerRoute);
+	}
+
+	private void validateAndFixTimeouts() {
+		if (this.connectionTimeout > this.maxProcessingTime) {
+			log.warn("Fetcher's Connection Timeout is longer than the configured Maximal Processing Time of all fetchers; shortening timeout value to that value, as this does not make sense. "+
+					"Check your configured values for configuration options promregator.scraping.connectionTimeout and promregator.scraping.maxProcessingTime");
+			this.connectionTimeout = this.maxProcessingTime;
+		}
+		
+		if (this.socketReadTimeout > this.maxProcessingTime) {
+			log.warn("Fetcher's Socket Read Timeout is longer than the configured Maximal Processing Time of all fetchers; shortening timeout value to that value, as this does not make sense. "+
+					"Check your configured values for configuration options promregator.scraping.socketReadTimeout and promregator.scraping.maxProcessingTime");
+			this.socketReadTimeout = this.maxProcessingTime;
+		}
+	}
+
+	private RequestConfig buildRequestConfig() {
+		RequestConfig.Builder requestConfigBuilder = RequestConfig.custom()
+				.setRedirectsEnabled(true)
+				.setCircularRedirectsAllowed(false)
+				.setMaxRedirects(10)
+				.setSocketTimeout(this.socketReadTimeout)
+				.setConnectTimeout(this.connectionTimeout)
+				.setConnectionRequestTimeout(this.maxProcessingTime);
+
+		if (this.proxyHost != null && this.proxyPort != 0) {
+			requestConfigBuilder = requestConfigBuilder.setProxy(new HttpHost(this.proxyHost, this.proxyPort, "http"));
+		}
+
+		return requestConfigBuilder.build();
+	}
+
+	@PreDestroy
+	public void close() {
+		if (this.httpClient == null) {
+			return;
+		}
+
+		try {
+			this.httpClient.close();
+		} catch (IOException e) {
+			log.info("Unable to properly close the connection pool for scraping", e);
+		}
+	}
+
+	/**
+	 * @return the HttpClient using the connection pool
+	 */
+	public CloseableHttpClient getHttpClient() {
+		return this.httpClient;
+	}
+
+	/**
+	 * @return the request configuration, which is shared by all scraping requests
+	 */
+	public RequestConfig getRequestConfig() {
+		return this.requestConfig;
+	}
+
+	/**
+	 * @return the current statistics of the connection pool (across all routes); <code>null</code>, if the pool has not been set up yet.
+	 */
+	public PoolStats getTotalStats() {
+		if (this.connectionManager == null) {
+			return null;
+		}
+
+		return this.connectionManager.getTotalStats();
+	}
+}
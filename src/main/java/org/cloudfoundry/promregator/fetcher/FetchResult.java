@@ -1,3 +1,8 @@
 package org.cloudfoundry.promregator.fetcher;
 
+/**
+ * the result of scraping a target
+ * @param data the metric set as provided by the target; <code>null</code>, if the metric set has been streamed to a {@link FetchResultStreamSink}
+ * @param contentType the text format of the metric set
+ */
 public record FetchResult(String data, String contentType) {}
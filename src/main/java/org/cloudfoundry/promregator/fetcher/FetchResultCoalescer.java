@@ -0,0 +1,117 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Coalesces concurrent scraping requests of the same instance: while a fetch of an instance is in flight,
+ * further requests for the same instance do not trigger another request to the target, but share the
+ * result of the fetch already in flight ("single flight").
+ *
+ * Optionally, successful results are kept for a short period of time (time-to-live), such that also
+ * scraping requests arriving shortly after each other (e.g. by multiple Prometheus servers
+ * in a high-availability setup) share the same result.
+ */
+public class FetchResultCoalescer {
+	private static final Logger log = LoggerFactory.getLogger(FetchResultCoalescer.class);
+
+	@Value("${promregator.scraping.coalescing.enabled:false}")
+	private boolean enabled;
+
+	/**
+	 * The time for which a successful result is reused for further scraping requests (in milliseconds);
+	 * 0 disables caching of results.
+	 */
+	@Value("${promregator.scraping.coalescing.ttl:0}")
+	private int ttl;
+
+	private final ConcurrentHashMap<String, CompletableFuture<FetchResult>> inFlight = new ConcurrentHashMap<>();
+
+	private Cache<String, FetchResult> resultCache;
+
+	@PostConstruct
+	public void setupResultCache() {
+		if (!this.enabled || this.ttl <= 0) {
+			return;
+		}
+
+		this.resultCache = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofMillis(this.ttl))
+				.build();
+	}
+
+	/**
+	 * retrieves the result of a fetch for an instance. If a fetch for the same instance is already in flight
+	 * (or a recent result is still available), <code>fetcher</code> is not called.
+	 * @param instanceId the instance identifier in format <i>[app guid]:[instance number]</i>
+	 * @param fetcher the supplier which triggers a new fetch for the instance
+	 * @return the future which completes with the result of the fetch; cancelling it does not cancel the shared fetch
+	 */
+	public CompletableFuture<FetchResult> fetch(String instanceId, Supplier<CompletableFuture<FetchResult>> fetcher) {
+		if (!this.enabled) {
+			return fetcher.get();
+		}
+
+		if (this.resultCache != null) {
+			final FetchResult cachedResult = this.resultCache.getIfPresent(instanceId);
+			if (cachedResult != null) {
+				log.debug("Reusing recent result of instance {}", instanceId);
+				return CompletableFuture.completedFuture(cachedResult);
+			}
+		}
+
+		final CompletableFuture<FetchResult> sharedFuture = new CompletableFuture<>();
+		final CompletableFuture<FetchResult> existingFuture = this.inFlight.putIfAbsent(instanceId, sharedFuture);
+		if (existingFuture != null) {
+			log.debug("Joining fetch of instance {}, which is already in flight", instanceId);
+			// a copy ensures that cancelling does not affect the other requests
+			return existingFuture.copy();
+		}
+
+		try {
+			fetcher.get().whenComplete((result, throwable) -> {
+				// results must be cached before the fetch is removed from the in-flight map; otherwise, there would be a gap
+				if (this.resultCache != null && result != null && result.data() != null) {
+					this.resultCache.put(instanceId, result);
+				}
+				this.inFlight.remove(instanceId, sharedFuture);
+
+				if (throwable != null) {
+					sharedFuture.completeExceptionally(throwable);
+				} else {
+					sharedFuture.complete(result);
+				}
+			});
+		} catch (RuntimeException e) {
+			this.inFlight.remove(instanceId, sharedFuture);
+			sharedFuture.completeExceptionally(e);
+		}
+
+		return sharedFuture.copy();
+	}
+
+	/**
+	 * @return <code>true</code>, if coalescing of scraping requests is enabled
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * @return the number of fetches currently in flight
+	 */
+	public int getInFlightCount() {
+		return this.inFlight.size();
+	}
+}
@@ -0,0 +1,22 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A sink to which a {@link MetricsFetcher} streams the body of the scraping response of a target,
+ * instead of buffering it in memory as a String.
+ * If a MetricsFetcher is configured with such a sink, the {@link FetchResult} returned by it
+ * does not carry any data.
+ */
+@FunctionalInterface
+public interface FetchResultStreamSink {
+	/**
+	 * opens the sink for the body of a successful scraping response.
+	 * It is called at most once per scraping request and only after the target has responded successfully.
+	 * @param contentType the text format (content type) of the body which is going to be written to the sink
+	 * @return the stream to which the body shall be written; the caller must not close it.
+	 * @throws IOException if the sink cannot take the body (anymore), for example because scraping has already been aborted.
+	 */
+	OutputStream open(String contentType) throws IOException;
+}
@@ -3,6 +3,7 @@ package org.cloudfoundry.promregator.fetcher;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Random;
 
@@ -22,6 +23,7 @@ public class MetricsFetcherSimulator implements MetricsFetcher {
 	private AuthenticationEnricher ae;
 	private MetricsFetcherMetrics mfm;
 	private Gauge.Child up;
+	private FetchResultStreamSink streamSink;
 	
 	private Random randomLatency = new Random();
 	
@@ -66,6 +68,12 @@ public class MetricsFetcherSimulator implements MetricsFetcher {
 				this.up = up;
 		
 	}
+	
+	public MetricsFetcherSimulator(String accessURL, AuthenticationEnricher ae,
+			MetricsFetcherMetrics mfm, Gauge.Child up, FetchResultStreamSink streamSink) {
+		this(accessURL, ae, mfm, up);
+		this.streamSink = streamSink;
+	}
 
 	@Override
 	public FetchResult call() throws Exception {
@@ -91,6 +99,12 @@ public class MetricsFetcherSimulator implements MetricsFetcher {
 			timer.observeDuration();
 		}
 		
+		if (this.streamSink != null) {
+			OutputStream os = this.streamSink.open(TextFormat.CONTENT_TYPE_004);
+			os.write(SIM_TEXT004.getBytes(StandardCharsets.UTF_8));
+			return new FetchResult(null, TextFormat.CONTENT_TYPE_004);
+		}
+		
 		return new FetchResult(SIM_TEXT004, TextFormat.CONTENT_TYPE_004);
 	}
 
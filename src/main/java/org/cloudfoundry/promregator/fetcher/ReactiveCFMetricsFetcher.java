@@ -0,0 +1,120 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHost;
+import org.apache.http.client.methods.HttpGet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import io.netty.channel.ChannelOption;
+import io.prometheus.client.Histogram.Timer;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.transport.ProxyProvider;
+
+/**
+ * A variant of the {@link CFMetricsFetcher}, which sends the request to the CF instance non-blocking using reactor-netty.
+ * No thread is blocked while waiting for the target to respond. Thus, the number of concurrent scraping requests
+ * is only limited by the number of connections of the HttpClient provided.
+ *
+ * The request is sent upon subscription to {@link #fetchAsync()}. If used as a Callable, the calling thread is blocked
+ * until the response was received.
+ */
+public class ReactiveCFMetricsFetcher extends CFMetricsFetcher implements AsyncMetricsFetcher {
+	private static final Logger log = LoggerFactory.getLogger(ReactiveCFMetricsFetcher.class);
+
+	private final HttpClient httpClient;
+
+	/**
+	 * creates a new non-blocking Metrics Fetcher.
+	 * @param endpointUrl the endpoint URL, which shall be used to query the CF app for the Prometheus metrics.
+	 * @param instanceId the instance Id in format <i>[app guid]:[instance number]</i>, which identifies the instance uniquely.
+	 * @param config additional configurations specifying additional properties for retrieving data.
+	 * @param withInternalRouting <code>true</code>, if the instance is reached via an internal route
+	 * @param httpClient the (shared) reactor-netty HttpClient, which shall be used for sending the request
+	 */
+	public ReactiveCFMetricsFetcher(String endpointUrl, String instanceId, CFMetricsFetcherConfig config, boolean withInternalRouting, HttpClient httpClient) {
+		super(endpointUrl, instanceId, config, withInternalRouting);
+
+		HttpClient client = httpClient.followRedirect(this.config.isRedirectsEnabled())
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, this.config.getConnectTimeout());
+
+		if (this.config.getSocketTimeout() > 0) {
+			client = client.responseTimeout(Duration.ofMillis(this.config.getSocketTimeout()));
+		}
+
+		final HttpHost proxy = this.config.getProxy();
+		if (proxy != null) {
+			client = client.proxy(spec -> spec.type(ProxyProvider.Proxy.HTTP).host(proxy.getHostName()).port(proxy.getPort()));
+		}
+
+		this.httpClient = client;
+	}
+
+	@Override
+	public FetchResult call() throws Exception {
+		return this.fetchAsync().block();
+	}
+
+	@Override
+	public Mono<FetchResult> fetchAsync() {
+		return Mono.defer(() -> {
+			log.debug("Reading metrics from {} for instance {} (non-blocking)", this.endpointUrl, this.instanceId);
+
+			// the headers (including authentication) are set up the same way as for the blocking variant
+			final HttpGet httpget = this.setupRequest();
+
+			final Timer timer = this.mfm.getLatencyRequest() != null ? this.mfm.getLatencyRequest().startTimer() : null;
+
+			return this.httpClient
+					.headers(headers -> {
+						for (Header header : httpget.getAllHeaders()) {
+							headers.set(header.getName(), header.getValue());
+						}
+					})
+					.get()
+					.uri(httpget.getURI())
+					.responseSingle((response, body) -> {
+						if (response.status().code() != 200) {
+							log.warn("Target server at '{}' and instance '{}' responded with a non-200 status code: {}", this.endpointUrl, this.instanceId, response.status().code());
+							return Mono.empty();
+						}
+
+						final String contentType = this.determineTextFormat(response.responseHeaders().get(HttpHeaders.CONTENT_TYPE));
+						if (contentType == null) {
+							return Mono.empty();
+						}
+
+						return body.asString(StandardCharsets.UTF_8)
+								.defaultIfEmpty("")
+								.map(data -> new FetchResult(data, contentType));
+					})
+					.doOnSuccess(result -> {
+						this.countSuccessOrFailure(result != null);
+
+						if (result != null) {
+							log.debug("Successfully received metrics from {} for instance {}", this.endpointUrl, this.instanceId);
+
+							if (this.mfm.getRequestSize() != null) {
+								this.mfm.getRequestSize().observe(result.data().length());
+							}
+						}
+					})
+					.onErrorResume(e -> {
+						log.warn("Error while fetching metrics from {}, instance {}", this.endpointUrl, this.instanceId, e);
+						this.countSuccessOrFailure(false);
+						return Mono.empty();
+					})
+					.doFinally(signal -> {
+						if (timer != null) {
+							timer.observeDuration();
+						}
+					});
+		});
+	}
+
+}
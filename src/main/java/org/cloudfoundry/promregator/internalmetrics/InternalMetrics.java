@@ -2,11 +2,14 @@ package org.cloudfoundry.promregator.internalmetrics;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import jakarta.annotation.PostConstruct;
 
+import org.apache.http.pool.PoolStats;
 import org.springframework.beans.factory.annotation.Value;
 
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
@@ -30,16 +33,34 @@ public class InternalMetrics {
 	
 	private CacheMetricsCollector caffeineCacheMetricsCollector;
 
+	private Counter collapsedCFFetch;
+	
 	private Histogram rateLimitWaitTime;
 	private AtomicInteger rateLimitQueueSize = new AtomicInteger(0);
 
-	private Supplier<Double> dequeRouteSizeFunction;
-	private Supplier<Double> dequeProcessSizeFunction;
+	private Histogram requestAggregatorBatchSize;
+	private Histogram requestAggregatorWaitTime;
+
+	private final Map<String, Supplier<Double>> requestAggregatorQueueSizeFunctions = new ConcurrentSkipListMap<>();
+	
+	private final Map<String, Supplier<Double>> cacheSizeEstimateFunctions = new ConcurrentSkipListMap<>();
+	
+	private Counter virtualThreadPinned;
+	
+	private Supplier<PoolStats> scrapingConnectionPoolStatsFunction;
+	
+	private Supplier<Double> cfFetchConcurrencyLimitFunction;
+	private Supplier<Double> cfFetchConcurrencyInFlightFunction;
 	
 	private class InternalCollector extends Collector {
 
 		private static final String PROMREGATOR_CFFETCH_RATELIMIT_QUEUE_SIZE = "promregator_cffetch_ratelimit_queue_size";
 		private static final String PROMREGATOR_REQUEST_AGGREGATOR_QUEUE_SIZE = "promregator_request_aggregator_queue_size";
+		private static final String PROMREGATOR_CFFETCH_CONCURRENCY = "promregator_cffetch_concurrency";
+		private static final String PROMREGATOR_CACHE_ESTIMATED_SIZE_BYTES = "promregator_cache_estimated_size_bytes";
+		private static final String PROMREGATOR_SCRAPING_CONNECTION_POOL_CONNECTIONS = "promregator_scraping_connection_pool_connections";
+		private static final String PROMREGATOR_SCRAPING_CONNECTION_POOL_PENDING = "promregator_scraping_connection_pool_pending";
+		private static final String PROMREGATOR_SCRAPING_CONNECTION_POOL_MAX = "promregator_scraping_connection_pool_max";
 
 		@Override
 		public List<MetricFamilySamples> collect() {
@@ -50,14 +71,47 @@ public class InternalMetrics {
 					"The number of CFCC requests being throttled by rate limiting", Lists.newArrayList(queueSize));
 			result.add(queueSizeMFS);
 			
-			if (dequeRouteSizeFunction != null && dequeProcessSizeFunction != null) {
-				Sample queueSizeDequeRoute = new Sample(PROMREGATOR_REQUEST_AGGREGATOR_QUEUE_SIZE, Lists.newArrayList("type"), Lists.newArrayList("route"), dequeRouteSizeFunction.get());
-				Sample queueSizeDequeProcess = new Sample(PROMREGATOR_REQUEST_AGGREGATOR_QUEUE_SIZE, Lists.newArrayList("type"), Lists.newArrayList("process"), dequeProcessSizeFunction.get());
+			if (!requestAggregatorQueueSizeFunctions.isEmpty()) {
+				List<Sample> queueSizeDequeSamples = new ArrayList<>(requestAggregatorQueueSizeFunctions.size());
+				requestAggregatorQueueSizeFunctions.forEach((type, function) -> 
+					queueSizeDequeSamples.add(new Sample(PROMREGATOR_REQUEST_AGGREGATOR_QUEUE_SIZE, Lists.newArrayList("type"), Lists.newArrayList(type), function.get()))
+				);
 				MetricFamilySamples queueSizeDequeMFS = new MetricFamilySamples(PROMREGATOR_REQUEST_AGGREGATOR_QUEUE_SIZE, Type.GAUGE, 
-						"The number of requests in the RequestAggregator's deque", Lists.newArrayList(queueSizeDequeRoute, queueSizeDequeProcess));
+						"The number of requests in the RequestAggregator's deque", queueSizeDequeSamples);
 				result.add(queueSizeDequeMFS);
 			}
 			
+			if (!cacheSizeEstimateFunctions.isEmpty()) {
+				List<Sample> cacheSizeSamples = new ArrayList<>(cacheSizeEstimateFunctions.size());
+				cacheSizeEstimateFunctions.forEach((cacheName, function) -> 
+					cacheSizeSamples.add(new Sample(PROMREGATOR_CACHE_ESTIMATED_SIZE_BYTES, Lists.newArrayList("cache"), Lists.newArrayList(cacheName), function.get()))
+				);
+				result.add(new MetricFamilySamples(PROMREGATOR_CACHE_ESTIMATED_SIZE_BYTES, Type.GAUGE, 
+						"The estimated size on the heap of the values stored in the cache", cacheSizeSamples));
+			}
+			
+			if (cfFetchConcurrencyLimitFunction != null && cfFetchConcurrencyInFlightFunction != null) {
+				Sample limit = new Sample(PROMREGATOR_CFFETCH_CONCURRENCY, Lists.newArrayList("state"), Lists.newArrayList("limit"), cfFetchConcurrencyLimitFunction.get());
+				Sample inFlight = new Sample(PROMREGATOR_CFFETCH_CONCURRENCY, Lists.newArrayList("state"), Lists.newArrayList("in_flight"), cfFetchConcurrencyInFlightFunction.get());
+				result.add(new MetricFamilySamples(PROMREGATOR_CFFETCH_CONCURRENCY, Type.GAUGE, 
+						"The adaptive limit of CFCC requests in flight and the number of CFCC requests currently in flight", Lists.newArrayList(limit, inFlight)));
+			}
+			
+			final PoolStats poolStats = scrapingConnectionPoolStatsFunction == null ? null : scrapingConnectionPoolStatsFunction.get();
+			if (poolStats != null) {
+				Sample leased = new Sample(PROMREGATOR_SCRAPING_CONNECTION_POOL_CONNECTIONS, Lists.newArrayList("state"), Lists.newArrayList("leased"), poolStats.getLeased());
+				Sample available = new Sample(PROMREGATOR_SCRAPING_CONNECTION_POOL_CONNECTIONS, Lists.newArrayList("state"), Lists.newArrayList("available"), poolStats.getAvailable());
+				result.add(new MetricFamilySamples(PROMREGATOR_SCRAPING_CONNECTION_POOL_CONNECTIONS, Type.GAUGE, 
+						"The number of connections in the connection pool for scraping", Lists.newArrayList(leased, available)));
+				
+				Sample pending = new Sample(PROMREGATOR_SCRAPING_CONNECTION_POOL_PENDING, new ArrayList<>(), new ArrayList<>(), poolStats.getPending());
+				result.add(new MetricFamilySamples(PROMREGATOR_SCRAPING_CONNECTION_POOL_PENDING, Type.GAUGE, 
+						"The number of scraping requests waiting for a connection of the connection pool", Lists.newArrayList(pending)));
+				
+				Sample max = new Sample(PROMREGATOR_SCRAPING_CONNECTION_POOL_MAX, new ArrayList<>(), new ArrayList<>(), poolStats.getMax());
+				result.add(new MetricFamilySamples(PROMREGATOR_SCRAPING_CONNECTION_POOL_MAX, Type.GAUGE, 
+						"The maximal number of connections in the connection pool for scraping", Lists.newArrayList(max)));
+			}
 			
 			return result;
 		}
@@ -77,6 +131,10 @@ public class InternalMetrics {
 				.linearBuckets(0.1, 0.1, 50)
 				.register();
 		
+		this.collapsedCFFetch = Counter.build("promregator_cffetch_collapsed", "The number of CFCC requests, which were collapsed with an identical request already in flight")
+				.labelNames("request_type")
+				.register();
+		
 		this.connectionWatchdogReconnects = Counter.build("promregator_connection_watchdog_reconnect", "The number of reconnection attempts made by the Connection Watchdog")
 				.register();
 		
@@ -88,6 +146,21 @@ public class InternalMetrics {
 				.linearBuckets(0.0, 0.05, 50)
 				.register();
 		
+		this.requestAggregatorBatchSize = Histogram.build("promregator_request_aggregator_batch_size", "The number of requests bundled in a block sent by the RequestAggregator")
+				.labelNames("type")
+				.exponentialBuckets(1, 2, 10)
+				.register();
+		
+		this.requestAggregatorWaitTime = Histogram.build("promregator_request_aggregator_waittime", "Wait time of requests in the RequestAggregator's deque until being sent")
+				.unit("seconds")
+				.labelNames("type")
+				.exponentialBuckets(0.001, 2, 12)
+				.register();
+		
+		this.virtualThreadPinned = Counter.build("promregator_virtual_thread_pinned", "The number of times a virtual thread was pinned to its carrier thread")
+				.labelNames("location")
+				.register();
+		
 		CollectorRegistry.defaultRegistry.register(new InternalCollector());
 	}
 
@@ -114,6 +187,13 @@ public class InternalMetrics {
 		this.caffeineCacheMetricsCollector.addCache(cacheName, cache);
 	}
 	
+	public void countCollapsedCFFetch(String requestType) {
+		if (!this.enabled)
+			return;
+
+		this.collapsedCFFetch.labels(requestType).inc();
+	}
+	
 	public void observeRateLimiterDuration(String requestType, double waitTime) {
 		if (!this.enabled)
 			return;
@@ -135,12 +215,45 @@ public class InternalMetrics {
 		this.rateLimitQueueSize.decrementAndGet();
 	}
 	
-	public void registerDequeRouteSizeFunction(Supplier<Double> function) {
-		this.dequeRouteSizeFunction = function;
+	public void observeRequestAggregatorBatchSize(String type, int batchSize) {
+		if (!this.enabled)
+			return;
+		
+		this.requestAggregatorBatchSize.labels(type).observe(batchSize);
+	}
+	
+	public void observeRequestAggregatorWaitTime(String type, double waitTime) {
+		if (!this.enabled)
+			return;
+		
+		this.requestAggregatorWaitTime.labels(type).observe(waitTime);
+	}
+	
+	public void registerRequestAggregatorQueueSizeFunction(String type, Supplier<Double> function) {
+		this.requestAggregatorQueueSizeFunctions.put(type, function);
 	}
 	
-	public void registerDequeProcessSizeFunction(Supplier<Double> function) {
-		this.dequeProcessSizeFunction = function;
+	public void registerCacheSizeEstimateFunction(String cacheName, Supplier<Double> function) {
+		if (!this.enabled)
+			return;
+		
+		this.cacheSizeEstimateFunctions.put(cacheName, function);
+	}
+	
+	public void registerCFFetchConcurrencyFunctions(Supplier<Double> limitFunction, Supplier<Double> inFlightFunction) {
+		this.cfFetchConcurrencyLimitFunction = limitFunction;
+		this.cfFetchConcurrencyInFlightFunction = inFlightFunction;
+	}
+	
+	public void registerScrapingConnectionPoolStatsFunction(Supplier<PoolStats> function) {
+		this.scrapingConnectionPoolStatsFunction = function;
+	}
+	
+	public void countVirtualThreadPinned(String location) {
+		if (!this.enabled)
+			return;
+		
+		this.virtualThreadPinned.labels(location).inc();
 	}
 
 }
@@ -1,20 +1,48 @@
 package org.cloudfoundry.promregator.rewrite;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.apache.logging.log4j.util.Strings;
 import org.cloudfoundry.promregator.fetcher.FetchResult;
 
 import io.prometheus.client.exporter.common.TextFormat;
 
+/**
+ * Merges the metric set of a target with additional metrics.
+ *
+ * If reserved metric names are provided, the metric set of the target is scanned for lines starting with
+ * one of them (either as sample or as metric family in a "# TYPE" line) while it is copied into the merged
+ * metric set, i.e. it is walked only once. If one is found, the additional metrics are skipped.
+ * See also {@link StreamingMetricSetMerger} for the streaming counterpart.
+ */
 public class MetricSetMerger {
-	private static final String EOF_MARKER = "# EOF";
+	static final String EOF_MARKER = "# EOF";
 	// Note that Prometheus is very picky about anything that comes after a "# EOF" marker!
 	
+	private static final String TYPE_PREFIX = "# TYPE ";
+	
 	private FetchResult fetchResult;
 	private String additionalMetrics;
+	private final Collection<String> reservedMetricNames;
+	
+	private String reservedMetricNameDetected;
 
 	public MetricSetMerger(FetchResult fetchResult, String additionalMetrics) {
+		this(fetchResult, additionalMetrics, Collections.emptyList());
+	}
+	
+	/**
+	 * creates a new merger
+	 * @param fetchResult the metric set of the target
+	 * @param additionalMetrics the additional metrics, formatted in the same text format as the metric set of the target
+	 * @param reservedMetricNames the names of the metrics which are going to be added; if the metric set of the target
+	 * already contains one of them, the additional metrics are skipped.
+	 */
+	public MetricSetMerger(FetchResult fetchResult, String additionalMetrics, Collection<String> reservedMetricNames) {
 		this.fetchResult = fetchResult;
 		this.additionalMetrics = additionalMetrics;
+		this.reservedMetricNames = reservedMetricNames;
 	}
 	
 	public String merge() {
@@ -22,13 +50,23 @@ public class MetricSetMerger {
 			return this.additionalMetrics;
 		}
 		
+		final String metricSetData = this.fetchResult.data();
+		
 		if (this.additionalMetrics == null || Strings.isEmpty(additionalMetrics)) {
-			return this.fetchResult.data();
+			// nothing to be merged; only detecting reserved metric names is necessary
+			this.reservedMetricNameDetected = this.copyDetectingReservedMetricName(metricSetData, metricSetData.length(), null);
+			return metricSetData;
 		}
 		
 		if (TextFormat.CONTENT_TYPE_004.equals(this.fetchResult.contentType())) {
 			// that's simple, we may just concatenate
-			return fetchResult.data()+additionalMetrics;
+			final StringBuilder sb = new StringBuilder(metricSetData.length() + this.additionalMetrics.length());
+			this.reservedMetricNameDetected = this.copyDetectingReservedMetricName(metricSetData, metricSetData.length(), sb);
+			if (this.reservedMetricNameDetected != null) {
+				return metricSetData;
+			}
+			
+			return sb.append(this.additionalMetrics).toString();
 		}
 		
 		/*
@@ -36,38 +74,118 @@ public class MetricSetMerger {
 		 * Prometheus does consider this - if something is added after this indicator, Prometheus
 		 * will reject the entire request as invalid.
 		 * So, we need to properly handle this and cannot just concatentate...
+		 * 
+		 * Both metric sets are copied only once (and not trimmed beforehand), as the metric set of
+		 * the target may be huge.
 		 */
-		
-		String metricSetData = fetchResult.data();
-		
-		metricSetData = trimEOF(metricSetData);
-		additionalMetrics = trimEOF(additionalMetrics);
+		final int metricSetDataEnd = endOfContent(metricSetData);
+		final int additionalMetricsEnd = endOfContent(this.additionalMetrics);
 		
 		/* 
 		 * Note that we have to use \n here and not %s, as 
 		 * https://github.com/prometheus/docs/blob/cbe12c5575f3c699ad322ba098ec05b8d5f81850/content/docs/instrumenting/exposition_formats.md 
 		 * specifies that line endings are \n and not \r\n
 		 */
-		metricSetData = "%s\n%s\n%s\n".formatted(metricSetData, additionalMetrics, EOF_MARKER);
+		final StringBuilder sb = new StringBuilder(metricSetDataEnd + additionalMetricsEnd + EOF_MARKER.length() + 3);
+		this.reservedMetricNameDetected = this.copyDetectingReservedMetricName(metricSetData, metricSetDataEnd, sb);
+		if (this.reservedMetricNameDetected != null) {
+			return metricSetData;
+		}
+		
+		sb.append('\n');
+		sb.append(this.additionalMetrics, 0, additionalMetricsEnd).append('\n');
+		sb.append(EOF_MARKER).append('\n');
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * @return the reserved metric name, which has been detected in the metric set of the target while merging;
+	 * <code>null</code>, if none was detected.
+	 */
+	public String getReservedMetricNameDetected() {
+		return this.reservedMetricNameDetected;
+	}
+	
+	/**
+	 * copies the metric set of the target line by line and checks the start of each line for a reserved metric name
+	 * @param data the metric set of the target
+	 * @param end the index after the last character to be copied
+	 * @param target the builder, to which the lines are copied; <code>null</code>, if only detection is necessary
+	 * @return the reserved metric name detected (then, copying is aborted); <code>null</code>, if none was detected
+	 */
+	private String copyDetectingReservedMetricName(String data, int end, StringBuilder target) {
+		if (this.reservedMetricNames.isEmpty()) {
+			if (target != null) {
+				target.append(data, 0, end);
+			}
+			return null;
+		}
 		
-		return metricSetData;
+		int lineStart = 0;
+		while (lineStart < end) {
+			final String reservedMetricName = this.reservedMetricNameAt(data, lineStart);
+			if (reservedMetricName != null) {
+				return reservedMetricName;
+			}
+			
+			final int lineEnd = data.indexOf('\n', lineStart);
+			final int nextLineStart = lineEnd == -1 || lineEnd >= end ? end : lineEnd + 1;
+			if (target != null) {
+				target.append(data, lineStart, nextLineStart);
+			}
+			lineStart = nextLineStart;
+		}
+		
+		return null;
+	}
+	
+	private String reservedMetricNameAt(String data, int lineStart) {
+		int nameStart = lineStart;
+		if (data.startsWith(TYPE_PREFIX, lineStart)) {
+			nameStart += TYPE_PREFIX.length();
+			while (nameStart < data.length() && data.charAt(nameStart) == ' ') {
+				nameStart++;
+			}
+		}
+		
+		for (String name : this.reservedMetricNames) {
+			if (!data.startsWith(name, nameStart)) {
+				continue;
+			}
+			
+			final int nameEnd = nameStart + name.length();
+			if (nameEnd < data.length() && (data.charAt(nameEnd) == ' ' || data.charAt(nameEnd) == '{')) {
+				return name;
+			}
+		}
+		
+		return null;
+	}
+	
+	static String trimEOF(String s) {
+		return s.substring(0, endOfContent(s));
 	}
 	
-	private static String trimEOF(String s) {
-		s = trimTrailingNewLineChars(s);
+	/**
+	 * determines the end of the content of a metric set, i.e. excluding a trailing "# EOF" marker and trailing new line characters
+	 * @param s the metric set
+	 * @return the index after the last character of the content
+	 */
+	private static int endOfContent(String s) {
+		int end = skipTrailingNewLineChars(s, s.length());
 		
-		if (s.endsWith(EOF_MARKER)) {
-			s = s.substring(0, s.length()-EOF_MARKER.length());
+		if (s.startsWith(EOF_MARKER, end - EOF_MARKER.length())) {
+			end -= EOF_MARKER.length();
 		}
 		
-		s = trimTrailingNewLineChars(s);
-		return s;
+		return skipTrailingNewLineChars(s, end);
 	}
 
-	private static String trimTrailingNewLineChars(String s) {
-		while (s.endsWith("\n") || s.endsWith("\r")) {
-			s = s.substring(0, s.length()-1);
+	private static int skipTrailingNewLineChars(String s, int end) {
+		while (end > 0 && (s.charAt(end - 1) == '\n' || s.charAt(end - 1) == '\r')) {
+			end--;
 		}
-		return s;
+		return end;
 	}
 }
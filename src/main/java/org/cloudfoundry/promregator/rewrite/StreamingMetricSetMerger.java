@@ -0,0 +1,355 @@
+package org.cloudfoundry.promregator.rewrite;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.prometheus.client.exporter.common.TextFormat;
+
+/**
+ * Streaming counterpart of {@link MetricSetMerger}: the metric set of the target is passed through
+ * to an output stream (e.g. the one of the servlet response) byte by byte while it is being received.
+ * Only the beginning of the current line is kept in memory, such that the memory consumption does not
+ * depend on the size of the metric set.
+ *
+ * While passing through the data, the merger
+ * <ul>
+ * <li>detects lines which start with a metric name, which is reserved for the additional metrics, and</li>
+ * <li>holds back a trailing "# EOF" marker of OpenMetrics-formatted metric sets, such that the additional
+ * metrics may be spliced in before it.</li>
+ * </ul>
+ *
+ * The stream returned by {@link #open(String, OutputStream)} may be written by another thread than the one
+ * calling {@link #finish(String)} or {@link #abort()}.
+ */
+public class StreamingMetricSetMerger {
+	/**
+	 * provides the stream to which the merged metric set is written
+	 */
+	@FunctionalInterface
+	public interface TargetProvider {
+		/**
+		 * @return the stream to which the merged metric set is written
+		 * @throws IOException if the stream cannot be provided
+		 */
+		OutputStream provide() throws IOException;
+	}
+
+	// Note that Prometheus is very picky about anything that comes after a "# EOF" marker!
+	private static final byte[] EOF_MARKER = MetricSetMerger.EOF_MARKER.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] TYPE_PREFIX = "# TYPE ".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * the number of bytes at the beginning of each line which are kept for detecting reserved metric names
+	 */
+	private static final int MAX_LINE_PREFIX_LENGTH = 256;
+
+	private final List<byte[]> reservedMetricNames;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private OutputStream target;
+	private boolean openMetrics;
+	private boolean aborted;
+	private boolean finished;
+
+	private final byte[] linePrefix = new byte[MAX_LINE_PREFIX_LENGTH];
+	private int linePrefixLength;
+	private boolean atLineStart = true;
+	private boolean holdingBack;
+	private boolean eofMarkerSeen;
+
+	private String reservedMetricNameDetected;
+
+	/**
+	 * creates a new merger
+	 * @param reservedMetricNames the names of the metrics which are going to be added; if the metric set of the target
+	 * already contains one of them, the additional metrics are skipped when finishing.
+	 */
+	public StreamingMetricSetMerger(Collection<String> reservedMetricNames) {
+		this.reservedMetricNames = new ArrayList<>(reservedMetricNames.size());
+		for (String name : reservedMetricNames) {
+			this.reservedMetricNames.add(name.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * opens the merger for passing through the metric set of the target.
+	 * @param contentType the text format of the metric set of the target
+	 * @param target the stream to which the merged metric set is written; it is not closed by the merger.
+	 * @return the stream to which the metric set of the target shall be written
+	 * @throws IOException if the merger has already been aborted
+	 */
+	public OutputStream open(String contentType, OutputStream target) throws IOException {
+		return this.open(contentType, () -> target);
+	}
+
+	/**
+	 * opens the merger for passing through the metric set of the target.
+	 * The target stream is only requested, if the merger has not been aborted yet. As this happens while holding
+	 * the lock of the merger, {@link #abort()} waits until the target stream has been provided.
+	 * @param contentType the text format of the metric set of the target
+	 * @param targetProvider the provider of the stream to which the merged metric set is written; the stream is not closed by the merger.
+	 * @return the stream to which the metric set of the target shall be written
+	 * @throws IOException if the merger has already been aborted or the target stream could not be provided
+	 */
+	public OutputStream open(String contentType, TargetProvider targetProvider) throws IOException {
+		this.lock.lock();
+		try {
+			if (this.aborted) {
+				throw new IOException("Merging of the metric set has already been aborted");
+			}
+			if (this.target != null) {
+				throw new IllegalStateException("Merger has already been opened");
+			}
+
+			this.target = targetProvider.provide();
+			this.openMetrics = TextFormat.CONTENT_TYPE_OPENMETRICS_100.equals(contentType);
+			this.holdingBack = this.openMetrics;
+		} finally {
+			this.lock.unlock();
+		}
+
+		return new PassThroughOutputStream();
+	}
+
+	/**
+	 * completes the merged metric set by appending the additional metrics (unless one of the reserved metric names
+	 * has been detected) and - in case of OpenMetrics - the "# EOF" marker.
+	 * @param additionalMetrics the additional metrics, formatted in the same text format as the metric set of the target
+	 * @throws IOException if writing to the target stream failed or the merger has already been aborted
+	 */
+	public void finish(String additionalMetrics) throws IOException {
+		this.lock.lock();
+		try {
+			if (this.aborted) {
+				throw new IOException("Merging of the metric set has already been aborted");
+			}
+			if (this.target == null) {
+				throw new IllegalStateException("Merger has not been opened");
+			}
+
+			if (!this.eofMarkerSeen && !this.atLineStart) {
+				// the last line of the metric set of the target was not terminated properly
+				if (this.holdingBack && this.isEOFMarkerLine()) {
+					this.eofMarkerSeen = true;
+				} else {
+					if (this.holdingBack) {
+						this.target.write(this.linePrefix, 0, this.linePrefixLength);
+					}
+					this.checkForReservedMetricName();
+					this.target.write('\n');
+				}
+			}
+
+			String metricsToAdd = this.reservedMetricNameDetected == null ? additionalMetrics : null;
+
+			if (this.openMetrics) {
+				String trimmedMetricsToAdd = metricsToAdd == null ? "" : MetricSetMerger.trimEOF(metricsToAdd);
+				if (!trimmedMetricsToAdd.isEmpty()) {
+					this.target.write(trimmedMetricsToAdd.getBytes(StandardCharsets.UTF_8));
+					this.target.write('\n');
+				}
+				this.target.write(EOF_MARKER);
+				this.target.write('\n');
+			} else if (metricsToAdd != null) {
+				this.target.write(metricsToAdd.getBytes(StandardCharsets.UTF_8));
+			}
+
+			this.target.flush();
+			this.finished = true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * aborts the merging; any further attempt to write to the merger fails with an IOException.
+	 * @return <code>true</code>, if the merger had already been opened (i.e. the target stream has already been written to);
+	 * <code>false</code> otherwise.
+	 */
+	public boolean abort() {
+		this.lock.lock();
+		try {
+			if (this.finished) {
+				return true;
+			}
+
+			this.aborted = true;
+			return this.target != null;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the reserved metric name, which has been detected in the metric set of the target;
+	 * <code>null</code>, if none was detected (so far).
+	 */
+	public String getReservedMetricNameDetected() {
+		this.lock.lock();
+		try {
+			return this.reservedMetricNameDetected;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void passThrough(byte[] buf, int off, int len) throws IOException {
+		final int end = off + len;
+		int runStart = off;
+
+		for (int i = off; i < end; i++) {
+			if (this.eofMarkerSeen) {
+				// anything after the EOF marker is dropped
+				runStart = end;
+				break;
+			}
+
+			final byte b = buf[i];
+			if (b == '\n') {
+				if (this.holdingBack) {
+					if (this.isEOFMarkerLine()) {
+						this.eofMarkerSeen = true;
+						runStart = end;
+						break;
+					}
+
+					this.target.write(this.linePrefix, 0, this.linePrefixLength);
+					runStart = i;
+				}
+
+				this.checkForReservedMetricName();
+				this.linePrefixLength = 0;
+				this.atLineStart = true;
+
+				if (this.openMetrics) {
+					// the next line might be the EOF marker
+					this.target.write(buf, runStart, i + 1 - runStart);
+					runStart = i + 1;
+					this.holdingBack = true;
+				}
+				continue;
+			}
+
+			this.atLineStart = false;
+			if (this.linePrefixLength < MAX_LINE_PREFIX_LENGTH) {
+				this.linePrefix[this.linePrefixLength++] = b;
+			}
+
+			if (this.holdingBack) {
+				if (this.isPotentialEOFMarkerLine()) {
+					runStart = i + 1;
+					continue;
+				}
+
+				// not an EOF marker: release what has been held back (excluding the current byte)
+				this.holdingBack = false;
+				this.target.write(this.linePrefix, 0, this.linePrefixLength - 1);
+				runStart = i;
+			}
+		}
+
+		if (runStart < end) {
+			this.target.write(buf, runStart, end - runStart);
+		}
+	}
+
+	private boolean isPotentialEOFMarkerLine() {
+		if (this.linePrefixLength > EOF_MARKER.length + 1) {
+			return false;
+		}
+
+		for (int i = 0; i < this.linePrefixLength; i++) {
+			if (i == EOF_MARKER.length) {
+				return this.linePrefix[i] == '\r';
+			}
+			if (this.linePrefix[i] != EOF_MARKER[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isEOFMarkerLine() {
+		return this.linePrefixLength >= EOF_MARKER.length && this.isPotentialEOFMarkerLine();
+	}
+
+	private void checkForReservedMetricName() {
+		if (this.reservedMetricNameDetected != null) {
+			return;
+		}
+
+		int nameStart = 0;
+		if (this.startsWith(TYPE_PREFIX, 0)) {
+			nameStart = TYPE_PREFIX.length;
+			while (nameStart < this.linePrefixLength && this.linePrefix[nameStart] == ' ') {
+				nameStart++;
+			}
+		}
+
+		for (byte[] name : this.reservedMetricNames) {
+			if (!this.startsWith(name, nameStart)) {
+				continue;
+			}
+
+			final int nameEnd = nameStart + name.length;
+			if (nameEnd < this.linePrefixLength && (this.linePrefix[nameEnd] == ' ' || this.linePrefix[nameEnd] == '{')) {
+				this.reservedMetricNameDetected = new String(name, StandardCharsets.UTF_8);
+				return;
+			}
+		}
+	}
+
+	private boolean startsWith(byte[] value, int offset) {
+		if (offset + value.length > this.linePrefixLength) {
+			return false;
+		}
+
+		for (int i = 0; i < value.length; i++) {
+			if (this.linePrefix[offset + i] != value[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private class PassThroughOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			this.write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			lock.lock();
+			try {
+				if (aborted) {
+					throw new IOException("Merging of the metric set has been aborted");
+				}
+
+				passThrough(b, off, len);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			lock.lock();
+			try {
+				if (!aborted) {
+					target.flush();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+	}
+}
@@ -0,0 +1,164 @@
+package org.cloudfoundry.promregator.scanner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.cloudfoundry.client.v3.auditevents.AuditEventResource;
+import org.cloudfoundry.client.v3.auditevents.AuditEventTarget;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessor;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCache;
+import org.cloudfoundry.promregator.cfaccessor.RequestPriority;
+import org.cloudfoundry.promregator.cfaccessor.UpdateWatermark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Periodically polls the audit events of the Cloud Controller for applications being started, stopped, scaled or
+ * having their routes changed. Only the entries of the caches affected by these events are reloaded in the background,
+ * and only the affected targets of the {@link CachingTargetResolver} are resolved again.
+ */
+public class AuditEventWatcher {
+	private static final Logger log = LoggerFactory.getLogger(AuditEventWatcher.class);
+
+	/* events changing the application itself (its state, its name or its annotations) */
+	static final List<String> APPLICATION_EVENT_TYPES = List.of("audit.app.create", "audit.app.update", "audit.app.delete-request",
+			"audit.app.start", "audit.app.stop", "audit.app.restart");
+
+	static final List<String> PROCESS_EVENT_TYPES = List.of("audit.app.process.scale");
+
+	static final List<String> ROUTE_EVENT_TYPES = List.of("audit.app.map-route", "audit.app.unmap-route");
+
+	private static final List<String> EVENT_TYPES = Stream.of(APPLICATION_EVENT_TYPES, PROCESS_EVENT_TYPES, ROUTE_EVENT_TYPES)
+			.flatMap(List::stream)
+			.toList();
+
+	private static final String TARGET_TYPE_APPLICATION = "app";
+
+	@Autowired
+	private CFAccessor mainCFAccessor;
+
+	@Autowired
+	private CFAccessorCache cfAccessorCache;
+
+	@Autowired
+	private CachingTargetResolver cachingTargetResolver;
+
+	@Value("${cf.cache.auditEvents.enabled:false}")
+	private boolean enabled;
+
+	@Value("${cf.cache.auditEvents.pageSize:200}")
+	private int pageSize;
+
+	private final AtomicBoolean running = new AtomicBoolean(false);
+
+	private final UpdateWatermark watermark = new UpdateWatermark();
+
+	@Scheduled(fixedRateString = "${cf.cache.auditEvents.rate:10}000", initialDelayString = "${cf.cache.auditEvents.rate:10}000")
+	@SuppressWarnings("unused")
+	private void watchAuditEvents() {
+		if (!this.enabled) {
+			return;
+		}
+
+		if (!this.running.compareAndSet(false, true)) {
+			log.debug("Previous check of audit events is still running; skipping this one");
+			return;
+		}
+
+		this.processNewEvents()
+			.doFinally(signalType -> this.running.set(false))
+			.subscribe();
+	}
+
+	/**
+	 * retrieves the audit events created since the last call and applies them to the caches.
+	 * On the first call, only the current state is recorded.
+	 * @return a Mono, which completes once all affected entries of the caches have been reloaded
+	 */
+	Mono<Void> processNewEvents() {
+		return this.mainCFAccessor.retrieveRecentAuditEventsV3(EVENT_TYPES, this.pageSize)
+				.flatMap(response -> this.applyEvents(response.getResources()))
+				.onErrorResume(e -> {
+					log.warn("Unable to retrieve the recent audit events; relying on the refresh of the caches only", e);
+					return Mono.empty();
+				})
+				.contextWrite(RequestPriority.BACKGROUND.asContext());
+	}
+
+	private synchronized Mono<Void> applyEvents(List<AuditEventResource> resources) {
+		final List<AuditEventResource> events = resources == null ? List.of() : resources;
+
+		if (!this.watermark.isInitialized()) {
+			// events, which happened before, are already reflected in the caches
+			this.watermark.advance(events);
+			return Mono.empty();
+		}
+
+		final List<AuditEventResource> newEvents = events.stream().filter(this.watermark::isNewer).toList();
+		this.watermark.advance(events);
+
+		if (newEvents.isEmpty()) {
+			return Mono.empty();
+		}
+
+		if (newEvents.size() == events.size() && events.size() >= this.pageSize) {
+			log.info("At least {} audit events have been created since the last check; refreshing all applications, routes and processes", events.size());
+			this.cfAccessorCache.refreshCacheApplication();
+			this.cfAccessorCache.refreshCacheRoute();
+			this.cfAccessorCache.refreshCacheProcess();
+			this.cachingTargetResolver.invalidateCache();
+			return Mono.empty();
+		}
+
+		/* several events may affect the same entry of a cache; each entry only needs to be reloaded once */
+		final Map<String, Map<String, String>> changedAppsBySpaceId = new HashMap<>();
+		final Set<String> scaledAppIds = new HashSet<>();
+		final Set<String> reroutedAppIds = new HashSet<>();
+
+		for (AuditEventResource event : newEvents) {
+			final AuditEventTarget target = event.getAuditEventTarget();
+			if (target == null || !TARGET_TYPE_APPLICATION.equals(target.getType()) || target.getId() == null) {
+				continue;
+			}
+
+			if (APPLICATION_EVENT_TYPES.contains(event.getType()) && event.getSpaceRelationship() != null) {
+				changedAppsBySpaceId.computeIfAbsent(event.getSpaceRelationship().getId(), key -> new HashMap<>())
+					.put(target.getId(), target.getName());
+			} else if (PROCESS_EVENT_TYPES.contains(event.getType())) {
+				scaledAppIds.add(target.getId());
+			} else if (ROUTE_EVENT_TYPES.contains(event.getType())) {
+				reroutedAppIds.add(target.getId());
+			}
+		}
+
+		log.debug("{} new audit events: applications changed in {} spaces, {} applications scaled, {} applications with changed routes",
+				newEvents.size(), changedAppsBySpaceId.size(), scaledAppIds.size(), reroutedAppIds.size());
+
+		final Mono<Void> applications = Flux.fromIterable(changedAppsBySpaceId.entrySet())
+				.flatMap(entry -> this.cfAccessorCache.refreshApplicationsInSpace(entry.getKey())
+						// resolving targets again is only sensible, once the applications are up to date
+						.then(Mono.fromRunnable(() -> entry.getValue().forEach(this.cachingTargetResolver::refreshApplication))))
+				.then();
+
+		final Mono<Void> processes = Flux.fromIterable(scaledAppIds)
+				.flatMap(this.cfAccessorCache::refreshWebProcessesForApp)
+				.then();
+
+		final Mono<Void> routes = Flux.fromIterable(reroutedAppIds)
+				.flatMap(this.cfAccessorCache::refreshRoutesForApp)
+				.then();
+
+		return Mono.when(applications, processes, routes);
+	}
+}
@@ -0,0 +1,218 @@
+package org.cloudfoundry.promregator.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCache;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheSnapshot;
+import org.cloudfoundry.promregator.config.PromregatorConfiguration;
+import org.cloudfoundry.promregator.config.Target;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Periodically writes the values of the {@link CFAccessorCache} and the resolutions of the {@link CachingTargetResolver}
+ * to a local file (gzip-compressed JSON). On startup, the file is read and its values are put into the caches again.
+ * They are served immediately, but reloaded in the background. This way, the first discovery and the first scrapes
+ * after a restart do not have to wait for the Cloud Controller.
+ */
+public class CacheSnapshotManager {
+	private static final Logger log = LoggerFactory.getLogger(CacheSnapshotManager.class);
+
+	/* files written in a different format are ignored */
+	static final int FORMAT_VERSION = 1;
+
+	@Autowired
+	private CFAccessorCache cfAccessorCache;
+
+	@Autowired
+	private CachingTargetResolver cachingTargetResolver;
+
+	@Autowired
+	private PromregatorConfiguration promregatorConfiguration;
+
+	@Autowired
+	private Clock clock;
+
+	@Value("${cf.cache.snapshot.file:#{null}}")
+	private String file;
+
+	@Value("${cf.cache.snapshot.maxAge:86400}")
+	private int maxAgeInSeconds;
+
+	@Value("${cf.api_host:#{null}}")
+	private String apiHost;
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	private final AtomicBoolean writing = new AtomicBoolean(false);
+
+	record Snapshot(int version, String apiHost, long createdAt, CFAccessorCacheSnapshot caches, List<Resolution> resolutions) {
+	}
+
+	/**
+	 * the resolution of a configured target; the target is identified by its string representation, as the
+	 * instances of the configuration differ after a restart
+	 */
+	record Resolution(String target, List<ResolvedTargetEntry> resolvedTargets) {
+	}
+
+	record ResolvedTargetEntry(String orgName, String spaceName, String applicationName, String applicationId,
+			String path, String protocol, Boolean kubernetesAnnotations) {
+
+		private static ResolvedTargetEntry of(ResolvedTarget resolvedTarget) {
+			return new ResolvedTargetEntry(resolvedTarget.getOrgName(), resolvedTarget.getSpaceName(), resolvedTarget.getApplicationName(),
+					resolvedTarget.getApplicationId(), resolvedTarget.getPath(), resolvedTarget.getProtocol(), resolvedTarget.getKubernetesAnnotations());
+		}
+
+		private ResolvedTarget toResolvedTarget(Target configTarget) {
+			final ResolvedTarget resolvedTarget = new ResolvedTarget();
+			resolvedTarget.setOriginalTarget(configTarget);
+			resolvedTarget.setOrgName(this.orgName);
+			resolvedTarget.setSpaceName(this.spaceName);
+			resolvedTarget.setApplicationName(this.applicationName);
+			resolvedTarget.setApplicationId(this.applicationId);
+			resolvedTarget.setPath(this.path);
+			resolvedTarget.setProtocol(this.protocol);
+			resolvedTarget.setKubernetesAnnotations(this.kubernetesAnnotations);
+			return resolvedTarget;
+		}
+	}
+
+	private boolean isEnabled() {
+		return this.file != null && !this.file.isBlank();
+	}
+
+	@PostConstruct
+	public void restoreSnapshot() {
+		if (!this.isEnabled()) {
+			return;
+		}
+
+		final Snapshot snapshot;
+		try (InputStream is = new GZIPInputStream(Files.newInputStream(Path.of(this.file)))) {
+			snapshot = this.objectMapper.readValue(is, Snapshot.class);
+		} catch (NoSuchFileException e) {
+			log.info("No snapshot of the caches found at {}; starting with empty caches", this.file);
+			return;
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to read the snapshot of the caches from {}; starting with empty caches", this.file, e);
+			return;
+		}
+
+		if (snapshot.version() != FORMAT_VERSION || !Objects.equals(snapshot.apiHost(), this.apiHost)) {
+			log.info("Snapshot of the caches at {} was written by a different version or for a different platform; ignoring it", this.file);
+			return;
+		}
+
+		final long ageInSeconds = (this.clock.millis() - snapshot.createdAt()) / 1000;
+		if (ageInSeconds > this.maxAgeInSeconds) {
+			log.info("Snapshot of the caches at {} is {}s old, which is older than the maximal age of {}s; ignoring it", this.file, ageInSeconds, this.maxAgeInSeconds);
+			return;
+		}
+
+		final int restoredEntries = snapshot.caches() == null ? 0 : this.cfAccessorCache.restoreSnapshot(snapshot.caches());
+		final int restoredResolutions = snapshot.resolutions() == null ? 0 : this.cachingTargetResolver.restoreResolutions(this.determineResolutions(snapshot.resolutions()));
+
+		log.info("Restored {} cache entries and the resolutions of {} targets from the snapshot at {}, which is {}s old; they are refreshed in the background",
+				restoredEntries, restoredResolutions, this.file, ageInSeconds);
+	}
+
+	/**
+	 * assigns the resolutions of the snapshot to the targets currently configured; resolutions of targets,
+	 * which are not configured anymore, are dropped
+	 */
+	private Map<Target, List<ResolvedTarget>> determineResolutions(List<Resolution> resolutions) {
+		final Map<String, List<Target>> configTargetsByString = new HashMap<>();
+		for (Target configTarget : this.promregatorConfiguration.getTargets()) {
+			configTargetsByString.computeIfAbsent(configTarget.toString(), key -> new ArrayList<>()).add(configTarget);
+		}
+
+		final Map<Target, List<ResolvedTarget>> result = new HashMap<>();
+		for (Resolution resolution : resolutions) {
+			if (resolution.resolvedTargets() == null) {
+				continue;
+			}
+
+			for (Target configTarget : configTargetsByString.getOrDefault(resolution.target(), List.of())) {
+				result.put(configTarget, resolution.resolvedTargets().stream().map(entry -> entry.toResolvedTarget(configTarget)).toList());
+			}
+		}
+		return result;
+	}
+
+	@Scheduled(fixedRateString = "${cf.cache.snapshot.rate:300}000", initialDelayString = "${cf.cache.snapshot.rate:300}000")
+	@SuppressWarnings("unused")
+	private void writeSnapshotPeriodically() {
+		if (!this.isEnabled()) {
+			return;
+		}
+
+		this.writeSnapshot();
+	}
+
+	@PreDestroy
+	public void writeSnapshotOnShutdown() {
+		if (!this.isEnabled()) {
+			return;
+		}
+
+		this.writeSnapshot();
+	}
+
+	/**
+	 * writes the values currently cached to the file. The file is replaced atomically, such that
+	 * a snapshot being read never is incomplete.
+	 */
+	void writeSnapshot() {
+		if (!this.writing.compareAndSet(false, true)) {
+			log.debug("Previous snapshot of the caches is still being written; skipping this one");
+			return;
+		}
+
+		try {
+			final List<Resolution> resolutions = this.cachingTargetResolver.getCachedResolutions().entrySet().stream()
+					.map(entry -> new Resolution(entry.getKey().toString(), entry.getValue().stream().map(ResolvedTargetEntry::of).toList()))
+					.toList();
+
+			final Snapshot snapshot = new Snapshot(FORMAT_VERSION, this.apiHost, this.clock.millis(), this.cfAccessorCache.createSnapshot(), resolutions);
+
+			final Path path = Path.of(this.file);
+			final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+			try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(tempPath))) {
+				this.objectMapper.writeValue(os, snapshot);
+			}
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+			log.debug("Snapshot of the caches written to {}", this.file);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to write the snapshot of the caches to {}", this.file, e);
+		} finally {
+			this.writing.set(false);
+		}
+	}
+}
@@ -1,37 +1,126 @@
 package org.cloudfoundry.promregator.scanner;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import jakarta.annotation.PostConstruct;
 
-import org.apache.commons.collections4.map.PassiveExpiringMap;
 import org.cloudfoundry.promregator.config.Target;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Caches the resolution of configured targets. Once the timeout of a resolution has passed,
+ * the resolution is refreshed in the background on the next request; meanwhile, the resolution cached so far is served.
+ * Concurrent requests for the same target, which is not cached yet, wait for the same resolution.
+ */
 public class CachingTargetResolver implements TargetResolver {
+	private static final Logger log = LoggerFactory.getLogger(CachingTargetResolver.class);
+
 	@Value("${cf.cache.timeout.resolver:300}")
 	private int timeoutCacheResolverLevel;
 
 	private TargetResolver parentTargetResolver;
-	
-	private PassiveExpiringMap<Target, List<ResolvedTarget>> targetResolutionCache;
-	
+
+	private AsyncLoadingCache<Target, List<ResolvedTarget>> targetResolutionCache;
+
+	/**
+	 * the result of the previous call of resolveTargets; it is reused, as long as none of the resolutions has changed
+	 */
+	private record CombinedResolution(List<Target> configTargets, List<List<ResolvedTarget>> resolutions, List<ResolvedTarget> result) {
+
+		private boolean isBasedOn(List<Target> otherConfigTargets, List<List<ResolvedTarget>> otherResolutions) {
+			if (!this.configTargets.equals(otherConfigTargets) || this.resolutions.size() != otherResolutions.size()) {
+				return false;
+			}
+
+			for (int i = 0; i < this.resolutions.size(); i++) {
+				// cached resolutions are immutable; a changed resolution always is a new instance
+				if (this.resolutions.get(i) != otherResolutions.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private volatile CombinedResolution previousResolution;
+
 	public CachingTargetResolver(TargetResolver parentTargetResolver) {
 		this.parentTargetResolver = parentTargetResolver;
 	}
-	
+
 	@PostConstruct
 	public void setupCache() {
 		/* Note that this cannot be done during construction as
 		 * this.timeoutCacheResolverLevel isn't available there, yet.
 		 */
-		
-		this.targetResolutionCache = new PassiveExpiringMap<>(this.timeoutCacheResolverLevel, TimeUnit.SECONDS);
+
+		this.targetResolutionCache = Caffeine.newBuilder()
+				.refreshAfterWrite(this.timeoutCacheResolverLevel, TimeUnit.SECONDS)
+				// resolutions, which have not been requested for a long time, are too outdated for being served
+				.expireAfterWrite(2L * this.timeoutCacheResolverLevel, TimeUnit.SECONDS)
+				.buildAsync(new ResolvingCacheLoader());
+	}
+
+	/**
+	 * resolves targets using the parent target resolver. Multiple targets requested at the same time are resolved in one run.
+	 * Targets, which cannot be resolved, are not cached.
+	 */
+	private class ResolvingCacheLoader implements AsyncCacheLoader<Target, List<ResolvedTarget>> {
+
+		@Override
+		public @NonNull CompletableFuture<List<ResolvedTarget>> asyncLoad(@NonNull Target key, @NonNull Executor executor) {
+			return this.asyncLoadAll(Set.of(key), executor).thenApply(map -> map.get(key));
+		}
+
+		@Override
+		public @NonNull CompletableFuture<? extends Map<? extends Target, ? extends List<ResolvedTarget>>> asyncLoadAll(
+				@NonNull Set<? extends Target> keys, @NonNull Executor executor) {
+
+			// the parent target resolver blocks
+			return Mono.fromCallable(() -> resolve(new ArrayList<>(keys)))
+					.subscribeOn(Schedulers.boundedElastic())
+					.toFuture();
+		}
+
+		private Map<Target, List<ResolvedTarget>> resolve(List<Target> configTargets) {
+			final List<ResolvedTarget> resolvedTargets = parentTargetResolver.resolveTargets(configTargets);
+
+			final Map<Target, List<ResolvedTarget>> map = new HashMap<>();
+			if (resolvedTargets == null) {
+				return map;
+			}
+
+			for (ResolvedTarget rtarget : resolvedTargets) {
+				if (configTargets.contains(rtarget.getOriginalTarget())) {
+					map.computeIfAbsent(rtarget.getOriginalTarget(), key -> new ArrayList<>()).add(rtarget);
+				} else {
+					// the resolved target cannot be attributed to a single one of the configured targets; it belongs to any of them
+					configTargets.forEach(configTarget -> map.computeIfAbsent(configTarget, key -> new ArrayList<>()).add(rtarget));
+				}
+			}
+
+			map.replaceAll((key, list) -> List.copyOf(list));
+			return map;
+		}
 	}
 
 	public TargetResolver getNativeTargetResolver() {
@@ -40,47 +129,104 @@ public class CachingTargetResolver implements TargetResolver {
 
 	@Override
 	public List<ResolvedTarget> resolveTargets(List<Target> configTargets) {
-		List<Target> toBeLoaded = new LinkedList<>();
-		
-		List<ResolvedTarget> result = new LinkedList<>();
-		
+		final Map<Target, List<ResolvedTarget>> cached = this.targetResolutionCache.getAll(configTargets).join();
+
+		final List<List<ResolvedTarget>> resolutions = new ArrayList<>(configTargets.size());
 		for (Target configTarget : configTargets) {
-			List<ResolvedTarget> cached = this.targetResolutionCache.get(configTarget);
-			if (cached != null) {
-				result.addAll(cached);
-			} else {
-				toBeLoaded.add(configTarget);
-			}
+			resolutions.add(cached.getOrDefault(configTarget, Collections.emptyList()));
 		}
-		
-		if (!toBeLoaded.isEmpty()) {
-			List<ResolvedTarget> newlyResolvedTargets = this.parentTargetResolver.resolveTargets(toBeLoaded);
-			
-			result.addAll(newlyResolvedTargets);
-			
-			updateTargetResolutionCache(newlyResolvedTargets);
+
+		final CombinedResolution previous = this.previousResolution;
+		if (previous != null && previous.isBasedOn(configTargets, resolutions)) {
+			return previous.result();
 		}
-		
+
 		/* see also issue #75: the list here might include duplicates, which we need to eliminate */
-		HashSet<ResolvedTarget> hset = new HashSet<>(result);
-		return new LinkedList<>(hset);
+		final Set<ResolvedTarget> distinct = new LinkedHashSet<>();
+		resolutions.forEach(distinct::addAll);
+
+		final List<ResolvedTarget> result = List.copyOf(distinct);
+		this.previousResolution = new CombinedResolution(List.copyOf(configTargets), resolutions, result);
+		return result;
+	}
+
+	/**
+	 * @return the resolutions cached, which have been completed, by the configured target
+	 */
+	public Map<Target, List<ResolvedTarget>> getCachedResolutions() {
+		final Map<Target, List<ResolvedTarget>> result = new HashMap<>();
+		this.targetResolutionCache.asMap().forEach((configTarget, future) -> {
+			final List<ResolvedTarget> resolvedTargets = future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+			if (resolvedTargets != null) {
+				result.put(configTarget, resolvedTargets);
+			}
+		});
+		return result;
 	}
 
-	private void updateTargetResolutionCache(List<ResolvedTarget> newlyResolvedTargets) {
-		Map<Target, List<ResolvedTarget>> map = new HashMap<>();
-		for (ResolvedTarget rtarget : newlyResolvedTargets) {
-			List<ResolvedTarget> list = map.get(rtarget.getOriginalTarget());
-			if (list == null) {
-				list = new LinkedList<>();
+	/**
+	 * stores resolutions determined earlier (e.g. before a restart), unless the target is cached already.
+	 * They are served immediately, but the targets are resolved again in the background, as they may be outdated.
+	 * @param resolutions the resolutions by the configured target
+	 * @return the number of configured targets, whose resolution has been restored
+	 */
+	public int restoreResolutions(Map<Target, List<ResolvedTarget>> resolutions) {
+		final List<Target> restored = new ArrayList<>();
+		resolutions.forEach((configTarget, resolvedTargets) -> {
+			if (this.targetResolutionCache.asMap().putIfAbsent(configTarget, CompletableFuture.completedFuture(List.copyOf(resolvedTargets))) == null) {
+				restored.add(configTarget);
 			}
-			list.add(rtarget);
-			map.put(rtarget.getOriginalTarget(), list);
+		});
+
+		if (!restored.isEmpty()) {
+			this.targetResolutionCache.synchronous().refreshAll(restored);
 		}
-		
-		this.targetResolutionCache.putAll(map);
+		return restored.size();
 	}
 
 	public void invalidateCache() {
-		this.targetResolutionCache.clear();
+		this.targetResolutionCache.synchronous().invalidateAll();
+		this.previousResolution = null;
+	}
+
+	/**
+	 * resolves the targets again in the background, which are affected by a change of an application: those,
+	 * which include the application, and those, whose configuration could match the application now.
+	 * Until the resolution has finished, the targets resolved so far are served.
+	 * @param applicationId the identifier of the application
+	 * @param applicationName the (current) name of the application; may be <code>null</code>, if unknown. Then, targets selecting
+	 * a single application by its name are only resolved again, if they include the application.
+	 * @return the number of configured targets being resolved again
+	 */
+	public int refreshApplication(String applicationId, String applicationName) {
+		final List<Target> affected = new ArrayList<>();
+
+		this.targetResolutionCache.asMap().forEach((configTarget, future) -> {
+			if (mayMatchApplication(configTarget, applicationName)) {
+				affected.add(configTarget);
+				return;
+			}
+
+			final List<ResolvedTarget> resolvedTargets = future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+			if (resolvedTargets != null && resolvedTargets.stream().anyMatch(rt -> applicationId.equals(rt.getApplicationId()))) {
+				affected.add(configTarget);
+			}
+		});
+
+		if (!affected.isEmpty()) {
+			log.debug("Resolving {} targets again due to a change of application {}", affected.size(), applicationId);
+			this.targetResolutionCache.synchronous().refreshAll(affected);
+		}
+
+		return affected.size();
+	}
+
+	private static boolean mayMatchApplication(Target configTarget, String applicationName) {
+		if (configTarget.getApplicationRegex() != null || configTarget.getApplicationName() == null) {
+			// the application may match the regex or all applications are selected
+			return true;
+		}
+
+		return applicationName != null && configTarget.getApplicationName().equalsIgnoreCase(applicationName);
 	}
 }
@@ -34,6 +34,12 @@ public class ReactiveAppInstanceScanner implements AppInstanceScanner {
 	@Value("${promregator.defaultInternalRoutePort:8080}")
 	private int defaultInternalRoutePort;
 
+	/**
+	 * The maximal number of targets, which are resolved concurrently
+	 */
+	@Value("${promregator.scanner.maxConcurrency:32}")
+	private int maxConcurrency;
+
 	/**
 	 * OSA stands for Org-Space-Application
 	 */
@@ -172,163 +178,21 @@ public class ReactiveAppInstanceScanner implements AppInstanceScanner {
 	public List<Instance> determineInstancesFromTargets(List<ResolvedTarget> targets,
 			@Nullable Predicate<? super String> applicationIdFilter,
 			@Nullable Predicate<? super Instance> instanceFilter) {
-		Flux<ResolvedTarget> targetsFlux = Flux.fromIterable(targets);
-
-		/*
-		 * TODO V3: Check, if this serial approach below can be executed more in parallel
-		 */
-		
-		Flux<OSAVector> initialOSAVectorFlux = targetsFlux.filter(rt -> rt.getApplicationId() != null)
-			.map(target -> {
-				final OSAVector v = new OSAVector();
-				v.setTarget(target);
-				v.setApplicationId(target.getApplicationId());
-				v.setInternalRoutePort(target.getOriginalTarget().getInternalRoutePort());
-				return v;
-			});
-
-		Flux<String> orgIdFlux = initialOSAVectorFlux.flatMapSequential(v -> this.getOrgId(v.getTarget().getOrgName()));
-		Flux<OSAVector> osaVectorOrgFlux = Flux.zip(initialOSAVectorFlux, orgIdFlux).flatMap(tuple -> {
-			final OSAVector v = tuple.getT1();
-			if (INVALID_ORG_ID.equals(tuple.getT2())) {
-				// NB: This drops the current target!
-				return Mono.empty();
-			}
-			v.setOrgId(tuple.getT2());
-			return Mono.just(v);
-		});
-
-		Flux<String> spaceIdFlux = osaVectorOrgFlux.flatMapSequential(v -> this.getSpaceId(v.getOrgId(), v.getTarget().getSpaceName()));
-		Flux<OSAVector> osaVectorSpaceFlux = Flux.zip(osaVectorOrgFlux, spaceIdFlux).flatMap(tuple -> {
-			final OSAVector v = tuple.getT1();
-			if (INVALID_SPACE_ID.equals(tuple.getT2())) {
-				// NB: This drops the current target!
-				return Mono.empty();
-			}
-			v.setSpaceId(tuple.getT2());
-			return Mono.just(v);
-		});
-
-		/*
-		 * For V3 it is no longer possible to get the SpaceSummary.
-		 * This implies that we need to retrieve data on application level :-(
-		 * Instead, the instance count can be found at the Processes endpoint.
-		 * The ApplicationURL is buried in the Routes.
-		 */
-		
-		Flux<ListProcessesResponse> webProcessForAppFlux = osaVectorSpaceFlux.flatMap(rt -> 
-			this.cfAccessor.retrieveWebProcessesForAppId(rt.getTarget().getApplicationId())
-		);
-		
-		Flux<OSAVector> numberInstancesOSAVectorFlux = Flux.zip(osaVectorSpaceFlux, webProcessForAppFlux).flatMap(tuple -> {
-			final OSAVector osaVector = tuple.getT1();
-			final ResolvedTarget rt = osaVector.getTarget();
-			final ListProcessesResponse lapr = tuple.getT2();
-			
-			final List<ProcessResource> list = lapr.getResources();
-			if (list.size() > 1) {
-				log.error("Application Id {} with application name {} in org {} and space {} returned multiple web processes via CF API V3 Processes; Promregator does not know how to handle this. Provide your use case to the developers to understand how this shall be handled properly.", rt.getApplicationId(), rt.getApplicationName(), rt.getOrgName(), rt.getSpaceName());
-				return Mono.empty();
-			}
-			
-			if (list.isEmpty()) {
-				log.error("Application Id {} with application name {} in org {} and space {} returned no web processes via CF API V3 Processes; Promregator does not know how to handle this. Provide your use case to the developers to understand how this shall be handled properly.", rt.getApplicationId(), rt.getApplicationName(), rt.getOrgName(), rt.getSpaceName());
-				return Mono.empty();
-			}
-			
-			final ProcessResource pr = list.get(0);
-			final int numberInstances = pr.getInstances();
-			osaVector.setNumberOfInstances(numberInstances);
-			return Mono.just(osaVector);
-		});
-		
-		Flux<ListRoutesResponse> routesForAppFlux = numberInstancesOSAVectorFlux.flatMap(rt -> this.cfAccessor.retrieveRoutesForAppId(rt.getTarget().getApplicationId()));
-		Flux<OSAVector> urlDomainOSAVectorFlux = Flux.zip(numberInstancesOSAVectorFlux, routesForAppFlux).flatMap(tuple -> {
-			final OSAVector osaVector = tuple.getT1();
-			final ListRoutesResponse lrp = tuple.getT2();
-			
-			final List<RouteResource> list = lrp.getResources();
-			if (list == null || list.isEmpty()) {
-				// no route defined; the target cannot be reached anyway
-				return Mono.empty();
-			}
-			
-			final List<String> urls = list.stream().map(RouteResource::getUrl).toList();
-			final List<Pattern> preferredRouteRegexPatterns = osaVector.getTarget().getOriginalTarget().getPreferredRouteRegexPatterns();
-			final String url = this.determineApplicationRoute(urls, preferredRouteRegexPatterns);
-			
-			if (url == null) {
-				// no suitable route found
-				return Mono.empty();
-			}
-			
-			osaVector.setAccessURL(url);
-			
-			// determine domain
-			final RouteResource selectedRouteResource = list.stream().filter(e -> e.getUrl().equals(url)).findFirst().get();
-			final String domainId = selectedRouteResource.getRelationships().getDomain().getData().getId();
-			osaVector.setDomainId(domainId);
-			
-			return Mono.just(osaVector);
-		});
-		
-
-		Flux<List<DomainResource>> domainFlux = urlDomainOSAVectorFlux.flatMapSequential(v -> this.cfAccessor.retrieveAllDomainsV3(v.getOrgId()).map(ListOrganizationDomainsResponse::getResources));
-		Flux<OSAVector> osaVectorDomainApplicationFlux = Flux.zip(urlDomainOSAVectorFlux, domainFlux).flatMap(tuple -> {
-			final OSAVector v = tuple.getT1();
-			final List<DomainResource> domains = tuple.getT2();
-
-			if (domains.size() == 0 || v.getDomainId() == null) {
-				// NB: This drops the current target!
-				return Mono.empty();
-			}
-
-			if (useOverrideRouteAndPath(v)) {
-				v.setInternal(true);
-			}
-			// we should only run this if we found a domain in the above step
-			// this is to make sure we have compatibility with existing behaviour
-			else if (!v.getDomainId().isEmpty()) {
-				try {
-					final DomainResource domain = domains.stream()
-							.filter(r -> r.getId().equals(v.getDomainId()))
-							.findFirst()
-							.get();
-					
-					v.setInternal(domain.isInternal());
-				} catch (Exception e) {
-					log.warn("Unable to find matching domain for the domain with id {}", v.getDomainId());
-				}
-			}
-
-			return Mono.just(v);
-		});
+		Flux<ResolvedTarget> targetsFlux = Flux.fromIterable(targets)
+				.filter(rt -> rt.getApplicationId() != null);
 
-
-		// perform pre-filtering, if available
+		// perform pre-filtering, if available; as the application id is known upfront, no lookups are necessary for targets filtered
 		if (applicationIdFilter != null) {
-			osaVectorDomainApplicationFlux = osaVectorDomainApplicationFlux.filter(v -> applicationIdFilter.test(v.getApplicationId()));
+			targetsFlux = targetsFlux.filter(rt -> applicationIdFilter.test(rt.getApplicationId()));
 		}
 
-		Flux<Instance> instancesFlux = osaVectorDomainApplicationFlux.flatMapSequential(v -> {
-			final List<Instance> instances = new ArrayList<>(v.getNumberOfInstances());
-			for (int i = 0; i < v.numberOfInstances; i++) {
-				final Instance inst = new Instance(v.getTarget(), "%s:%d".formatted(v.getApplicationId(), i), v.getAccessURL(), v.isInternal());
-
-				if (useOverrideRouteAndPath(v)) {
-					inst.setAccessUrl(this.formatAccessURL(v.getTarget().getProtocol(), v.getTarget().getOriginalTarget().getOverrideRouteAndPath(), v.getTarget().getPath()));
-				}
-				else if (v.isInternal()) {
-					inst.setAccessUrl(this.formatInternalAccessURL(v.getAccessURL(), v.getTarget().getPath(), v.getInternalRoutePort(), i));
-				} else {
-					inst.setAccessUrl(this.formatAccessURL(v.getTarget().getProtocol(), v.getAccessURL(), v.getTarget().getPath()));
-				}
-
-				instances.add(inst);
-			}
-
-			return Flux.fromIterable(instances);
-		});
+		/*
+		 * Each target is resolved independently by its own chain of lookups (see resolveTarget).
+		 * The chains of multiple targets run concurrently, whereas the order of the targets is retained.
+		 */
+		Flux<Instance> instancesFlux = targetsFlux
+				.flatMapSequential(this::resolveTarget, this.maxConcurrency)
+				.flatMapIterable(this::createInstances);
 
 		// perform pre-filtering, if available
 		if (instanceFilter != null) {
@@ -348,6 +212,136 @@ public class ReactiveAppInstanceScanner implements AppInstanceScanner {
 		return result;
 	}
 
+	/**
+	 * resolves the data of a single target required for determining its instances.
+	 * Org and space are looked up first, as the lookups depend on each other. Afterwards, the (web) process, the routes 
+	 * and the domains are looked up concurrently.
+	 * @param target the target to resolve
+	 * @return the resolved data of the target; empty, if the target cannot be resolved (i.e. it is dropped)
+	 */
+	private Mono<OSAVector> resolveTarget(ResolvedTarget target) {
+		final OSAVector v = new OSAVector();
+		v.setTarget(target);
+		v.setApplicationId(target.getApplicationId());
+		v.setInternalRoutePort(target.getOriginalTarget().getInternalRoutePort());
+
+		return this.getOrgId(target.getOrgName())
+			.filter(orgId -> !INVALID_ORG_ID.equals(orgId))
+			.flatMap(orgId -> {
+				v.setOrgId(orgId);
+				return this.getSpaceId(orgId, target.getSpaceName());
+			})
+			.filter(spaceId -> !INVALID_SPACE_ID.equals(spaceId))
+			.flatMap(spaceId -> {
+				v.setSpaceId(spaceId);
+				
+				/*
+				 * For V3 it is no longer possible to get the SpaceSummary.
+				 * This implies that we need to retrieve data on application level :-(
+				 * Instead, the instance count can be found at the Processes endpoint.
+				 * The ApplicationURL is buried in the Routes.
+				 */
+				return Mono.zip(this.cfAccessor.retrieveWebProcessesForAppId(target.getApplicationId()),
+						this.cfAccessor.retrieveRoutesForAppId(target.getApplicationId()),
+						this.cfAccessor.retrieveAllDomainsV3(v.getOrgId()).map(ListOrganizationDomainsResponse::getResources));
+			})
+			.filter(tuple -> this.applyWebProcess(v, tuple.getT1()) && this.applyRoutes(v, tuple.getT2()) && this.applyDomains(v, tuple.getT3()))
+			.map(tuple -> v);
+	}
+
+	private boolean applyWebProcess(OSAVector osaVector, ListProcessesResponse lapr) {
+		final ResolvedTarget rt = osaVector.getTarget();
+		
+		final List<ProcessResource> list = lapr.getResources();
+		if (list.size() > 1) {
+			log.error("Application Id {} with application name {} in org {} and space {} returned multiple web processes via CF API V3 Processes; Promregator does not know how to handle this. Provide your use case to the developers to understand how this shall be handled properly.", rt.getApplicationId(), rt.getApplicationName(), rt.getOrgName(), rt.getSpaceName());
+			return false;
+		}
+		
+		if (list.isEmpty()) {
+			log.error("Application Id {} with application name {} in org {} and space {} returned no web processes via CF API V3 Processes; Promregator does not know how to handle this. Provide your use case to the developers to understand how this shall be handled properly.", rt.getApplicationId(), rt.getApplicationName(), rt.getOrgName(), rt.getSpaceName());
+			return false;
+		}
+		
+		final ProcessResource pr = list.get(0);
+		final int numberInstances = pr.getInstances();
+		osaVector.setNumberOfInstances(numberInstances);
+		return true;
+	}
+
+	private boolean applyRoutes(OSAVector osaVector, ListRoutesResponse lrp) {
+		final List<RouteResource> list = lrp.getResources();
+		if (list == null || list.isEmpty()) {
+			// no route defined; the target cannot be reached anyway
+			return false;
+		}
+		
+		final List<String> urls = list.stream().map(RouteResource::getUrl).toList();
+		final List<Pattern> preferredRouteRegexPatterns = osaVector.getTarget().getOriginalTarget().getPreferredRouteRegexPatterns();
+		final String url = this.determineApplicationRoute(urls, preferredRouteRegexPatterns);
+		
+		if (url == null) {
+			// no suitable route found
+			return false;
+		}
+		
+		osaVector.setAccessURL(url);
+		
+		// determine domain
+		final RouteResource selectedRouteResource = list.stream().filter(e -> e.getUrl().equals(url)).findFirst().get();
+		final String domainId = selectedRouteResource.getRelationships().getDomain().getData().getId();
+		osaVector.setDomainId(domainId);
+		
+		return true;
+	}
+
+	private boolean applyDomains(OSAVector v, List<DomainResource> domains) {
+		if (domains.isEmpty() || v.getDomainId() == null) {
+			// NB: This drops the current target!
+			return false;
+		}
+
+		if (useOverrideRouteAndPath(v)) {
+			v.setInternal(true);
+		}
+		// we should only run this if we found a domain in the above step
+		// this is to make sure we have compatibility with existing behaviour
+		else if (!v.getDomainId().isEmpty()) {
+			try {
+				final DomainResource domain = domains.stream()
+						.filter(r -> r.getId().equals(v.getDomainId()))
+						.findFirst()
+						.get();
+				
+				v.setInternal(domain.isInternal());
+			} catch (Exception e) {
+				log.warn("Unable to find matching domain for the domain with id {}", v.getDomainId());
+			}
+		}
+
+		return true;
+	}
+
+	private List<Instance> createInstances(OSAVector v) {
+		final List<Instance> instances = new ArrayList<>(v.getNumberOfInstances());
+		for (int i = 0; i < v.numberOfInstances; i++) {
+			final Instance inst = new Instance(v.getTarget(), "%s:%d".formatted(v.getApplicationId(), i), v.getAccessURL(), v.isInternal());
+
+			if (useOverrideRouteAndPath(v)) {
+				inst.setAccessUrl(this.formatAccessURL(v.getTarget().getProtocol(), v.getTarget().getOriginalTarget().getOverrideRouteAndPath(), v.getTarget().getPath()));
+			}
+			else if (v.isInternal()) {
+				inst.setAccessUrl(this.formatInternalAccessURL(v.getAccessURL(), v.getTarget().getPath(), v.getInternalRoutePort(), i));
+			} else {
+				inst.setAccessUrl(this.formatAccessURL(v.getTarget().getProtocol(), v.getAccessURL(), v.getTarget().getPath()));
+			}
+
+			instances.add(inst);
+		}
+
+		return instances;
+	}
+
 	private boolean useOverrideRouteAndPath(OSAVector v) {
 		return Strings.isNotEmpty(v.getTarget().getOriginalTarget().getOverrideRouteAndPath());
 	}
@@ -2,15 +2,28 @@ package org.cloudfoundry.promregator.scanner;
 
 import static org.cloudfoundry.promregator.cfaccessor.ReactiveCFAccessorImpl.INVALID_APPLICATIONS_RESPONSE;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.NoSuchElementException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.cloudfoundry.client.v3.applications.ApplicationResource;
 import org.cloudfoundry.client.v3.applications.ApplicationState;
 import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse;
+import org.cloudfoundry.client.v3.organizations.OrganizationResource;
+import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
 import org.cloudfoundry.promregator.cfaccessor.CFAccessor;
 import org.cloudfoundry.promregator.config.Target;
 import org.slf4j.Logger;
@@ -19,7 +32,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 public class ReactiveTargetResolver implements TargetResolver {
 	private static final Logger log = LoggerFactory.getLogger(ReactiveTargetResolver.class);
@@ -44,17 +56,6 @@ public class ReactiveTargetResolver implements TargetResolver {
 			super();
 		}
 		
-		public IntermediateTarget(IntermediateTarget source) {
-			this.configTarget = source.configTarget;
-			this.resolvedOrgName = source.resolvedOrgName;
-			this.resolvedOrgId = source.resolvedOrgId;
-			this.resolvedSpaceName = source.resolvedSpaceName;
-			this.resolvedSpaceId = source.resolvedSpaceId;
-			this.resolvedApplicationName = source.resolvedApplicationName;
-			this.resolvedApplicationId = source.resolvedApplicationId;
-			this.resolvedMetricsPath = source.resolvedMetricsPath;
-		}
-
 		public IntermediateTarget(Target target) {
 			this.configTarget = target;
 		}
@@ -223,230 +224,360 @@ public class ReactiveTargetResolver implements TargetResolver {
 		
 	}
 
+	/**
+	 * the organization (and space) found on the platform together with the configured targets selecting it
+	 */
+	private record Scope(String orgId, String orgName, String spaceId, String spaceName, Set<Target> configTargets) {
+
+		private Set<Target> retain(Collection<Target> targets) {
+			return targets.stream()
+					.filter(this.configTargets::contains)
+					.collect(Collectors.toCollection(LinkedHashSet::new));
+		}
+
+		private Scope merge(Scope other) {
+			final Set<Target> merged = new LinkedHashSet<>(this.configTargets);
+			merged.addAll(other.configTargets);
+			return new Scope(this.orgId, this.orgName, this.spaceId, this.spaceName, merged);
+		}
+	}
+
+	/**
+	 * the matchers of the configured targets; targets with a label selector are resolved separately
+	 */
+	private record TargetMatchers(Set<Target> configTargets, TargetMatcher byNames, TargetMatcher byLabelSelector) {}
+
+	private volatile TargetMatchers targetMatchers;
+
 	@Override
 	public List<ResolvedTarget> resolveTargets(List<Target> configTargets) {
-		return Flux.fromIterable(configTargets)
-				.parallel()
-				.runOn(Schedulers.parallel())
-				.map(IntermediateTarget::new)
-				.flatMap(this::resolveOrg)
+		final TargetMatchers matchers = this.getTargetMatchers(configTargets);
+
+		final Flux<IntermediateTarget> byNames = this.resolveOrgs(matchers.byNames())
 				.log(log.getName() + ".resolveOrg")
-				.flatMap(this::resolveSpace)
+				.flatMap(orgScope -> this.resolveSpaces(orgScope, matchers.byNames()))
 				.log(log.getName() + ".resolveSpace")
-				.flatMap (this::resolveApplication)
-				.log(log.getName() + ".resolveApplication")
-				.flatMap(this::resolveAnnotations)
-				.log(log.getName() + ".resolveAnnotations")
+				.flatMap(spaceScope -> this.resolveApplication(spaceScope, matchers.byNames()))
+				.log(log.getName() + ".resolveApplication");
+
+		final Flux<IntermediateTarget> byLabelSelector = this.resolveLabelSelectors(matchers.byLabelSelector())
+				.log(log.getName() + ".resolveLabelSelector");
+
+		return Flux.merge(byNames, byLabelSelector)
 				.map(IntermediateTarget::toResolvedTarget)
-				.sequential()
 				.distinct().collectList()
 				.doOnNext(it -> log.debug("Successfully resolved {} configuration targets to {} resolved targets", configTargets.size(), it.size()))
 				.block();
 	}
 
-	private Flux<IntermediateTarget> resolveOrg(IntermediateTarget it) {
+	private TargetMatchers getTargetMatchers(List<Target> configTargets) {
+		final Set<Target> configTargetSet = new HashSet<>(configTargets);
+
+		final TargetMatchers current = this.targetMatchers;
+		if (current != null && current.configTargets().equals(configTargetSet)) {
+			return current;
+		}
+
+		final Map<Boolean, List<Target>> byLabelSelector = configTargets.stream()
+				.collect(Collectors.partitioningBy(configTarget -> configTarget.getLabelSelector() != null));
+
+		final TargetMatchers matchers = new TargetMatchers(configTargetSet, new TargetMatcher(byLabelSelector.get(false)), new TargetMatcher(byLabelSelector.get(true)));
+		this.targetMatchers = matchers;
+		return matchers;
+	}
+
+	/**
+	 * combines the scopes referring to the same organization or space, such that each listing is only requested once
+	 */
+	private static Flux<Scope> mergeScopes(Flux<Scope> scopes, Function<Scope, String> keyOf) {
+		return scopes.collect(LinkedHashMap<String, Scope>::new, (map, scope) -> map.merge(keyOf.apply(scope), scope, Scope::merge))
+				.flatMapIterable(Map::values);
+	}
+
+	private Flux<Scope> resolveOrgs(TargetMatcher matcher) {
 		/* NB: Now we have to consider three cases:
 		 * Case 1: both orgName and orgRegex is empty => select all orgs
 		 * Case 2: orgName is null, but orgRegex is filled => filter all orgs with the regex
 		 * Case 3: orgName is filled, but orgRegex is null => select a single org
-		 * In cases 1 and 2, we need the list of all orgs on the platform.
+		 * In cases 1 and 2, we need the list of all orgs on the platform; it is scanned once for all targets.
 		 */
 		
-		if (it.getConfigTarget().getOrgRegex() == null && it.getConfigTarget().getOrgName() != null) {
-			// Case 3: we have the orgName, but we also need its id
-			Mono<IntermediateTarget> itMono = this.cfAccessor.retrieveOrgIdV3(it.getConfigTarget().getOrgName())
-					.map(org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse::getResources)
-					.flatMap(resList -> {
-						if (resList == null || resList.isEmpty()) {
-							return Mono.empty();
-						}
-						
-						return Mono.just(resList.get(0));
-					})
-					.map(res -> {
-						it.setResolvedOrgName(res.getName());
-						it.setResolvedOrgId(res.getId());
-						return it;
-					})
-					.doOnError(e -> log.warn("Error on retrieving org id for org '{}'", it.getConfigTarget().getOrgName(), e))
-					.onErrorResume(__ -> Mono.empty());
-			
-			return itMono.flux();
+		// Case 3: we have the orgName, but we also need its id
+		final Flux<Scope> orgsByName = Flux.fromIterable(matcher.orgs().getTargetsByName().entrySet())
+				.flatMap(entry -> this.cfAccessor.retrieveOrgIdV3(entry.getKey())
+						.map(ListOrganizationsResponse::getResources)
+						.flatMap(ReactiveTargetResolver::firstResource)
+						.map(res -> new Scope(res.getId(), res.getName(), null, null, new LinkedHashSet<>(entry.getValue())))
+						.doOnError(e -> log.warn("Error on retrieving org id for org '{}'", entry.getKey(), e))
+						.onErrorResume(__ -> Mono.empty()));
+		
+		if (!matcher.orgs().isListingRequiredFor(new HashSet<>(matcher.getConfigTargets()))) {
+			return mergeScopes(orgsByName, Scope::orgId);
 		}
 		
 		// Case 1 & 2: Get all orgs from the platform
-		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> responseMono = this.cfAccessor.retrieveAllOrgIdsV3();
-
-		Flux<org.cloudfoundry.client.v3.organizations.OrganizationResource> orgResFlux = responseMono.map(org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse::getResources)
-			.flatMapMany(Flux::fromIterable);
-		
-		if (it.getConfigTarget().getOrgRegex() != null) {
-			// Case 2
-			final Pattern filterPattern = Pattern.compile(it.getConfigTarget().getOrgRegex(), Pattern.CASE_INSENSITIVE);
-			
-			orgResFlux = orgResFlux.filter(orgRes -> {
-				Matcher m = filterPattern.matcher(orgRes.getName());
-				return m.matches();
-			});
-		}
+		final Flux<Scope> orgsByListing = this.cfAccessor.retrieveAllOrgIdsV3()
+				.map(ListOrganizationsResponse::getResources)
+				.flatMapMany(Flux::fromIterable)
+				.mapNotNull(orgRes -> {
+					final List<Target> configTargets = matcher.orgs().matchListing(orgRes.getName());
+					return configTargets.isEmpty() ? null : new Scope(orgRes.getId(), orgRes.getName(), null, null, new LinkedHashSet<>(configTargets));
+				})
+				.doOnError(e -> log.warn("Error on retrieving list of orgs", e))
+				.onErrorResume(__ -> Flux.empty());
 		
-		return orgResFlux.map(orgRes -> {
-			IntermediateTarget itnew = new IntermediateTarget(it);
-			itnew.setResolvedOrgId(orgRes.getId());
-			itnew.setResolvedOrgName(orgRes.getName());
-			
-			return itnew;
-		});
+		return mergeScopes(Flux.merge(orgsByName, orgsByListing), Scope::orgId);
 	}
 	
-	private Flux<IntermediateTarget> resolveSpace(IntermediateTarget it) {
+	private Flux<Scope> resolveSpaces(Scope orgScope, TargetMatcher matcher) {
 		/* NB: Now we have to consider three cases:
 		 * Case 1: both spaceName and spaceRegex is empty => select all spaces (within the org)
 		 * Case 2: spaceName is null, but spaceRegex is filled => filter all spaces with the regex
 		 * Case 3: spaceName is filled, but spaceRegex is null => select a single space
-		 * In cases 1 and 2, we need the list of all spaces in the org.
+		 * In cases 1 and 2, we need the list of all spaces in the org; it is scanned once for all targets of the org.
 		 */
 		
-		if (it.getConfigTarget().getSpaceRegex() == null && it.getConfigTarget().getSpaceName() != null) {
-			// Case 3: we have the spaceName, but we also need its id
-			Mono<IntermediateTarget> itMono = this.cfAccessor.retrieveSpaceIdV3(it.getResolvedOrgId(), it.getConfigTarget().getSpaceName())
-					.map(org.cloudfoundry.client.v3.spaces.ListSpacesResponse::getResources)
-					.flatMap(resList -> {
-						if (resList == null || resList.isEmpty()) {
-							return Mono.empty();
-						}
-						
-						return Mono.just(resList.get(0));
-					})
-					.map(res -> {
-						it.setResolvedSpaceName(res.getName());
-						it.setResolvedSpaceId(res.getId());
-						return it;
-					}).doOnError(e -> log.warn("Error on retrieving space id for org '{}' and space '{}'", it.getResolvedOrgName(), it.getConfigTarget().getSpaceName(), e))
-					.onErrorResume(__ -> Mono.empty());
-			
-			return itMono.flux();
+		// Case 3: we have the spaceName, but we also need its id
+		final Flux<Scope> spacesByName = Flux.fromIterable(matcher.spaces().getTargetsByName().entrySet())
+				.flatMap(entry -> {
+					final Set<Target> configTargets = orgScope.retain(entry.getValue());
+					if (configTargets.isEmpty()) {
+						return Mono.empty();
+					}
+					
+					return this.cfAccessor.retrieveSpaceIdV3(orgScope.orgId(), entry.getKey())
+							.map(ListSpacesResponse::getResources)
+							.flatMap(ReactiveTargetResolver::firstResource)
+							.map(res -> new Scope(orgScope.orgId(), orgScope.orgName(), res.getId(), res.getName(), configTargets))
+							.doOnError(e -> log.warn("Error on retrieving space id for org '{}' and space '{}'", orgScope.orgName(), entry.getKey(), e))
+							.onErrorResume(__ -> Mono.empty());
+				});
+		
+		if (!matcher.spaces().isListingRequiredFor(orgScope.configTargets())) {
+			return mergeScopes(spacesByName, Scope::spaceId);
 		}
 		
 		// Case 1 & 2: Get all spaces in the current org
-		Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> responseMono = this.cfAccessor.retrieveSpaceIdsInOrgV3(it.getResolvedOrgId());
-
-		Flux<org.cloudfoundry.client.v3.spaces.SpaceResource> spaceResFlux = responseMono.map(org.cloudfoundry.client.v3.spaces.ListSpacesResponse::getResources)
-			.flatMapMany(Flux::fromIterable);
+		final Flux<Scope> spacesByListing = this.cfAccessor.retrieveSpaceIdsInOrgV3(orgScope.orgId())
+				.map(ListSpacesResponse::getResources)
+				.flatMapMany(Flux::fromIterable)
+				.mapNotNull(spaceRes -> {
+					final Set<Target> configTargets = orgScope.retain(matcher.spaces().matchListing(spaceRes.getName()));
+					return configTargets.isEmpty() ? null : new Scope(orgScope.orgId(), orgScope.orgName(), spaceRes.getId(), spaceRes.getName(), configTargets);
+				})
+				.doOnError(e -> log.warn("Error on retrieving list of spaces in org '{}'", orgScope.orgName(), e))
+				.onErrorResume(__ -> Flux.empty());
 		
-		if (it.getConfigTarget().getSpaceRegex() != null) {
-			// Case 2
-			final Pattern filterPattern = Pattern.compile(it.getConfigTarget().getSpaceRegex(), Pattern.CASE_INSENSITIVE);
-			
-			spaceResFlux = spaceResFlux.filter(spaceRes -> {
-				Matcher m = filterPattern.matcher(spaceRes.getName());
-				return m.matches();
-			});
-		}
-		
-		return spaceResFlux.map(spaceRes -> {
-			IntermediateTarget itnew = new IntermediateTarget(it);
-			itnew.setResolvedSpaceId(spaceRes.getId());
-			itnew.setResolvedSpaceName(spaceRes.getName());
-			
-			return itnew;
-		});
+		return mergeScopes(Flux.merge(spacesByName, spacesByListing), Scope::spaceId);
 	}
 	
-	private Flux<IntermediateTarget> resolveApplication(IntermediateTarget it) {
+	private Flux<IntermediateTarget> resolveApplication(Scope spaceScope, TargetMatcher matcher) {
 		/* NB: Now we have to consider three cases:
 		 * Case 1: both applicationName and applicationRegex is empty => select all applications (in the space)
 		 * Case 2: applicationName is null, but applicationRegex is filled => filter all applications with the regex
 		 * Case 3: applicationName is filled, but applicationRegex is null => select a single application
-		 * In cases 1 and 2, we need the list of all applications in the space.
+		 * In cases 1 and 2, we need the list of all applications in the space; it is scanned once for all targets of the space.
+		 * If all targets of the space are of case 3, only the applications with their names are requested in a single request.
 		 */
 		
-		if (it.getConfigTarget().getApplicationRegex() == null && it.getConfigTarget().getApplicationName() != null) {
-			// Case 3: we have the applicationName, but we also need its id
-			
-			String appNameToSearchFor = it.getConfigTarget().getApplicationName().toLowerCase(Locale.ENGLISH);
-			
-			Mono<IntermediateTarget> itMono = this.cfAccessor.retrieveAllApplicationsInSpaceV3(it.getResolvedOrgId(), it.getResolvedSpaceId())
-					.map(ListApplicationsResponse::getResources)
-					.flatMapMany(Flux::fromIterable)
-					.filter(appResource -> appNameToSearchFor.equals(appResource.getName().toLowerCase(Locale.ENGLISH)))
-					.single()
-					.doOnError(e -> {
-						if (e instanceof NoSuchElementException) {
-							logEmptyTarget.warn("Application id could not be found for org '{}', space '{}' and application '{}'. Check your configuration of targets; skipping it for now; this message may be muted by setting the log level of the emitting logger accordingly!", it.getResolvedOrgName(), it.getResolvedSpaceName(), it.getConfigTarget().getApplicationName());
-						}
-					})
-					.onErrorResume(e -> Mono.empty())
-					.filter( res -> this.isApplicationInScrapableState(res.getState()))
-					.map(res -> {
-						it.setResolvedApplicationName(res.getName());
-						it.setResolvedApplicationId(res.getId());
-						return it;
-					}).doOnError(e ->
-						log.warn("Error on retrieving application id for org '{}', space '{}' and application '{}'", it.getResolvedOrgName(), it.getResolvedSpaceName(), it.getConfigTarget().getApplicationName(), e)
-					)
-					.onErrorResume(__ -> Mono.empty());
-			
-			return itMono.flux();
+		final Mono<ListApplicationsResponse> responseMono;
+		if (matcher.applications().isListingRequiredFor(spaceScope.configTargets())) {
+			responseMono = this.cfAccessor.retrieveAllApplicationsInSpaceV3(spaceScope.orgId(), spaceScope.spaceId());
+		} else {
+			responseMono = this.retrieveApplicationsByName(spaceScope);
 		}
 		
-		// Case 1 & 2: Get all applications in the current space
-		Mono<ListApplicationsResponse> responseMono = this.cfAccessor.retrieveAllApplicationsInSpaceV3(it.getResolvedOrgId(), it.getResolvedSpaceId());
-
-		Flux<ApplicationResource> appResFlux = responseMono.map(ListApplicationsResponse::getResources)
-			.flatMapMany(Flux::fromIterable)
-			.doOnError(e -> log.warn("Error on retrieving list of applications in org '{}' and space '{}'", it.getResolvedOrgName(), it.getResolvedSpaceName(), e))
-			.onErrorResume(__ -> Flux.empty());
+		return responseMono
+				.flatMapIterable(response -> this.matchApplications(spaceScope, matcher, response))
+				.doOnError(e -> log.warn("Error on retrieving list of applications in org '{}' and space '{}'", spaceScope.orgName(), spaceScope.spaceName(), e))
+				.onErrorResume(__ -> Flux.empty());
+	}
+	
+	private Flux<IntermediateTarget> resolveLabelSelectors(TargetMatcher matcher) {
+		/* NB: Targets with a label selector are resolved by a single request for all applications on the platform,
+		 * which match the label selector. Names and regexes of orgs, spaces and applications, which are also specified,
+		 * restrict the applications found this way further.
+		 * Only the orgs and spaces hosting such applications need to be determined.
+		 */
+		if (matcher.getConfigTargets().isEmpty()) {
+			return Flux.empty();
+		}
+		
+		final Map<String, List<Target>> targetsByLabelSelector = matcher.getConfigTargets().stream()
+				.collect(Collectors.groupingBy(Target::getLabelSelector, LinkedHashMap::new, Collectors.toList()));
+		
+		final Mono<Map<String, String>> orgNamesById = this.cfAccessor.retrieveAllOrgIdsV3()
+				.map(response -> response.getResources() == null ? Collections.<String, String>emptyMap() : response.getResources().stream()
+						.collect(Collectors.toMap(OrganizationResource::getId, OrganizationResource::getName, (a, b) -> a)))
+				.cache();
+		
+		final Map<String, Mono<Scope>> spaceScopesById = new ConcurrentHashMap<>();
+		
+		return Flux.fromIterable(targetsByLabelSelector.entrySet())
+				.flatMap(entry -> this.cfAccessor.retrieveApplicationsByLabelSelectorV3(entry.getKey())
+						.flatMapMany(response -> {
+							final Map<String, List<ApplicationResource>> appResourcesBySpaceId = response.getResources() == null ? Collections.emptyMap() : response.getResources().stream()
+									.filter(appRes -> spaceIdOf(appRes) != null)
+									.collect(Collectors.groupingBy(ReactiveTargetResolver::spaceIdOf, LinkedHashMap::new, Collectors.toList()));
+							
+							return Flux.fromIterable(appResourcesBySpaceId.entrySet())
+									.flatMap(spaceEntry -> spaceScopesById.computeIfAbsent(spaceEntry.getKey(), spaceId -> this.resolveSpaceById(spaceId, orgNamesById).cache())
+											.flatMapIterable(spaceScope -> this.matchLabelledApplications(spaceScope, new LinkedHashSet<>(entry.getValue()), matcher, spaceEntry.getValue(), response)));
+						})
+						.doOnError(e -> log.warn("Error on retrieving applications with label selector '{}'", entry.getKey(), e))
+						.onErrorResume(__ -> Flux.empty()));
+	}
+	
+	private static String spaceIdOf(ApplicationResource appRes) {
+		if (appRes.getRelationships() == null || appRes.getRelationships().getSpace() == null || appRes.getRelationships().getSpace().getData() == null) {
+			return null;
+		}
 		
-		if (it.getConfigTarget().getApplicationRegex() != null) {
-			// Case 2
-			final Pattern filterPattern = Pattern.compile(it.getConfigTarget().getApplicationRegex(), Pattern.CASE_INSENSITIVE);
+		return appRes.getRelationships().getSpace().getData().getId();
+	}
+	
+	private Mono<Scope> resolveSpaceById(String spaceId, Mono<Map<String, String>> orgNamesById) {
+		return this.cfAccessor.retrieveSpaceV3(spaceId)
+				.zipWith(orgNamesById, (space, orgNames) -> {
+					final String orgId = space.getRelationships().getOrganization().getData().getId();
+					return new Scope(orgId, orgNames.get(orgId), space.getId(), space.getName(), Collections.emptySet());
+				})
+				.filter(scope -> scope.orgName() != null)
+				.doOnError(e -> log.warn("Error on retrieving space with id '{}'", spaceId, e))
+				.onErrorResume(__ -> Mono.empty());
+	}
+	
+	private List<IntermediateTarget> matchLabelledApplications(Scope spaceScope, Set<Target> configTargets, TargetMatcher matcher, 
+			List<ApplicationResource> appResources, ListApplicationsResponse response) {
+		
+		final Set<Target> targetsOfSpace = new HashSet<>(matcher.orgs().match(spaceScope.orgName()));
+		targetsOfSpace.retainAll(matcher.spaces().match(spaceScope.spaceName()));
+		targetsOfSpace.retainAll(configTargets);
+		
+		final List<IntermediateTarget> result = new ArrayList<>();
+		if (targetsOfSpace.isEmpty()) {
+			return result;
+		}
+		
+		for (ApplicationResource appRes : appResources) {
+			for (Target configTarget : matcher.applications().match(appRes.getName())) {
+				if (targetsOfSpace.contains(configTarget)) {
+					this.toIntermediateTarget(spaceScope, configTarget, appRes, response).ifPresent(result::add);
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	private Mono<ListApplicationsResponse> retrieveApplicationsByName(Scope spaceScope) {
+		final Set<String> applicationNames = spaceScope.configTargets().stream()
+				.map(Target::getApplicationName)
+				.collect(Collectors.toSet());
+		
+		return this.cfAccessor.retrieveApplicationsInSpaceV3(spaceScope.orgId(), spaceScope.spaceId(), applicationNames)
+				.flatMap(response -> {
+					if (containsAllApplications(response, applicationNames)) {
+						return Mono.just(response);
+					}
+					
+					/* the platform may compare the names case-sensitively, but the names of targets are case-insensitive;
+					 * fall back to the list of all applications in the space.
+					 */
+					return this.cfAccessor.retrieveAllApplicationsInSpaceV3(spaceScope.orgId(), spaceScope.spaceId());
+				});
+	}
+	
+	private static boolean containsAllApplications(ListApplicationsResponse response, Set<String> applicationNames) {
+		if (response.getResources() == null) {
+			return applicationNames.isEmpty();
+		}
+		
+		final Set<String> foundNames = response.getResources().stream()
+				.map(appRes -> appRes.getName().toLowerCase(Locale.ENGLISH))
+				.collect(Collectors.toSet());
+		
+		return applicationNames.stream().allMatch(name -> foundNames.contains(name.toLowerCase(Locale.ENGLISH)));
+	}
+	
+	private List<IntermediateTarget> matchApplications(Scope spaceScope, TargetMatcher matcher, ListApplicationsResponse response) {
+		final List<ApplicationResource> appResources = response.getResources() == null ? Collections.emptyList() : response.getResources();
+		
+		final List<IntermediateTarget> result = new ArrayList<>();
+		final Map<Target, List<ApplicationResource>> appResourcesByName = new HashMap<>();
+		
+		for (ApplicationResource appRes : appResources) {
+			for (Target configTarget : matcher.applications().match(appRes.getName())) {
+				if (!spaceScope.configTargets().contains(configTarget)) {
+					continue;
+				}
+				
+				if (isSelectingApplicationByName(configTarget)) {
+					// Case 3: the application needs to be unique
+					appResourcesByName.computeIfAbsent(configTarget, key -> new ArrayList<>()).add(appRes);
+				} else {
+					// Case 1 & 2
+					this.toIntermediateTarget(spaceScope, configTarget, appRes, response).ifPresent(result::add);
+				}
+			}
+		}
+		
+		for (Target configTarget : spaceScope.configTargets()) {
+			if (!isSelectingApplicationByName(configTarget)) {
+				continue;
+			}
 			
-			appResFlux = appResFlux.filter(appRes -> {
-				Matcher m = filterPattern.matcher(appRes.getName());
-				return m.matches();
-			});
+			final List<ApplicationResource> candidates = appResourcesByName.getOrDefault(configTarget, Collections.emptyList());
+			if (candidates.isEmpty()) {
+				logEmptyTarget.warn("Application id could not be found for org '{}', space '{}' and application '{}'. Check your configuration of targets; skipping it for now; this message may be muted by setting the log level of the emitting logger accordingly!", spaceScope.orgName(), spaceScope.spaceName(), configTarget.getApplicationName());
+			} else if (candidates.size() == 1) {
+				this.toIntermediateTarget(spaceScope, configTarget, candidates.get(0), response).ifPresent(result::add);
+			}
+		}
+		
+		return result;
+	}
+	
+	private static boolean isSelectingApplicationByName(Target configTarget) {
+		return configTarget.getApplicationRegex() == null && configTarget.getApplicationName() != null;
+	}
+	
+	private Optional<IntermediateTarget> toIntermediateTarget(Scope spaceScope, Target configTarget, ApplicationResource appRes, ListApplicationsResponse response) {
+		if (!this.isApplicationInScrapableState(appRes.getState())) {
+			return Optional.empty();
 		}
 		
-		Flux<ApplicationResource> scrapableFlux = appResFlux.filter(appRes ->
-				this.isApplicationInScrapableState(appRes.getState()));
+		final IntermediateTarget it = new IntermediateTarget(configTarget);
+		it.setResolvedOrgId(spaceScope.orgId());
+		it.setResolvedOrgName(spaceScope.orgName());
+		it.setResolvedSpaceId(spaceScope.spaceId());
+		it.setResolvedSpaceName(spaceScope.spaceName());
+		it.setResolvedApplicationId(appRes.getId());
+		it.setResolvedApplicationName(appRes.getName());
 		
-		return scrapableFlux.map(appRes -> {
-			IntermediateTarget itnew = new IntermediateTarget(it);
-			itnew.setResolvedApplicationId(appRes.getId());
-			itnew.setResolvedApplicationName(appRes.getName());
+		if (Boolean.TRUE.equals(configTarget.getKubernetesAnnotations())) {
+			if (INVALID_APPLICATIONS_RESPONSE == response) {
+				logEmptyTarget.debug("Your foundation does not support V3 APIs, yet you have enabled Kubernetes Annotation filtering. Ignoring annotation filtering.");
+				return Optional.of(it);
+			}
+			
+			final Map<String, String> annotations = appRes.getMetadata() == null ? null : appRes.getMetadata().getAnnotations();
+			if (annotations == null || !"true".equals(annotations.getOrDefault(PROMETHEUS_IO_SCRAPE, "false"))) {
+				return Optional.empty();
+			}
 			
-			return itnew;
-		});
+			it.setResolvedMetricsPath(annotations.getOrDefault(PROMETHEUS_IO_PATH, null));
+		}
+		
+		return Optional.of(it);
 	}
-
-	private Flux<IntermediateTarget> resolveAnnotations(IntermediateTarget it) {
-		if (Boolean.TRUE.equals(it.getConfigTarget().getKubernetesAnnotations())) {
-			Mono<ListApplicationsResponse> response = this.cfAccessor
-				.retrieveAllApplicationsInSpaceV3(it.getResolvedOrgId(), it.getResolvedSpaceId());
-
-			return response.flatMap(res -> {
-				if (res == null || INVALID_APPLICATIONS_RESPONSE == res) {
-					logEmptyTarget.debug("Your foundation does not support V3 APIs, yet you have enabled Kubernetes Annotation filtering. Ignoring annotation filtering.");
-					return Mono.just(it);
-				}
-
-				return res.getResources().stream()
-						.filter(app -> it.getResolvedApplicationName().equals(app.getName().toLowerCase(Locale.ENGLISH)))
-						.filter(app -> this.isApplicationInScrapableState(app.getState()))
-						.filter(app -> app.getMetadata() != null)
-						.filter(app -> app.getMetadata().getAnnotations() != null)
-						.filter(app -> app.getMetadata().getAnnotations().getOrDefault(PROMETHEUS_IO_SCRAPE, "false").equals("true"))
-						.map(app -> {
-							it.setResolvedMetricsPath(app.getMetadata().getAnnotations().getOrDefault(PROMETHEUS_IO_PATH, null));
-							return Mono.just(it);
-						}).findFirst().orElseGet(Mono::empty);
-			}).doOnError(e ->
-				 log.warn("Error on retrieving application annotations for org '{}', space '{}' and application '{}'.",
-						it.getResolvedOrgName(), it.getResolvedSpaceName(), it.getConfigTarget().getApplicationName(), e)).flux();
-		}
-
-		return Mono.just(it).flux();
+	
+	private static <R> Mono<R> firstResource(List<R> resList) {
+		if (resList == null || resList.isEmpty()) {
+			return Mono.empty();
+		}
+		
+		return Mono.just(resList.get(0));
 	}
 
 	private boolean isApplicationInScrapableState(ApplicationState applicationState) {
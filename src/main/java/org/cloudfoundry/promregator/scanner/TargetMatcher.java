@@ -0,0 +1,174 @@
+package org.cloudfoundry.promregator.scanner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import org.cloudfoundry.promregator.config.Target;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Matches the names of organizations, spaces and applications against a list of configured targets at once.
+ * It is built once per list of configured targets: exact names are indexed in hash maps and the regular expressions
+ * of each level are combined into a single pattern. This way, a listing of the platform only needs to be scanned once
+ * for all targets, and a name not matching any regular expression is rejected by a single evaluation.
+ */
+final class TargetMatcher {
+	private static final Logger log = LoggerFactory.getLogger(TargetMatcher.class);
+
+	private final List<Target> configTargets;
+
+	private final Level orgs;
+	private final Level spaces;
+	private final Level applications;
+
+	TargetMatcher(List<Target> configTargets) {
+		this.configTargets = List.copyOf(configTargets);
+
+		this.orgs = new Level(this.configTargets, "org", Target::getOrgName, Target::getOrgRegex);
+		this.spaces = new Level(this.configTargets, "space", Target::getSpaceName, Target::getSpaceRegex);
+		this.applications = new Level(this.configTargets, "application", Target::getApplicationName, Target::getApplicationRegex);
+	}
+
+	List<Target> getConfigTargets() {
+		return this.configTargets;
+	}
+
+	Level orgs() {
+		return this.orgs;
+	}
+
+	Level spaces() {
+		return this.spaces;
+	}
+
+	Level applications() {
+		return this.applications;
+	}
+
+	/**
+	 * the selectors of all configured targets on one level (organizations, spaces or applications).
+	 * A target either selects by an exact name, by a regular expression or, if none of them is set, all names.
+	 */
+	static final class Level {
+		/* regular expressions, which change their meaning when being combined with others */
+		private static final Pattern NOT_COMBINABLE = Pattern.compile("\\\\(?:[1-9]|k<|Q)|\\(\\?[a-zA-Z-]*x");
+
+		private record RegexSelector(Pattern pattern, List<Target> targets) {}
+
+		private final Map<String, List<Target>> targetsByName = new LinkedHashMap<>();
+		private final Map<String, List<Target>> targetsByLowerCaseName = new HashMap<>();
+		private final List<Target> targetsSelectingAll = new ArrayList<>();
+		private final List<RegexSelector> regexSelectors = new ArrayList<>();
+		private final Pattern combinedPattern;
+
+		private Level(List<Target> configTargets, String levelName, Function<Target, String> nameOf, Function<Target, String> regexOf) {
+			final Map<String, List<Target>> targetsByRegex = new LinkedHashMap<>();
+
+			for (Target configTarget : configTargets) {
+				final String regex = regexOf.apply(configTarget);
+				final String name = nameOf.apply(configTarget);
+
+				if (regex != null) {
+					targetsByRegex.computeIfAbsent(regex, key -> new ArrayList<>()).add(configTarget);
+				} else if (name != null) {
+					this.targetsByName.computeIfAbsent(name, key -> new ArrayList<>()).add(configTarget);
+					this.targetsByLowerCaseName.computeIfAbsent(name.toLowerCase(Locale.ENGLISH), key -> new ArrayList<>()).add(configTarget);
+				} else {
+					this.targetsSelectingAll.add(configTarget);
+				}
+			}
+
+			for (Map.Entry<String, List<Target>> entry : targetsByRegex.entrySet()) {
+				try {
+					this.regexSelectors.add(new RegexSelector(Pattern.compile(entry.getKey(), Pattern.CASE_INSENSITIVE), entry.getValue()));
+				} catch (PatternSyntaxException e) {
+					log.warn("Invalid {} regex '{}' detected. Fix your configuration; until then, the targets using it will be ignored", levelName, entry.getKey(), e);
+				}
+			}
+
+			this.combinedPattern = combine(this.regexSelectors);
+		}
+
+		private static Pattern combine(List<RegexSelector> regexSelectors) {
+			if (regexSelectors.size() < 2) {
+				return null;
+			}
+
+			for (RegexSelector regexSelector : regexSelectors) {
+				if (NOT_COMBINABLE.matcher(regexSelector.pattern().pattern()).find()) {
+					return null;
+				}
+			}
+
+			final String combinedRegex = regexSelectors.stream()
+					.map(regexSelector -> "(?:" + regexSelector.pattern().pattern() + ")")
+					.collect(Collectors.joining("|"));
+
+			try {
+				return Pattern.compile(combinedRegex, Pattern.CASE_INSENSITIVE);
+			} catch (PatternSyntaxException e) {
+				// e.g. the same named group is used in multiple regular expressions
+				log.debug("Unable to combine the regular expressions '{}'; evaluating them one by one", combinedRegex, e);
+				return null;
+			}
+		}
+
+		/**
+		 * @return the targets selecting by an exact name, grouped by the name as configured
+		 */
+		Map<String, List<Target>> getTargetsByName() {
+			return Collections.unmodifiableMap(this.targetsByName);
+		}
+
+		/**
+		 * @param configTargets the targets to be considered
+		 * @return <code>true</code>, if at least one of the targets requires the listing of all names on this level
+		 */
+		boolean isListingRequiredFor(Set<Target> configTargets) {
+			return this.targetsSelectingAll.stream().anyMatch(configTargets::contains)
+					|| this.regexSelectors.stream().flatMap(regexSelector -> regexSelector.targets().stream()).anyMatch(configTargets::contains);
+		}
+
+		/**
+		 * determines the targets selecting a name by a regular expression or selecting all names
+		 * @param name the name to be matched
+		 * @return the targets selecting the name; targets selecting by an exact name are not considered
+		 */
+		List<Target> matchListing(String name) {
+			final List<Target> result = new ArrayList<>(this.targetsSelectingAll);
+
+			if (this.combinedPattern != null && !this.combinedPattern.matcher(name).matches()) {
+				return result;
+			}
+
+			for (RegexSelector regexSelector : this.regexSelectors) {
+				if (regexSelector.pattern().matcher(name).matches()) {
+					result.addAll(regexSelector.targets());
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * determines all targets selecting a name; exact names are compared case-insensitively
+		 * @param name the name to be matched
+		 * @return the targets selecting the name
+		 */
+		List<Target> match(String name) {
+			final List<Target> result = this.matchListing(name);
+			result.addAll(this.targetsByLowerCaseName.getOrDefault(name.toLowerCase(Locale.ENGLISH), Collections.emptyList()));
+			return result;
+		}
+	}
+}
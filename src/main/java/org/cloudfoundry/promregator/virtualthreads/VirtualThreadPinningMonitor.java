@@ -0,0 +1,156 @@
+package org.cloudfoundry.promregator.virtualthreads;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Detects situations in which a virtual thread could not unmount from its carrier thread while blocking
+ * ("pinning"), for example, because it was blocking inside of a <code>synchronized</code> block.
+ * Pinning defeats the purpose of virtual threads, as the carrier (platform) thread is blocked, too.
+ *
+ * Detection is based on the JFR event <code>jdk.VirtualThreadPinned</code>. Each location (i.e. the
+ * innermost frame of Promregator's code on the stack) is logged once with its stack trace and counted
+ * afterwards. On shutdown, a summary of all locations is logged.
+ */
+public class VirtualThreadPinningMonitor {
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private static final String EVENT_VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+
+	private static final String OWN_PACKAGE_PREFIX = "org.cloudfoundry.promregator.";
+
+	@Value("${promregator.scraping.virtualThreads.enabled:false}")
+	private boolean virtualThreadsEnabled;
+
+	/**
+	 * The minimal duration of pinning, which is reported (in milliseconds);
+	 * a negative value disables the monitor.
+	 */
+	@Value("${promregator.scraping.virtualThreads.pinningThreshold:20}")
+	private int pinningThreshold;
+
+	@Autowired
+	private InternalMetrics internalMetrics;
+
+	private RecordingStream recordingStream;
+
+	private final Map<String, LongAdder> pinningsByLocation = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void start() {
+		if (!this.virtualThreadsEnabled || this.pinningThreshold < 0 || !VirtualThreadSupport.isAvailable()) {
+			return;
+		}
+
+		try {
+			RecordingStream rs = new RecordingStream();
+			rs.enable(EVENT_VIRTUAL_THREAD_PINNED)
+				.withThreshold(Duration.ofMillis(this.pinningThreshold))
+				.withStackTrace();
+			rs.onEvent(EVENT_VIRTUAL_THREAD_PINNED, this::handlePinnedEvent);
+			rs.startAsync();
+
+			this.recordingStream = rs;
+			log.info("Monitoring of pinned virtual threads started with a threshold of {} ms", this.pinningThreshold);
+		} catch (RuntimeException e) {
+			// e.g. if JFR is not available in the current runtime
+			log.warn("Unable to start monitoring of pinned virtual threads", e);
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (this.recordingStream == null) {
+			return;
+		}
+
+		this.recordingStream.close();
+		this.recordingStream = null;
+
+		if (!this.pinningsByLocation.isEmpty()) {
+			log.warn("Summary of pinned virtual threads (location: count):\n{}", this.getPinningReport().entrySet().stream()
+					.map(e -> "%s: %d".formatted(e.getKey(), e.getValue()))
+					.collect(Collectors.joining("\n")));
+		}
+	}
+
+	private void handlePinnedEvent(RecordedEvent event) {
+		final List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+		final String location = determineLocation(frames);
+
+		LongAdder newCounter = new LongAdder();
+		LongAdder counter = this.pinningsByLocation.putIfAbsent(location, newCounter);
+		if (counter == null) {
+			counter = newCounter;
+			log.warn("Virtual thread was pinned to its carrier thread for {} ms at {}. Consider replacing synchronized blocks in this code path. Stack trace:\n{}",
+					event.getDuration().toMillis(), location, formatStackTrace(event.getStackTrace()));
+		} else {
+			log.debug("Virtual thread was pinned to its carrier thread for {} ms at {}", event.getDuration().toMillis(), location);
+		}
+		counter.increment();
+
+		this.internalMetrics.countVirtualThreadPinned(location);
+	}
+
+	/**
+	 * @return the number of times virtual threads have been pinned, grouped by location
+	 */
+	public Map<String, Long> getPinningReport() {
+		Map<String, Long> report = new TreeMap<>();
+		this.pinningsByLocation.forEach((location, counter) -> report.put(location, counter.sum()));
+		return report;
+	}
+
+	static String determineLocation(List<RecordedFrame> frames) {
+		RecordedFrame locationFrame = null;
+		for (RecordedFrame frame : frames) {
+			if (locationFrame == null) {
+				locationFrame = frame;
+			}
+
+			if (frame.getMethod().getType().getName().startsWith(OWN_PACKAGE_PREFIX)) {
+				locationFrame = frame;
+				break;
+			}
+		}
+
+		if (locationFrame == null) {
+			return "unknown";
+		}
+
+		return formatFrame(locationFrame);
+	}
+
+	private static String formatFrame(RecordedFrame frame) {
+		return "%s.%s:%d".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(), frame.getLineNumber());
+	}
+
+	private static String formatStackTrace(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return "\t(not available)";
+		}
+
+		return stackTrace.getFrames().stream()
+				.map(frame -> "\tat " + formatFrame(frame))
+				.collect(Collectors.joining("\n"));
+	}
+}
@@ -0,0 +1,50 @@
+package org.cloudfoundry.promregator.virtualthreads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides access to virtual threads (JEP 444), if the Java runtime supports them.
+ * 
+ * As Promregator still is compiled for Java 17, virtual threads are not available
+ * at compile time. Thus, they are accessed via reflection.
+ */
+public final class VirtualThreadSupport {
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadSupport.class);
+	
+	private static final int MINIMAL_JAVA_FEATURE_VERSION = 21;
+	
+	private VirtualThreadSupport() {
+		// static utility class
+	}
+	
+	/**
+	 * @return <code>true</code>, if the current Java runtime supports virtual threads; <code>false</code> otherwise.
+	 */
+	public static boolean isAvailable() {
+		return Runtime.version().feature() >= MINIMAL_JAVA_FEATURE_VERSION;
+	}
+	
+	/**
+	 * creates an executor, which starts a new virtual thread for each task submitted.
+	 * @return the executor or <code>null</code>, if the current Java runtime does not support virtual threads.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (!isAvailable()) {
+			return null;
+		}
+		
+		try {
+			Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factoryMethod.invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			log.warn("Unable to create executor for virtual threads", e);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cloudfoundry.UnknownCloudFoundryException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	@Test
+	void testDisabledDoesNotLimit() {
+		AdaptiveConcurrencyLimiter subject = AdaptiveConcurrencyLimiter.disabled();
+		Assertions.assertFalse(subject.isEnabled());
+
+		Mono<String> request = Mono.just("result");
+		Assertions.assertSame(request, subject.limit(request));
+	}
+
+	@Test
+	void testRequestsBeyondLimitWait() {
+		AdaptiveConcurrencyLimiter subject = new AdaptiveConcurrencyLimiter(true, 2, 1, 10, 0);
+
+		Sinks.One<String> first = Sinks.one();
+		Sinks.One<String> second = Sinks.one();
+		AtomicBoolean thirdSubscribed = new AtomicBoolean(false);
+
+		Disposable d1 = subject.limit(first.asMono()).subscribe();
+		Disposable d2 = subject.limit(second.asMono()).subscribe();
+		Disposable d3 = subject.limit(Mono.fromCallable(() -> {
+			thirdSubscribed.set(true);
+			return "third";
+		})).subscribe();
+
+		Assertions.assertEquals(2, subject.getInFlight());
+		Assertions.assertFalse(thirdSubscribed.get());
+
+		first.tryEmitValue("first");
+		Assertions.assertTrue(thirdSubscribed.get());
+
+		second.tryEmitValue("second");
+		Assertions.assertEquals(0, subject.getInFlight());
+
+		d1.dispose();
+		d2.dispose();
+		d3.dispose();
+	}
+
+	@Test
+	void testCancelledRequestReleasesSlot() {
+		AdaptiveConcurrencyLimiter subject = new AdaptiveConcurrencyLimiter(true, 1, 1, 10, 0);
+
+		Disposable disposable = subject.limit(Sinks.<String>one().asMono()).subscribe();
+		Assertions.assertEquals(1, subject.getInFlight());
+
+		disposable.dispose();
+		Assertions.assertEquals(0, subject.getInFlight());
+		Assertions.assertEquals(1, subject.getLimit());
+	}
+
+	@Test
+	void testOverloadRejectionHalvesLimit() {
+		AdaptiveConcurrencyLimiter subject = new AdaptiveConcurrencyLimiter(true, 16, 2, 256, 0);
+
+		subject.limit(Mono.error(new UnknownCloudFoundryException(429))).onErrorComplete().block();
+		Assertions.assertEquals(8, subject.getLimit());
+
+		subject.limit(Mono.error(new UnknownCloudFoundryException(503))).onErrorComplete().block();
+		Assertions.assertEquals(4, subject.getLimit());
+
+		// other errors do not indicate an overload
+		subject.limit(Mono.error(new UnknownCloudFoundryException(404))).onErrorComplete().block();
+		Assertions.assertEquals(4, subject.getLimit());
+	}
+
+	@Test
+	void testLimitDoesNotFallBelowMinimum() {
+		AdaptiveConcurrencyLimiter subject = new AdaptiveConcurrencyLimiter(true, 4, 3, 256, 0);
+
+		subject.limit(Mono.error(new UnknownCloudFoundryException(429))).onErrorComplete().block();
+		Assertions.assertEquals(3, subject.getLimit());
+	}
+
+	@Test
+	void testNoRequestsAreSentDuringCooldown() {
+		AdaptiveConcurrencyLimiter subject = new AdaptiveConcurrencyLimiter(true, 16, 2, 256, 300);
+
+		subject.limit(Mono.error(new UnknownCloudFoundryException(429))).onErrorComplete().block();
+
+		AtomicInteger subscriptions = new AtomicInteger(0);
+		Disposable disposable = subject.limit(Mono.fromCallable(subscriptions::incrementAndGet)).subscribe();
+		Assertions.assertEquals(0, subscriptions.get());
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+			while (subscriptions.get() == 0) {
+				Thread.sleep(10);
+			}
+		});
+		disposable.dispose();
+	}
+
+	@Test
+	void testHealthyRequestsIncreaseLimit() {
+		AdaptiveConcurrencyLimiter subject = new AdaptiveConcurrencyLimiter(true, 2, 1, 256, 0);
+
+		// more requests are pending than permitted, so the limit is utilized
+		Flux.range(0, 40).flatMap(i -> subject.limit(Mono.delay(Duration.ofMillis(5))), 8).blockLast();
+
+		Assertions.assertTrue(subject.getLimit() > 2);
+	}
+}
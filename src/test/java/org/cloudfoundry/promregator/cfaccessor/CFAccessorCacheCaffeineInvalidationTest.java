@@ -47,23 +47,23 @@ public class CFAccessorCacheCaffeineInvalidationTest {
 	@Test
 	void testInvalidateCacheApplications() {
 		subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
 		
 		subject.invalidateCacheApplication();
 
 		subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(2)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
 	}
 
 	@Test
 	void testInvalidateCacheSpace() {
 		subject.retrieveSpaceIdV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceIdV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
 		
 		subject.invalidateCacheSpace();
 		
 		subject.retrieveSpaceIdV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveSpaceIdV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(2)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
 	}
 
 	@Test
@@ -80,12 +80,12 @@ public class CFAccessorCacheCaffeineInvalidationTest {
 	@Test
 	void testInvalidateCacheOrg() {
 		subject.retrieveOrgIdV3("dummy");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveOrgIdsV3(Mockito.anySet());
 		
 		subject.invalidateCacheOrg();
 		
 		subject.retrieveOrgIdV3("dummy");
-		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveOrgIdV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(2)).retrieveOrgIdsV3(Mockito.anySet());
 	}
 
 	@Test
@@ -0,0 +1,77 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.cloudfoundry.promregator.JUnitTestUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest(classes = CFAccessorCacheCaffeineSpringApplication.class)
+@TestPropertySource(locations="../default.properties")
+@DirtiesContext(classMode=ClassMode.AFTER_CLASS)
+class CFAccessorCacheCaffeineRefreshTest {
+	
+	/*
+	 * Separate from CFAccessorCacheCaffeineInvalidationTest, as the counting state in Mockito
+	 * must not be influenced by the tests there (and vice versa).
+	 * Each test uses keys of its own.
+	 */
+
+	@Autowired
+	private CFAccessor parentMock;
+	
+	@Autowired
+	private CFAccessorCacheCaffeine subject;
+	
+	@AfterAll
+	public static void runCleanup() {
+		JUnitTestUtils.cleanUpAll();
+	}
+	
+	@Test
+	void testRefreshApplicationOnlyReloadsItsEntries() {
+		subject.retrieveRoutesForAppId("dummy").block(Duration.ofSeconds(5));
+		subject.retrieveRoutesForAppId("other").block(Duration.ofSeconds(5));
+		subject.retrieveWebProcessesForAppId("dummy").block(Duration.ofSeconds(5));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveRoutesForAppIds(Set.of("dummy"));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveRoutesForAppIds(Set.of("other"));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveWebProcessesForAppIds(Set.of("dummy"));
+		
+		Assertions.assertEquals(Set.of("dummy"), subject.refreshApplication("dummy").block(Duration.ofSeconds(5)));
+		
+		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveRoutesForAppIds(Set.of("dummy"));
+		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveWebProcessesForAppIds(Set.of("dummy"));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveRoutesForAppIds(Set.of("other"));
+	}
+	
+	@Test
+	void testRefreshSpaceOnlyReloadsItsEntries() {
+		subject.retrieveAllApplicationsInSpaceV3("dummyOrg", "dummySpace").block(Duration.ofSeconds(5));
+		subject.retrieveAllApplicationsInSpaceV3("dummyOrg", "otherSpace").block(Duration.ofSeconds(5));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpacesV3(Set.of("dummyOrg"), Set.of("dummySpace"));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpacesV3(Set.of("dummyOrg"), Set.of("otherSpace"));
+		
+		subject.refreshSpace("dummySpace").block(Duration.ofSeconds(5));
+		
+		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveAllApplicationsInSpacesV3(Set.of("dummyOrg"), Set.of("dummySpace"));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpacesV3(Set.of("dummyOrg"), Set.of("otherSpace"));
+	}
+	
+	@Test
+	void testRefreshOrgIsCaseInsensitive() {
+		subject.retrieveOrgIdV3("dummyOrg").block(Duration.ofSeconds(5));
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdsV3(Set.of("dummyOrg"));
+		
+		subject.refreshOrg("DUMMYORG").block(Duration.ofSeconds(5));
+		
+		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveOrgIdsV3(Set.of("dummyOrg"));
+	}
+}
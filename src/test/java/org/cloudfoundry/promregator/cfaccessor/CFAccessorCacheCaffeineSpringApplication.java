@@ -7,6 +7,7 @@ import org.cloudfoundry.client.v3.Metadata;
 import org.cloudfoundry.client.v3.Relationship;
 import org.cloudfoundry.client.v3.ToOneRelationship;
 import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsResponse;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
 import org.cloudfoundry.client.v3.processes.HealthCheck;
 import org.cloudfoundry.client.v3.processes.HealthCheckType;
@@ -18,6 +19,7 @@ import org.cloudfoundry.client.v3.routes.Destination;
 import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
 import org.cloudfoundry.client.v3.routes.RouteRelationships;
 import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.GetSpaceResponse;
 import org.cloudfoundry.promregator.cfaccessor.client.InfoV3;
 import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
 import org.mockito.Mockito;
@@ -124,6 +126,36 @@ public class CFAccessorCacheCaffeineSpringApplication {
 			}).toList();
 			return Mono.just(ListProcessesResponse.builder().resources(list).build());
 		}
+
+		@Override
+		public Mono<ListApplicationsResponse> retrieveRecentlyUpdatedApplicationsV3(int count) {
+			return Mono.just(ListApplicationsResponse.builder().build());
+		}
+
+		@Override
+		public Mono<ListRoutesResponse> retrieveRecentlyUpdatedRoutesV3(int count) {
+			return Mono.just(ListRoutesResponse.builder().build());
+		}
+
+		@Override
+		public Mono<ListProcessesResponse> retrieveRecentlyUpdatedWebProcessesV3(int count) {
+			return Mono.just(ListProcessesResponse.builder().build());
+		}
+
+		@Override
+		public Mono<ListAuditEventsResponse> retrieveRecentAuditEventsV3(List<String> types, int count) {
+			return Mono.just(ListAuditEventsResponse.builder().build());
+		}
+
+		@Override
+		public Mono<ListApplicationsResponse> retrieveApplicationsByLabelSelectorV3(String labelSelector) {
+			return Mono.just(ListApplicationsResponse.builder().build());
+		}
+
+		@Override
+		public Mono<GetSpaceResponse> retrieveSpaceV3(String spaceId) {
+			return Mono.just(GetSpaceResponse.builder().id(spaceId).name(spaceId).createdAt("something").build());
+		}
 	}
 	
 	@Bean
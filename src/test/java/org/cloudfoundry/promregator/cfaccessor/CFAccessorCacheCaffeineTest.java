@@ -4,11 +4,29 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.cloudfoundry.client.v3.BuildpackData;
+import org.cloudfoundry.client.v3.Lifecycle;
+import org.cloudfoundry.client.v3.LifecycleType;
+import org.cloudfoundry.client.v3.Metadata;
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationRelationships;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ApplicationState;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse;
+import org.cloudfoundry.client.v3.organizations.OrganizationResource;
 import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
 import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v3.spaces.GetSpaceResponse;
 import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
+import org.cloudfoundry.client.v3.spaces.SpaceRelationships;
+import org.cloudfoundry.client.v3.spaces.SpaceResource;
 import org.cloudfoundry.promregator.JUnitTestUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -56,20 +74,111 @@ public class CFAccessorCacheCaffeineTest {
 	@Test
 	void testRetrieveOrgId() throws InterruptedException {
 		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response1 = subject.retrieveOrgIdV3("dummy");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveOrgIdsV3(Mockito.anySet());
 		
 		Thread.sleep(10);
 		
 		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response2 = subject.retrieveOrgIdV3("dummy");
 		assertThat(response1.block()).isEqualTo(response2.block());
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveOrgIdsV3(Mockito.anySet());
+	}
+
+	@Test
+	void testRetrieveOrgIdsAreAggregated() {
+		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response1 = subject.retrieveOrgIdV3("dummyA");
+		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response2 = subject.retrieveOrgIdV3("dummyB");
+		
+		assertThat(response1.block()).isNotNull();
+		assertThat(response2.block()).isNotNull();
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdsV3(Set.of("dummyA", "dummyB"));
+	}
+
+	private static OrganizationResource createOrg(String id, String name) {
+		return OrganizationResource.builder().id(id).name(name).createdAt("something").metadata(Metadata.builder().build()).build();
+	}
+
+	private static SpaceResource createSpace(String id, String name, String orgId) {
+		return SpaceResource.builder().id(id).name(name).createdAt("something").metadata(Metadata.builder().build())
+				.relationships(SpaceRelationships.builder()
+						.organization(ToOneRelationship.builder().data(Relationship.builder().id(orgId).build()).build())
+						.build())
+				.build();
+	}
+
+	private static ApplicationResource createApp(String id, String spaceId) {
+		return ApplicationResource.builder().id(id).name(id).createdAt("something").state(ApplicationState.STARTED)
+				.lifecycle(Lifecycle.builder().data(BuildpackData.builder().build()).type(LifecycleType.BUILDPACK).build())
+				.metadata(Metadata.builder().build())
+				.relationships(ApplicationRelationships.builder()
+						.space(ToOneRelationship.builder().data(Relationship.builder().id(spaceId).build()).build())
+						.build())
+				.build();
+	}
+
+	private static Set<String> idsOf(ListOrganizationsResponse response) {
+		return response.getResources().stream().map(OrganizationResource::getId).collect(Collectors.toSet());
+	}
+
+	private static Set<String> idsOf(ListSpacesResponse response) {
+		return response.getResources().stream().map(SpaceResource::getId).collect(Collectors.toSet());
+	}
+
+	private static Set<String> idsOf(ListApplicationsResponse response) {
+		return response.getResources().stream().map(ApplicationResource::getId).collect(Collectors.toSet());
+	}
+
+	@Test
+	void testRetrieveOrgIdsAreMatchedCaseInsensitively() {
+		Mockito.doReturn(Mono.just(ListOrganizationsResponse.builder().resources(createOrg("orgid1", "myorg"), createOrg("orgid2", "OtherOrg")).build()))
+			.when(this.parentMock).retrieveOrgIdsV3(Mockito.anySet());
+
+		Mono<ListOrganizationsResponse> response1 = subject.retrieveOrgIdV3("MyOrg");
+		Mono<ListOrganizationsResponse> response2 = subject.retrieveOrgIdV3("otherorg");
+
+		assertThat(idsOf(response1.block())).containsExactly("orgid1");
+		assertThat(idsOf(response2.block())).containsExactly("orgid2");
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdsV3(Set.of("MyOrg", "otherorg"));
+	}
+
+	@Test
+	void testRetrieveSpaceIdsAreDemultiplexed() {
+		// the platform responds with the cross product of the orgs and the names requested
+		Mockito.doReturn(Mono.just(ListSpacesResponse.builder().resources(
+				createSpace("space11", "space1", "org1"), createSpace("space12", "Space2", "org1"),
+				createSpace("space21", "space1", "org2"), createSpace("space22", "Space2", "org2")).build()))
+			.when(this.parentMock).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
+
+		Mono<ListSpacesResponse> response1 = subject.retrieveSpaceIdV3("org1", "space1");
+		Mono<ListSpacesResponse> response2 = subject.retrieveSpaceIdV3("org2", "space2");
+
+		assertThat(idsOf(response1.block())).containsExactly("space11");
+		assertThat(idsOf(response2.block())).containsExactly("space22");
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceIdsV3(Set.of("org1", "org2"), Set.of("space1", "space2"));
+
+		// spaces, which were not requested, have not been cached
+		assertThat(idsOf(subject.retrieveSpaceIdV3("org1", "space2").block())).containsExactly("space12");
+		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
+	}
+
+	@Test
+	void testRetrieveAllApplicationsInSpacesAreDemultiplexed() {
+		Mockito.doReturn(Mono.just(ListApplicationsResponse.builder().resources(
+				createApp("app1", "spaceA"), createApp("app2", "spaceB"), createApp("app3", "spaceB"), createApp("app4", "unrequestedSpace")).build()))
+			.when(this.parentMock).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
+
+		Mono<ListApplicationsResponse> response1 = subject.retrieveAllApplicationsInSpaceV3("orgA", "spaceA");
+		Mono<ListApplicationsResponse> response2 = subject.retrieveAllApplicationsInSpaceV3("orgB", "spaceB");
+
+		assertThat(idsOf(response1.block())).containsExactly("app1");
+		assertThat(idsOf(response2.block())).containsExactlyInAnyOrder("app2", "app3");
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpacesV3(Set.of("orgA", "orgB"), Set.of("spaceA", "spaceB"));
 	}
 
 	@Test
 	void testRetrieveSpaceId() {
 		
 		Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> response1 = subject.retrieveSpaceIdV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceIdV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
 		
 		Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> response2 = subject.retrieveSpaceIdV3("dummy1", "dummy2");
 		assertThat(response1.block()).isEqualTo(response2.block());
@@ -79,10 +188,10 @@ public class CFAccessorCacheCaffeineTest {
 	@Test
 	void testRetrieveAllApplicationIdsInSpace() {
 		subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
 		
 		subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
 	}
 
 	@Test
@@ -104,33 +213,54 @@ public class CFAccessorCacheCaffeineTest {
 	@Test
 	void testRetrieveOrgIdV3() throws InterruptedException {
 		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response1 = subject.retrieveOrgIdV3("dummy");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveOrgIdsV3(Mockito.anySet());
 
 		Thread.sleep(10);
 
 		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response2 = subject.retrieveOrgIdV3("dummy");
 		assertThat(response1.block()).isEqualTo(response2.block());
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveOrgIdsV3(Mockito.anySet());
 	}
 
 	@Test
 	void testRetrieveSpaceIdV3() {
 
 		Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> response1 = subject.retrieveSpaceIdV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceIdV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
 
 		Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> response2 = subject.retrieveSpaceIdV3("dummy1", "dummy2");
 		assertThat(response1.block()).isEqualTo(response2.block());
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceIdV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
 	}
 
 	@Test
 	void testRetrieveAllApplicationIdsInSpaceV3() {
 		subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
 
 		subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
+	}
+
+	@Test
+	void testRetrieveApplicationsInSpaceByNameV3() {
+		subject.retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app")).block();
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app"));
+
+		// once all applications of the space are cached, they are used instead
+		subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2").block();
+		subject.retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app")).block();
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app"));
+	}
+
+	@Test
+	void testRetrieveApplicationsInSpaceByNameV3IsCached() {
+		subject.retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app1", "app2")).block();
+		subject.retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app2", "app1")).block();
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app1", "app2"));
+
+		subject.retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app1")).block();
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveApplicationsInSpaceV3("dummy1", "dummy2", Set.of("app1"));
 	}
 
 	@Test
@@ -158,6 +288,16 @@ public class CFAccessorCacheCaffeineTest {
 		assertThat(response1.block()).isEqualTo(response2.block());
 		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceIdsInOrgV3("dummy");
 	}
+
+	@Test
+	void testRetrieveSpaceV3() {
+		Mono<GetSpaceResponse> response1 = subject.retrieveSpaceV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceV3("dummy");
+
+		Mono<GetSpaceResponse> response2 = subject.retrieveSpaceV3("dummy");
+		assertThat(response1.block()).isEqualTo(response2.block());
+		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceV3("dummy");
+	}
 	
 	@Test
 	void testRetrieveProcessesForApp() {
@@ -204,4 +344,19 @@ public class CFAccessorCacheCaffeineTest {
 		assertThat(response1.block()).isEqualTo(response2.block());
 		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveWebProcessesForAppIds(set); /* not cached */
 	}
+
+	@Test
+	void testRestoreSnapshot() {
+		ListOrganizationDomainsResponse domains = new CFAccessorMock().retrieveAllDomainsV3("dummy").block();
+		CFAccessorCacheSnapshot snapshot = new CFAccessorCacheSnapshot(null, null, null, null, Map.of("dummy", domains), null, null, null);
+		
+		assertThat(this.subject.restoreSnapshot(snapshot)).isEqualTo(1);
+		assertThat(this.subject.createSnapshot().domainsInOrg()).containsKey("dummy");
+		
+		// the entry restored is reloaded in the background
+		Mockito.verify(this.parentMock, Mockito.timeout(1000).times(1)).retrieveAllDomainsV3("dummy");
+		
+		// entries cached already are not overwritten
+		assertThat(this.subject.restoreSnapshot(snapshot)).isZero();
+	}
 }
@@ -54,6 +54,9 @@ public class CFAccessorCacheCaffeineTimeoutTest {
 		Mockito.when(this.parentMock.retrieveOrgIdV3("dummy")).then(new TimeoutMonoAnswer());
 		Mockito.when(this.parentMock.retrieveSpaceIdV3("dummy1", "dummy2")).then(new TimeoutMonoAnswer());
 		Mockito.when(this.parentMock.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2")).then(new TimeoutMonoAnswer());
+		Mockito.when(this.parentMock.retrieveOrgIdsV3(Mockito.anySet())).then(new TimeoutMonoAnswer());
+		Mockito.when(this.parentMock.retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet())).then(new TimeoutMonoAnswer());
+		Mockito.when(this.parentMock.retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet())).then(new TimeoutMonoAnswer());
 		Mockito.when(this.parentMock.retrieveAllDomainsV3("dummy")).then(new TimeoutMonoAnswer());
 		Mockito.when(this.parentMock.retrieveSpaceIdsInOrgV3("dummy")).then(new TimeoutMonoAnswer());
 		Mockito.when(this.parentMock.retrieveAllOrgIdsV3()).then(new TimeoutMonoAnswer());
@@ -79,47 +82,47 @@ public class CFAccessorCacheCaffeineTimeoutTest {
 	@Test
 	void testRetrieveOrgId() throws InterruptedException {
 		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response1 = subject.retrieveOrgIdV3("dummy");
-		response1.subscribe();
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveOrgIdV3("dummy");
+		response1.onErrorComplete().block(); // .subscribe() isn't sufficient here! We need to wait until we really know the result
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveOrgIdsV3(Mockito.anySet());
 		
 		// required to permit asynchronous updates of caches => test stability
 		Thread.sleep(10);
 		
 		Mono<org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse> response2 = subject.retrieveOrgIdV3("dummy");
-		response2.subscribe();
+		response2.onErrorComplete().block(); // .subscribe() isn't sufficient here! We need to wait until we really know the result
 		Assertions.assertNotEquals(response1, response2);
-		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveOrgIdV3("dummy");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(2)).retrieveOrgIdsV3(Mockito.anySet());
 	}
 
 	@Test
 	void testRetrieveSpaceId() throws InterruptedException {
 		
 		Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> response1 = subject.retrieveSpaceIdV3("dummy1", "dummy2");
-		response1.subscribe();
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveSpaceIdV3("dummy1", "dummy2");
+		response1.onErrorComplete().block(); // .subscribe() isn't sufficient here! We need to wait until we really know the result
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
 		
 		// required to permit asynchronous updates of caches => test stability
 		Thread.sleep(10);
 		
 		Mono<org.cloudfoundry.client.v3.spaces.ListSpacesResponse> response2 = subject.retrieveSpaceIdV3("dummy1", "dummy2");
-		response2.subscribe();
+		response2.onErrorComplete().block(); // .subscribe() isn't sufficient here! We need to wait until we really know the result
 		Assertions.assertNotEquals(response1, response2);
-		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveSpaceIdV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(2)).retrieveSpaceIdsV3(Mockito.anySet(), Mockito.anySet());
 	}
 
 	@Test
 	void testRetrieveAllApplicationIdsInSpace() throws InterruptedException {
 		Mono<ListApplicationsResponse> response1 = subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		response1.subscribe();
-		Mockito.verify(this.parentMock, Mockito.times(1)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		response1.onErrorComplete().block(); // .subscribe() isn't sufficient here! We need to wait until we really know the result
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(1)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
 		
 		// required to permit asynchronous updates of caches => test stability
 		Thread.sleep(10);
 		
 		Mono<ListApplicationsResponse> response2 = subject.retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
-		response2.subscribe();
+		response2.onErrorComplete().block(); // .subscribe() isn't sufficient here! We need to wait until we really know the result
 		Assertions.assertNotEquals(response1, response2);
-		Mockito.verify(this.parentMock, Mockito.times(2)).retrieveAllApplicationsInSpaceV3("dummy1", "dummy2");
+		Mockito.verify(this.parentMock, Mockito.timeout(500).times(2)).retrieveAllApplicationsInSpacesV3(Mockito.anySet(), Mockito.anySet());
 	}
 
 	@Test
@@ -16,6 +16,7 @@ import org.cloudfoundry.client.v3.ToOneRelationship;
 import org.cloudfoundry.client.v3.applications.ApplicationResource;
 import org.cloudfoundry.client.v3.applications.ApplicationState;
 import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsResponse;
 import org.cloudfoundry.client.v3.domains.DomainRelationships;
 import org.cloudfoundry.client.v3.domains.DomainResource;
 import org.cloudfoundry.client.v3.organizations.ListOrganizationDomainsResponse;
@@ -27,6 +28,8 @@ import org.cloudfoundry.client.v3.processes.ProcessResource;
 import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
 import org.cloudfoundry.client.v3.routes.RouteRelationships;
 import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.GetSpaceResponse;
+import org.cloudfoundry.client.v3.spaces.SpaceRelationships;
 import org.cloudfoundry.promregator.cfaccessor.client.InfoV3;
 import org.junit.jupiter.api.Assertions;
 
@@ -263,6 +266,48 @@ public class CFAccessorMassMock implements CFAccessor {
 		ListProcessesResponse resp = ListProcessesResponse.builder().resources(list).build();
 		return Mono.just(resp).delayElement(this.getSleepRandomDuration());
 	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveRecentlyUpdatedApplicationsV3(int count) {
+		return Mono.just(ListApplicationsResponse.builder().build());
+	}
+
+	@Override
+	public Mono<ListRoutesResponse> retrieveRecentlyUpdatedRoutesV3(int count) {
+		return Mono.just(ListRoutesResponse.builder().build());
+	}
+
+	@Override
+	public Mono<ListProcessesResponse> retrieveRecentlyUpdatedWebProcessesV3(int count) {
+		return Mono.just(ListProcessesResponse.builder().build());
+	}
+
+	@Override
+	public Mono<ListAuditEventsResponse> retrieveRecentAuditEventsV3(List<String> types, int count) {
+		return Mono.just(ListAuditEventsResponse.builder().build());
+	}
+
+	@Override
+	public Mono<ListApplicationsResponse> retrieveApplicationsByLabelSelectorV3(String labelSelector) {
+		return Mono.just(ListApplicationsResponse.builder().build()).delayElement(this.getSleepRandomDuration());
+	}
+
+	@Override
+	public Mono<GetSpaceResponse> retrieveSpaceV3(String spaceId) {
+		if (UNITTEST_SPACE_UUID.equals(spaceId)) {
+			GetSpaceResponse resp = GetSpaceResponse.builder()
+					.name("unittestspace")
+					.createdAt(CREATED_AT_TIMESTAMP)
+					.id(UNITTEST_SPACE_UUID)
+					.relationships(SpaceRelationships.builder()
+							.organization(ToOneRelationship.builder().data(Relationship.builder().id(UNITTEST_ORG_UUID).build()).build())
+							.build())
+					.build();
+			return Mono.just(resp).delayElement(this.getSleepRandomDuration());
+		}
+
+		Assertions.fail("Invalid space v3 request");
+		return null;
+	}
 	
 }
-
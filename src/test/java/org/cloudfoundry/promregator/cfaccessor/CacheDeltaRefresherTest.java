@@ -0,0 +1,136 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import org.cloudfoundry.client.v3.BuildpackData;
+import org.cloudfoundry.client.v3.Lifecycle;
+import org.cloudfoundry.client.v3.LifecycleType;
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationRelationships;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ApplicationState;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
+import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Mono;
+
+class CacheDeltaRefresherTest {
+
+	private CFAccessor cfAccessorMock;
+	private CFAccessorCache cfAccessorCacheMock;
+	private CacheDeltaRefresher subject;
+
+	private static ApplicationResource application(String id, String spaceId, String updatedAt) {
+		return ApplicationResource.builder()
+				.id(id)
+				.name(id)
+				.state(ApplicationState.STARTED)
+				.createdAt("2024-01-01T00:00:00Z")
+				.updatedAt(updatedAt)
+				.lifecycle(Lifecycle.builder().type(LifecycleType.BUILDPACK).data(BuildpackData.builder().build()).build())
+				.relationships(ApplicationRelationships.builder()
+						.space(ToOneRelationship.builder().data(Relationship.builder().id(spaceId).build()).build())
+						.build())
+				.build();
+	}
+
+	private void respondWithApplications(ApplicationResource... apps) {
+		Mockito.when(this.cfAccessorMock.retrieveRecentlyUpdatedApplicationsV3(Mockito.anyInt()))
+			.thenReturn(Mono.just(ListApplicationsResponse.builder().resources(apps).build()));
+	}
+
+	@BeforeEach
+	void setUp() {
+		this.cfAccessorMock = Mockito.mock(CFAccessor.class);
+		this.cfAccessorCacheMock = Mockito.mock(CFAccessorCache.class);
+
+		Mockito.when(this.cfAccessorMock.retrieveRecentlyUpdatedRoutesV3(Mockito.anyInt()))
+			.thenReturn(Mono.just(ListRoutesResponse.builder().build()));
+		Mockito.when(this.cfAccessorMock.retrieveRecentlyUpdatedWebProcessesV3(Mockito.anyInt()))
+			.thenReturn(Mono.just(ListProcessesResponse.builder().build()));
+
+		Mockito.when(this.cfAccessorCacheMock.refreshApplicationsInSpace(Mockito.anyString())).thenReturn(Mono.empty());
+
+		this.subject = new CacheDeltaRefresher();
+		ReflectionTestUtils.setField(this.subject, "mainCFAccessor", this.cfAccessorMock);
+		ReflectionTestUtils.setField(this.subject, "cfAccessorCache", this.cfAccessorCacheMock);
+		ReflectionTestUtils.setField(this.subject, "enabled", true);
+		ReflectionTestUtils.setField(this.subject, "pageSize", 3);
+	}
+
+	@Test
+	void testFirstCheckOnlyRecordsState() {
+		this.respondWithApplications(application("app1", "space1", "2024-01-02T00:00:00Z"));
+
+		this.subject.refreshChanges().block();
+
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshApplicationsInSpace(Mockito.anyString());
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshCacheApplication();
+	}
+
+	@Test
+	void testChangedApplicationsRefreshTheirSpaces() {
+		this.respondWithApplications(
+				application("app1", "space1", "2024-01-02T00:00:00Z"),
+				application("app2", "space2", "2024-01-01T00:00:00Z"));
+		this.subject.refreshChanges().block();
+
+		this.respondWithApplications(
+				application("app3", "space3", "2024-01-03T00:00:00Z"),
+				application("app4", "space3", "2024-01-03T00:00:00Z"),
+				application("app1", "space1", "2024-01-02T00:00:00Z"));
+		this.subject.refreshChanges().block();
+
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.times(1)).refreshApplicationsInSpace("space3");
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshApplicationsInSpace("space1");
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshCacheApplication();
+
+		// nothing changed since
+		this.subject.refreshChanges().block();
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.times(1)).refreshApplicationsInSpace("space3");
+	}
+
+	@Test
+	void testUpdateInSameSecondIsDetected() {
+		this.respondWithApplications(application("app1", "space1", "2024-01-02T00:00:00Z"));
+		this.subject.refreshChanges().block();
+
+		this.respondWithApplications(
+				application("app2", "space2", "2024-01-02T00:00:00Z"),
+				application("app1", "space1", "2024-01-02T00:00:00Z"));
+		this.subject.refreshChanges().block();
+
+		Mockito.verify(this.cfAccessorCacheMock).refreshApplicationsInSpace("space2");
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshApplicationsInSpace("space1");
+	}
+
+	@Test
+	void testTooManyChangesRefreshWholeCache() {
+		this.respondWithApplications(application("app1", "space1", "2024-01-02T00:00:00Z"));
+		this.subject.refreshChanges().block();
+
+		this.respondWithApplications(
+				application("app2", "space2", "2024-01-05T00:00:00Z"),
+				application("app3", "space3", "2024-01-04T00:00:00Z"),
+				application("app4", "space4", "2024-01-03T00:00:00Z"));
+		this.subject.refreshChanges().block();
+
+		Mockito.verify(this.cfAccessorCacheMock).refreshCacheApplication();
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshApplicationsInSpace(Mockito.anyString());
+	}
+
+	@Test
+	void testFailingRequestDoesNotFailCheck() {
+		Mockito.when(this.cfAccessorMock.retrieveRecentlyUpdatedApplicationsV3(Mockito.anyInt()))
+			.thenReturn(Mono.error(new UnsupportedOperationException()));
+
+		this.subject.refreshChanges().block();
+
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshApplicationsInSpace(Mockito.anyString());
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshCacheApplication();
+	}
+}
@@ -0,0 +1,123 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.util.List;
+
+import org.cloudfoundry.client.v3.BuildpackData;
+import org.cloudfoundry.client.v3.Lifecycle;
+import org.cloudfoundry.client.v3.LifecycleType;
+import org.cloudfoundry.client.v3.Link;
+import org.cloudfoundry.client.v3.Metadata;
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationRelationships;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ApplicationState;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.routes.Application;
+import org.cloudfoundry.client.v3.routes.Destination;
+import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v3.routes.RouteRelationships;
+import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CacheEntryCompactorTest {
+
+	private static ApplicationResource application(String id, String name) {
+		return ApplicationResource.builder()
+				.id(id)
+				.name(name)
+				.state(ApplicationState.STARTED)
+				.createdAt("2024-01-01T00:00:00Z")
+				.updatedAt("2024-01-02T00:00:00Z")
+				.lifecycle(Lifecycle.builder().type(LifecycleType.BUILDPACK).data(BuildpackData.builder().buildpack("java_buildpack").stack("cflinuxfs4").build()).build())
+				.metadata(Metadata.builder()
+						.annotation("prometheus.io/scrape", "true")
+						.label("team", "a-team")
+						.build())
+				.relationships(ApplicationRelationships.builder()
+						.space(ToOneRelationship.builder().data(Relationship.builder().id(new String("space-id")).build()).build())
+						.build())
+				.link("self", Link.builder().href("https://api.example.org/v3/apps/" + id).build())
+				.build();
+	}
+
+	@Test
+	void testApplicationsKeepDataBeingRead() {
+		CacheEntryCompactor subject = new CacheEntryCompactor();
+
+		ListApplicationsResponse response = ListApplicationsResponse.builder()
+				.resources(application("app-id", "app-name"))
+				.build();
+
+		ListApplicationsResponse compacted = subject.compactApplications(response);
+		Assertions.assertEquals(1, compacted.getResources().size());
+
+		ApplicationResource app = compacted.getResources().get(0);
+		Assertions.assertEquals("app-id", app.getId());
+		Assertions.assertEquals("app-name", app.getName());
+		Assertions.assertEquals(ApplicationState.STARTED, app.getState());
+		Assertions.assertEquals("true", app.getMetadata().getAnnotations().get("prometheus.io/scrape"));
+		Assertions.assertEquals("space-id", app.getRelationships().getSpace().getData().getId());
+
+		// data not read by Promregator is dropped
+		Assertions.assertNull(app.getUpdatedAt());
+		Assertions.assertTrue(app.getLinks().isEmpty());
+		Assertions.assertTrue(app.getMetadata().getLabels() == null || app.getMetadata().getLabels().isEmpty());
+	}
+
+	@Test
+	void testRepeatedValuesAreShared() {
+		CacheEntryCompactor subject = new CacheEntryCompactor();
+
+		ListApplicationsResponse response = ListApplicationsResponse.builder()
+				.resources(application("app-id1", "app-name1"), application("app-id2", "app-name2"))
+				.build();
+
+		List<ApplicationResource> apps = subject.compactApplications(response).getResources();
+		Assertions.assertSame(apps.get(0).getRelationships().getSpace(), apps.get(1).getRelationships().getSpace());
+		Assertions.assertSame(apps.get(0).getMetadata(), apps.get(1).getMetadata());
+	}
+
+	@Test
+	void testRoutesKeepUrlAndDomain() {
+		CacheEntryCompactor subject = new CacheEntryCompactor();
+
+		ListRoutesResponse response = ListRoutesResponse.builder()
+				.resource(RouteResource.builder()
+						.id("route-id")
+						.createdAt("2024-01-01T00:00:00Z")
+						.host("host")
+						.path("/path")
+						.url("host.example.org/path")
+						.relationships(RouteRelationships.builder()
+								.domain(ToOneRelationship.builder().data(Relationship.builder().id("domain-id").build()).build())
+								.space(ToOneRelationship.builder().data(Relationship.builder().id("space-id").build()).build())
+								.build())
+						.destination(Destination.builder().application(Application.builder().applicationId("app-id").build()).build())
+						.build())
+				.build();
+
+		RouteResource route = subject.compactRoutes(response).getResources().get(0);
+		Assertions.assertEquals("host.example.org/path", route.getUrl());
+		Assertions.assertEquals("domain-id", route.getRelationships().getDomain().getData().getId());
+		Assertions.assertTrue(route.getDestinations() == null || route.getDestinations().isEmpty());
+	}
+
+	@Test
+	void testEstimateSize() {
+		CacheEntryCompactor subject = new CacheEntryCompactor();
+
+		ListApplicationsResponse empty = subject.compactApplications(ListApplicationsResponse.builder().build());
+		ListApplicationsResponse one = subject.compactApplications(ListApplicationsResponse.builder()
+				.resources(application("app-id1", "app-name1"))
+				.build());
+		ListApplicationsResponse two = subject.compactApplications(ListApplicationsResponse.builder()
+				.resources(application("app-id1", "app-name1"), application("app-id2", "app-name2"))
+				.build());
+
+		Assertions.assertTrue(subject.estimateSize(empty) > 0);
+		Assertions.assertTrue(subject.estimateSize(one) > subject.estimateSize(empty));
+		Assertions.assertTrue(subject.estimateSize(two) > subject.estimateSize(one));
+	}
+}
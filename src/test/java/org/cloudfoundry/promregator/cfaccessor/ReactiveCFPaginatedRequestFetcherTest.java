@@ -2,7 +2,11 @@ package org.cloudfoundry.promregator.cfaccessor;
 
 import java.time.Duration;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.cloudfoundry.client.v2.organizations.ListOrganizationsRequest;
 import org.cloudfoundry.client.v2.organizations.ListOrganizationsResponse;
@@ -18,6 +22,7 @@ import com.google.common.util.concurrent.RateLimiter;
 
 import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 public class ReactiveCFPaginatedRequestFetcherTest {
 
@@ -414,6 +419,90 @@ public class ReactiveCFPaginatedRequestFetcherTest {
 		Assertions.assertEquals(fallback, subjectResponse);
 	}
 
+	@Test
+	public void testPagedRetrievalV3KeepsOrderOfPages() {
+		ReactiveCFPaginatedRequestFetcher subject = new ReactiveCFPaginatedRequestFetcher(this.internalMetricsMocked, 0, Duration.ofMillis(100));
+
+		org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse subjectResponse = subject
+			.performGenericPagedRetrievalV3(RequestType.OTHER, "nokey", requestGeneratorV3, request -> {
+				final int page = request.getPage();
+				org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse response = org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse
+					.builder()
+					.resource(org.cloudfoundry.client.v3.organizations.OrganizationResource.builder().createdAt("").id("id" + page).metadata(Metadata.builder().build()).name("").build())
+					.pagination(Pagination.builder().totalPages(3).totalResults(3).build())
+					.build();
+
+				// later pages arrive earlier
+				return Mono.just(response).delayElement(Duration.ofMillis(50L * (4 - page)));
+			}, 1000, responseGeneratorV3).block();
+
+		List<String> ids = subjectResponse.getResources().stream().map(org.cloudfoundry.client.v3.organizations.OrganizationResource::getId).toList();
+		Assertions.assertEquals(List.of("id1", "id2", "id3"), ids);
+	}
+
+	@Test
+	public void testResultsPerPageV3IsConfigurable() {
+		ReactiveCFPaginatedRequestFetcher subject = new ReactiveCFPaginatedRequestFetcher(this.internalMetricsMocked, new ReactiveRateLimiter(null, 0, Map.of()),
+				AdaptiveConcurrencyLimiter.disabled(), 5000, Duration.ofMillis(100));
+
+		AtomicInteger requestedPerPage = new AtomicInteger();
+		org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse subjectResponse = subject
+			.performGenericPagedRetrievalV3(RequestType.OTHER, "nokey", requestGeneratorV3, request -> {
+				requestedPerPage.set(request.getPerPage());
+				return Mono.just(org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse.builder()
+					.pagination(Pagination.builder().totalPages(1).totalResults(0).build())
+					.build());
+			}, 100, responseGeneratorV3).block();
+
+		Assertions.assertEquals(5000, requestedPerPage.get());
+		Assertions.assertEquals(1, subjectResponse.getPagination().getTotalPages().intValue());
+		Assertions.assertEquals(0, subjectResponse.getResources().size());
+	}
+
+	@Test
+	public void testIdenticalRequestsInFlightAreCollapsed() {
+		ReactiveCFPaginatedRequestFetcher subject = new ReactiveCFPaginatedRequestFetcher(this.internalMetricsMocked, Double.MAX_VALUE, Duration
+			.ofMillis(100));
+
+		AtomicInteger requestsSent = new AtomicInteger(0);
+		Sinks.One<String> response = Sinks.one();
+		Function<String, Mono<String>> requestFunction = request -> response.asMono().doOnSubscribe(s -> requestsSent.incrementAndGet());
+
+		Mono<String> first = subject.performGenericRetrieval(RequestType.OTHER, "key", "request", requestFunction, 5000);
+		Mono<String> second = subject.performGenericRetrieval(RequestType.OTHER, "key", "request", requestFunction, 5000);
+		first.subscribe();
+		second.subscribe();
+
+		Assertions.assertEquals(1, requestsSent.get());
+		Assertions.assertEquals(1, subject.getInFlightCount());
+		Mockito.verify(this.internalMetricsMocked).countCollapsedCFFetch(RequestType.OTHER.getMetricName());
+
+		response.tryEmitValue("response");
+
+		Assertions.assertEquals("response", first.block());
+		Assertions.assertEquals("response", second.block());
+		Assertions.assertEquals(0, subject.getInFlightCount());
+
+		// once the request has terminated, a new request is sent
+		subject.performGenericRetrieval(RequestType.OTHER, "key", "request", requestFunction, 5000).block();
+		Assertions.assertEquals(2, requestsSent.get());
+	}
+
+	@Test
+	public void testDifferentRequestsAreNotCollapsed() {
+		ReactiveCFPaginatedRequestFetcher subject = new ReactiveCFPaginatedRequestFetcher(this.internalMetricsMocked, Double.MAX_VALUE, Duration
+			.ofMillis(100));
+
+		AtomicInteger requestsSent = new AtomicInteger(0);
+		Function<String, Mono<String>> requestFunction = request -> Mono.<String>never().doOnSubscribe(s -> requestsSent.incrementAndGet());
+
+		subject.performGenericRetrieval(RequestType.OTHER, "key", "page1", requestFunction, 5000).subscribe();
+		subject.performGenericRetrieval(RequestType.OTHER, "key", "page2", requestFunction, 5000).subscribe();
+
+		Assertions.assertEquals(2, requestsSent.get());
+		Assertions.assertEquals(2, subject.getInFlightCount());
+	}
+
 	@Test
 	public void testInfiniteRateLimitPossible() {
 		RateLimiter rl = RateLimiter.create(Double.POSITIVE_INFINITY);
@@ -0,0 +1,100 @@
+package org.cloudfoundry.promregator.cfaccessor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.Disposable;
+
+class ReactiveRateLimiterTest {
+
+	@Test
+	void testUnlimitedDoesNotWait() {
+		ReactiveRateLimiter subject = new ReactiveRateLimiter(null, 0, Map.of());
+		Assertions.assertTrue(subject.isUnlimited());
+
+		for (int i = 0; i < 1000; i++) {
+			Assertions.assertTimeoutPreemptively(Duration.ofMillis(100), () -> subject.acquire(RequestType.ORG).block());
+		}
+	}
+
+	@Test
+	void testRequestsBeyondBurstAreDelayedWithoutBlocking() {
+		ReactiveRateLimiter subject = new ReactiveRateLimiter(null, 10, Map.of());
+
+		// the burst capacity is one second's worth of requests
+		for (int i = 0; i < 10; i++) {
+			subject.acquire(RequestType.ORG).block();
+		}
+
+		AtomicBoolean permitted = new AtomicBoolean(false);
+		// subscribing must not block the calling thread
+		Disposable disposable = subject.acquire(RequestType.ORG).doOnSuccess(x -> permitted.set(true)).subscribe();
+		Assertions.assertFalse(permitted.get());
+		Assertions.assertEquals(1, subject.getQueueSize());
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+			while (!permitted.get()) {
+				Thread.sleep(10);
+			}
+		});
+		Assertions.assertEquals(0, subject.getQueueSize());
+		disposable.dispose();
+	}
+
+	@Test
+	void testCancelledRequestsAreRemoved() {
+		ReactiveRateLimiter subject = new ReactiveRateLimiter(null, 1, Map.of());
+		subject.acquire(RequestType.ORG).block();
+
+		Disposable disposable = subject.acquire(RequestType.ORG).subscribe();
+		Assertions.assertEquals(1, subject.getQueueSize());
+
+		disposable.dispose();
+		Assertions.assertEquals(0, subject.getQueueSize());
+	}
+
+	@Test
+	void testInteractiveRequestsArePreferred() {
+		ReactiveRateLimiter subject = new ReactiveRateLimiter(null, 5, Map.of());
+		for (int i = 0; i < 5; i++) {
+			subject.acquire(RequestType.ORG).block();
+		}
+
+		List<RequestPriority> order = new CopyOnWriteArrayList<>();
+		subject.acquire(RequestType.ORG)
+			.doOnSuccess(x -> order.add(RequestPriority.BACKGROUND))
+			.contextWrite(RequestPriority.BACKGROUND.asContext())
+			.subscribe();
+		subject.acquire(RequestType.ORG)
+			.doOnSuccess(x -> order.add(RequestPriority.INTERACTIVE))
+			.subscribe();
+
+		Assertions.assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+			while (order.size() < 2) {
+				Thread.sleep(10);
+			}
+		});
+		Assertions.assertEquals(List.of(RequestPriority.INTERACTIVE, RequestPriority.BACKGROUND), order);
+	}
+
+	@Test
+	void testExhaustedTypeDoesNotBlockOtherTypes() {
+		ReactiveRateLimiter subject = new ReactiveRateLimiter(null, 0, Map.of(RequestType.ROUTES, 1.0));
+		Assertions.assertFalse(subject.isUnlimited());
+
+		subject.acquire(RequestType.ROUTES).block();
+
+		AtomicBoolean routesPermitted = new AtomicBoolean(false);
+		Disposable disposable = subject.acquire(RequestType.ROUTES).doOnSuccess(x -> routesPermitted.set(true)).subscribe();
+
+		Assertions.assertTimeoutPreemptively(Duration.ofMillis(100), () -> subject.acquire(RequestType.PROCESSES).block());
+		Assertions.assertFalse(routesPermitted.get());
+		disposable.dispose();
+	}
+}
@@ -7,12 +7,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 class RequestAggregatorTest {
 
@@ -202,4 +204,76 @@ class RequestAggregatorTest {
 		}
 	}
 
+	private static class ReqeuestAggregatorWithLongCheckInterval extends RequestAggregator<Integer, String> {
+		
+		private final AtomicInteger requestsSent = new AtomicInteger(0);
+		
+		private final Sinks.One<String> firstResponse = Sinks.one();
+
+		public ReqeuestAggregatorWithLongCheckInterval() {
+			super(RequestAggregator.Type.OTHER, null, Integer.class, String.class, 60000, 2, 1);
+		}
+
+		@Override
+		protected Mono<String> sendRequest(Set<Integer> block) {
+			List<String> stringList = block.stream().map(i -> i+"").toList();
+			final String response = String.join(",", stringList);
+			
+			if (this.requestsSent.incrementAndGet() == 1) {
+				// the first response is only provided on request of the test
+				return this.firstResponse.asMono().map(s -> response);
+			}
+			
+			return Mono.just(response);
+		}
+
+		@Override
+		protected Map<Integer, String> determineMapOfResponses(String response) {
+			Map<Integer, String> result = new HashMap<>();
+			List.of(response.split(",")).forEach(s -> result.put(Integer.parseInt(s), s));
+			return result;
+		}
+		
+	}
+	
+	@Test
+	void testFullBlockIsSentWithoutWaitingAndInFlightLimitIsRespected() throws InterruptedException, ExecutionException {
+		// for debugging: Awaitility.setDefaultTimeout(Duration.ofMinutes(5));
+		Awaitility.setDefaultPollInterval(Duration.ofMillis(10));
+		
+		ReqeuestAggregatorWithLongCheckInterval subject = new ReqeuestAggregatorWithLongCheckInterval();
+
+		try {
+			final CompletableFuture<String> future1 = new CompletableFuture<>();
+			subject.addToQueue(1, future1);
+			final CompletableFuture<String> future2 = new CompletableFuture<>();
+			subject.addToQueue(2, future2);
+			
+			// the block is full: it must be sent without waiting for the check interval to expire
+			Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> subject.requestsSent.get() == 1);
+			
+			final CompletableFuture<String> future3 = new CompletableFuture<>();
+			subject.addToQueue(3, future3);
+			final CompletableFuture<String> future4 = new CompletableFuture<>();
+			subject.addToQueue(4, future4);
+			
+			// the second block is full, too, but only one block may be in flight
+			Thread.sleep(200);
+			Assertions.assertEquals(1, subject.requestsSent.get());
+			Assertions.assertFalse(future3.isDone());
+			
+			subject.firstResponse.tryEmitValue("ignored");
+			
+			Awaitility.await().atMost(Duration.ofSeconds(5)).until(future4::isDone);
+			Assertions.assertEquals(2, subject.requestsSent.get());
+			
+			Assertions.assertEquals("1", future1.get());
+			Assertions.assertEquals("2", future2.get());
+			Assertions.assertEquals("3", future3.get());
+			Assertions.assertEquals("4", future4.get());
+		} finally {
+			subject.stop();
+		}
+	}
+
 }
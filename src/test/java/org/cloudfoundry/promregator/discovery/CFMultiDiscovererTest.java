@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest(classes = CFDiscovererTestSpringApplication.class)
@@ -140,4 +141,60 @@ public class CFMultiDiscovererTest implements MessageSubscriber {
 	}
 
 
+	@Test
+	@DirtiesContext // instances registered would interfere with the cleanup test
+	void testLookupInstanceFromIndex() {
+		List<ResolvedTarget> resolvedTargets = new ArrayList<>();
+		ResolvedTarget aTarget = new ResolvedTarget();
+		aTarget.setOrgName("unittestorg");
+		aTarget.setSpaceName("unittestspace");
+		aTarget.setApplicationName("testapp");
+		aTarget.setApplicationId(CFAccessorMock.UNITTEST_APP1_UUID);
+		aTarget.setProtocol("https");
+		aTarget.setPath("/metrics");
+		aTarget.setOriginalTarget(new Target());
+		resolvedTargets.add(aTarget);
+		when(targetResolver.resolveTargets(any())).thenReturn(resolvedTargets);
+
+		// a full discovery builds the index
+		List<Instance> result = this.cfDiscoverer.discover(null, null);
+		Assertions.assertEquals(2, result.size());
+		
+		// from now on, the target resolver shall not be asked anymore
+		when(targetResolver.resolveTargets(any())).thenReturn(null);
+		
+		Instance instance = this.cfDiscoverer.lookupInstance(CFAccessorMock.UNITTEST_APP1_UUID, CFAccessorMock.UNITTEST_APP1_UUID+":1");
+		Assertions.assertNotNull(instance);
+		Assertions.assertEquals(CFAccessorMock.UNITTEST_APP1_UUID+":1", instance.getInstanceId());
+		Assertions.assertEquals("https://hostapp1.shared.domain.example.org/metrics", instance.getAccessUrl());
+		Assertions.assertTrue(this.cfDiscoverer.isInstanceRegistered(instance));
+		
+		// unknown instances fall back to discovery
+		Assertions.assertNull(this.cfDiscoverer.lookupInstance(CFAccessorMock.UNITTEST_APP1_UUID, CFAccessorMock.UNITTEST_APP1_UUID+":2"));
+	}
+
+	@Test
+	@DirtiesContext // instances registered would interfere with the cleanup test
+	void testLookupInstanceNotInIndex() {
+		List<ResolvedTarget> resolvedTargets = new ArrayList<>();
+		ResolvedTarget aTarget = new ResolvedTarget();
+		aTarget.setOrgName("unittestorg");
+		aTarget.setSpaceName("unittestspace");
+		aTarget.setApplicationName("testapp2");
+		aTarget.setApplicationId(CFAccessorMock.UNITTEST_APP2_UUID);
+		aTarget.setProtocol("https");
+		aTarget.setPath("/metrics");
+		aTarget.setOriginalTarget(new Target());
+		resolvedTargets.add(aTarget);
+		when(targetResolver.resolveTargets(any())).thenReturn(resolvedTargets);
+		
+		Instance instance = this.cfDiscoverer.lookupInstance(CFAccessorMock.UNITTEST_APP2_UUID, CFAccessorMock.UNITTEST_APP2_UUID+":0");
+		Assertions.assertNotNull(instance);
+		Assertions.assertEquals(CFAccessorMock.UNITTEST_APP2_UUID+":0", instance.getInstanceId());
+		
+		// the instance found has been added to the index
+		when(targetResolver.resolveTargets(any())).thenReturn(null);
+		Assertions.assertSame(instance, this.cfDiscoverer.lookupInstance(CFAccessorMock.UNITTEST_APP2_UUID, CFAccessorMock.UNITTEST_APP2_UUID+":0"));
+	}
+
 }
@@ -0,0 +1,103 @@
+package org.cloudfoundry.promregator.endpoint;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.cloudfoundry.promregator.JUnitTestUtils;
+import org.cloudfoundry.promregator.fetcher.FetchResult;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import io.prometheus.client.exporter.common.TextFormat;
+
+@SpringBootTest(classes = MockedMetricsEndpointSpringApplication.class)
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(locations="default.properties", properties = {
+		"promregator.scraping.async.enabled=true",
+		"promregator.scraping.maxProcessingTime=500"
+})
+@ActiveProfiles("SingleTargetMetricsEndpointTest")
+class AsyncSingleTargetMetricsEndpointTest {
+	
+	private static final String PATH = EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"_test/{applicationId}/{instanceNumber}";
+
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@AfterEach
+	void resetMocks() {
+		Mockito.reset(MockedMetricsEndpointSpringApplication.mockedHttpServletRequest);
+		TestableSingleTargetMetricsEndpoint.metricsFetcherFactory = null;
+	}
+	
+	@AfterAll
+	static void cleanupEnvironment() {
+		JUnitTestUtils.cleanUpAll();
+	}
+	
+	@Test
+	void testMetricsAreProvidedAsynchronously() throws Exception {
+		MvcResult mvcResult = this.mockMvc.perform(get(PATH, "faedbb0a-2273-4cb4-a659-bd31331f7daf", "0"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		this.mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, TextFormat.CONTENT_TYPE_OPENMETRICS_100))
+				.andExpect(content().string(Matchers.containsString("metric_unittestapp{")))
+				.andExpect(content().string(Matchers.containsString("promregator_scrape_duration_seconds")));
+	}
+	
+	@Test
+	void testTimeoutProvidesOwnMetricsOnly() throws Exception {
+		TestableSingleTargetMetricsEndpoint.metricsFetcherFactory = (instance, up, streamSink) -> () -> {
+			Thread.sleep(1000);
+			return new FetchResult("metric_too_late 1.0\n", TextFormat.CONTENT_TYPE_004);
+		};
+		
+		MvcResult mvcResult = this.mockMvc.perform(get(PATH, "faedbb0a-2273-4cb4-a659-bd31331f7daf", "1"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		this.mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isOk())
+				.andExpect(content().string(Matchers.not(Matchers.containsString("metric_too_late"))))
+				.andExpect(content().string(Matchers.containsString("promregator_scrape_duration_seconds")));
+	}
+	
+	@Test
+	void testUnknownInstanceIsRejected() throws Exception {
+		MvcResult mvcResult = this.mockMvc.perform(get(PATH, "0000", "0"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		this.mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isNotFound())
+				.andExpect(content().string(Matchers.containsString("Unable to determine a unique instance to scrape")));
+	}
+	
+	@Test
+	void testInvalidInstanceNumberIsRejected() throws Exception {
+		MvcResult mvcResult = this.mockMvc.perform(get(PATH, "faedbb0a-2273-4cb4-a659-bd31331f7daf", "abc"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		
+		this.mockMvc.perform(asyncDispatch(mvcResult))
+				.andExpect(status().isBadRequest());
+	}
+}
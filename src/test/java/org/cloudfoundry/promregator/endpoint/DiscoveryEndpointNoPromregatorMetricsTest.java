@@ -3,17 +3,20 @@ package org.cloudfoundry.promregator.endpoint;
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.cloudfoundry.promregator.JUnitTestUtils;
-import org.cloudfoundry.promregator.endpoint.DiscoveryEndpoint.DiscoveryLabel;
-import org.cloudfoundry.promregator.endpoint.DiscoveryEndpoint.DiscoveryResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 
 @SpringBootTest(classes = MockedMetricsEndpointSpringApplication.class)
 @TestPropertySource(locations="no_promregator_metrics.properties")
@@ -28,53 +31,59 @@ public class DiscoveryEndpointNoPromregatorMetricsTest {
 	}
 	
 	@Test
-	void testStraightForward() {
+	void testStraightForward() throws JsonProcessingException {
 		HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
 		
-		ResponseEntity<DiscoveryResponse[]> responseEntity = this.subject.getDiscovery(requestMock);
-		DiscoveryResponse[] response = responseEntity.getBody();
-		
-		Assertions.assertEquals(3, response.length);
+		JsonNode response = readDiscoveryDocument(this.subject.getDiscoveryDocument(requestMock));
 		
-		Assertions.assertEquals(1, response[0].getTargets().length);
-		Assertions.assertEquals("discovery-hostname:1234", response[0].getTargets()[0]);
+		Assertions.assertEquals(3, response.size());
 		
-		Assertions.assertEquals(1, response[1].getTargets().length);
-		Assertions.assertEquals("discovery-hostname:1234", response[1].getTargets()[0]);
+		Assertions.assertEquals(1, response.get(0).get("targets").size());
+		Assertions.assertEquals("discovery-hostname:1234", response.get(0).get("targets").get(0).asText());
 		
-		Assertions.assertEquals(1, response[2].getTargets().length);
-		Assertions.assertEquals("discovery-hostname:1234", response[2].getTargets()[0]);
+		Assertions.assertEquals(1, response.get(1).get("targets").size());
+		Assertions.assertEquals("discovery-hostname:1234", response.get(1).get("targets").get(0).asText());
 		
-		DiscoveryLabel label = null;
+		Assertions.assertEquals(1, response.get(2).get("targets").size());
+		Assertions.assertEquals("discovery-hostname:1234", response.get(2).get("targets").get(0).asText());
 		
-		label = response[0].getLabels();
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label.getApplicationId());
-		Assertions.assertEquals("unittestapp", label.getApplicationName());
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:0", label.getInstanceId());
-		Assertions.assertEquals("0", label.getInstanceNumber());
-		Assertions.assertEquals("unittestorg", label.getOrgName());
-		Assertions.assertEquals("unittestspace", label.getSpaceName());
-		Assertions.assertEquals("/singleTargetMetrics/faedbb0a-2273-4cb4-a659-bd31331f7daf/0", label.getTargetPath());
+		JsonNode entry = response.get(0);
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals("unittestapp", label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:0", label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals("0", label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals("unittestorg", label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals("unittestspace", label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals("/singleTargetMetrics/faedbb0a-2273-4cb4-a659-bd31331f7daf/0", label(entry, "__meta_promregator_target_path"));
 
-		label = response[1].getLabels();
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label.getApplicationId());
-		Assertions.assertEquals("unittestapp", label.getApplicationName());
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:1", label.getInstanceId());
-		Assertions.assertEquals("1", label.getInstanceNumber());
-		Assertions.assertEquals("unittestorg", label.getOrgName());
-		Assertions.assertEquals("unittestspace", label.getSpaceName());
-		Assertions.assertEquals("/singleTargetMetrics/faedbb0a-2273-4cb4-a659-bd31331f7daf/1", label.getTargetPath());
+		entry = response.get(1);
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals("unittestapp", label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:1", label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals("1", label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals("unittestorg", label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals("unittestspace", label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals("/singleTargetMetrics/faedbb0a-2273-4cb4-a659-bd31331f7daf/1", label(entry, "__meta_promregator_target_path"));
 
-		label = response[2].getLabels();
-		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300", label.getApplicationId());
-		Assertions.assertEquals("unittestapp2", label.getApplicationName());
-		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300:0", label.getInstanceId());
-		Assertions.assertEquals("0", label.getInstanceNumber());
-		Assertions.assertEquals("unittestorg", label.getOrgName());
-		Assertions.assertEquals("unittestspace", label.getSpaceName());
-		Assertions.assertEquals("/singleTargetMetrics/1142a717-e27d-4028-89d8-b42a0c973300/0", label.getTargetPath());
+		entry = response.get(2);
+		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300", label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals("unittestapp2", label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300:0", label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals("0", label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals("unittestorg", label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals("unittestspace", label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals("/singleTargetMetrics/1142a717-e27d-4028-89d8-b42a0c973300/0", label(entry, "__meta_promregator_target_path"));
 
-		// NB: /promregatorMetrics endpoint must not be mentioned here (that's checked with Assertions.assertEquals(3, response.length); )
+		// NB: /promregatorMetrics endpoint must not be mentioned here (that's checked with Assertions.assertEquals(3, response.size()); )
 	}
 
+	private static JsonNode readDiscoveryDocument(ResponseEntity<String> responseEntity) throws JsonProcessingException {
+		Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+		return new ObjectMapper().readTree(responseEntity.getBody());
+	}
+	
+	private static String label(JsonNode entry, String name) {
+		JsonNode value = entry.get("labels").get(name);
+		return value == null || value.isNull() ? null : value.asText();
+	}
 }
@@ -3,8 +3,6 @@ package org.cloudfoundry.promregator.endpoint;
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.cloudfoundry.promregator.JUnitTestUtils;
-import org.cloudfoundry.promregator.endpoint.DiscoveryEndpoint.DiscoveryLabel;
-import org.cloudfoundry.promregator.endpoint.DiscoveryEndpoint.DiscoveryResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -15,6 +13,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 
 @SpringBootTest(classes = NoTargetsConfiguredSpringApplication.class)
 @TestPropertySource(locations="default.properties")
@@ -29,24 +31,30 @@ public class DiscoveryEndpointNoTargetsDefinedTest {
 	private DiscoveryEndpoint subject;
 	
 	@Test
-	void testIssue180() {
+	void testIssue180() throws JsonProcessingException {
 		HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
 		
-		ResponseEntity<DiscoveryResponse[]> responseE = this.subject.getDiscovery(requestMock);
-		Assertions.assertEquals(HttpStatus.OK, responseE.getStatusCode());
-		
-		DiscoveryResponse[] response = responseE.getBody();
+		JsonNode response = readDiscoveryDocument(this.subject.getDiscoveryDocument(requestMock));
 		
-		Assertions.assertEquals(1, response.length);
+		Assertions.assertEquals(1, response.size());
 		
-		DiscoveryLabel label = response[0].getLabels();
-		Assertions.assertEquals(null, label.getApplicationId());
-		Assertions.assertEquals(null, label.getApplicationName());
-		Assertions.assertEquals(null, label.getInstanceId());
-		Assertions.assertEquals(null, label.getInstanceNumber());
-		Assertions.assertEquals(null, label.getOrgName());
-		Assertions.assertEquals(null, label.getSpaceName());
-		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_PROMREGATOR_METRICS, label.getTargetPath());
+		JsonNode entry = response.get(0);
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_PROMREGATOR_METRICS, label(entry, "__meta_promregator_target_path"));
 	}
 
+	private static JsonNode readDiscoveryDocument(ResponseEntity<String> responseEntity) throws JsonProcessingException {
+		Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+		return new ObjectMapper().readTree(responseEntity.getBody());
+	}
+	
+	private static String label(JsonNode entry, String name) {
+		JsonNode value = entry.get("labels").get(name);
+		return value == null || value.isNull() ? null : value.asText();
+	}
 }
@@ -3,20 +3,23 @@ package org.cloudfoundry.promregator.endpoint;
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.cloudfoundry.promregator.JUnitTestUtils;
-import org.cloudfoundry.promregator.endpoint.DiscoveryEndpoint.DiscoveryLabel;
-import org.cloudfoundry.promregator.endpoint.DiscoveryEndpoint.DiscoveryResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.sql.Ref;
-import java.util.Arrays;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.stream.StreamSupport;
 
 
 @SpringBootTest(classes = MockedMetricsEndpointSpringApplication.class)
@@ -32,112 +35,142 @@ public class DiscoveryEndpointTest {
 	private DiscoveryEndpoint subject;
 	
 	@Test
-	void testStraightForward() {
+	void testStraightForward() throws JsonProcessingException {
 		HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
 		
-		ResponseEntity<DiscoveryResponse[]> responseE = this.subject.getDiscovery(requestMock);
-		DiscoveryResponse[] response = responseE.getBody();
-		
-		Assertions.assertEquals(4, response.length);
+		JsonNode response = readDiscoveryDocument(this.subject.getDiscoveryDocument(requestMock));
 		
-		Assertions.assertEquals(1, response[0].getTargets().length);
-		Assertions.assertEquals("discovery-hostname:1234", response[0].getTargets()[0]);
+		Assertions.assertEquals(4, response.size());
 		
-		Assertions.assertEquals(1, response[1].getTargets().length);
-		Assertions.assertEquals("discovery-hostname:1234", response[1].getTargets()[0]);
+		Assertions.assertEquals(1, response.get(0).get("targets").size());
+		Assertions.assertEquals("discovery-hostname:1234", response.get(0).get("targets").get(0).asText());
 		
-		Assertions.assertEquals(1, response[2].getTargets().length);
-		Assertions.assertEquals("discovery-hostname:1234", response[2].getTargets()[0]);
+		Assertions.assertEquals(1, response.get(1).get("targets").size());
+		Assertions.assertEquals("discovery-hostname:1234", response.get(1).get("targets").get(0).asText());
 		
-		Assertions.assertEquals(1, response[3].getTargets().length);
-		Assertions.assertEquals("discovery-hostname:1234", response[3].getTargets()[0]);
+		Assertions.assertEquals(1, response.get(2).get("targets").size());
+		Assertions.assertEquals("discovery-hostname:1234", response.get(2).get("targets").get(0).asText());
 		
-		DiscoveryLabel label = null;
+		Assertions.assertEquals(1, response.get(3).get("targets").size());
+		Assertions.assertEquals("discovery-hostname:1234", response.get(3).get("targets").get(0).asText());
 		
-		label = response[0].getLabels();
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label.getApplicationId());
-		Assertions.assertEquals("unittestapp", label.getApplicationName());
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:0", label.getInstanceId());
-		Assertions.assertEquals("0", label.getInstanceNumber());
-		Assertions.assertEquals("unittestorg", label.getOrgName());
-		Assertions.assertEquals("unittestspace", label.getSpaceName());
-		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"/faedbb0a-2273-4cb4-a659-bd31331f7daf/0", label.getTargetPath());
-
-		label = response[1].getLabels();
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label.getApplicationId());
-		Assertions.assertEquals("unittestapp", label.getApplicationName());
-		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:1", label.getInstanceId());
-		Assertions.assertEquals("1", label.getInstanceNumber());
-		Assertions.assertEquals("unittestorg", label.getOrgName());
-		Assertions.assertEquals("unittestspace", label.getSpaceName());
-		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"/faedbb0a-2273-4cb4-a659-bd31331f7daf/1", label.getTargetPath());
-
-		label = response[2].getLabels();
-		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300", label.getApplicationId());
-		Assertions.assertEquals("unittestapp2", label.getApplicationName());
-		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300:0", label.getInstanceId());
-		Assertions.assertEquals("0", label.getInstanceNumber());
-		Assertions.assertEquals("unittestorg", label.getOrgName());
-		Assertions.assertEquals("unittestspace", label.getSpaceName());
-		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"/1142a717-e27d-4028-89d8-b42a0c973300/0", label.getTargetPath());
-
-		label = response[3].getLabels();
-		Assertions.assertEquals(null, label.getApplicationId());
-		Assertions.assertEquals(null, label.getApplicationName());
-		Assertions.assertEquals(null, label.getInstanceId());
-		Assertions.assertEquals(null, label.getInstanceNumber());
-		Assertions.assertEquals(null, label.getOrgName());
-		Assertions.assertEquals(null, label.getSpaceName());
-		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_PROMREGATOR_METRICS, label.getTargetPath());
+		JsonNode entry = response.get(0);
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals("unittestapp", label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:0", label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals("0", label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals("unittestorg", label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals("unittestspace", label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"/faedbb0a-2273-4cb4-a659-bd31331f7daf/0", label(entry, "__meta_promregator_target_path"));
+
+		entry = response.get(1);
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf", label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals("unittestapp", label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals("faedbb0a-2273-4cb4-a659-bd31331f7daf:1", label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals("1", label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals("unittestorg", label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals("unittestspace", label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"/faedbb0a-2273-4cb4-a659-bd31331f7daf/1", label(entry, "__meta_promregator_target_path"));
+
+		entry = response.get(2);
+		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300", label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals("unittestapp2", label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals("1142a717-e27d-4028-89d8-b42a0c973300:0", label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals("0", label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals("unittestorg", label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals("unittestspace", label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"/1142a717-e27d-4028-89d8-b42a0c973300/0", label(entry, "__meta_promregator_target_path"));
+
+		entry = response.get(3);
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_applicationId"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_applicationName"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_instanceId"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_instanceNumber"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_orgName"));
+		Assertions.assertEquals(null, label(entry, "__meta_promregator_target_spaceName"));
+		Assertions.assertEquals(EndpointConstants.ENDPOINT_PATH_PROMREGATOR_METRICS, label(entry, "__meta_promregator_target_path"));
 		
 	}
 
 	@Test
-	void testSchemePropertySetsSchemeInOutput(){
+	void testSchemePropertySetsSchemeInOutput() throws JsonProcessingException {
 		//given promregator.discovery.port:443 and promregator.discovery.scheme unset
 		ReflectionTestUtils.setField(subject, "myScheme", "https");
 
-		//when getDiscovery
+		//when getDiscoveryDocument
 		HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
-		ResponseEntity<DiscoveryResponse[]> responseE = this.subject.getDiscovery(requestMock);
-		DiscoveryResponse[] responses = responseE.getBody();
+		JsonNode responses = readDiscoveryDocument(this.subject.getDiscoveryDocument(requestMock));
 
 		//then response labels contain __scheme__: https
-		Assertions.assertTrue(Arrays.stream(responses).allMatch(
-			response -> "https".equals(response.getLabels().getScheme())
+		Assertions.assertTrue(StreamSupport.stream(responses.spliterator(), false).allMatch(
+			response -> "https".equals(label(response, "__scheme__"))
 		));
 	}
 
 	@Test
-	void testPort443SetsHttpsIfSchemeNotSet(){
+	void testPort443SetsHttpsIfSchemeNotSet() throws JsonProcessingException {
 		//given promregator.discovery.port:443 and promregator.discovery.scheme unset
 		ReflectionTestUtils.setField(subject, "myPort", 443);
 
-		//when getDiscovery
+		//when getDiscoveryDocument
 		HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
-		ResponseEntity<DiscoveryResponse[]> responseE = this.subject.getDiscovery(requestMock);
-		DiscoveryResponse[] responses = responseE.getBody();
+		JsonNode responses = readDiscoveryDocument(this.subject.getDiscoveryDocument(requestMock));
 
 		//then response labels contain __scheme__: https
-		Assertions.assertTrue(Arrays.stream(responses).allMatch(
-			response -> "https".equals(response.getLabels().getScheme())
+		Assertions.assertTrue(StreamSupport.stream(responses.spliterator(), false).allMatch(
+			response -> "https".equals(label(response, "__scheme__"))
 		));
 	}
 
 	@Test
-	void testPort443DoesntSetHttpsIfSchemeIsExplicitlySetToHttp(){
+	void testPort443DoesntSetHttpsIfSchemeIsExplicitlySetToHttp() throws JsonProcessingException {
 		//given promregator.discovery.port:443 and promregator.discovery.scheme unset
 		ReflectionTestUtils.setField(subject, "myPort", 443);
 		ReflectionTestUtils.setField(subject, "myScheme", "http");
 
-		//when getDiscovery
+		//when getDiscoveryDocument
 		HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
-		ResponseEntity<DiscoveryResponse[]> responseE = this.subject.getDiscovery(requestMock);
-		DiscoveryResponse[] responses = responseE.getBody();
+		JsonNode responses = readDiscoveryDocument(this.subject.getDiscoveryDocument(requestMock));
 
 		//then response labels contain __scheme__: https
-		Assertions.assertTrue(Arrays.stream(responses).allMatch(
-			response -> "http".equals(response.getLabels().getScheme())
+		Assertions.assertTrue(StreamSupport.stream(responses.spliterator(), false).allMatch(
+			response -> "http".equals(label(response, "__scheme__"))
 		));
 	}
+
+	@Test
+	void testDiscoveryDocumentWithETag() {
+		HttpServletRequest requestMock = Mockito.mock(HttpServletRequest.class);
+		
+		ResponseEntity<String> response = this.subject.getDiscoveryDocument(requestMock);
+		Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+		Assertions.assertTrue(response.getBody().contains("\"__meta_promregator_target_instanceId\":\"faedbb0a-2273-4cb4-a659-bd31331f7daf:0\""));
+		Assertions.assertTrue(response.getBody().contains("\"targets\":[\"discovery-hostname:1234\"]"));
+		
+		final String etag = response.getHeaders().getETag();
+		Assertions.assertNotNull(etag);
+		
+		// the document is not rendered again, as long as nothing has changed
+		ResponseEntity<String> secondResponse = this.subject.getDiscoveryDocument(requestMock);
+		Assertions.assertSame(response.getBody(), secondResponse.getBody());
+		
+		Mockito.when(requestMock.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(etag);
+		ResponseEntity<String> notModifiedResponse = this.subject.getDiscoveryDocument(requestMock);
+		Assertions.assertEquals(HttpStatus.NOT_MODIFIED, notModifiedResponse.getStatusCode());
+		Assertions.assertNull(notModifiedResponse.getBody());
+		Assertions.assertEquals(etag, notModifiedResponse.getHeaders().getETag());
+		
+		Mockito.when(requestMock.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"outdated\"");
+		Assertions.assertEquals(HttpStatus.OK, this.subject.getDiscoveryDocument(requestMock).getStatusCode());
+	}
+
+	private static JsonNode readDiscoveryDocument(ResponseEntity<String> responseEntity) throws JsonProcessingException {
+		Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+		return new ObjectMapper().readTree(responseEntity.getBody());
+	}
+	
+	private static String label(JsonNode entry, String name) {
+		JsonNode value = entry.get("labels").get(name);
+		return value == null || value.isNull() ? null : value.asText();
+	}
 }
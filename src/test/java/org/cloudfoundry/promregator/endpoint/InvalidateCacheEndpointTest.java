@@ -53,4 +53,24 @@ public class InvalidateCacheEndpointTest {
 		Assertions.assertTrue(tr.isResolverCache());
 	}
 
+	@Test
+	void testInvalidateByKeyKeepsCaches() {
+		((MockedCFAccessorCache) this.cfAccessorCache).resetFlags();
+		((MockedCachingTargetResolver) this.targetResolver).resetFlags();
+		
+		ResponseEntity<String> response = subject.invalidateCache(false, false, false, false, false, false, false, "app-guid", "space-guid", "some-org");
+		
+		Assertions.assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+		
+		MockedCFAccessorCache cfa = (MockedCFAccessorCache) this.cfAccessorCache;
+		Assertions.assertFalse(cfa.isApplicationCache());
+		Assertions.assertFalse(cfa.isOrgCache());
+		Assertions.assertFalse(cfa.isSpaceCache());
+		Assertions.assertFalse(cfa.isRouteCache());
+		Assertions.assertFalse(cfa.isProcessCache());
+		
+		MockedCachingTargetResolver tr = (MockedCachingTargetResolver) this.targetResolver;
+		Assertions.assertFalse(tr.isResolverCache());
+	}
+
 }
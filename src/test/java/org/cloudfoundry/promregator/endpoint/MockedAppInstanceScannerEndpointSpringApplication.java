@@ -9,6 +9,8 @@ import org.cloudfoundry.promregator.auth.NullEnricher;
 import org.cloudfoundry.promregator.cfaccessor.CFAccessor;
 import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheCaffeine;
 import org.cloudfoundry.promregator.config.PromregatorConfiguration;
+import org.cloudfoundry.promregator.fetcher.CFMetricsFetcherConnectionPool;
+import org.cloudfoundry.promregator.fetcher.FetchResultCoalescer;
 import org.cloudfoundry.promregator.internalmetrics.InternalMetrics;
 import org.cloudfoundry.promregator.messagebus.MessageBus;
 import org.cloudfoundry.promregator.scanner.AppInstanceScanner;
@@ -29,6 +31,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
 
 import io.prometheus.client.CollectorRegistry;
+import reactor.netty.http.client.HttpClient;
 
 @Configuration
 @EnableAutoConfiguration
@@ -108,6 +111,15 @@ public class MockedAppInstanceScannerEndpointSpringApplication {
 			return processCache;
 		}
 		
+		public void resetFlags() {
+			this.applicationCache = false;
+			this.spaceCache = false;
+			this.orgCache = false;
+			this.routeCache = false;
+			this.domainCache = false;
+			this.processCache = false;
+		}
+		
 	}
 	
 	public static class MockedCachingTargetResolver extends CachingTargetResolver {
@@ -125,6 +137,10 @@ public class MockedAppInstanceScannerEndpointSpringApplication {
 		public boolean isResolverCache() {
 			return this.resolverCache;
 		}
+		
+		public void resetFlags() {
+			this.resolverCache = false;
+		}
 	}
 	
 	@Bean
@@ -161,6 +177,21 @@ public class MockedAppInstanceScannerEndpointSpringApplication {
 	public ExecutorService metricsFetcherPool() {
 		return Executors.newSingleThreadExecutor();
 	}
+	
+	@Bean
+	public HttpClient scrapingHttpClient() {
+		return HttpClient.create();
+	}
+	
+	@Bean
+	public CFMetricsFetcherConnectionPool cfMetricsFetcherConnectionPool() {
+		return new CFMetricsFetcherConnectionPool();
+	}
+	
+	@Bean
+	public FetchResultCoalescer fetchResultCoalescer() {
+		return new FetchResultCoalescer();
+	}
 
 	@Bean
 	public CollectorRegistry collectorRegistry() {
@@ -16,6 +16,8 @@ import org.cloudfoundry.promregator.auth.AuthenticatorController;
 import org.cloudfoundry.promregator.auth.NullEnricher;
 import org.cloudfoundry.promregator.config.PromregatorConfiguration;
 import org.cloudfoundry.promregator.discovery.CFMultiDiscoverer;
+import org.cloudfoundry.promregator.fetcher.CFMetricsFetcherConnectionPool;
+import org.cloudfoundry.promregator.fetcher.FetchResultCoalescer;
 import org.cloudfoundry.promregator.messagebus.MessageBus;
 import org.cloudfoundry.promregator.scanner.AppInstanceScanner;
 import org.cloudfoundry.promregator.scanner.Instance;
@@ -32,7 +34,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.prometheus.client.CollectorRegistry;
+import reactor.netty.http.client.HttpClient;
 
 @Configuration
 @EnableAutoConfiguration
@@ -109,10 +114,30 @@ public class MockedMetricsEndpointSpringApplication {
 		return new CFMultiDiscoverer();
 	}
 	
+	@Bean
+	public DiscoveryDocumentCache discoveryDocumentCache(ObjectMapper objectMapper) {
+		return new DiscoveryDocumentCache(objectMapper);
+	}
+	
 	@Bean
 	public ExecutorService metricsFetcherPool() {
 		return Executors.newSingleThreadExecutor();
 	}
+	
+	@Bean
+	public HttpClient scrapingHttpClient() {
+		return HttpClient.create();
+	}
+	
+	@Bean
+	public CFMetricsFetcherConnectionPool cfMetricsFetcherConnectionPool() {
+		return new CFMetricsFetcherConnectionPool();
+	}
+	
+	@Bean
+	public FetchResultCoalescer fetchResultCoalescer() {
+		return new FetchResultCoalescer();
+	}
 
 	@Bean
 	public CollectorRegistry collectorRegistry() {
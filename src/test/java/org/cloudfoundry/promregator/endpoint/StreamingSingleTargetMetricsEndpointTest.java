@@ -0,0 +1,138 @@
+package org.cloudfoundry.promregator.endpoint;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import org.cloudfoundry.promregator.JUnitTestUtils;
+import org.cloudfoundry.promregator.fetcher.FetchResult;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.prometheus.client.exporter.common.TextFormat;
+
+@SpringBootTest(classes = MockedMetricsEndpointSpringApplication.class)
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(locations="default.properties", properties = {
+		"promregator.scraping.streaming=true",
+		"promregator.scraping.maxProcessingTime=500"
+})
+@ActiveProfiles("SingleTargetMetricsEndpointTest")
+class StreamingSingleTargetMetricsEndpointTest {
+	
+	private static final String PATH = EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"_test/{applicationId}/{instanceNumber}";
+	
+	private static final Pattern PATTERN_UP = Pattern.compile("^promregator_up(\\{[^}]*\\})? 1\\.0$", Pattern.MULTILINE);
+	private static final Pattern PATTERN_DOWN = Pattern.compile("^promregator_up(\\{[^}]*\\})? 0\\.0$", Pattern.MULTILINE);
+
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@AfterEach
+	void resetMocks() {
+		Mockito.reset(MockedMetricsEndpointSpringApplication.mockedHttpServletRequest);
+		TestableSingleTargetMetricsEndpoint.metricsFetcherFactory = null;
+	}
+	
+	@AfterAll
+	static void cleanupEnvironment() {
+		JUnitTestUtils.cleanUpAll();
+	}
+	
+	@Test
+	void testMetricsAreStreamed() throws Exception {
+		TestableSingleTargetMetricsEndpoint.metricsFetcherFactory = (instance, up, streamSink) -> () -> {
+			OutputStream os = streamSink.open(TextFormat.CONTENT_TYPE_004);
+			os.write("metric_streamed 1.0\n".getBytes(StandardCharsets.UTF_8));
+			up.set(1.0);
+			return new FetchResult(null, TextFormat.CONTENT_TYPE_004);
+		};
+		
+		String response = this.mockMvc.perform(get(PATH, "faedbb0a-2273-4cb4-a659-bd31331f7daf", "0"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, Matchers.containsString("version=0.0.4")))
+				.andReturn().getResponse().getContentAsString();
+		
+		Assertions.assertTrue(response.startsWith("metric_streamed 1.0\n"));
+		Assertions.assertTrue(PATTERN_UP.matcher(response).find());
+	}
+	
+	@Test
+	void testOwnMetricsAreInsertedBeforeEOFMarker() throws Exception {
+		TestableSingleTargetMetricsEndpoint.metricsFetcherFactory = (instance, up, streamSink) -> () -> {
+			OutputStream os = streamSink.open(TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+			os.write("# TYPE metric_streamed gauge\nmetric_streamed 1.0\n# EOF\n".getBytes(StandardCharsets.UTF_8));
+			up.set(1.0);
+			return new FetchResult(null, TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+		};
+		
+		String response = this.mockMvc.perform(get(PATH, "faedbb0a-2273-4cb4-a659-bd31331f7daf", "1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, Matchers.startsWith("application/openmetrics-text")))
+				.andReturn().getResponse().getContentAsString();
+		
+		Assertions.assertTrue(response.startsWith("# TYPE metric_streamed gauge\nmetric_streamed 1.0\n"));
+		Assertions.assertTrue(PATTERN_UP.matcher(response).find());
+		Assertions.assertTrue(response.endsWith("\n# EOF\n"));
+		Assertions.assertEquals(response.indexOf("# EOF"), response.lastIndexOf("# EOF"));
+	}
+	
+	@Test
+	void testTimeoutProvidesOwnMetricsOnly() throws Exception {
+		TestableSingleTargetMetricsEndpoint.metricsFetcherFactory = (instance, up, streamSink) -> () -> {
+			Thread.sleep(1000);
+			streamSink.open(TextFormat.CONTENT_TYPE_004).write("metric_too_late 1.0\n".getBytes(StandardCharsets.UTF_8));
+			return new FetchResult(null, TextFormat.CONTENT_TYPE_004);
+		};
+		
+		String response = this.mockMvc.perform(get(PATH, "1142a717-e27d-4028-89d8-b42a0c973300", "0"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, Matchers.startsWith("application/openmetrics-text")))
+				.andReturn().getResponse().getContentAsString();
+		
+		Assertions.assertFalse(response.contains("metric_too_late"));
+		Assertions.assertTrue(PATTERN_DOWN.matcher(response).find());
+		Assertions.assertTrue(response.endsWith("# EOF\n"));
+	}
+	
+	@Test
+	void testFailureAfterPartialWriteLeavesResponseIncomplete() throws Exception {
+		TestableSingleTargetMetricsEndpoint.metricsFetcherFactory = (instance, up, streamSink) -> () -> {
+			OutputStream os = streamSink.open(TextFormat.CONTENT_TYPE_004);
+			os.write("metric_partial 1.0\n".getBytes(StandardCharsets.UTF_8));
+			throw new IOException("connection to target lost");
+		};
+		
+		this.mockMvc.perform(get(PATH, "faedbb0a-2273-4cb4-a659-bd31331f7daf", "0"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, Matchers.containsString("version=0.0.4")))
+				// no own metrics are appended, as the metric set of the target is incomplete
+				.andExpect(content().string("metric_partial 1.0\n"));
+	}
+	
+	@Test
+	void testUnknownInstanceIsRejected() throws Exception {
+		this.mockMvc.perform(get(PATH, "0000", "0"))
+				.andExpect(status().isNotFound())
+				.andExpect(content().string(Matchers.containsString("Unable to determine a unique instance to scrape")));
+	}
+}
@@ -1,5 +1,6 @@
 package org.cloudfoundry.promregator.endpoint;
 
+import org.cloudfoundry.promregator.fetcher.FetchResultStreamSink;
 import org.cloudfoundry.promregator.fetcher.MetricsFetcher;
 import org.cloudfoundry.promregator.scanner.Instance;
 import org.springframework.context.annotation.Profile;
@@ -8,19 +9,35 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.WebApplicationContext;
 
+import io.prometheus.client.Gauge;
+
 @RestController
 @RequestMapping(EndpointConstants.ENDPOINT_PATH_SINGLE_TARGET_SCRAPING+"_test"+"/{applicationId}/{instanceNumber}")
 /* 
  * NB: The endpoint's position must be unique. As also the non-testable variant is loaded, this would lead to a 
  * ambiguous mapping exception.
- * We are not using the RequestMapping in our tests anyway, so we can just add some suffix and we are good to go.
+ * So we just add some suffix, which tests using MockMvc need to take into account.
  */
 @Scope(value=WebApplicationContext.SCOPE_REQUEST)
 @Profile("SingleTargetMetricsEndpointTest")
 public class TestableSingleTargetMetricsEndpoint extends SingleTargetMetricsEndpoint {
 
+	@FunctionalInterface
+	interface MetricsFetcherFactory {
+		MetricsFetcher create(Instance instance, Gauge.Child up, FetchResultStreamSink streamSink);
+	}
+	
+	/**
+	 * allows tests to replace the {@link MockedMetricsFetcher}; <code>null</code> to use the MockedMetricsFetcher
+	 */
+	static MetricsFetcherFactory metricsFetcherFactory;
+	
 	@Override
 	protected MetricsFetcher createMetricsFetcher(Instance instance) {
+		if (metricsFetcherFactory != null) {
+			return metricsFetcherFactory.create(instance, this.getUpChild(), this.getStreamSink());
+		}
+		
 		MockedMetricsFetcher mf = new MockedMetricsFetcher(instance);
 		return mf;
 	}
@@ -0,0 +1,89 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CFMetricsFetcherConnectionPoolTest {
+
+	private static CFMetricsFetcherConnectionPool createSubject(int maxProcessingTime, int connectionTimeout, int socketReadTimeout, String proxyHost, int proxyPort) {
+		CFMetricsFetcherConnectionPool subject = new CFMetricsFetcherConnectionPool();
+		ReflectionTestUtils.setField(subject, "maxTotal", 10);
+		ReflectionTestUtils.setField(subject, "maxPerRoute", 5);
+		ReflectionTestUtils.setField(subject, "idleTimeout", 60000);
+		ReflectionTestUtils.setField(subject, "keepAlive", 30000);
+		ReflectionTestUtils.setField(subject, "validateAfterInactivity", 2000);
+		ReflectionTestUtils.setField(subject, "maxProcessingTime", maxProcessingTime);
+		ReflectionTestUtils.setField(subject, "connectionTimeout", connectionTimeout);
+		ReflectionTestUtils.setField(subject, "socketReadTimeout", socketReadTimeout);
+		ReflectionTestUtils.setField(subject, "proxyHost", proxyHost);
+		ReflectionTestUtils.setField(subject, "proxyPort", proxyPort);
+		return subject;
+	}
+
+	@Test
+	void testRequestConfigTakesConfiguredValues() {
+		CFMetricsFetcherConnectionPool subject = createSubject(5000, 1000, 2000, "proxy.example.org", 8080);
+		subject.setupConnectionPool();
+
+		try {
+			RequestConfig requestConfig = subject.getRequestConfig();
+			Assertions.assertEquals(1000, requestConfig.getConnectTimeout());
+			Assertions.assertEquals(2000, requestConfig.getSocketTimeout());
+			Assertions.assertEquals(5000, requestConfig.getConnectionRequestTimeout());
+			Assertions.assertEquals(new HttpHost("proxy.example.org", 8080, "http"), requestConfig.getProxy());
+			Assertions.assertTrue(requestConfig.isRedirectsEnabled());
+			Assertions.assertFalse(requestConfig.isCircularRedirectsAllowed());
+
+			Assertions.assertNotNull(subject.getHttpClient());
+		} finally {
+			subject.close();
+		}
+	}
+
+	@Test
+	void testTimeoutsAreShortenedToMaxProcessingTime() {
+		CFMetricsFetcherConnectionPool subject = createSubject(3000, 10000, 20000, null, 0);
+		subject.setupConnectionPool();
+
+		try {
+			RequestConfig requestConfig = subject.getRequestConfig();
+			Assertions.assertEquals(3000, requestConfig.getConnectTimeout());
+			Assertions.assertEquals(3000, requestConfig.getSocketTimeout());
+			Assertions.assertEquals(3000, requestConfig.getConnectionRequestTimeout());
+		} finally {
+			subject.close();
+		}
+	}
+
+	@Test
+	void testNoProxyWithoutPort() {
+		CFMetricsFetcherConnectionPool subject = createSubject(5000, 5000, 5000, "proxy.example.org", 0);
+		subject.setupConnectionPool();
+
+		try {
+			Assertions.assertNull(subject.getRequestConfig().getProxy());
+		} finally {
+			subject.close();
+		}
+	}
+
+	@Test
+	void testTotalStats() {
+		CFMetricsFetcherConnectionPool subject = createSubject(5000, 5000, 5000, null, 0);
+		Assertions.assertNull(subject.getTotalStats());
+
+		subject.setupConnectionPool();
+		try {
+			PoolStats stats = subject.getTotalStats();
+			Assertions.assertEquals(10, stats.getMax());
+			Assertions.assertEquals(0, stats.getLeased());
+			Assertions.assertEquals(0, stats.getAvailable());
+		} finally {
+			subject.close();
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package org.cloudfoundry.promregator.fetcher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.prometheus.client.exporter.common.TextFormat;
+
+class FetchResultCoalescerTest {
+
+	private static final FetchResult DUMMY_RESULT = new FetchResult("dummy 1.0\n", TextFormat.CONTENT_TYPE_004);
+
+	private static FetchResultCoalescer createSubject(boolean enabled, int ttl) {
+		FetchResultCoalescer subject = new FetchResultCoalescer();
+		ReflectionTestUtils.setField(subject, "enabled", enabled);
+		ReflectionTestUtils.setField(subject, "ttl", ttl);
+		subject.setupResultCache();
+		return subject;
+	}
+
+	@Test
+	void testConcurrentFetchesAreCoalesced() throws Exception {
+		FetchResultCoalescer subject = createSubject(true, 0);
+
+		AtomicInteger calls = new AtomicInteger(0);
+		CompletableFuture<FetchResult> upstream = new CompletableFuture<>();
+
+		CompletableFuture<FetchResult> first = subject.fetch("abcd:0", () -> {
+			calls.incrementAndGet();
+			return upstream;
+		});
+		CompletableFuture<FetchResult> second = subject.fetch("abcd:0", () -> {
+			calls.incrementAndGet();
+			return new CompletableFuture<>();
+		});
+
+		Assertions.assertEquals(1, calls.get());
+		Assertions.assertEquals(1, subject.getInFlightCount());
+		Assertions.assertFalse(second.isDone());
+
+		upstream.complete(DUMMY_RESULT);
+
+		Assertions.assertSame(DUMMY_RESULT, first.get());
+		Assertions.assertSame(DUMMY_RESULT, second.get());
+		Assertions.assertEquals(0, subject.getInFlightCount());
+	}
+
+	@Test
+	void testDifferentInstancesAreNotCoalesced() {
+		FetchResultCoalescer subject = createSubject(true, 0);
+
+		AtomicInteger calls = new AtomicInteger(0);
+		subject.fetch("abcd:0", () -> {
+			calls.incrementAndGet();
+			return new CompletableFuture<>();
+		});
+		subject.fetch("abcd:1", () -> {
+			calls.incrementAndGet();
+			return new CompletableFuture<>();
+		});
+
+		Assertions.assertEquals(2, calls.get());
+	}
+
+	@Test
+	void testSubsequentFetchWithoutTTLIsNotCoalesced() throws Exception {
+		FetchResultCoalescer subject = createSubject(true, 0);
+
+		AtomicInteger calls = new AtomicInteger(0);
+		for (int i = 0; i < 2; i++) {
+			FetchResult result = subject.fetch("abcd:0", () -> {
+				calls.incrementAndGet();
+				return CompletableFuture.completedFuture(DUMMY_RESULT);
+			}).get();
+			Assertions.assertSame(DUMMY_RESULT, result);
+		}
+
+		Assertions.assertEquals(2, calls.get());
+	}
+
+	@Test
+	void testSubsequentFetchWithinTTLReusesResult() throws Exception {
+		FetchResultCoalescer subject = createSubject(true, 60000);
+
+		AtomicInteger calls = new AtomicInteger(0);
+		for (int i = 0; i < 2; i++) {
+			FetchResult result = subject.fetch("abcd:0", () -> {
+				calls.incrementAndGet();
+				return CompletableFuture.completedFuture(DUMMY_RESULT);
+			}).get();
+			Assertions.assertSame(DUMMY_RESULT, result);
+		}
+
+		Assertions.assertEquals(1, calls.get());
+	}
+
+	@Test
+	void testFailedFetchIsNotCached() throws Exception {
+		FetchResultCoalescer subject = createSubject(true, 60000);
+
+		AtomicInteger calls = new AtomicInteger(0);
+		for (int i = 0; i < 2; i++) {
+			FetchResult result = subject.fetch("abcd:0", () -> {
+				calls.incrementAndGet();
+				return CompletableFuture.completedFuture(null);
+			}).get();
+			Assertions.assertNull(result);
+		}
+
+		Assertions.assertEquals(2, calls.get());
+	}
+
+	@Test
+	void testCancellingDoesNotAffectOtherRequests() throws Exception {
+		FetchResultCoalescer subject = createSubject(true, 0);
+
+		CompletableFuture<FetchResult> upstream = new CompletableFuture<>();
+
+		CompletableFuture<FetchResult> first = subject.fetch("abcd:0", () -> upstream);
+		CompletableFuture<FetchResult> second = subject.fetch("abcd:0", CompletableFuture::new);
+
+		first.cancel(true);
+		upstream.complete(DUMMY_RESULT);
+
+		Assertions.assertFalse(upstream.isCancelled());
+		Assertions.assertSame(DUMMY_RESULT, second.get());
+	}
+
+	@Test
+	void testDisabled() {
+		FetchResultCoalescer subject = createSubject(false, 60000);
+
+		AtomicInteger calls = new AtomicInteger(0);
+		for (int i = 0; i < 2; i++) {
+			subject.fetch("abcd:0", () -> {
+				calls.incrementAndGet();
+				return new CompletableFuture<>();
+			});
+		}
+
+		Assertions.assertEquals(2, calls.get());
+		Assertions.assertEquals(0, subject.getInFlightCount());
+	}
+}
@@ -1,10 +1,14 @@
 package org.cloudfoundry.promregator.fetcher;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.UUID;
 
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.pool.PoolStats;
 import org.cloudfoundry.promregator.JUnitTestUtils;
 import org.cloudfoundry.promregator.auth.AuthenticationEnricher;
 import org.cloudfoundry.promregator.endpoint.EndpointConstants;
@@ -16,6 +20,10 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.prometheus.client.exporter.common.TextFormat;
+import reactor.netty.http.client.HttpClient;
 
 public class MetricsFetcherTest {
 
@@ -72,6 +80,87 @@ public class MetricsFetcherTest {
 		Assertions.assertEquals(currentUUID.toString(), this.mems.getMetricsEndpointHandler().getHeaders().getFirst(EndpointConstants.HTTP_HEADER_PROMREGATOR_INSTANCE_IDENTIFIER));
 	}
 
+	@Test
+	void testStraightForwardStreaming() throws Exception {
+		String instanceId = "abcd:4";
+		
+		OwnMetricsEnrichmentLabelVector omelv = new OwnMetricsEnrichmentLabelVector(null, "dummy", "dummy", "dummy", "dummy:0");
+		List<String> labelValues = omelv.getEnrichedLabelValues();
+		String[] ownTelemetryLabelValues = labelValues.toArray(new String[0]);
+		
+		MetricsFetcherMetrics mfm = new MetricsFetcherMetrics(ownTelemetryLabelValues, false, omelv);
+		
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		List<String> contentTypes = new LinkedList<>();
+		
+		CFMetricsFetcherConfig config = new CFMetricsFetcherConfig();
+		config.setMetricsFetcherMetrics(mfm);
+		config.setPromregatorInstanceIdentifier(UUID.randomUUID());
+		config.setConnectionTimeoutInMillis(5000);
+		config.setSocketReadTimeoutInMillis(5000);
+		config.setStreamSink(contentType -> {
+			contentTypes.add(contentType);
+			return streamed;
+		});
+		
+		CFMetricsFetcher subject = new CFMetricsFetcher("http://localhost:9002/metrics", instanceId, config, false);
+		
+		this.mems.getMetricsEndpointHandler().setResponse(DUMMY_METRICS_LIST);
+		
+		FetchResult response = subject.call();
+		
+		Assertions.assertNotNull(response);
+		Assertions.assertNull(response.data());
+		Assertions.assertEquals(TextFormat.CONTENT_TYPE_004, response.contentType());
+		Assertions.assertEquals(List.of(TextFormat.CONTENT_TYPE_004), contentTypes);
+		Assertions.assertEquals(DUMMY_METRICS_LIST, streamed.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testStraightForwardConnectionPool() throws Exception {
+		String instanceId = "abcd:4";
+		
+		OwnMetricsEnrichmentLabelVector omelv = new OwnMetricsEnrichmentLabelVector(null, "dummy", "dummy", "dummy", "dummy:0");
+		List<String> labelValues = omelv.getEnrichedLabelValues();
+		String[] ownTelemetryLabelValues = labelValues.toArray(new String[0]);
+		
+		MetricsFetcherMetrics mfm = new MetricsFetcherMetrics(ownTelemetryLabelValues, false, omelv);
+		
+		CFMetricsFetcherConnectionPool connectionPool = new CFMetricsFetcherConnectionPool();
+		ReflectionTestUtils.setField(connectionPool, "maxTotal", 10);
+		ReflectionTestUtils.setField(connectionPool, "maxPerRoute", 5);
+		ReflectionTestUtils.setField(connectionPool, "idleTimeout", 60000);
+		ReflectionTestUtils.setField(connectionPool, "keepAlive", 30000);
+		ReflectionTestUtils.setField(connectionPool, "validateAfterInactivity", 2000);
+		ReflectionTestUtils.setField(connectionPool, "maxProcessingTime", 5000);
+		ReflectionTestUtils.setField(connectionPool, "connectionTimeout", 5000);
+		ReflectionTestUtils.setField(connectionPool, "socketReadTimeout", 5000);
+		connectionPool.setupConnectionPool();
+		
+		try {
+			CFMetricsFetcherConfig config = new CFMetricsFetcherConfig();
+			config.setMetricsFetcherMetrics(mfm);
+			config.setPromregatorInstanceIdentifier(UUID.randomUUID());
+			config.setHttpClient(connectionPool.getHttpClient());
+			config.setRequestConfig(connectionPool.getRequestConfig());
+			
+			this.mems.getMetricsEndpointHandler().setResponse(DUMMY_METRICS_LIST);
+			
+			CFMetricsFetcher subject = new CFMetricsFetcher("http://localhost:9002/metrics", instanceId, config, false);
+			FetchResult response = subject.call();
+			ParserCompareUtils.compareFetchResult(response, DUMMY_METRICS_LIST);
+			
+			PoolStats stats = connectionPool.getTotalStats();
+			Assertions.assertEquals(0, stats.getLeased());
+			Assertions.assertEquals(0, stats.getPending());
+			// the connection is kept alive and returned to the pool for reuse
+			Assertions.assertEquals(1, stats.getAvailable());
+			Assertions.assertEquals(10, stats.getMax());
+		} finally {
+			connectionPool.close();
+		}
+	}
+
 	@Test
 	void testStraightForwardInternalRoute() throws Exception {
 		String instanceId = "abcd:4";
@@ -199,5 +288,55 @@ public class MetricsFetcherTest {
 		Assertions.assertNull(response);
 	}
 
+	@Test
+	void testStraightForwardNonBlocking() throws Exception {
+		String instanceId = "abcd:4";
+		
+		OwnMetricsEnrichmentLabelVector omelv = new OwnMetricsEnrichmentLabelVector(null, "dummy", "dummy", "dummy", "dummy:0");
+		List<String> labelValues = omelv.getEnrichedLabelValues();
+		String[] ownTelemetryLabelValues = labelValues.toArray(new String[0]);
+		
+		MetricsFetcherMetrics mfm = new MetricsFetcherMetrics(ownTelemetryLabelValues, false, omelv);
+		UUID currentUUID = UUID.randomUUID();
+		
+		CFMetricsFetcherConfig config = new CFMetricsFetcherConfig();
+		config.setMetricsFetcherMetrics(mfm);
+		config.setPromregatorInstanceIdentifier(currentUUID);
+		config.setConnectionTimeoutInMillis(5000);
+		config.setSocketReadTimeoutInMillis(5000);
+		
+		ReactiveCFMetricsFetcher subject = new ReactiveCFMetricsFetcher("http://localhost:9002/metrics", instanceId, config, false, HttpClient.create());
+		
+		this.mems.getMetricsEndpointHandler().setResponse(DUMMY_METRICS_LIST);
+		
+		FetchResult response = subject.fetchAsync().block();
+		
+		ParserCompareUtils.compareFetchResult(response, DUMMY_METRICS_LIST);
+		Assertions.assertEquals(TextFormat.CONTENT_TYPE_004, response.contentType());
+		Assertions.assertEquals(instanceId, this.mems.getMetricsEndpointHandler().getHeaders().getFirst("X-CF-APP-INSTANCE"));
+		Assertions.assertEquals(currentUUID.toString(), this.mems.getMetricsEndpointHandler().getHeaders().getFirst(EndpointConstants.HTTP_HEADER_PROMREGATOR_INSTANCE_IDENTIFIER));
+	}
+
+	@Test
+	void testInvalidEndpointURLNonBlocking() throws Exception {
+		String instanceId = "abcd:8";
+		OwnMetricsEnrichmentLabelVector omelv = new OwnMetricsEnrichmentLabelVector(null, "dummy", "dummy", "dummy", "dummy:0");
+		List<String> labelValues = omelv.getEnrichedLabelValues();
+		String[] ownTelemetryLabelValues = labelValues.toArray(new String[0]);
+		
+		MetricsFetcherMetrics mfm = new MetricsFetcherMetrics(ownTelemetryLabelValues, false, omelv);
+		
+		CFMetricsFetcherConfig config = new CFMetricsFetcherConfig();
+		config.setMetricsFetcherMetrics(mfm);
+		config.setPromregatorInstanceIdentifier(UUID.randomUUID());
+		config.setConnectionTimeoutInMillis(5000);
+		config.setSocketReadTimeoutInMillis(5000);
+		
+		ReactiveCFMetricsFetcher subject = new ReactiveCFMetricsFetcher("http://localhost:9042/metrics", instanceId, config, false, HttpClient.create());
+		
+		FetchResult response = subject.fetchAsync().block();
+		
+		Assertions.assertNull(response);
+	}
 
 }
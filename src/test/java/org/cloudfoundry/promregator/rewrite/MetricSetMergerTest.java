@@ -1,5 +1,7 @@
 package org.cloudfoundry.promregator.rewrite;
 
+import java.util.List;
+
 import org.cloudfoundry.promregator.fetcher.FetchResult;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -172,4 +174,51 @@ class MetricSetMergerTest {
 				""";
 		Assertions.assertEquals(expected, actual);
 	}
+	
+	@Test
+	void testReservedMetricNameInTypeSkipsAdditionalMetrics() {
+		final String data = "# TYPE test COUNTER\n"
+				+ "test 2.0\n"
+				+ "# TYPE test2 gauge\n"
+				+ "test2 1.0\n";
+		final FetchResult fetchResult = new FetchResult(data, TextFormat.CONTENT_TYPE_004);
+		
+		final MetricSetMerger subject = new MetricSetMerger(fetchResult, "# TYPE test2 gauge\ntest2 4.0\n", List.of("test2"));
+		
+		Assertions.assertEquals(data, subject.merge());
+		Assertions.assertEquals("test2", subject.getReservedMetricNameDetected());
+	}
+	
+	@Test
+	void testReservedMetricNameInSampleSkipsAdditionalMetrics() {
+		final String data = "# TYPE test COUNTER\n"
+				+ "test 2.0\n"
+				+ "test2{label=\"value\"} 1.0\n"
+				+ "# EOF\n";
+		final FetchResult fetchResult = new FetchResult(data, TextFormat.CONTENT_TYPE_OPENMETRICS_100);
+		
+		final MetricSetMerger subject = new MetricSetMerger(fetchResult, "# TYPE test2 gauge\ntest2 4.0\n", List.of("test1", "test2"));
+		
+		Assertions.assertEquals(data, subject.merge());
+		Assertions.assertEquals("test2", subject.getReservedMetricNameDetected());
+	}
+	
+	@Test
+	void testMetricNameWithReservedPrefixIsNotDetected() {
+		final FetchResult fetchResult = new FetchResult("# TYPE test2_total counter\n"
+				+ "test2_total 2.0\n"
+				+ "# HELP test2 some test2 metric\n"
+				+ "other{name=\"test2\"} 1.0\n", TextFormat.CONTENT_TYPE_004);
+		
+		final MetricSetMerger subject = new MetricSetMerger(fetchResult, "test2 4.0\n", List.of("test2"));
+		
+		Assertions.assertEquals("""
+				# TYPE test2_total counter
+				test2_total 2.0
+				# HELP test2 some test2 metric
+				other{name="test2"} 1.0
+				test2 4.0
+				""", subject.merge());
+		Assertions.assertNull(subject.getReservedMetricNameDetected());
+	}
 }
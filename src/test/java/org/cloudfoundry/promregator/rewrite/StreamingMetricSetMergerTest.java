@@ -0,0 +1,241 @@
+package org.cloudfoundry.promregator.rewrite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.prometheus.client.exporter.common.TextFormat;
+
+class StreamingMetricSetMergerTest {
+	/*
+	 * Warning! Be careful with """ notation here!
+	 * The usage of \n and not \r\n is significant here!
+	 */
+
+	private static final String ADDITIONAL_METRICS = "# TYPE test2 COUNTER\n"
+			+ "test2 4.0\n";
+
+	private static String merge(String contentType, String data, String additionalMetrics, int chunkSize, StreamingMetricSetMerger subject) throws IOException {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+		OutputStream os = subject.open(contentType, target);
+		byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < bytes.length; i += chunkSize) {
+			os.write(bytes, i, Math.min(chunkSize, bytes.length - i));
+		}
+
+		subject.finish(additionalMetrics);
+
+		return target.toString(StandardCharsets.UTF_8);
+	}
+
+	private static String merge(String contentType, String data, int chunkSize) throws IOException {
+		return merge(contentType, data, ADDITIONAL_METRICS, chunkSize, new StreamingMetricSetMerger(List.of("test2")));
+	}
+
+	@Test
+	void testTextFormat004() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_004, "# TYPE test COUNTER\n"
+				+ "test 2.0\n", 1024);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				""", actual);
+	}
+
+	@Test
+	void testTextFormat004MissingTrailingNewLine() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_004, "# TYPE test COUNTER\n"
+				+ "test 2.0", 1024);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				""", actual);
+	}
+
+	@Test
+	void testOpenMetricsWithEOF() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test COUNTER\n"
+				+ "test 2.0\n"
+				+ "# EOF\n", 1024);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				# EOF
+				""", actual);
+	}
+
+	@Test
+	void testOpenMetricsWithEOFByteByByte() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test COUNTER\n"
+				+ "# EOS is not EOF\n"
+				+ "test 2.0\n"
+				+ "# EOF\n", 1);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				# EOS is not EOF
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				# EOF
+				""", actual);
+	}
+
+	@Test
+	void testOpenMetricsWithEOFAndAdditionalEOF() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test COUNTER\n"
+				+ "test 2.0\n"
+				+ "# EOF\n", ADDITIONAL_METRICS + "# EOF\n", 3, new StreamingMetricSetMerger(List.of("test2")));
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				# EOF
+				""", actual);
+	}
+
+	@Test
+	void testOpenMetricsWithEOFWithCRLF() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test COUNTER\n"
+				+ "test 2.0\n"
+				+ "# EOF\r\n", 2);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				# EOF
+				""", actual);
+	}
+
+	@Test
+	void testOpenMetricsWithEOFWithoutNewLine() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test COUNTER\n"
+				+ "test 2.0\n"
+				+ "# EOF", 1024);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				# EOF
+				""", actual);
+	}
+
+	@Test
+	void testOpenMetricsWithoutEOF() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test COUNTER\n"
+				+ "test 2.0\n", 1024);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				# EOF
+				""", actual);
+	}
+
+	@Test
+	void testOpenMetricsDataAfterEOFIsDropped() throws IOException {
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test COUNTER\n"
+				+ "test 2.0\n"
+				+ "# EOF\n"
+				+ "garbage 1.0\n", 1024);
+
+		Assertions.assertEquals("""
+				# TYPE test COUNTER
+				test 2.0
+				# TYPE test2 COUNTER
+				test2 4.0
+				# EOF
+				""", actual);
+	}
+
+	@Test
+	void testReservedMetricNameInTypeSkipsAdditionalMetrics() throws IOException {
+		StreamingMetricSetMerger subject = new StreamingMetricSetMerger(List.of("test2"));
+		String actual = merge(TextFormat.CONTENT_TYPE_OPENMETRICS_100, "# TYPE test2 COUNTER\n"
+				+ "# EOF\n", ADDITIONAL_METRICS, 1024, subject);
+
+		Assertions.assertEquals("""
+				# TYPE test2 COUNTER
+				# EOF
+				""", actual);
+		Assertions.assertEquals("test2", subject.getReservedMetricNameDetected());
+	}
+
+	@Test
+	void testReservedMetricNameInSampleSkipsAdditionalMetrics() throws IOException {
+		StreamingMetricSetMerger subject = new StreamingMetricSetMerger(List.of("test2"));
+		String actual = merge(TextFormat.CONTENT_TYPE_004, "test2{label=\"a\"} 1.0\n", ADDITIONAL_METRICS, 5, subject);
+
+		Assertions.assertEquals("""
+				test2{label="a"} 1.0
+				""", actual);
+		Assertions.assertEquals("test2", subject.getReservedMetricNameDetected());
+	}
+
+	@Test
+	void testMetricNameWithReservedPrefixIsNotDetected() throws IOException {
+		StreamingMetricSetMerger subject = new StreamingMetricSetMerger(List.of("test2"));
+		merge(TextFormat.CONTENT_TYPE_004, "test2_other 1.0\n", ADDITIONAL_METRICS, 1024, subject);
+
+		Assertions.assertNull(subject.getReservedMetricNameDetected());
+	}
+
+	@Test
+	void testAbortBeforeOpen() throws IOException {
+		StreamingMetricSetMerger subject = new StreamingMetricSetMerger(List.of("test2"));
+
+		Assertions.assertFalse(subject.abort());
+
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		Assertions.assertThrows(IOException.class, () -> subject.open(TextFormat.CONTENT_TYPE_004, target));
+	}
+
+	@Test
+	void testTargetIsNotProvidedAfterAbort() {
+		StreamingMetricSetMerger subject = new StreamingMetricSetMerger(List.of("test2"));
+
+		Assertions.assertFalse(subject.abort());
+
+		Assertions.assertThrows(IOException.class, () -> subject.open(TextFormat.CONTENT_TYPE_004, () -> {
+			Assertions.fail("target must not be provided after the merger has been aborted");
+			return null;
+		}));
+	}
+
+	@Test
+	void testAbortWhileStreaming() throws IOException {
+		StreamingMetricSetMerger subject = new StreamingMetricSetMerger(List.of("test2"));
+
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		OutputStream os = subject.open(TextFormat.CONTENT_TYPE_004, target);
+		os.write("test 1.0\n".getBytes(StandardCharsets.UTF_8));
+
+		Assertions.assertTrue(subject.abort());
+
+		Assertions.assertThrows(IOException.class, () -> os.write('a'));
+		Assertions.assertEquals("test 1.0\n", target.toString(StandardCharsets.UTF_8));
+	}
+}
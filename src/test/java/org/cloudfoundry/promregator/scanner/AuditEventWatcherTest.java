@@ -0,0 +1,130 @@
+package org.cloudfoundry.promregator.scanner;
+
+import java.util.List;
+
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.auditevents.AuditEventActor;
+import org.cloudfoundry.client.v3.auditevents.AuditEventResource;
+import org.cloudfoundry.client.v3.auditevents.AuditEventTarget;
+import org.cloudfoundry.client.v3.auditevents.ListAuditEventsResponse;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessor;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Mono;
+
+class AuditEventWatcherTest {
+
+	private CFAccessor cfAccessorMock;
+	private CFAccessorCache cfAccessorCacheMock;
+	private CachingTargetResolver cachingTargetResolverMock;
+	private AuditEventWatcher subject;
+
+	private static AuditEventResource event(String id, String type, String appId, String createdAt) {
+		return AuditEventResource.builder()
+				.id(id)
+				.type(type)
+				.createdAt(createdAt)
+				.updatedAt(createdAt)
+				.auditEventActor(AuditEventActor.builder().id("user-id").name("user").type("user").build())
+				.auditEventTarget(AuditEventTarget.builder().id(appId).name(appId + "-name").type("app").build())
+				.spaceRelationship(Relationship.builder().id("space-id").build())
+				.organizationRelationship(Relationship.builder().id("org-id").build())
+				.build();
+	}
+
+	private void respondWithEvents(AuditEventResource... events) {
+		Mockito.when(this.cfAccessorMock.retrieveRecentAuditEventsV3(Mockito.anyList(), Mockito.anyInt()))
+			.thenReturn(Mono.just(ListAuditEventsResponse.builder().resources(events).build()));
+	}
+
+	@BeforeEach
+	void setUp() {
+		this.cfAccessorMock = Mockito.mock(CFAccessor.class);
+		this.cfAccessorCacheMock = Mockito.mock(CFAccessorCache.class);
+		this.cachingTargetResolverMock = Mockito.mock(CachingTargetResolver.class);
+
+		Mockito.when(this.cfAccessorCacheMock.refreshApplicationsInSpace(Mockito.anyString())).thenReturn(Mono.empty());
+		Mockito.when(this.cfAccessorCacheMock.refreshWebProcessesForApp(Mockito.anyString())).thenReturn(Mono.empty());
+		Mockito.when(this.cfAccessorCacheMock.refreshRoutesForApp(Mockito.anyString())).thenReturn(Mono.empty());
+
+		this.subject = new AuditEventWatcher();
+		ReflectionTestUtils.setField(this.subject, "mainCFAccessor", this.cfAccessorMock);
+		ReflectionTestUtils.setField(this.subject, "cfAccessorCache", this.cfAccessorCacheMock);
+		ReflectionTestUtils.setField(this.subject, "cachingTargetResolver", this.cachingTargetResolverMock);
+		ReflectionTestUtils.setField(this.subject, "enabled", true);
+		ReflectionTestUtils.setField(this.subject, "pageSize", 3);
+	}
+
+	@Test
+	void testEventsBeforeFirstCheckAreIgnored() {
+		this.respondWithEvents(event("e1", "audit.app.start", "app1", "2024-01-02T00:00:00Z"));
+
+		this.subject.processNewEvents().block();
+
+		Mockito.verifyNoInteractions(this.cfAccessorCacheMock, this.cachingTargetResolverMock);
+	}
+
+	@Test
+	void testEventsRefreshAffectedEntriesOnly() {
+		this.respondWithEvents(event("e1", "audit.app.start", "app1", "2024-01-02T00:00:00Z"));
+		this.subject.processNewEvents().block();
+
+		this.respondWithEvents(
+				event("e3", "audit.app.process.scale", "app2", "2024-01-03T00:00:01Z"),
+				event("e2", "audit.app.map-route", "app3", "2024-01-03T00:00:00Z"),
+				event("e1", "audit.app.start", "app1", "2024-01-02T00:00:00Z"));
+		this.subject.processNewEvents().block();
+
+		Mockito.verify(this.cfAccessorCacheMock).refreshWebProcessesForApp("app2");
+		Mockito.verify(this.cfAccessorCacheMock).refreshRoutesForApp("app3");
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshApplicationsInSpace(Mockito.anyString());
+		Mockito.verifyNoInteractions(this.cachingTargetResolverMock);
+	}
+
+	@Test
+	void testApplicationEventRefreshesResolvedTargets() {
+		this.respondWithEvents();
+		this.subject.processNewEvents().block();
+
+		this.respondWithEvents(
+				event("e2", "audit.app.stop", "app1", "2024-01-03T00:00:00Z"),
+				event("e1", "audit.app.update", "app1", "2024-01-02T00:00:00Z"));
+		this.subject.processNewEvents().block();
+
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.times(1)).refreshApplicationsInSpace("space-id");
+		Mockito.verify(this.cachingTargetResolverMock, Mockito.times(1)).refreshApplication("app1", "app1-name");
+		Mockito.verify(this.cachingTargetResolverMock, Mockito.never()).invalidateCache();
+	}
+
+	@Test
+	void testTooManyEventsRefreshEverything() {
+		this.respondWithEvents();
+		this.subject.processNewEvents().block();
+
+		this.respondWithEvents(
+				event("e3", "audit.app.start", "app3", "2024-01-03T00:00:00Z"),
+				event("e2", "audit.app.start", "app2", "2024-01-02T00:00:00Z"),
+				event("e1", "audit.app.start", "app1", "2024-01-01T00:00:00Z"));
+		this.subject.processNewEvents().block();
+
+		Mockito.verify(this.cfAccessorCacheMock).refreshCacheApplication();
+		Mockito.verify(this.cfAccessorCacheMock).refreshCacheRoute();
+		Mockito.verify(this.cfAccessorCacheMock).refreshCacheProcess();
+		Mockito.verify(this.cachingTargetResolverMock).invalidateCache();
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).refreshApplicationsInSpace(Mockito.anyString());
+	}
+
+	@Test
+	void testRequestedEventTypes() {
+		this.respondWithEvents();
+		this.subject.processNewEvents().block();
+
+		Mockito.verify(this.cfAccessorMock).retrieveRecentAuditEventsV3(Mockito.argThat((List<String> types) ->
+				types.containsAll(AuditEventWatcher.APPLICATION_EVENT_TYPES) && types.contains("audit.app.process.scale") && types.contains("audit.app.map-route")),
+				Mockito.eq(3));
+	}
+}
@@ -0,0 +1,144 @@
+package org.cloudfoundry.promregator.scanner;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCache;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheSnapshot;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheSnapshot.AppsInSpaceEntry;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorCacheSnapshot.SpaceEntry;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorMock;
+import org.cloudfoundry.promregator.config.PromregatorConfiguration;
+import org.cloudfoundry.promregator.config.Target;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CacheSnapshotManagerTest {
+
+	private static final Instant NOW = Instant.parse("2024-01-02T00:00:00Z");
+
+	@TempDir
+	private Path tempDir;
+
+	private CFAccessorCache cfAccessorCacheMock;
+	private CachingTargetResolver cachingTargetResolverMock;
+	private Target configTarget;
+
+	private CacheSnapshotManager createSubject(Instant now, String apiHost) {
+		PromregatorConfiguration promregatorConfiguration = new PromregatorConfiguration();
+		promregatorConfiguration.setTargets(List.of(this.configTarget));
+
+		CacheSnapshotManager subject = new CacheSnapshotManager();
+		ReflectionTestUtils.setField(subject, "cfAccessorCache", this.cfAccessorCacheMock);
+		ReflectionTestUtils.setField(subject, "cachingTargetResolver", this.cachingTargetResolverMock);
+		ReflectionTestUtils.setField(subject, "promregatorConfiguration", promregatorConfiguration);
+		ReflectionTestUtils.setField(subject, "clock", Clock.fixed(now, ZoneOffset.UTC));
+		ReflectionTestUtils.setField(subject, "file", this.tempDir.resolve("snapshot.json.gz").toString());
+		ReflectionTestUtils.setField(subject, "maxAgeInSeconds", 3600);
+		ReflectionTestUtils.setField(subject, "apiHost", apiHost);
+		return subject;
+	}
+
+	private static Target createConfigTarget() {
+		Target t = new Target();
+		t.setOrgName("unittestorg");
+		t.setSpaceName("unittestspace");
+		t.setApplicationRegex("testapp.*");
+		t.setPath("/path");
+		return t;
+	}
+
+	@BeforeEach
+	void setUp() {
+		this.cfAccessorCacheMock = Mockito.mock(CFAccessorCache.class);
+		this.cachingTargetResolverMock = Mockito.mock(CachingTargetResolver.class);
+		this.configTarget = createConfigTarget();
+	}
+
+	private CFAccessorCacheSnapshot createCacheSnapshot() {
+		CFAccessorMock cfAccessor = new CFAccessorMock();
+		return new CFAccessorCacheSnapshot(
+				Map.of("unittestorg", cfAccessor.retrieveOrgIdV3("unittestorg").block()),
+				cfAccessor.retrieveAllOrgIdsV3().block(),
+				List.of(new SpaceEntry(CFAccessorMock.UNITTEST_ORG_UUID, "unittestspace",
+						cfAccessor.retrieveSpaceIdV3(CFAccessorMock.UNITTEST_ORG_UUID, "unittestspace").block())),
+				Map.of(CFAccessorMock.UNITTEST_ORG_UUID, cfAccessor.retrieveSpaceIdsInOrgV3(CFAccessorMock.UNITTEST_ORG_UUID).block()),
+				Map.of(CFAccessorMock.UNITTEST_ORG_UUID, cfAccessor.retrieveAllDomainsV3(CFAccessorMock.UNITTEST_ORG_UUID).block()),
+				List.of(new AppsInSpaceEntry(CFAccessorMock.UNITTEST_ORG_UUID, CFAccessorMock.UNITTEST_SPACE_UUID,
+						cfAccessor.retrieveAllApplicationsInSpaceV3(CFAccessorMock.UNITTEST_ORG_UUID, CFAccessorMock.UNITTEST_SPACE_UUID).block())),
+				Map.of(CFAccessorMock.UNITTEST_APP1_UUID, cfAccessor.retrieveRoutesForAppId(CFAccessorMock.UNITTEST_APP1_UUID).block()),
+				Map.of(CFAccessorMock.UNITTEST_APP1_UUID, cfAccessor.retrieveWebProcessesForAppId(CFAccessorMock.UNITTEST_APP1_UUID).block()));
+	}
+
+	private ResolvedTarget createResolvedTarget(Target originalTarget) {
+		ResolvedTarget rt = new ResolvedTarget(originalTarget);
+		rt.setApplicationName("testapp");
+		rt.setApplicationId(CFAccessorMock.UNITTEST_APP1_UUID);
+		return rt;
+	}
+
+	private void writeSnapshot(CFAccessorCacheSnapshot cacheSnapshot) {
+		Mockito.when(this.cfAccessorCacheMock.createSnapshot()).thenReturn(cacheSnapshot);
+		Mockito.when(this.cachingTargetResolverMock.getCachedResolutions())
+			.thenReturn(Map.of(this.configTarget, List.of(this.createResolvedTarget(this.configTarget))));
+
+		this.createSubject(NOW, "api.example.org").writeSnapshot();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testSnapshotIsRestored() {
+		CFAccessorCacheSnapshot cacheSnapshot = this.createCacheSnapshot();
+		this.writeSnapshot(cacheSnapshot);
+
+		// after a restart, the configured targets are different instances
+		this.configTarget = createConfigTarget();
+		this.createSubject(NOW.plus(Duration.ofMinutes(10)), "api.example.org").restoreSnapshot();
+
+		Mockito.verify(this.cfAccessorCacheMock).restoreSnapshot(cacheSnapshot);
+
+		ArgumentCaptor<Map<Target, List<ResolvedTarget>>> captor = ArgumentCaptor.forClass(Map.class);
+		Mockito.verify(this.cachingTargetResolverMock).restoreResolutions(captor.capture());
+
+		List<ResolvedTarget> resolvedTargets = captor.getValue().get(this.configTarget);
+		Assertions.assertEquals(List.of(this.createResolvedTarget(this.configTarget)), resolvedTargets);
+		Assertions.assertSame(this.configTarget, resolvedTargets.get(0).getOriginalTarget());
+	}
+
+	@Test
+	void testOutdatedSnapshotIsIgnored() {
+		this.writeSnapshot(this.createCacheSnapshot());
+
+		this.createSubject(NOW.plus(Duration.ofHours(2)), "api.example.org").restoreSnapshot();
+
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).restoreSnapshot(Mockito.any());
+		Mockito.verify(this.cachingTargetResolverMock, Mockito.never()).restoreResolutions(Mockito.any());
+	}
+
+	@Test
+	void testSnapshotOfOtherPlatformIsIgnored() {
+		this.writeSnapshot(this.createCacheSnapshot());
+
+		this.createSubject(NOW, "api.other.example.org").restoreSnapshot();
+
+		Mockito.verify(this.cfAccessorCacheMock, Mockito.never()).restoreSnapshot(Mockito.any());
+		Mockito.verify(this.cachingTargetResolverMock, Mockito.never()).restoreResolutions(Mockito.any());
+	}
+
+	@Test
+	void testMissingSnapshotIsIgnored() {
+		this.createSubject(NOW, "api.example.org").restoreSnapshot();
+
+		Mockito.verifyNoInteractions(this.cfAccessorCacheMock, this.cachingTargetResolverMock);
+	}
+}
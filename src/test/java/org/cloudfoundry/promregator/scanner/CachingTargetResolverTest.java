@@ -1,8 +1,10 @@
 package org.cloudfoundry.promregator.scanner;
 
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.awaitility.Awaitility;
 import org.cloudfoundry.promregator.JUnitTestUtils;
 import org.cloudfoundry.promregator.config.Target;
 import org.cloudfoundry.promregator.scanner.MockedCachingTargetResolverSpringApplication.MockedTargetResolver;
@@ -129,6 +131,40 @@ public class CachingTargetResolverTest {
 
 	}
 	
+	@Test
+	void testRefreshApplicationOnlyAffectsMatchingTargets() {
+		List<Target> list = new LinkedList<>();
+		list.add(MockedTargetResolver.target1);
+		list.add(MockedTargetResolver.target2);
+		
+		// fill the cache
+		this.cachingTargetResolver.resolveTargets(list);
+		
+		MockedTargetResolver mtr = (MockedTargetResolver) targetResolver;
+		mtr.resetRequestFlags();
+		
+		Assertions.assertEquals(1, this.cachingTargetResolver.refreshApplication("unknown-app-id", "TestApp2"));
+		
+		// the target is resolved again in the background
+		Awaitility.await().atMost(Duration.ofSeconds(10)).until(mtr::isRequestForTarget2);
+		Assertions.assertFalse(mtr.isRequestForTarget1());
+		
+		List<ResolvedTarget> actualList = this.cachingTargetResolver.resolveTargets(list);
+		Assertions.assertEquals(2, actualList.size());
+	}
+	
+	@Test
+	void testUnchangedResolutionIsReused() {
+		List<Target> list = new LinkedList<>();
+		list.add(MockedTargetResolver.target1);
+		list.add(MockedTargetResolver.targetRegex);
+		
+		List<ResolvedTarget> actualList = this.cachingTargetResolver.resolveTargets(list);
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> actualList.add(MockedTargetResolver.rTarget1));
+		
+		Assertions.assertSame(actualList, this.cachingTargetResolver.resolveTargets(list));
+	}
+	
 	@Test
 	void testRepeatedRequestIsCachedAlsoSelectively() {
 		List<Target> list = new LinkedList<>();
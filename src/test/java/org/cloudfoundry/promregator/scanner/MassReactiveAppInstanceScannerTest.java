@@ -6,8 +6,12 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
 import org.cloudfoundry.promregator.JUnitTestUtils;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessor;
+import org.cloudfoundry.promregator.cfaccessor.CFAccessorMassMock;
 import org.cloudfoundry.promregator.config.Target;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
@@ -15,6 +19,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 @SpringBootTest(classes = MockedMassReactiveAppInstanceScannerSpringApplication.class)
 @TestPropertySource(locations="default.properties")
@@ -153,6 +161,67 @@ public class MassReactiveAppInstanceScannerTest {
 		Assertions.assertTrue(d.minusSeconds(3).isNegative());
 	}
 	
+	private static List<ResolvedTarget> createTargets(int numberOfApps) {
+		List<ResolvedTarget> targets = new LinkedList<>();
+		
+		final Target emptyTarget = new Target();
+		for (int i = 0;i<numberOfApps;i++) {
+			ResolvedTarget t = new ResolvedTarget();
+			t.setOrgName("unittestorg");
+			t.setSpaceName("unittestspace");
+			t.setApplicationName("testapp"+i);
+			t.setApplicationId(UNITTEST_APP_UUID_PREFIX+i);
+			t.setPath("/testpath");
+			t.setProtocol("http");
+			t.setOriginalTarget(emptyTarget);
+			targets.add(t);
+		}
+		
+		return targets;
+	}
+	
+	@Test
+	void testTargetsAreResolvedConcurrentlyUpToMaxConcurrency() {
+		final int maxConcurrency = 4;
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+		final Sinks.Empty<Void> allPermittedInFlight = Sinks.empty();
+		
+		final CFAccessor gatedCFAccessor = new CFAccessorMassMock(10) {
+			@Override
+			public Mono<ListProcessesResponse> retrieveWebProcessesForAppId(String applicationId) {
+				// the requests are only answered, once as many targets are resolved concurrently as permitted
+				return Mono.defer(() -> {
+					final int current = inFlight.incrementAndGet();
+					maxInFlight.accumulateAndGet(current, Math::max);
+					if (current >= maxConcurrency) {
+						allPermittedInFlight.tryEmitEmpty();
+					}
+					return allPermittedInFlight.asMono()
+							.timeout(Duration.ofSeconds(10))
+							.then(super.retrieveWebProcessesForAppId(applicationId));
+				}).doFinally(signalType -> inFlight.decrementAndGet());
+			}
+		};
+		
+		final Object originalCFAccessor = ReflectionTestUtils.getField(this.appInstanceScanner, "cfAccessor");
+		final Object originalMaxConcurrency = ReflectionTestUtils.getField(this.appInstanceScanner, "maxConcurrency");
+		try {
+			ReflectionTestUtils.setField(this.appInstanceScanner, "cfAccessor", gatedCFAccessor);
+			ReflectionTestUtils.setField(this.appInstanceScanner, "maxConcurrency", maxConcurrency);
+			
+			final int numberOfApps = 20;
+			List<Instance> result = this.appInstanceScanner.determineInstancesFromTargets(createTargets(numberOfApps), null, null);
+			
+			Assertions.assertNotNull(result);
+			Assertions.assertEquals(numberOfApps*10, result.size());
+			Assertions.assertEquals(maxConcurrency, maxInFlight.get());
+		} finally {
+			ReflectionTestUtils.setField(this.appInstanceScanner, "cfAccessor", originalCFAccessor);
+			ReflectionTestUtils.setField(this.appInstanceScanner, "maxConcurrency", originalMaxConcurrency);
+		}
+	}
+	
 	@Test
 	void testPathsAreNotMixedUpIssue59() {
 		// see also https://github.com/promregator/promregator/issues/59#issuecomment-399037194
@@ -21,10 +21,10 @@ public class MockedCachingTargetResolverSpringApplication {
 		public static ResolvedTarget rTarget1;
 		public static ResolvedTarget rTarget2;
 		
-		private boolean requestForTarget1 = false;
-		private boolean requestForTarget2 = false;
-		private boolean requestForTargetAllInSpace = false;
-		private boolean requestForTargetWithRegex = false;
+		private volatile boolean requestForTarget1 = false;
+		private volatile boolean requestForTarget2 = false;
+		private volatile boolean requestForTargetAllInSpace = false;
+		private volatile boolean requestForTargetWithRegex = false;
 		
 		static {
 			target1.setOrgName("unittestorg");
@@ -2,6 +2,7 @@ package org.cloudfoundry.promregator.scanner;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.cloudfoundry.promregator.JUnitTestUtils;
 import org.cloudfoundry.promregator.cfaccessor.CFAccessor;
@@ -405,6 +406,33 @@ public class ReactiveTargetResolverTest {
 		Assertions.assertTrue(testapp3Found);
 	}
 
+	@Test
+	void testApplicationNamesOfSpaceAreRequestedAtOnce() {
+		List<Target> list = new LinkedList<>();
+		
+		Target t = new Target();
+		t.setOrgName("unittestorg");
+		t.setSpaceName("unittestspace");
+		t.setApplicationName("testapp");
+		t.setPath("path");
+		t.setProtocol("https");
+		list.add(t);
+		
+		t = new Target();
+		t.setOrgName("unittestorg");
+		t.setSpaceName("unittestspace");
+		t.setApplicationName("testapp2");
+		t.setPath("path");
+		t.setProtocol("https");
+		list.add(t);
+		
+		List<ResolvedTarget> actualList = this.targetResolver.resolveTargets(list);
+		
+		Assertions.assertEquals(2, actualList.size());
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveApplicationsInSpaceV3(CFAccessorMock.UNITTEST_ORG_UUID, CFAccessorMock.UNITTEST_SPACE_UUID, Set.of("testapp", "testapp2"));
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveAllApplicationsInSpaceV3(Mockito.anyString(), Mockito.anyString());
+	}
+
 	@Test
 	void testMissingOrgName() {
 		List<Target> list = new LinkedList<>();
@@ -643,7 +671,7 @@ public class ReactiveTargetResolverTest {
 		List<ResolvedTarget> actualList = this.targetResolver.resolveTargets(list);
 
 		Assertions.assertEquals(0, actualList.size());
-		Mockito.verify(this.cfAccessor, Mockito.times(2)).retrieveAllApplicationsInSpaceV3(CFAccessorMock.UNITTEST_ORG_UUID,
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveAllApplicationsInSpaceV3(CFAccessorMock.UNITTEST_ORG_UUID,
 																						   CFAccessorMock.UNITTEST_SPACE_UUID);
 	}
 
@@ -681,7 +709,60 @@ public class ReactiveTargetResolverTest {
 		// Overrides pathing with annotations
 		Assertions.assertEquals("/actuator/prometheus", rt.getPath());
 		Assertions.assertEquals(t.getProtocol(), rt.getProtocol());
-		Mockito.verify(this.cfAccessor, Mockito.times(5)).retrieveAllApplicationsInSpaceV3(CFAccessorMock.UNITTEST_ORG_UUID,
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveAllApplicationsInSpaceV3(CFAccessorMock.UNITTEST_ORG_UUID,
 																						   CFAccessorMock.UNITTEST_SPACE_UUID);
 	}
+
+	@Test
+	void testLabelSelector() {
+		List<Target> list = new LinkedList<>();
+
+		Target t = new Target();
+		t.setLabelSelector("team=unittest");
+		t.setApplicationRegex("testapp.*");
+		t.setPath("path");
+		t.setProtocol("https");
+		list.add(t);
+
+		List<ResolvedTarget> actualList = this.targetResolver.resolveTargets(list);
+
+		Assertions.assertEquals(3, actualList.size());
+
+		ResolvedTarget rt = actualList.get(0);
+		Assertions.assertEquals(t, rt.getOriginalTarget());
+		Assertions.assertEquals("unittestorg", rt.getOrgName());
+		Assertions.assertEquals("unittestspace", rt.getSpaceName());
+		Assertions.assertEquals("testapp", rt.getApplicationName());
+		Assertions.assertEquals(CFAccessorMock.UNITTEST_APP1_UUID, rt.getApplicationId());
+
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveApplicationsByLabelSelectorV3("team=unittest");
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveSpaceV3(CFAccessorMock.UNITTEST_SPACE_UUID);
+		Mockito.verify(this.cfAccessor, Mockito.never()).retrieveSpaceIdsInOrgV3(Mockito.anyString());
+		Mockito.verify(this.cfAccessor, Mockito.never()).retrieveSpaceIdV3(Mockito.anyString(), Mockito.anyString());
+	}
+
+	@Test
+	void testLabelSelectorRestrictedBySpaceName() {
+		List<Target> list = new LinkedList<>();
+
+		Target t = new Target();
+		t.setLabelSelector("team=unittest");
+		t.setOrgName("unittestorg");
+		t.setSpaceName("otherspace");
+		t.setPath("path");
+		t.setProtocol("https");
+		list.add(t);
+
+		t = new Target();
+		t.setLabelSelector("team=nobody");
+		t.setPath("path");
+		t.setProtocol("https");
+		list.add(t);
+
+		List<ResolvedTarget> actualList = this.targetResolver.resolveTargets(list);
+
+		Assertions.assertEquals(0, actualList.size());
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveApplicationsByLabelSelectorV3("team=unittest");
+		Mockito.verify(this.cfAccessor, Mockito.times(1)).retrieveApplicationsByLabelSelectorV3("team=nobody");
+	}
 }
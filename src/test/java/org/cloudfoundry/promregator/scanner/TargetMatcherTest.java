@@ -0,0 +1,64 @@
+package org.cloudfoundry.promregator.scanner;
+
+import java.util.List;
+import java.util.Set;
+
+import org.cloudfoundry.promregator.config.Target;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TargetMatcherTest {
+
+	private static Target target(String applicationName, String applicationRegex) {
+		Target t = new Target();
+		t.setOrgName("unittestorg");
+		t.setSpaceName("unittestspace");
+		t.setApplicationName(applicationName);
+		t.setApplicationRegex(applicationRegex);
+		return t;
+	}
+
+	@Test
+	void testExactNamesAreMatchedCaseInsensitively() {
+		Target byName = target("TestApp", null);
+		TargetMatcher subject = new TargetMatcher(List.of(byName));
+
+		Assertions.assertEquals(List.of(byName), subject.applications().match("testapp"));
+		Assertions.assertTrue(subject.applications().match("testapp2").isEmpty());
+		Assertions.assertTrue(subject.applications().matchListing("testapp").isEmpty());
+		Assertions.assertFalse(subject.applications().isListingRequiredFor(Set.of(byName)));
+	}
+
+	@Test
+	void testCombinedRegexesSelectMatchingTargetsOnly() {
+		Target first = target(null, "test.*");
+		Target second = target(null, ".*2");
+		Target all = target(null, null);
+		TargetMatcher subject = new TargetMatcher(List.of(first, second, all));
+
+		Assertions.assertEquals(List.of(all, first), subject.applications().match("TESTAPP"));
+		Assertions.assertEquals(List.of(all, first, second), subject.applications().match("testapp2"));
+		Assertions.assertEquals(List.of(all), subject.applications().match("other"));
+		Assertions.assertTrue(subject.applications().isListingRequiredFor(Set.of(first)));
+	}
+
+	@Test
+	void testBackreferencesAreEvaluatedSeparately() {
+		Target backreference = target(null, "(a)\\1");
+		Target other = target(null, "(b)c");
+		TargetMatcher subject = new TargetMatcher(List.of(backreference, other));
+
+		Assertions.assertEquals(List.of(backreference), subject.applications().match("aa"));
+		Assertions.assertEquals(List.of(other), subject.applications().match("bc"));
+		Assertions.assertTrue(subject.applications().match("ab").isEmpty());
+	}
+
+	@Test
+	void testInvalidRegexIsIgnored() {
+		Target invalid = target(null, "(");
+		Target valid = target(null, "testapp");
+		TargetMatcher subject = new TargetMatcher(List.of(invalid, valid));
+
+		Assertions.assertEquals(List.of(valid), subject.applications().match("testapp"));
+	}
+}
@@ -0,0 +1,29 @@
+package org.cloudfoundry.promregator.virtualthreads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadSupportTest {
+
+	@Test
+	void testExecutorMatchesAvailability() throws Exception {
+		ExecutorService subject = VirtualThreadSupport.newVirtualThreadPerTaskExecutor();
+		
+		if (!VirtualThreadSupport.isAvailable()) {
+			Assertions.assertNull(subject);
+			return;
+		}
+		
+		Assertions.assertNotNull(subject);
+		try {
+			Future<String> future = subject.submit(() -> Thread.currentThread().toString());
+			Assertions.assertTrue(future.get().startsWith("VirtualThread"));
+		} finally {
+			subject.shutdown();
+		}
+	}
+
+}